@@ -37,6 +37,7 @@ dependencies {
     // however it is not there in Java 9
     compileOnly("javax.activation:javax.activation-api")
 
+    implementation("com.fasterxml.jackson.core:jackson-core")
     implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("io.burt:jmespath-core")
     implementation("io.burt:jmespath-jackson")
@@ -22,6 +22,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.regex.Matcher;
 
 import org.apache.jmeter.engine.event.LoopIterationEvent;
 import org.apache.jmeter.engine.event.LoopIterationListener;
@@ -29,6 +30,7 @@ import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.regex.StringSubstitution;
 import org.apache.oro.text.regex.Util;
 
@@ -155,11 +157,18 @@ public class CompareAssertion extends AbstractTestElement implements Assertion,
         }
 
         String result = content;
+        boolean javaEngine = RegexService.getEngine() == RegexService.Engine.JAVA;
         for (SubstitutionElement regex : stringsToSkip) {
+            if (javaEngine) {
+                result = RegexService.compile(regex.getRegex())
+                        .matcher(result)
+                        .replaceAll(Matcher.quoteReplacement(regex.getSubstitute()));
+                continue;
+            }
             emptySub.setSubstitution(regex.getSubstitute());
             result = Util.substitute(
                     JMeterUtils.getMatcher(),
-                    JMeterUtils.getPatternCache().getPattern(regex.getRegex()),
+                    RegexService.getPatternCache().getPattern(regex.getRegex()),
                     emptySub,
                     result,
                     Util.SUBSTITUTE_ALL);
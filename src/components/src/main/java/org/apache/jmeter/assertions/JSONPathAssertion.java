@@ -22,10 +22,12 @@ import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.Map;
 
+import org.apache.jmeter.extractor.json.jsonpath.JSONManager;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.ThreadListener;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,8 +109,8 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
         return getPropertyAsBoolean(ISREGEX, true);
     }
 
-    private void doAssert(String jsonString) {
-        Object value = JsonPath.read(jsonString, getJsonPath());
+    private void doAssert(SampleResult samplerResult) {
+        Object value = JsonPath.read(JSONManager.getJsonDocument(samplerResult), getJsonPath());
 
         if (!isJsonValidationBool()) {
             return;
@@ -157,8 +159,16 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
     private boolean isEquals(Object subj) {
         String str = objectToString(subj);
         if (isUseRegex()) {
-            Pattern pattern = JMeterUtils.getPatternCache().getPattern(getExpectedValue());
-            return JMeterUtils.getMatcher().matches(str, pattern);
+            boolean matches;
+            RegexService.Engine engine = RegexService.getEngine();
+            if (engine == RegexService.Engine.JAVA) {
+                matches = RegexService.compile(getExpectedValue()).matcher(str).matches();
+            } else {
+                Pattern pattern = RegexService.getPatternCache().getPattern(getExpectedValue());
+                matches = JMeterUtils.getMatcher().matches(str, pattern);
+            }
+            RegexService.recordMatch(engine, matches);
+            return matches;
         } else {
             return str.equals(getExpectedValue());
         }
@@ -177,7 +187,7 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
 
         if (!isInvert()) {
             try {
-                doAssert(responseData);
+                doAssert(samplerResult);
             } catch (Exception e) {
                 log.debug("Assertion failed", e);
                 result.setFailure(true);
@@ -185,7 +195,7 @@ public class JSONPathAssertion extends AbstractTestElement implements Serializab
             }
         } else {
             try {
-                doAssert(responseData);
+                doAssert(samplerResult);
                 result.setFailure(true);
                 if (isJsonValidationBool()) {
                     if (isExpectNull()) {
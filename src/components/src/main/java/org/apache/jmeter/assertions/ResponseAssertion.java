@@ -22,6 +22,7 @@ import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -35,6 +36,7 @@ import org.apache.jmeter.testelement.property.NullProperty;
 import org.apache.jmeter.testelement.property.StringProperty;
 import org.apache.jmeter.util.Document;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.Pattern;
 import org.apache.oro.text.regex.Perl5Compiler;
@@ -306,7 +308,6 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
         boolean contains = isContainsType(); // do it once outside loop
         boolean equals = isEqualsType();
         boolean substring = isSubstringType();
-        boolean matches = isMatchType();
 
         log.debug("Test Type Info: contains={}, notTest={}, orTest={}", contains, notTest, orTest);
 
@@ -323,23 +324,24 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
         try {
             // Get the Matcher for this thread
             Perl5Matcher localMatcher = JMeterUtils.getMatcher();
+            RegexService.Engine engine = RegexService.getEngine();
             boolean hasTrue = false;
             List<String> allCheckMessage = new ArrayList<>();
             for (JMeterProperty jMeterProperty : getTestStrings()) {
                 String stringPattern = jMeterProperty.getStringValue();
-                Pattern pattern = null;
-                if (contains || matches) {
-                    pattern = JMeterUtils.getPatternCache().getPattern(stringPattern, Perl5Compiler.READ_ONLY_MASK);
-                }
                 boolean found;
-                if (contains) {
-                    found = localMatcher.contains(toCheck, pattern);
-                } else if (equals) {
+                if (equals) {
                     found = toCheck.equals(stringPattern);
                 } else if (substring) {
                     found = toCheck.contains(stringPattern);
+                } else if (engine == RegexService.Engine.JAVA) {
+                    java.util.regex.Matcher matcher = RegexService.compile(stringPattern).matcher(toCheck);
+                    found = contains ? matcher.find() : matcher.matches();
+                    RegexService.recordMatch(engine, found);
                 } else {
-                    found = localMatcher.matches(toCheck, pattern);
+                    Pattern pattern = RegexService.getPatternCache().getPattern(stringPattern, Perl5Compiler.READ_ONLY_MASK);
+                    found = contains ? localMatcher.contains(toCheck, pattern) : localMatcher.matches(toCheck, pattern);
+                    RegexService.recordMatch(engine, found);
                 }
                 boolean pass = notTest ? !found : found;
                 if (orTest) {
@@ -376,7 +378,7 @@ public class ResponseAssertion extends AbstractScopedAssertion implements Serial
                     result.setFailureMessage(customMsg);
                 }
             }
-        } catch (MalformedCachePatternException e) {
+        } catch (MalformedCachePatternException | PatternSyntaxException e) {
             result.setError(true);
             result.setFailure(false);
             result.setFailureMessage("Bad test configuration " + e);
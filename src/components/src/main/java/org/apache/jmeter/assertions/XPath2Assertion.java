@@ -67,8 +67,13 @@ public class XPath2Assertion extends AbstractScopedAssertion implements Serializ
             return result.setResultForNull();
         }
         try {
-            XPathUtil.computeAssertionResultUsingSaxon(result, responseData, getXPathString(),
-                    getNamespaces(),isNegated());
+            if (isScopeVariable()) {
+                XPathUtil.computeAssertionResultUsingSaxon(result, responseData, getXPathString(),
+                        getNamespaces(),isNegated());
+            } else {
+                XPathUtil.computeAssertionResultUsingSaxon(result, XPathUtil.getXdmNode(response), getXPathString(),
+                        getNamespaces(),isNegated());
+            }
         } catch (CompletionException|SaxonApiException e) { // NOSONAR We handle exception within result failure message
             result.setError(true);
             // CompletionException happens if caching fails
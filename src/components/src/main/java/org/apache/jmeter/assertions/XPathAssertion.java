@@ -96,11 +96,18 @@ public class XPathAssertion extends AbstractScopedAssertion implements Serializa
                 log.debug("Validation is set to {}, Whitespace is set to {}, Tolerant is set to {}", isValidating(),
                     isWhitespace(), isTolerant());
             }
-            boolean isXML = JOrphanUtils.isXML(responseData);
-
-            doc = XPathUtil.makeDocument(new ByteArrayInputStream(responseData), isValidating(),
-                    isWhitespace(), isNamespace(), isTolerant(), isQuiet(), showWarnings() , reportErrors(), isXML
-                    , isDownloadDTDs());
+            if (isScopeVariable()) {
+                doc = parseResponse(responseData);
+            } else {
+                // share the document with the other XPath Assertions of the sample using the same options
+                String kind = "xpath.assertion.dom:" + isValidating() + isWhitespace() + isNamespace() // $NON-NLS-1$
+                        + isTolerant() + isQuiet() + showWarnings() + reportErrors() + isDownloadDTDs();
+                doc = (Document) response.getParsedResponse(kind);
+                if (doc == null) {
+                    doc = parseResponse(responseData);
+                    response.setParsedResponse(kind, doc);
+                }
+            }
         } catch (SAXException e) {
             log.debug("Caught sax exception.", e);
             result.setError(true);
@@ -131,6 +138,14 @@ public class XPathAssertion extends AbstractScopedAssertion implements Serializa
         return result;
     }
 
+    private Document parseResponse(byte[] responseData)
+            throws ParserConfigurationException, SAXException, IOException, TidyException {
+        boolean isXML = JOrphanUtils.isXML(responseData);
+        return XPathUtil.makeDocument(new ByteArrayInputStream(responseData), isValidating(),
+                isWhitespace(), isNamespace(), isTolerant(), isQuiet(), showWarnings() , reportErrors(), isXML
+                , isDownloadDTDs());
+    }
+
     /**
      * Get The XPath String that will be used in matching the document
      *
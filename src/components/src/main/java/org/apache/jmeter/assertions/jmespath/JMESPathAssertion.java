@@ -27,6 +27,7 @@ import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,13 +64,13 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
      * with the JMESPath query result
      *
      * @param assertionResult          {@link AssertionResult}
-     * @param responseDataAsJsonString the response data from the sender
+     * @param samplerResult            the sample whose response data is checked
      * @throws Exception
      */
-    private void doAssert(AssertionResult assertionResult, String responseDataAsJsonString, boolean invert)
+    private void doAssert(AssertionResult assertionResult, SampleResult samplerResult, boolean invert)
             throws Exception {
-        // cast the response data to JsonNode
-        JsonNode input = OBJECT_MAPPER.readValue(responseDataAsJsonString, JsonNode.class);
+        // cast the response data to JsonNode, shared with the other JMESPath elements of the sample
+        JsonNode input = JMESPathCache.getJsonNode(samplerResult);
         // get the JMESPath expression from the cache
         // if it does not exist, compile it.
         // Expression does not compile if JMESPath expression is empty or null
@@ -77,7 +78,7 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
         // get the result from the JMESPath query
         JsonNode currentValue = expression.search(input);
         log.debug("JMESPath query {} invoked on response {}. Query result is {}. ", expression,
-                responseDataAsJsonString, currentValue);
+                samplerResult.getResponseDataAsString(), currentValue);
         boolean success = checkResult(OBJECT_MAPPER, currentValue);
         if (!invert) {
             if (!success) {
@@ -156,7 +157,7 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
         result.setFailureMessage("");
 
         try {
-            doAssert(result, responseData, isInvert());
+            doAssert(result, samplerResult, isInvert());
         } catch (Exception e) {
             if (!isInvert()) {
                 result.setError(true);
@@ -177,8 +178,16 @@ public class JMESPathAssertion extends AbstractTestElement implements Serializab
     private boolean isEquals(ObjectMapper mapper, JsonNode jsonNode) throws JsonProcessingException {
         String str = objectToString(mapper, jsonNode);
         if (isUseRegex()) {
-            Pattern pattern = JMeterUtils.getPatternCache().getPattern(getExpectedValue());
-            return JMeterUtils.getMatcher().matches(str, pattern);
+            boolean matches;
+            RegexService.Engine engine = RegexService.getEngine();
+            if (engine == RegexService.Engine.JAVA) {
+                matches = RegexService.compile(getExpectedValue()).matcher(str).matches();
+            } else {
+                Pattern pattern = RegexService.getPatternCache().getPattern(getExpectedValue());
+                matches = JMeterUtils.getMatcher().matches(str, pattern);
+            }
+            RegexService.recordMatch(engine, matches);
+            return matches;
         } else {
             return str.equals(getExpectedValue());
         }
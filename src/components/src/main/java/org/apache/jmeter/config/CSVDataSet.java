@@ -21,6 +21,7 @@ package org.apache.jmeter.config;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
+import java.io.EOFException;
 import java.io.IOException;
 import java.util.ResourceBundle;
 
@@ -30,6 +31,8 @@ import org.apache.jmeter.engine.event.LoopIterationListener;
 import org.apache.jmeter.engine.util.NoConfigMerge;
 import org.apache.jmeter.gui.GUIMenuSortOrder;
 import org.apache.jmeter.save.CSVSaveService;
+import org.apache.jmeter.services.CSVFileIndex;
+import org.apache.jmeter.services.DataPool;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.testbeans.gui.GenericTestBeanCustomizer;
@@ -67,6 +70,14 @@ import org.slf4j.LoggerFactory;
  * Or the user can provide their own suffix, in which case the file is shared between all
  * threads with the same suffix.
  *
+ * Unless the property csvdataset.indexed is false, the file is memory-mapped and indexed
+ * once, and each alias gets a cursor over its records, so that threads read lines without locking.
+ * Files whose encoding or size prevent indexing are read line by line through the FileServer.
+ *
+ * If a Data Pool Config registers a pool whose name is the filename, the rows of the pool
+ * are read instead, in the access mode of the pool. The pool is shared by all threads
+ * whatever the shareMode, and its column names are used if variable names are empty.
+ *
  */
 @GUIMenuSortOrder(1)
 public class CSVDataSet extends ConfigTestElement
@@ -78,6 +89,9 @@ public class CSVDataSet extends ConfigTestElement
     private static final String EOFVALUE = // value to return at EOF
         JMeterUtils.getPropDefault("csvdataset.eofstring", "<EOF>"); //$NON-NLS-1$ //$NON-NLS-2$
 
+    private static final boolean INDEXED =
+        JMeterUtils.getPropDefault("csvdataset.indexed", true); //$NON-NLS-1$
+
     private transient String filename;
 
     private transient String fileEncoding;
@@ -96,6 +110,10 @@ public class CSVDataSet extends ConfigTestElement
 
     private transient String alias;
 
+    private transient CSVFileIndex.Cursor cursor;
+
+    private transient DataPool pool;
+
     private transient String shareMode;
 
     private boolean firstLineIsNames = false;
@@ -185,8 +203,17 @@ public class CSVDataSet extends ConfigTestElement
                     break;
             }
             final String names = getVariableNames();
-            if (StringUtils.isEmpty(names)) {
-                String header = server.reserveFile(fileName, getFileEncoding(), alias, true);
+            pool = DataPool.getPool(fileName);
+            if (pool == null && INDEXED) {
+                cursor = server.reserveIndexedFile(fileName, getFileEncoding(), alias, getQuotedData(),
+                        StringUtils.isEmpty(names) || ignoreFirstLine);
+            }
+            if (pool != null) {
+                vars = StringUtils.isEmpty(names) ? pool.getColumnNames()
+                        : JOrphanUtils.split(names, ","); // $NON-NLS-1$
+            } else if (StringUtils.isEmpty(names)) {
+                String header = cursor != null ? getHeader(cursor.getIndex())
+                        : server.reserveFile(fileName, getFileEncoding(), alias, true);
                 try {
                     vars = CSVSaveService.csvSplitString(header, delim.charAt(0));
                     firstLineIsNames = true;
@@ -194,7 +221,9 @@ public class CSVDataSet extends ConfigTestElement
                     throw new IllegalArgumentException("Could not split CSV header line from file:" + fileName,e);
                 }
             } else {
-                server.reserveFile(fileName, getFileEncoding(), alias, ignoreFirstLine);
+                if (cursor == null) {
+                    server.reserveFile(fileName, getFileEncoding(), alias, ignoreFirstLine);
+                }
                 vars = JOrphanUtils.split(names, ","); // $NON-NLS-1$
             }
             trimVarNames(vars);
@@ -204,7 +233,12 @@ public class CSVDataSet extends ConfigTestElement
         JMeterVariables threadVars = context.getVariables();
         String[] lineValues = {};
         try {
-            if (getQuotedData()) {
+            if (pool != null) {
+                DataPool.Row row = pool.next(recycle);
+                lineValues = row == null ? new String[0] : row.toArray();
+            } else if (cursor != null) {
+                lineValues = readRecord(delim);
+            } else if (getQuotedData()) {
                 lineValues = server.getParsedLine(alias, recycle,
                         firstLineIsNames || ignoreFirstLine, delim.charAt(0));
             } else {
@@ -229,6 +263,34 @@ public class CSVDataSet extends ConfigTestElement
         }
     }
 
+    private static String getHeader(CSVFileIndex index) {
+        if (index.getRecordCount() == 0) {
+            throw new IllegalArgumentException("Could not read file header line for file " + index.getFile(),
+                    new EOFException("File is empty: " + index.getFile()));
+        }
+        return index.getRecord(0);
+    }
+
+    /**
+     * Read and split the next record of the cursor
+     * @param delim delimiter of the values
+     * @return the values of the record, empty at the end of the file
+     * @throws IOException if the quoted record can not be parsed
+     */
+    private String[] readRecord(String delim) throws IOException {
+        String record = cursor.nextRecord(recycle);
+        if (record == null) {
+            return new String[0];
+        }
+        if (!getQuotedData()) {
+            return JOrphanUtils.split(record, delim, false);
+        }
+        if (record.isEmpty()) {
+            return new String[] { "" }; // an empty line is an empty value, not the end of the file
+        }
+        return CSVSaveService.csvSplitString(record, delim.charAt(0));
+    }
+
     /**
      * trim content of array varNames
      * @param varsNames
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.config;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.gui.GUIMenuSortOrder;
+import org.apache.jmeter.services.DataPool;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jorphan.util.JMeterStopTestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load a delimited file once at the start of the test in a {@link DataPool}
+ * registered under the name of the pool.
+ * <p>
+ * The rows of the pool are shared by all threads, and can be read:
+ * <ul>
+ * <li>by a CSV Data Set whose filename is the name of the pool</li>
+ * <li>by the {@code __CSVRead} function, using the name of the pool as file name</li>
+ * <li>by scripts, using {@link DataPool#getPool(String)}</li>
+ * </ul>
+ * @since 5.2
+ */
+@GUIMenuSortOrder(2)
+public class DataPoolConfig extends ConfigTestElement implements TestBean, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log = LoggerFactory.getLogger(DataPoolConfig.class);
+
+    private transient String poolName;
+
+    private transient String filename;
+
+    private transient String fileEncoding;
+
+    private transient String delimiter;
+
+    private transient boolean quotedData;
+
+    private transient boolean firstLineIsHeader = true;
+
+    private transient String accessMode;
+
+    private Object readResolve(){
+        firstLineIsHeader = true;
+        return this;
+    }
+
+    @Override
+    public void testStarted() {
+        testStarted(null);
+    }
+
+    @Override
+    public void testStarted(String host) {
+        String name = StringUtils.defaultIfEmpty(getPoolName(), getFilename()).trim();
+        String delim = getDelimiter();
+        if ("\\t".equals(delim)) { // $NON-NLS-1$
+            delim = "\t";// Make it easier to enter a Tab // $NON-NLS-1$
+        } else if (StringUtils.isEmpty(delim)) {
+            delim = ","; // $NON-NLS-1$
+        }
+        DataPool.AccessMode mode = DataPoolConfigBeanInfo.getAccessMode(getAccessMode());
+        try {
+            DataPool pool = DataPool.load(FileServer.getFileServer().getResolvedFile(getFilename().trim()),
+                    getFileEncoding(), delim, getQuotedData(), getFirstLineIsHeader(), mode);
+            DataPool.register(name, pool);
+            log.info("Registered data pool {} ({} rows, access mode {})", name, pool.getRowCount(), mode);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JMeterStopTestException("Could not load data pool " + name + " from " + getFilename(), e);
+        }
+    }
+
+    @Override
+    public void testEnded() {
+        testEnded(null);
+    }
+
+    @Override
+    public void testEnded(String host) {
+        DataPool.unregister(StringUtils.defaultIfEmpty(getPoolName(), getFilename()).trim());
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getFileEncoding() {
+        return fileEncoding;
+    }
+
+    public void setFileEncoding(String fileEncoding) {
+        this.fileEncoding = fileEncoding;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(String delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public boolean getQuotedData() {
+        return quotedData;
+    }
+
+    public void setQuotedData(boolean quotedData) {
+        this.quotedData = quotedData;
+    }
+
+    public boolean getFirstLineIsHeader() {
+        return firstLineIsHeader;
+    }
+
+    public void setFirstLineIsHeader(boolean firstLineIsHeader) {
+        this.firstLineIsHeader = firstLineIsHeader;
+    }
+
+    public String getAccessMode() {
+        return accessMode;
+    }
+
+    public void setAccessMode(String accessMode) {
+        this.accessMode = accessMode;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.config;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.services.DataPool;
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.FileEditor;
+import org.apache.jmeter.testbeans.gui.TypeEditor;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.util.JOrphanUtils;
+
+public class DataPoolConfigBeanInfo extends BeanInfoSupport {
+
+    // These names must agree case-wise with the variable and property names
+    private static final String POOL_NAME = "poolName";              //$NON-NLS-1$
+    private static final String FILENAME = "filename";               //$NON-NLS-1$
+    private static final String FILE_ENCODING = "fileEncoding";      //$NON-NLS-1$
+    private static final String FIRST_LINE_IS_HEADER = "firstLineIsHeader"; //$NON-NLS-1$
+    private static final String DELIMITER = "delimiter";             //$NON-NLS-1$
+    private static final String QUOTED_DATA = "quotedData";          //$NON-NLS-1$
+    private static final String ACCESS_MODE = "accessMode";          //$NON-NLS-1$
+
+    // Store the resource keys, in the order of DataPool.AccessMode
+    private static final String[] ACCESS_TAGS = {
+            "accessMode.sequential", //$NON-NLS-1$
+            "accessMode.random", //$NON-NLS-1$
+            "accessMode.unique", //$NON-NLS-1$
+    };
+
+    public DataPoolConfigBeanInfo() {
+        super(DataPoolConfig.class);
+
+        createPropertyGroup("data_pool",             //$NON-NLS-1$
+                new String[] { POOL_NAME, FILENAME, FILE_ENCODING, FIRST_LINE_IS_HEADER,
+                        DELIMITER, QUOTED_DATA, ACCESS_MODE });
+
+        PropertyDescriptor p = property(POOL_NAME);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");        //$NON-NLS-1$
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+
+        p = property(FILENAME);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");        //$NON-NLS-1$
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        p.setPropertyEditorClass(FileEditor.class);
+
+        p = property(FILE_ENCODING, TypeEditor.ComboStringEditor);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");        //$NON-NLS-1$
+        p.setValue(TAGS, JOrphanUtils.split(
+                JMeterUtils.getPropDefault("csvdataset.file.encoding_list", ""), "|")); //$NON-NLS-1$
+
+        p = property(FIRST_LINE_IS_HEADER);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.TRUE);
+
+        p = property(DELIMITER);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, ",");        //$NON-NLS-1$
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+
+        p = property(QUOTED_DATA);
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+
+        p = property(ACCESS_MODE, TypeEditor.ComboStringEditor);
+        p.setValue(RESOURCE_BUNDLE, getBeanDescriptor().getValue(RESOURCE_BUNDLE));
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, ACCESS_TAGS[0]);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        p.setValue(TAGS, ACCESS_TAGS.clone());
+    }
+
+    /**
+     * @param tag resource key of the access mode
+     * @return the access mode, {@link DataPool.AccessMode#SEQUENTIAL} if the tag is unknown
+     */
+    static DataPool.AccessMode getAccessMode(String tag) {
+        for (int i = 0; i < ACCESS_TAGS.length; i++) {
+            if (ACCESS_TAGS[i].equals(tag)) {
+                return DataPool.AccessMode.values()[i];
+            }
+        }
+        return DataPool.AccessMode.SEQUENTIAL;
+    }
+}
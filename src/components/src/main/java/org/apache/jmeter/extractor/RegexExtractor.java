@@ -22,6 +22,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.jmeter.processor.PostProcessor;
@@ -32,6 +34,7 @@ import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.jmeter.util.Document;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.MatchResult;
 import org.apache.oro.text.regex.Pattern;
@@ -83,6 +86,21 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
 
     private transient List<Object> template;
 
+    /**
+     * Finds the matches of the regular expression in a string
+     */
+    @FunctionalInterface
+    private interface MatchFinder {
+        /**
+         * @param matchNumber number of the match to find, 0 or less to find all of them
+         * @param matches     the matches found so far, to which the new matches are added
+         * @param found       number of matches found so far
+         * @param inputString string in which the matches are looked for
+         * @return the number of matches found so far
+         */
+        int find(int matchNumber, List<MatchResult> matches, int found, String inputString);
+    }
+
     /**
      * Parses the response data using regular expressions and saving the results
      * into variables for use later in the test.
@@ -113,8 +131,16 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
         String regex = getRegex();
         Pattern pattern = null;
         try {
-            pattern = JMeterUtils.getPatternCache().getPattern(regex, Perl5Compiler.READ_ONLY_MASK);
-            List<MatchResult> matches = processMatches(pattern, regex, previousResult, matchNumber, vars);
+            MatchFinder finder;
+            if (RegexService.getEngine() == RegexService.Engine.JAVA) {
+                java.util.regex.Pattern javaPattern = RegexService.compile(regex);
+                finder = (number, matches, found, input) -> matchStrings(number, javaPattern, matches, found, input);
+            } else {
+                Pattern oroPattern = RegexService.getPatternCache().getPattern(regex, Perl5Compiler.READ_ONLY_MASK);
+                pattern = oroPattern;
+                finder = (number, matches, found, input) -> matchStrings(number, matcher, oroPattern, matches, found, input);
+            }
+            List<MatchResult> matches = processMatches(finder, regex, previousResult, matchNumber, vars);
             int prevCount = 0;
             String prevString = vars.get(refName + REF_MATCH_NR);
             if (prevString != null) {
@@ -160,7 +186,7 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
             } catch (RuntimeException e) {
                 log.warn("Error while generating result");
             }
-        } catch (MalformedCachePatternException e) {
+        } catch (MalformedCachePatternException | PatternSyntaxException e) {
             log.error("Error in pattern: '{}'", regex);
         } finally {
             JMeterUtils.clearMatcherMemory(matcher, pattern);
@@ -181,10 +207,9 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
        return inputString;
     }
 
-    private List<MatchResult> processMatches(Pattern pattern, String regex, SampleResult result, int matchNumber, JMeterVariables vars) {
+    private List<MatchResult> processMatches(MatchFinder finder, String regex, SampleResult result, int matchNumber, JMeterVariables vars) {
         log.debug("Regex = '{}'", regex);
 
-        Perl5Matcher matcher = JMeterUtils.getMatcher();
         List<MatchResult> matches = new ArrayList<>();
         int found = 0;
 
@@ -197,14 +222,12 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
                 }
                 return Collections.emptyList();
             }
-            matchStrings(matchNumber, matcher, pattern, matches, found,
-                    inputString);
+            finder.find(matchNumber, matches, found, inputString);
         } else {
             List<SampleResult> sampleList = getSampleList(result);
             for (SampleResult sr : sampleList) {
                 String inputString = getInputString(sr);
-                found = matchStrings(matchNumber, matcher, pattern, matches, found,
-                        inputString);
+                found = finder.find(matchNumber, matches, found, inputString);
                 if (matchNumber > 0 && found == matchNumber){// no need to process further
                     break;
                 }
@@ -216,6 +239,7 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
     private int matchStrings(int matchNumber, Perl5Matcher matcher,
             Pattern pattern, List<MatchResult> matches, int found,
             String inputString) {
+        int previouslyFound = found;
         PatternMatcherInput input = new PatternMatcherInput(inputString);
         while (matchNumber <=0 || found != matchNumber) {
             if (matcher.contains(input, pattern)) {
@@ -226,6 +250,20 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
                 break;
             }
         }
+        RegexService.recordMatch(RegexService.Engine.ORO, found > previouslyFound);
+        return found;
+    }
+
+    private int matchStrings(int matchNumber, java.util.regex.Pattern pattern,
+            List<MatchResult> matches, int found, String inputString) {
+        int previouslyFound = found;
+        Matcher matcher = pattern.matcher(inputString);
+        while ((matchNumber <= 0 || found != matchNumber) && matcher.find()) {
+            log.debug("RegexExtractor: Match found!");
+            matches.add(RegexService.toMatchResult(matcher.toMatchResult()));
+            found++;
+        }
+        RegexService.recordMatch(RegexService.Engine.JAVA, found > previouslyFound);
         return found;
     }
 
@@ -312,7 +350,7 @@ public class RegexExtractor extends AbstractScopedTestElement implements PostPro
         List<Object> combined = new ArrayList<>();
         String rawTemplate = getTemplate();
         PatternMatcher matcher = JMeterUtils.getMatcher();
-        Pattern templatePattern = JMeterUtils.getPatternCache().getPattern("\\$(\\d+)\\$"  // $NON-NLS-1$
+        Pattern templatePattern = RegexService.getPatternCache().getPattern("\\$(\\d+)\\$"  // $NON-NLS-1$
                 , Perl5Compiler.READ_ONLY_MASK
                 & Perl5Compiler.SINGLELINE_MASK);
         if (log.isDebugEnabled()) {
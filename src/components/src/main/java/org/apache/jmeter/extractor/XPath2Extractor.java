@@ -129,7 +129,8 @@ public class XPath2Extractor
                 List<SampleResult> samples = getSampleList(previousResult);
                 int size = samples.size();
                 for(int i = 0;i<size;i++) {
-                    getValuesForXPath(getXPathQuery(), matches, matchNumber,previousResult.getResponseDataAsString());
+                    XPathUtil.putValuesForXPathInListUsingSaxon(XPathUtil.getXdmNode(samples.get(i)),
+                            getXPathQuery(), matches, getFragment(), matchNumber, getNamespaces());
                 }
             }
             final int matchCount = matches.size();
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
 
 import org.apache.jmeter.assertions.AssertionResult;
@@ -36,6 +37,8 @@ import org.apache.jmeter.testelement.property.BooleanProperty;
 import org.apache.jmeter.testelement.property.IntegerProperty;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.StreamingXPath;
 import org.apache.jmeter.util.TidyException;
 import org.apache.jmeter.util.XPathUtil;
 import org.apache.jorphan.util.JMeterError;
@@ -69,6 +72,10 @@ public class XPathExtractor extends AbstractScopedTestElement implements
 
     private static final long serialVersionUID = 242L;
 
+    /** Whether simple location paths are evaluated on the StAX events of the response, see {@link StreamingXPath} */
+    private static final boolean STREAMING =
+            JMeterUtils.getPropDefault("xpath.extractor.streaming", true); // $NON-NLS-1$
+
     private static final int DEFAULT_VALUE = -1;
     public static final String DEFAULT_VALUE_AS_STRING = Integer.toString(DEFAULT_VALUE);
 
@@ -143,8 +150,10 @@ public class XPathExtractor extends AbstractScopedTestElement implements
             } else {
                 List<SampleResult> samples = getSampleList(previousResult);
                 for (SampleResult res : samples) {
-                    Document d = parseResponse(res.getResponseDataAsString());
-                    getValuesForXPath(d,getXPathQuery(), matches, matchNumber);
+                    if (!putValuesStreaming(res, getXPathQuery(), matches, matchNumber)) {
+                        Document d = parseResponse(res);
+                        getValuesForXPath(d,getXPathQuery(), matches, matchNumber);
+                    }
                 }
             }
             final int matchCount = matches.size();
@@ -286,6 +295,55 @@ public class XPathExtractor extends AbstractScopedTestElement implements
     }
 
     /*================= internal business =================*/
+    /**
+     * Parse the response of a sample, sharing the document with the other XPath
+     * extractors of the sample which use the same parsing options
+     */
+    private Document parseResponse(SampleResult result)
+      throws IOException, ParserConfigurationException,SAXException,TidyException
+    {
+      String kind = getParsedResponseKind();
+      Document d = (Document) result.getParsedResponse(kind);
+      if (d == null) {
+          d = parseResponse(result.getResponseDataAsString());
+          result.setParsedResponse(kind, d);
+      }
+      return d;
+    }
+
+    private String getParsedResponseKind() {
+      return "xpath.dom:" + useNameSpace() + isTolerant() + isQuiet() // $NON-NLS-1$
+              + showWarnings() + reportErrors() + isDownloadDTDs();
+    }
+
+    /**
+     * Evaluate simple location paths on the StAX events of the response,
+     * without building its document
+     *
+     * @return false if the query must be evaluated on the document
+     */
+    private boolean putValuesStreaming(SampleResult result, String query, List<String> matchStrings, int matchNumber) {
+      if (!STREAMING || isTolerant() || result.getParsedResponse(getParsedResponseKind()) != null) {
+          return false;
+      }
+      StreamingXPath streamingXPath = StreamingXPath.compile(query);
+      if (streamingXPath == null || (getFragment() && streamingXPath.selectsElements())) {
+          return false;
+      }
+      List<String> values = new ArrayList<>();
+      try {
+          // same UTF-8 data as parseResponse
+          streamingXPath.putValues(result.getResponseDataAsString().getBytes(StandardCharsets.UTF_8),
+                  useNameSpace(), values, matchNumber);
+      } catch (XMLStreamException e) {
+          // the document reports the error, if any
+          log.debug("Could not stream XPath {}, building the document: {}", query, e.getLocalizedMessage());
+          return false;
+      }
+      matchStrings.addAll(values);
+      return true;
+    }
+
     /**
      * Converts (X)HTML response to DOM object Tree.
      * This version cares of charset of response.
@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.extractor.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Path made of property, index and wildcard steps, evaluated on the stream of
+ * JSON tokens of a response instead of on a tree of the whole response.
+ * <p>
+ * Only the matched values are read, and the evaluation stops once the
+ * requested number of values is matched. It handles the subset of
+ * JSON Path ({@code $.a.b[0]['c'][*].*}) and JMESPath ({@code a.b[0]."c"})
+ * expressions which only select values, other expressions must be evaluated
+ * on the tree.
+ *
+ * @since 5.2
+ */
+public final class StreamingJsonPath {
+
+    /**
+     * Reads a matched value
+     *
+     * @param <T> type of the values
+     */
+    @FunctionalInterface
+    public interface ValueReader<T> {
+        /**
+         * @param parser parser on the first token of the value, to be left on its last token
+         * @return the value
+         * @throws IOException when the value can not be read
+         */
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /** Responses smaller than this number of bytes are evaluated on the tree */
+    private static final int STREAMING_THRESHOLD =
+            JMeterUtils.getPropDefault("json.extractor.streaming_threshold", 1024 * 1024); // $NON-NLS-1$
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Index of the steps selecting all the properties or elements */
+    private static final int WILDCARD = -1;
+
+    /** Name of the property selected by each step, null for the index and wildcard steps */
+    private final String[] names;
+
+    /** Index of the element selected by each step, or {@link #WILDCARD} */
+    private final int[] indexes;
+
+    private StreamingJsonPath(List<String> names, List<Integer> indexes) {
+        this.names = names.toArray(new String[0]);
+        this.indexes = new int[indexes.size()];
+        for (int i = 0; i < this.indexes.length; i++) {
+            this.indexes[i] = indexes.get(i);
+        }
+    }
+
+    /**
+     * @param result sample
+     * @return true if the response of the sample is large enough to be evaluated on its stream of tokens
+     */
+    public static boolean isStreamable(SampleResult result) {
+        if (result == null || STREAMING_THRESHOLD < 0) {
+            return false;
+        }
+        int length = result.getResponseData().length;
+        return length > 0 && length >= STREAMING_THRESHOLD;
+    }
+
+    /**
+     * @param expression JSON Path expression
+     * @return the path, or null if the expression is not handled
+     */
+    public static StreamingJsonPath compileJsonPath(String expression) {
+        String path = expression;
+        if (!path.startsWith("$")) { // $NON-NLS-1$
+            if (path.startsWith("@")) { // $NON-NLS-1$
+                return null;
+            }
+            // same as JsonPath.compile
+            path = "$." + path; // $NON-NLS-1$
+        }
+        List<String> names = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                String name = path.substring(i + 1, end);
+                if ("*".equals(name)) { // $NON-NLS-1$
+                    addStep(names, indexes, null, WILDCARD);
+                } else if (isPlainName(name)) {
+                    addStep(names, indexes, name, WILDCARD);
+                } else {
+                    // deep scan, function...
+                    return null;
+                }
+                i = end;
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0) {
+                    return null;
+                }
+                String selector = path.substring(i + 1, end);
+                int index = parseIndex(selector);
+                if ("*".equals(selector)) { // $NON-NLS-1$
+                    addStep(names, indexes, null, WILDCARD);
+                } else if (index >= 0) {
+                    addStep(names, indexes, null, index);
+                } else if (selector.length() >= 2
+                        && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                        && selector.charAt(selector.length() - 1) == selector.charAt(0)
+                        && isQuotedName(selector.substring(1, selector.length() - 1))) {
+                    addStep(names, indexes, selector.substring(1, selector.length() - 1), WILDCARD);
+                } else {
+                    // filter, slice, union...
+                    return null;
+                }
+                i = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return names.isEmpty() ? null : new StreamingJsonPath(names, indexes);
+    }
+
+    /**
+     * @param expression JMESPath expression
+     * @return the path, or null if the expression is not handled
+     */
+    public static StreamingJsonPath compileJmesPath(String expression) {
+        List<String> names = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        boolean afterDot = false;
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (c == '[' && !afterDot) {
+                int end = expression.indexOf(']', i);
+                int index = end < 0 ? -1 : parseIndex(expression.substring(i + 1, end));
+                if (index < 0) {
+                    // projection, slice, filter...
+                    return null;
+                }
+                addStep(names, indexes, null, index);
+                i = end + 1;
+            } else if (c == '"' && (afterDot || names.isEmpty())) {
+                int end = expression.indexOf('"', i + 1);
+                if (end < 0 || !isQuotedName(expression.substring(i + 1, end))) {
+                    return null;
+                }
+                addStep(names, indexes, expression.substring(i + 1, end), WILDCARD);
+                i = end + 1;
+            } else if ((afterDot || names.isEmpty()) && isIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < expression.length() && isIdentifierPart(expression.charAt(end))) {
+                    end++;
+                }
+                addStep(names, indexes, expression.substring(i, end), WILDCARD);
+                i = end;
+            } else {
+                return null;
+            }
+            afterDot = i < expression.length() && expression.charAt(i) == '.';
+            if (afterDot) {
+                i++;
+                if (i == expression.length()) {
+                    return null;
+                }
+            }
+        }
+        return names.isEmpty() ? null : new StreamingJsonPath(names, indexes);
+    }
+
+    private static void addStep(List<String> names, List<Integer> indexes, String name, int index) {
+        names.add(name);
+        indexes.add(index);
+    }
+
+    /**
+     * @return the index, or -1 if the selector is not a non-negative index
+     */
+    private static int parseIndex(String selector) {
+        if (selector.isEmpty() || selector.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < selector.length(); i++) {
+            if (!Character.isDigit(selector.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(selector);
+    }
+
+    private static boolean isPlainName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c) || "()[]'\"?@,*:=!<>\\$".indexOf(c) >= 0) { // $NON-NLS-1$
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isQuotedName(String name) {
+        return !name.isEmpty() && name.indexOf('\\') < 0 && name.indexOf('\'') < 0
+                && name.indexOf('"') < 0 && name.indexOf(',') < 0;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * @return true if the path has no wildcard step, so it matches one value at most
+     */
+    public boolean isDefinite() {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == null && indexes[i] == WILDCARD) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluate the path on the response of a sample
+     *
+     * @param <T>         type of the values
+     * @param result      sample whose response is JSON
+     * @param materialize tells from their position which matched values are read, the others are null in the returned list
+     * @param reader      reads the matched values
+     * @param limit       number of values after which the evaluation stops, all the values are matched if it is not positive
+     * @return the values matched by the path in document order
+     * @throws IOException when the response is not valid JSON or its encoding is not supported
+     */
+    public <T> List<T> read(SampleResult result, IntPredicate materialize, ValueReader<T> reader, int limit)
+            throws IOException {
+        List<T> values = new ArrayList<>();
+        try (JsonParser parser = createParser(result)) {
+            if (parser.nextToken() != null) {
+                match(parser, 0, values, materialize, reader, limit);
+            }
+        }
+        return values;
+    }
+
+    private static JsonParser createParser(SampleResult result) throws IOException {
+        byte[] data = result.getResponseData();
+        Charset charset;
+        try {
+            charset = Charset.forName(result.getDataEncodingWithDefault());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported encoding " + result.getDataEncodingWithDefault(), e); // $NON-NLS-1$
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return JSON_FACTORY.createParser(data);
+        }
+        // decode as SampleResult#getResponseDataAsString does, without building the String
+        return JSON_FACTORY.createParser(new InputStreamReader(new ByteArrayInputStream(data), charset));
+    }
+
+    /**
+     * @return true once the limit is reached
+     */
+    private <T> boolean match(JsonParser parser, int step, List<T> values,
+            IntPredicate materialize, ValueReader<T> reader, int limit) throws IOException {
+        if (step == names.length) {
+            if (materialize.test(values.size())) {
+                values.add(reader.read(parser));
+            } else {
+                values.add(null);
+                parser.skipChildren();
+            }
+            return limit > 0 && values.size() >= limit;
+        }
+        JsonToken token = parser.currentToken();
+        String name = names[step];
+        int index = indexes[step];
+        if (token == JsonToken.START_OBJECT && index == WILDCARD) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean selected = name == null || name.equals(parser.getCurrentName());
+                parser.nextToken();
+                if (!selected) {
+                    parser.skipChildren();
+                } else if (match(parser, step + 1, values, materialize, reader, limit)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && name == null) {
+            int position = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index != WILDCARD && index != position) {
+                    parser.skipChildren();
+                } else if (match(parser, step + 1, values, materialize, reader, limit)) {
+                    return true;
+                }
+                position++;
+            }
+        } else {
+            // the step does not apply to this value
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Reads a value as JSON text, keeping the numbers as they are written in the response
+     *
+     * @param parser parser on the first token of the value, left on its last token
+     * @return the JSON text of the value
+     * @throws IOException when the value can not be read
+     */
+    public static String readAsJson(JsonParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            int depth = 0;
+            do {
+                switch (parser.currentToken()) {
+                    case START_OBJECT:
+                        generator.writeStartObject();
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                        generator.writeEndObject();
+                        depth--;
+                        break;
+                    case START_ARRAY:
+                        generator.writeStartArray();
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                        generator.writeEndArray();
+                        depth--;
+                        break;
+                    case FIELD_NAME:
+                        generator.writeFieldName(parser.getCurrentName());
+                        break;
+                    case VALUE_STRING:
+                        generator.writeString(parser.getText());
+                        break;
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        generator.writeNumber(parser.getText());
+                        break;
+                    case VALUE_TRUE:
+                        generator.writeBoolean(true);
+                        break;
+                    case VALUE_FALSE:
+                        generator.writeBoolean(false);
+                        break;
+                    default:
+                        generator.writeNull();
+                        break;
+                }
+            } while (depth > 0 && parser.nextToken() != null);
+        }
+        return writer.toString();
+    }
+}
@@ -18,9 +18,18 @@
 
 package org.apache.jmeter.extractor.json.jmespath;
 
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -32,6 +41,11 @@ import io.burt.jmespath.function.FunctionRegistry;
 import io.burt.jmespath.jackson.JacksonRuntime;
 
 public class JMESPathCache {
+    private static final Logger log = LoggerFactory.getLogger(JMESPathCache.class);
+    /** Kind of the JSON trees shared through {@link SampleResult#getParsedResponse(String)} */
+    private static final String PARSED_RESPONSE_KIND = "jmespath.jackson"; // $NON-NLS-1$
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private static final class JMESPathCacheLoader implements CacheLoader<String, Expression<JsonNode>> {
         final JmesPath<JsonNode> runtime;
 
@@ -72,6 +86,55 @@ public class JMESPathCache {
         return JMES_PATH_CACHE.get(key);
     }
 
+    /**
+     * @param result sample whose response is JSON
+     * @return the response parsed by Jackson, shared with the other JMESPath
+     * extractors and assertions of the sample
+     * @throws IOException when the response can not be parsed
+     * @since 5.2
+     */
+    public static JsonNode getJsonNode(SampleResult result) throws IOException {
+        JsonNode node = (JsonNode) result.getParsedResponse(PARSED_RESPONSE_KIND);
+        if (node == null) {
+            node = OBJECT_MAPPER.readValue(result.getResponseDataAsString(), JsonNode.class);
+            result.setParsedResponse(PARSED_RESPONSE_KIND, node);
+        }
+        return node;
+    }
+
+    /**
+     * Evaluate a JMESPath expression on the stream of tokens of a large response,
+     * reading only the value it selects, see {@link StreamingJsonPath}
+     *
+     * @param result sample whose response is JSON
+     * @param jmesPathExpression JMESPath expression
+     * @return the result of the expression, or null if the response or the
+     * expression must be evaluated on the tree
+     * @since 5.2
+     */
+    public static JsonNode searchStreaming(SampleResult result, String jmesPathExpression) {
+        if (!StreamingJsonPath.isStreamable(result) || result.getParsedResponse(PARSED_RESPONSE_KIND) != null) {
+            return null;
+        }
+        StreamingJsonPath streamingPath = StreamingJsonPath.compileJmesPath(jmesPathExpression);
+        if (streamingPath == null) {
+            return null;
+        }
+        try {
+            // the path has no projection, so it selects one value at most
+            List<JsonNode> nodes = streamingPath.read(result, index -> true,
+                    parser -> OBJECT_MAPPER.readValue(parser, JsonNode.class), 1);
+            if (nodes.isEmpty() || nodes.get(0) == null) {
+                return NullNode.getInstance();
+            }
+            return nodes.get(0);
+        } catch (IOException e) {
+            log.debug("Could not stream JMESPath {}, parsing the response: {}", jmesPathExpression,
+                    e.getLocalizedMessage());
+            return null;
+        }
+    }
+
     public void cleanUp() {
         JMES_PATH_CACHE.cleanUp();
     }
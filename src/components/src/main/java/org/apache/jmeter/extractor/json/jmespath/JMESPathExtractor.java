@@ -61,21 +61,28 @@ public class JMESPathExtractor extends AbstractScopedTestElement
     public void process() {
         JMeterContext context = getThreadContext();
         JMeterVariables vars = context.getVariables();
-        String jsonResponse = getData(vars, context);
         String refName = getRefName();
         String defaultValue = getDefaultValue();
         int matchNumber = Integer.parseInt(getMatchNumber());
         final String jsonPathExpression = getJmesPathExpression().trim();
         clearOldRefVars(vars, refName);
-        if (StringUtils.isEmpty(jsonResponse)) {
-            handleEmptyResponse(vars, refName, defaultValue);
-            return;
-        }
 
         try {
-            JsonNode result = null;
-            JsonNode actualObj = OBJECT_MAPPER.readValue(jsonResponse, JsonNode.class);
-            result = JMESPathCache.getInstance().get(jsonPathExpression).search(actualObj);
+            // large responses are not decoded into a String if the expression can be streamed
+            JsonNode result = isScopeVariable()
+                    ? null
+                    : JMESPathCache.searchStreaming(context.getPreviousResult(), jsonPathExpression);
+            if (result == null) {
+                String jsonResponse = getData(vars, context);
+                if (StringUtils.isEmpty(jsonResponse)) {
+                    handleEmptyResponse(vars, refName, defaultValue);
+                    return;
+                }
+                JsonNode actualObj = isScopeVariable()
+                        ? OBJECT_MAPPER.readValue(jsonResponse, JsonNode.class)
+                        : JMESPathCache.getJsonNode(context.getPreviousResult());
+                result = JMESPathCache.getInstance().get(jsonPathExpression).search(actualObj);
+            }
             if (result.isNull()) {
                 handleNullResult(vars, refName, defaultValue, matchNumber);
                 return;
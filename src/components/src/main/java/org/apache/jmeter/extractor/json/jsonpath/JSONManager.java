@@ -18,19 +18,26 @@
 
 package org.apache.jmeter.extractor.json.jsonpath;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntPredicate;
 
+import org.apache.jmeter.extractor.json.StreamingJsonPath;
+import org.apache.jmeter.samplers.SampleResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
@@ -46,6 +53,8 @@ public class JSONManager {
     private static final Logger log = LoggerFactory.getLogger(JSONManager.class);
     private static final Configuration DEFAULT_CONFIGURATION =
             Configuration.defaultConfiguration().addOptions(Option.ALWAYS_RETURN_LIST);
+    /** Kind of the JSON documents shared through {@link SampleResult#getParsedResponse(String)} */
+    private static final String PARSED_RESPONSE_KIND = "jsonpath.json"; // $NON-NLS-1$
     /**
      * This Map can hardly grow above 10 elements as it is used within JSONPostProcessor to
      * store the computed JsonPath for the set of JSON Path Expressions.
@@ -53,6 +62,9 @@ public class JSONManager {
      */
     private final Map<String, JsonPath> expressionToJsonPath = new HashMap<>(2);
 
+    /** Same as {@link #expressionToJsonPath}, empty for the expressions which can not be streamed */
+    private final Map<String, Optional<StreamingJsonPath>> expressionToStreamingPath = new HashMap<>(2);
+
     private JsonPath getJsonPath(String jsonPathExpression) {
         JsonPath jsonPath = expressionToJsonPath.get(jsonPathExpression);
         if (jsonPath == null) {
@@ -63,8 +75,15 @@ public class JSONManager {
         return jsonPath;
     }
 
+    private StreamingJsonPath getStreamingPath(String jsonPathExpression) {
+        return expressionToStreamingPath
+                .computeIfAbsent(jsonPathExpression, e -> Optional.ofNullable(StreamingJsonPath.compileJsonPath(e)))
+                .orElse(null);
+    }
+
     public void reset() {
         expressionToJsonPath.clear();
+        expressionToStreamingPath.clear();
     }
 
     /**
@@ -76,14 +95,96 @@ public class JSONManager {
      */
     public List<Object> extractWithJsonPath(String jsonString, String jsonPath)
             throws ParseException {
+        return extract(parseJson(jsonString), jsonPath);
+    }
+
+    /**
+     * Extract from the response of a sample, which is parsed once for all the
+     * JSON Path extractors and assertions of the sample.
+     * <p>
+     * Large responses are evaluated on their stream of tokens when the
+     * expression allows it and they have not been parsed yet, see
+     * {@link StreamingJsonPath}.
+     *
+     * @param result sample whose response is JSON
+     * @param jsonPath JSON-PATH expression
+     * @param matchNumber match number of the extractor, only the values it uses are read when streaming
+     * @return List of JSON Strings of the extracted data
+     * @throws ParseException when parsing fails
+     * @since 5.2
+     */
+    public List<Object> extractWithJsonPath(SampleResult result, String jsonPath, int matchNumber)
+            throws ParseException {
+        if (result.getParsedResponse(PARSED_RESPONSE_KIND) == null && StreamingJsonPath.isStreamable(result)) {
+            StreamingJsonPath streamingPath = getStreamingPath(jsonPath);
+            if (streamingPath != null) {
+                try {
+                    return extractStreaming(result, streamingPath, matchNumber);
+                } catch (IOException e) {
+                    log.debug("Could not stream JSON Path {}, parsing the response: {}", jsonPath, e.getLocalizedMessage());
+                }
+            }
+        }
+        return extract(getJsonDocument(result), jsonPath);
+    }
+
+    private List<Object> extractStreaming(SampleResult result, StreamingJsonPath streamingPath, int matchNumber)
+            throws IOException {
+        // JSONPostProcessor reads the first value, and the one at matchNumber, but reports the count of values
+        IntPredicate materialize = matchNumber <= 0
+                ? index -> true
+                : index -> index == 0 || index == matchNumber - 1;
+        List<Object> extractedObjects = streamingPath.read(result, materialize, JSONManager::readValue,
+                streamingPath.isDefinite() ? 1 : 0);
+        List<Object> results = new ArrayList<>(extractedObjects.size());
+        for (Object obj: extractedObjects) {
+            results.add(stringifyJSONObject(obj));
+        }
+        return results;
+    }
+
+    /**
+     * Reads a value into the objects of the JSON provider of JSON Path
+     */
+    private static Object readValue(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return DEFAULT_CONFIGURATION.jsonProvider().parse(StreamingJsonPath.readAsJson(parser));
+    }
+
+    /**
+     * @param result sample whose response is JSON
+     * @return the response parsed by the JSON provider of JSON Path, shared with
+     * the other JSON Path extractors and assertions of the sample
+     * @since 5.2
+     */
+    public static Object getJsonDocument(SampleResult result) {
+        Object document = result.getParsedResponse(PARSED_RESPONSE_KIND);
+        if (document == null) {
+            document = parseJson(result.getResponseDataAsString());
+            result.setParsedResponse(PARSED_RESPONSE_KIND, document);
+        }
+        return document;
+    }
+
+    private static Object parseJson(String jsonString) {
+        if (jsonString == null || jsonString.isEmpty()) {
+            // same check as JsonPath#read(String, Configuration)
+            throw new IllegalArgumentException("json string can not be null or empty"); // $NON-NLS-1$
+        }
+        return DEFAULT_CONFIGURATION.jsonProvider().parse(jsonString);
+    }
+
+    private List<Object> extract(Object document, String jsonPath) {
         JsonPath jsonPathParser = getJsonPath(jsonPath);
         List<Object> extractedObjects;
         try {
-            extractedObjects = jsonPathParser.read(jsonString,
+            extractedObjects = jsonPathParser.read(document,
                     DEFAULT_CONFIGURATION);
         } catch (PathNotFoundException e) {
             if(log.isDebugEnabled()) {
-                log.debug("Could not find JSON Path {} in [{}]: {}", jsonPath, jsonString, e.getLocalizedMessage());
+                log.debug("Could not find JSON Path {} in [{}]: {}", jsonPath, document, e.getLocalizedMessage());
             }
             return Collections.emptyList();
         }
@@ -63,7 +63,20 @@ public class JSONPostProcessor
     public void process() {
         JMeterContext context = getThreadContext();
         JMeterVariables vars = context.getVariables();
-        String jsonResponse = extractJsonResponse(context, vars);
+        String jsonResponse = null;
+        SampleResult previousResult = null;
+        boolean emptyResponse;
+        if (isScopeVariable()) {
+            jsonResponse = extractJsonResponse(vars);
+            emptyResponse = StringUtils.isEmpty(jsonResponse);
+        } else {
+            // the response is only decoded into a String if it is not streamed
+            previousResult = context.getPreviousResult();
+            emptyResponse = previousResult == null || previousResult.getResponseData().length == 0;
+            if (log.isDebugEnabled() && previousResult != null) {
+                log.debug("JSON Extractor {} working on Response: {}", getName(), previousResult.getResponseDataAsString());
+            }
+        }
         String[] refNames = getRefNames().split(SEPARATOR);
         String[] jsonPathExpressions = getJsonPathExpressions().split(SEPARATOR);
         String[] defaultValues = getDefaultValues().split(SEPARATOR);
@@ -77,11 +90,12 @@ public class JSONPostProcessor
             String currentJsonPath = jsonPathExpressions[i].trim();
             clearOldRefVars(vars, currentRefName);
             try {
-                if (StringUtils.isEmpty(jsonResponse)) {
+                if (emptyResponse) {
                     handleEmptyResponse(vars, defaultValues, i, currentRefName);
                 } else {
-                    List<Object> extractedValues = localMatcher.get()
-                            .extractWithJsonPath(jsonResponse, currentJsonPath);
+                    List<Object> extractedValues = isScopeVariable()
+                            ? localMatcher.get().extractWithJsonPath(jsonResponse, currentJsonPath)
+                            : localMatcher.get().extractWithJsonPath(previousResult, currentJsonPath, matchNumber);
                     // if no values extracted, default value added
                     if (extractedValues.isEmpty()) {
                         handleEmptyResult(vars, defaultValues, i, matchNumber, currentRefName);
@@ -199,21 +213,10 @@ public class JSONPostProcessor
         vars.put(currentRefName, defaultValues[i]);
     }
 
-    private String extractJsonResponse(JMeterContext context, JMeterVariables vars) {
-        String jsonResponse = "";
-        if (isScopeVariable()) {
-            jsonResponse = vars.get(getVariableName());
-            if (log.isDebugEnabled()) {
-                log.debug("JSON Extractor is using variable: {}, which content is: {}", getVariableName(), jsonResponse);
-            }
-        } else {
-            SampleResult previousResult = context.getPreviousResult();
-            if (previousResult != null) {
-                jsonResponse = previousResult.getResponseDataAsString();
-                if (log.isDebugEnabled()) {
-                    log.debug("JSON Extractor {} working on Response: {}", getName(), jsonResponse);
-                }
-            }
+    private String extractJsonResponse(JMeterVariables vars) {
+        String jsonResponse = vars.get(getVariableName());
+        if (log.isDebugEnabled()) {
+            log.debug("JSON Extractor is using variable: {}, which content is: {}", getVariableName(), jsonResponse);
         }
         return jsonResponse;
     }
@@ -21,7 +21,6 @@ package org.apache.jmeter.sampler;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.config.ConfigTestElement;
@@ -163,7 +162,7 @@ public class TestAction extends AbstractSampler implements Interruptible {
                             Long.valueOf(adjustDelay),
                             Long.valueOf(millis));
                 }
-                TimeUnit.MILLISECONDS.sleep(adjustDelay);
+                TIMER_SERVICE.sleep(adjustDelay);
             } else if (millis < 0) {
                 throw new IllegalArgumentException("Configured sleep is negative:" + millis);
             } // else == 0 we do nothing
@@ -24,6 +24,8 @@ import java.beans.Introspector;
 import java.util.ResourceBundle;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.jmeter.gui.GUIMenuSortOrder;
 import org.apache.jmeter.testbeans.TestBean;
@@ -51,14 +53,23 @@ import org.slf4j.LoggerFactory;
 public class ConstantThroughputTimer extends AbstractTestElement implements Timer, TestStateListener, TestBean {
     private static final long serialVersionUID = 4;
 
-    private static class ThroughputInfo{
-        final Object MUTEX = new Object();
-        long lastScheduledTime = 0;
+    static class ThroughputInfo{
+        /** Far enough in the past so that the first request is not delayed, and adding to it does not overflow */
+        private static final long NOT_SCHEDULED = Long.MIN_VALUE / 2;
+
+        /** {@link System#nanoTime()} of the last scheduled request */
+        final AtomicLong lastScheduledTime = new AtomicLong(NOT_SCHEDULED);
+
+        void reset() {
+            lastScheduledTime.set(NOT_SCHEDULED);
+        }
     }
     private static final Logger log = LoggerFactory.getLogger(ConstantThroughputTimer.class);
 
     private static final double MILLISEC_PER_MIN = 60000.0;
 
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
     /**
      * This enum defines the calculation modes used by the ConstantThroughputTimer.
      */
@@ -88,6 +99,11 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
      */
     private long previousTime = 0;
 
+    /**
+     * Time at which the request following the last call to {@link #delay()} should start.
+     */
+    private long intendedStartTime = 0;
+
     private Mode mode = Mode.ThisThreadOnly;
 
     /**
@@ -150,6 +166,7 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
          * This is what we want, so first sample is run without a delay.
         */
         long currentTarget = previousTime  + calculateDelay();
+        intendedStartTime = previousTime == 0 ? currentTime : currentTarget;
         if (currentTime > currentTarget) {
             // We're behind schedule -- try to catch up:
             previousTime = currentTime; // assume the sample will run immediately
@@ -159,6 +176,16 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
         return currentTarget - currentTime;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When the thread is behind schedule, this is the missed target time.
+     */
+    @Override
+    public long getIntendedStartTime() {
+        return intendedStartTime;
+    }
+
     /**
      * Calculate the target time by adding the result of private method
      * <code>calculateDelay()</code> to the given <code>currentTime</code>
@@ -187,7 +214,7 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
             break;
 
         case AllActiveThreads_Shared: // All threads - alternate calculation
-            delay = calculateSharedDelay(allThreadsInfo,Math.round(msPerRequest));
+            delay = calculateSharedDelay(allThreadsInfo, Math.round(msPerRequest * NANOS_PER_MILLI));
             break;
 
         case AllActiveThreadsInCurrentThreadGroup_Shared: //All threads in this group - alternate calculation
@@ -195,13 +222,9 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
                 JMeterContextService.getContext().getThreadGroup();
             ThroughputInfo groupInfo = threadGroupsInfoMap.get(group);
             if (groupInfo == null) {
-                groupInfo = new ThroughputInfo();
-                ThroughputInfo previous = threadGroupsInfoMap.putIfAbsent(group, groupInfo);
-                if (previous != null) { // We did not replace the entry
-                    groupInfo = previous; // so use the existing one
-                }
+                groupInfo = threadGroupsInfoMap.computeIfAbsent(group, k -> new ThroughputInfo());
             }
-            delay = calculateSharedDelay(groupInfo,Math.round(msPerRequest));
+            delay = calculateSharedDelay(groupInfo, Math.round(msPerRequest * NANOS_PER_MILLI));
             break;
 
         case ThisThreadOnly:
@@ -212,28 +235,31 @@ public class ConstantThroughputTimer extends AbstractTestElement implements Time
         return delay;
     }
 
-    private long calculateSharedDelay(ThroughputInfo info, long milliSecPerRequest) {
-        final long now = System.currentTimeMillis();
-        final long calculatedDelay;
-
-        //Synchronize on the info object's MUTEX to ensure
-        //Multiple threads don't update the scheduled time simultaneously
-        synchronized (info.MUTEX) {
-            final long nextRequestTime = info.lastScheduledTime + milliSecPerRequest;
-            info.lastScheduledTime = Math.max(now, nextRequestTime);
-            calculatedDelay = info.lastScheduledTime - now;
-        }
-
-        return Math.max(calculatedDelay, 0);
+    /**
+     * Reserve the next request slot of info without locking, so that many threads can share it.
+     * Slots are kept in nanoseconds, so that rates above one request per millisecond are honoured.
+     *
+     * @param info shared schedule
+     * @param nanoSecPerRequest interval between two requests
+     * @return delay in milliseconds until the reserved slot
+     */
+    static long calculateSharedDelay(ThroughputInfo info, long nanoSecPerRequest) {
+        final long now = System.nanoTime();
+        long previous;
+        long scheduled;
+        do {
+            previous = info.lastScheduledTime.get();
+            scheduled = Math.max(now, previous + nanoSecPerRequest);
+        } while (!info.lastScheduledTime.compareAndSet(previous, scheduled));
+        return TimeUnit.NANOSECONDS.toMillis(scheduled - now + NANOS_PER_MILLI / 2); // rounded
     }
 
     private void reset() {
-        synchronized (allThreadsInfo.MUTEX) {
-            allThreadsInfo.lastScheduledTime = 0;
-        }
+        allThreadsInfo.reset();
         threadGroupsInfoMap.clear();
         // no need to sync as one per instance
         previousTime = 0;
+        intendedStartTime = 0;
     }
 
     /**
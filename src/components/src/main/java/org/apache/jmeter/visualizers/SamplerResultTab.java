@@ -260,6 +260,25 @@ public abstract class SamplerResultTab implements ResultRenderer {
                         .append(JMeterUtils
                                 .getResString("view_results_connect_time")) //$NON-NLS-1$
                         .append(sampleResult.getConnectTime()).append(NL);
+                if (sampleResult.getDnsResolutionTime() > 0) {
+                    statsBuff
+                            .append(JMeterUtils
+                                    .getResString("view_results_dns_time")) //$NON-NLS-1$
+                            .append(sampleResult.getDnsResolutionTime()).append(NL);
+                }
+                int tlsHandshakes = sampleResult.getTlsFullHandshakeCount()
+                        + sampleResult.getTlsResumedHandshakeCount();
+                if (tlsHandshakes > 0) {
+                    statsBuff
+                            .append(JMeterUtils
+                                    .getResString("view_results_tls_handshake_time")) //$NON-NLS-1$
+                            .append(sampleResult.getTlsHandshakeTime()).append(NL);
+                    statsBuff
+                            .append(JMeterUtils
+                                    .getResString("view_results_tls_handshakes")) //$NON-NLS-1$
+                            .append(sampleResult.getTlsFullHandshakeCount()).append(" / ") //$NON-NLS-1$
+                            .append(sampleResult.getTlsResumedHandshakeCount()).append(NL);
+                }
                 statsBuff
                         .append(JMeterUtils
                                 .getResString("view_results_latency")) //$NON-NLS-1$
@@ -361,6 +380,20 @@ public abstract class SamplerResultTab implements ResultRenderer {
                 resultModel.addRow(new RowResult(
                         JMeterUtils.getParsedLabel("view_results_connect_time"), //$NON-NLS-1$
                         sampleResult.getConnectTime()));
+                if (sampleResult.getDnsResolutionTime() > 0) {
+                    resultModel.addRow(new RowResult(
+                            JMeterUtils.getParsedLabel("view_results_dns_time"), //$NON-NLS-1$
+                            sampleResult.getDnsResolutionTime()));
+                }
+                if (tlsHandshakes > 0) {
+                    resultModel.addRow(new RowResult(
+                            JMeterUtils.getParsedLabel("view_results_tls_handshake_time"), //$NON-NLS-1$
+                            sampleResult.getTlsHandshakeTime()));
+                    resultModel.addRow(new RowResult(
+                            JMeterUtils.getParsedLabel("view_results_tls_handshakes"), //$NON-NLS-1$
+                            sampleResult.getTlsFullHandshakeCount() + " / " //$NON-NLS-1$
+                                    + sampleResult.getTlsResumedHandshakeCount()));
+                }
                 resultModel.addRow(new RowResult(
                         JMeterUtils.getParsedLabel("view_results_latency"), //$NON-NLS-1$
                         sampleResult.getLatency()));
@@ -25,6 +25,7 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 
 import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.services.DataPool;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
@@ -242,4 +243,29 @@ public class TestCVSDataSet extends JMeterTestCase implements JMeterSerialTest {
         csv1.iterationStart(null);
         assertEquals("a4",threadVars.get("a"));
     }
+
+    @Test
+    public void testDataPool() throws Exception {
+        DataPool.register("users", new DataPool.Builder()
+                .setColumnNames("login", "password")
+                .addRow("u1", "p1")
+                .addRow("u2", "p2")
+                .build(DataPool.AccessMode.SEQUENTIAL));
+        try {
+            CSVDataSet csv = new CSVDataSet();
+            csv.setFilename("users");
+            csv.setVariableNames("");
+            csv.setDelimiter(",");
+            csv.setRecycle(false);
+            csv.iterationStart(null);
+            assertEquals("u1", threadVars.get("login"));
+            assertEquals("p1", threadVars.get("password"));
+            csv.iterationStart(null);
+            assertEquals("u2", threadVars.get("login"));
+            csv.iterationStart(null);
+            assertEquals("<EOF>", threadVars.get("login"));
+        } finally {
+            DataPool.unregister("users");
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.extractor.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.Test;
+
+public class TestStreamingJsonPath {
+
+    private static final String JSON = "{\"store\":{\"book\":["
+            + "{\"title\":\"Sayings\",\"price\":8.95,\"tags\":[\"a\",\"b\"]},"
+            + "{\"title\":\"Sword\",\"price\":12.990000000000000001,\"isbn\":null},"
+            + "{\"title\":\"Moby \\\"Dick\\\"\",\"price\":8}"
+            + "],\"name\":\"shop\"}}";
+
+    private static List<String> read(StreamingJsonPath path, String json, int limit) throws IOException {
+        SampleResult result = new SampleResult();
+        result.setResponseData(json, "UTF-8");
+        return path.read(result, index -> true, StreamingJsonPath::readAsJson, limit);
+    }
+
+    @Test
+    public void testCompileJsonPath() {
+        assertNotNull(StreamingJsonPath.compileJsonPath("$.store.book[0].title"));
+        assertNotNull(StreamingJsonPath.compileJsonPath("$['store']['book'][*]"));
+        assertNotNull(StreamingJsonPath.compileJsonPath("store.book.*"));
+        assertTrue(StreamingJsonPath.compileJsonPath("$.store.book[1]").isDefinite());
+        assertFalse(StreamingJsonPath.compileJsonPath("$.store.book[*].title").isDefinite());
+        for (String unsupported : Arrays.asList("$", "$..title", "$.store.book[-1]", "$.store.book[0,1]",
+                "$.store.book[1:2]", "$.store.book[?(@.price < 10)]", "$.store.book.length()", "@.name")) {
+            assertNull(unsupported, StreamingJsonPath.compileJsonPath(unsupported));
+        }
+    }
+
+    @Test
+    public void testCompileJmesPath() {
+        assertNotNull(StreamingJsonPath.compileJmesPath("store.book[0].title"));
+        assertNotNull(StreamingJsonPath.compileJmesPath("[0].\"a b\""));
+        for (String unsupported : Arrays.asList("", "store.book[*].title", "store.book[]", "store.book[-1]",
+                "store.[name]", "store.", "length(store)", "store | name", "store.book[0]title")) {
+            assertNull(unsupported, StreamingJsonPath.compileJmesPath(unsupported));
+        }
+    }
+
+    @Test
+    public void testReadDefinite() throws IOException {
+        assertEquals(Arrays.asList("\"Sword\""),
+                read(StreamingJsonPath.compileJsonPath("$.store.book[1].title"), JSON, 1));
+        assertEquals(Arrays.asList("{\"title\":\"Sayings\",\"price\":8.95,\"tags\":[\"a\",\"b\"]}"),
+                read(StreamingJsonPath.compileJmesPath("store.book[0]"), JSON, 1));
+        assertEquals(Arrays.asList("null"),
+                read(StreamingJsonPath.compileJsonPath("$.store.book[1].isbn"), JSON, 1));
+        assertTrue(read(StreamingJsonPath.compileJsonPath("$.store.book[3]"), JSON, 1).isEmpty());
+        assertTrue(read(StreamingJsonPath.compileJsonPath("$.store.name.first"), JSON, 1).isEmpty());
+        assertTrue(read(StreamingJsonPath.compileJmesPath("store.book.title"), JSON, 1).isEmpty());
+    }
+
+    @Test
+    public void testReadWildcard() throws IOException {
+        StreamingJsonPath prices = StreamingJsonPath.compileJsonPath("$.store.book[*].price");
+        // numbers are kept as written in the response
+        assertEquals(Arrays.asList("8.95", "12.990000000000000001", "8"), read(prices, JSON, 0));
+        assertEquals(Arrays.asList("8.95", "12.990000000000000001"), read(prices, JSON, 2));
+        assertEquals(Arrays.asList("\"Sayings\"", "\"Sword\"", "\"Moby \\\"Dick\\\"\""),
+                read(StreamingJsonPath.compileJsonPath("$.store.book.*.title"), JSON, 0));
+        assertEquals(Arrays.asList("\"b\""),
+                read(StreamingJsonPath.compileJsonPath("$.store.book[*].tags[1]"), JSON, 0));
+    }
+
+    @Test
+    public void testMaterialize() throws IOException {
+        SampleResult result = new SampleResult();
+        result.setResponseData(JSON, "UTF-8");
+        List<String> titles = StreamingJsonPath.compileJsonPath("$.store.book[*].title")
+                .read(result, index -> index == 1, StreamingJsonPath::readAsJson, 0);
+        assertEquals(Arrays.asList(null, "\"Sword\"", null), titles);
+    }
+
+    @Test
+    public void testEncoding() throws IOException {
+        SampleResult result = new SampleResult();
+        result.setResponseData("{\"name\":\"caf\u00e9\"}", "ISO-8859-1");
+        List<String> names = StreamingJsonPath.compileJmesPath("name")
+                .read(result, index -> true, parser -> parser.getText(), 1);
+        assertEquals(Arrays.asList("caf\u00e9"), names);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidJson() throws IOException {
+        read(StreamingJsonPath.compileJsonPath("$.a[*]"), "{\"a\":[1,}", 0);
+    }
+}
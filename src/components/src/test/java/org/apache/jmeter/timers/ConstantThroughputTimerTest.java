@@ -19,8 +19,12 @@
 package org.apache.jmeter.timers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.TestJMeterContextService;
@@ -59,6 +63,22 @@ public class ConstantThroughputTimerTest {
         assertEquals("Expected delay of approx 500", expected, timer.delay(), 50);
     }
 
+    @Test
+    public void testIntendedStartTimeWhenLate() throws Exception {
+        ConstantThroughputTimer timer = new ConstantThroughputTimer();
+        timer.setThroughput(600.0);// 1 per 100 ms
+        assertEquals(0, timer.getIntendedStartTime());
+        long before = System.currentTimeMillis();
+        assertEquals(0, timer.delay());
+        long first = timer.getIntendedStartTime();
+        assertTrue("First sample should be intended to start now", first >= before);
+        // Simulate a sample much slower than the interval
+        Thread.sleep(300);
+        assertEquals(0, timer.delay());
+        // The missed target is kept as intended start even though the thread is late
+        assertEquals(first + 100, timer.getIntendedStartTime());
+    }
+
     @Test
     public void testTimer2() throws Exception {
         ConstantThroughputTimer timer = new ConstantThroughputTimer();
@@ -90,6 +110,41 @@ public class ConstantThroughputTimerTest {
         assertEquals(1,timer.calculateCurrentTarget(0)); // Should delay for 1 milli-second
     }
 
+    @Test
+    public void testSharedDelayWithManyThreads() throws Exception {
+        ConstantThroughputTimer.ThroughputInfo info = new ConstantThroughputTimer.ThroughputInfo();
+        final int threads = 50;
+        final int requestsPerThread = 200;
+        final long nanosPerRequest = TimeUnit.MICROSECONDS.toNanos(10); // 100 requests per milli-second
+        assertEquals(0, ConstantThroughputTimer.calculateSharedDelay(info, nanosPerRequest));
+        long firstSlot = info.lastScheduledTime.get();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong maxDelay = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < requestsPerThread; j++) {
+                    long delay = ConstantThroughputTimer.calculateSharedDelay(info, nanosPerRequest);
+                    maxDelay.accumulateAndGet(delay, Math::max);
+                }
+            });
+            workers[i].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Each request got its own slot: the 10000 requests are spread over at least 100 milli-seconds
+        assertTrue("Slots overlap", info.lastScheduledTime.get() - firstSlot >= threads * requestsPerThread * nanosPerRequest);
+        assertTrue("Requests were not delayed", maxDelay.get() > 0);
+    }
+
     @Test
     public void testTimerBSH() throws Exception {
         Assume.assumeTrue("BeanShell jar should be on the classpath, otherwise the test makes no sense",
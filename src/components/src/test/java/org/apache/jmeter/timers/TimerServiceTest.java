@@ -18,6 +18,8 @@
 
 package org.apache.jmeter.timers;
 
+import java.util.concurrent.TimeUnit;
+
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Description;
@@ -76,4 +78,25 @@ public class TimerServiceTest {
                 Long.valueOf(sut.adjustDelay(1000L, -1)), CoreMatchers.is(Long.valueOf(1000L)));
     }
 
+    @Test
+    public void testSleepUntilNeverReturnsEarly() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(500L * (i % 5));
+            sut.sleepUntil(deadline);
+            long late = System.nanoTime() - deadline;
+            Assert.assertTrue("Pause ended " + (-late) + "ns before its deadline", late >= 0);
+        }
+    }
+
+    @Test
+    public void testSleepIsInterruptible() {
+        Thread.currentThread().interrupt();
+        try {
+            sut.sleep(10_000L);
+            Assert.fail("Interrupted thread should not sleep");
+        } catch (InterruptedException e) {
+            Assert.assertFalse(Thread.currentThread().isInterrupted());
+        }
+    }
+
 }
@@ -18,6 +18,7 @@
 
 package org.apache.jmeter.engine.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -37,6 +38,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * CompoundFunction.
+ * <p>
+ * The string is compiled once into an array of constant texts, variables and
+ * functions, in which adjacent texts and folded function calls are merged.
+ * A string made of a single variable or function is evaluated without
+ * building a new string, and other strings are built in a buffer reused
+ * by each thread.
  *
  */
 public class CompoundVariable implements Function {
@@ -54,7 +61,15 @@ public class CompoundVariable implements Function {
 
     private String permanentResults;
 
-    private LinkedList<Object> compiledComponents = new LinkedList<>();
+    private static final Object[] NO_COMPONENTS = new Object[0];
+
+    /** Largest buffer kept by a thread between two executions */
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    /** Texts, {@link SimpleVariable}s and {@link Function}s, never modified once set */
+    private Object[] compiledComponents = NO_COMPONENTS;
 
     static {
         try {
@@ -125,35 +140,55 @@ public class CompoundVariable implements Function {
     /** {@inheritDoc} */
     @Override
     public String execute(SampleResult previousResult, Sampler currentSampler) {
-        if (compiledComponents == null || compiledComponents.isEmpty()) {
+        Object[] components = compiledComponents;
+        if (components.length == 0) {
             return ""; // $NON-NLS-1$
         }
+        if (components.length == 1) {
+            String result = evaluate(components[0], previousResult, currentSampler);
+            if (!isDynamic) {
+                permanentResults = result;
+            }
+            return result;
+        }
 
-        StringBuilder results = new StringBuilder();
-        for (Object item : compiledComponents) {
-            if (item instanceof Function) {
-                try {
-                    results.append(((Function) item).execute(previousResult, currentSampler));
-                } catch (InvalidVariableException e) {
-                    // TODO should level be more than debug ?
-                    log.debug("Invalid variable: {}", item, e);
+        // Functions may execute other compound variables in the same thread,
+        // which append after the current content and restore its length
+        StringBuilder results = BUFFER.get();
+        int start = results.length();
+        try {
+            for (Object item : components) {
+                if (item instanceof String) {
+                    results.append((String) item);
+                } else {
+                    results.append(evaluate(item, previousResult, currentSampler));
                 }
-            } else if (item instanceof SimpleVariable) {
-                results.append(((SimpleVariable) item).toString());
-            } else {
-                results.append(item);
+            }
+            return results.substring(start);
+        } finally {
+            results.setLength(start);
+            if (start == 0 && results.capacity() > MAX_BUFFER_SIZE) {
+                BUFFER.remove();
             }
         }
-        if (!isDynamic) {
-            permanentResults = results.toString();
+    }
+
+    private static String evaluate(Object item, SampleResult previousResult, Sampler currentSampler) {
+        if (item instanceof Function) {
+            try {
+                return String.valueOf(((Function) item).execute(previousResult, currentSampler));
+            } catch (InvalidVariableException e) {
+                // TODO should level be more than debug ?
+                log.debug("Invalid variable: {}", item, e);
+                return ""; // $NON-NLS-1$
+            }
         }
-        return results.toString();
+        return item.toString(); // String or SimpleVariable
     }
 
-    @SuppressWarnings("unchecked") // clone will produce correct type
     public CompoundVariable getFunction() {
         CompoundVariable func = new CompoundVariable();
-        func.compiledComponents = (LinkedList<Object>) compiledComponents.clone();
+        func.compiledComponents = compiledComponents; // never modified, so can be shared
         func.rawParameters = rawParameters;
         func.hasFunction = hasFunction;
         func.isDynamic = isDynamic;
@@ -169,7 +204,7 @@ public class CompoundVariable implements Function {
     public void clear() {
         // TODO should this also clear isDynamic, rawParameters, permanentResults?
         hasFunction = false;
-        compiledComponents.clear();
+        compiledComponents = NO_COMPONENTS;
     }
 
     public void setParameters(String parameters) throws InvalidVariableException {
@@ -178,11 +213,12 @@ public class CompoundVariable implements Function {
             return;
         }
 
-        compiledComponents = functionParser.compileString(parameters);
-        if (compiledComponents.size() > 1 || !(compiledComponents.get(0) instanceof String)) {
+        LinkedList<Object> components = functionParser.compileString(parameters);
+        if (components.size() > 1 || !(components.get(0) instanceof String)) {
             hasFunction = true;
         }
         permanentResults = null; // To be calculated and cached on first execution
+        compiledComponents = compile(components);
         isDynamic = false;
         for (Object item : compiledComponents) {
             if (item instanceof Function || item instanceof SimpleVariable) {
@@ -192,6 +228,38 @@ public class CompoundVariable implements Function {
         }
     }
 
+    /**
+     * Merge adjacent texts and folded functions into single texts
+     */
+    private static Object[] compile(List<Object> components) {
+        List<Object> result = new ArrayList<>(components.size());
+        StringBuilder text = new StringBuilder();
+        for (Object item : components) {
+            if (item instanceof Function || item instanceof SimpleVariable) {
+                if (text.length() > 0) {
+                    result.add(text.toString());
+                    text.setLength(0);
+                }
+                result.add(item);
+            } else if (item instanceof FoldedFunction) {
+                text.append(((FoldedFunction) item).getValue());
+            } else {
+                text.append(item);
+            }
+        }
+        if (text.length() > 0 || result.isEmpty()) {
+            result.add(text.toString());
+        }
+        return result.toArray();
+    }
+
+    /**
+     * @return {@code true} if the result depends on variables or functions
+     */
+    boolean isDynamic() {
+        return isDynamic;
+    }
+
     static Object getNamedFunction(String functionName) throws InvalidVariableException {
         if (functions.containsKey(functionName)) {
             try {
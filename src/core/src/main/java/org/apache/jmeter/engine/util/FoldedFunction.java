@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.engine.util;
+
+/**
+ * Result of a {@link org.apache.jmeter.functions.DeterministicFunction}
+ * evaluated by the {@link FunctionParser} because its parameters are constant.
+ * <p>
+ * It is kept apart from plain text so that the {@link CompoundVariable}
+ * still knows that it holds a function call.
+ */
+final class FoldedFunction {
+
+    private final String functionName;
+
+    private final String value;
+
+    FoldedFunction(String functionName, String value) {
+        this.functionName = functionName;
+        this.value = value;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return functionName + "=" + value; // $NON-NLS-1$
+    }
+}
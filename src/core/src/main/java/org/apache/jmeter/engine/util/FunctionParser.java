@@ -23,6 +23,7 @@ import java.io.StringReader;
 import java.util.LinkedList;
 
 import org.apache.jmeter.engine.StandardJMeterEngine;
+import org.apache.jmeter.functions.DeterministicFunction;
 import org.apache.jmeter.functions.Function;
 import org.apache.jmeter.functions.InvalidVariableException;
 import org.apache.jmeter.testelement.TestStateListener;
@@ -34,6 +35,9 @@ import org.slf4j.LoggerFactory;
  * ${functionName[([var[,var...]])]}
  * and
  * ${variableName}
+ * <p>
+ * Calls to {@link DeterministicFunction}s whose parameters are constant are
+ * evaluated when they are parsed, see {@link FoldedFunction}.
  */
 class FunctionParser {
     private static final Logger log = LoggerFactory.getLogger(FunctionParser.class);
@@ -108,7 +112,7 @@ class FunctionParser {
      * '}' - end of function call
      *
      * @param reader points to input after the "${"
-     * @return the function or variable object (or a String)
+     * @return the function, folded function or variable object (or a String)
      * @throws InvalidVariableException when evaluation of variables fail
      */
     Object makeFunction(StringReader reader) throws InvalidVariableException {
@@ -128,7 +132,8 @@ class FunctionParser {
                     String funcName = buffer.toString();
                     function = CompoundVariable.getNamedFunction(funcName);
                     if (function instanceof Function) {
-                        ((Function) function).setParameters(parseParams(reader));
+                        LinkedList<CompoundVariable> params = parseParams(reader);
+                        ((Function) function).setParameters(params);
                         if (reader.read(current) == 0 || current[0] != '}') {
                             reader.reset();// set to start of string
                             char []cb = new char[100];
@@ -139,14 +144,17 @@ class FunctionParser {
                         if (function instanceof TestStateListener) {
                             StandardJMeterEngine.register((TestStateListener) function);
                         }
-                        return function;
+                        return fold(funcName, (Function) function, params);
                     } else { // Function does not exist, so treat as per missing variable
                         buffer.append(current[0]);
                     }
                 } else if (current[0] == '}') {// variable, or function with no parameter list
-                    function = CompoundVariable.getNamedFunction(buffer.toString());
+                    String funcName = buffer.toString();
+                    function = CompoundVariable.getNamedFunction(funcName);
                     if (function instanceof Function){// ensure that setParameters() is called.
-                        ((Function) function).setParameters(new LinkedList<CompoundVariable>());
+                        LinkedList<CompoundVariable> params = new LinkedList<>();
+                        ((Function) function).setParameters(params);
+                        function = fold(funcName, (Function) function, params);
                     }
                     buffer.setLength(0);
                     return function;
@@ -163,6 +171,35 @@ class FunctionParser {
         return buffer.toString();
     }
 
+    /**
+     * Evaluate a function once if it is deterministic and its parameters are constant.
+     *
+     * @param funcName name of the function
+     * @param function function with its parameters set
+     * @param params   parameters of the function
+     * @return the {@link FoldedFunction}, or the function if it must be evaluated at each call
+     */
+    private static Object fold(String funcName, Function function, LinkedList<CompoundVariable> params) {
+        if (!(function instanceof DeterministicFunction)) {
+            return function;
+        }
+        for (CompoundVariable param : params) {
+            if (param.isDynamic()) {
+                return function;
+            }
+        }
+        try {
+            String value = function.execute(null, null);
+            if (value != null) {
+                log.debug("Folded {} to constant value {}", funcName, value);
+                return new FoldedFunction(funcName, value);
+            }
+        } catch (InvalidVariableException | RuntimeException e) {
+            log.debug("Could not fold {}, it will be evaluated at each call", funcName, e);
+        }
+        return function;
+    }
+
     /**
      * Compile a String into a list of parameters, each made into a
      * CompoundVariable.
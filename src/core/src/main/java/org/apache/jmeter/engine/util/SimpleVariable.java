@@ -21,13 +21,17 @@ package org.apache.jmeter.engine.util;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.threads.VariableSlots;
 
 public class SimpleVariable {
 
     private String name;
 
+    /** Slot of {@link #name} in {@link VariableSlots} */
+    private int slot = VariableSlots.NO_SLOT;
+
     public SimpleVariable(String name) {
-        this.name = name;
+        setName(name);
     }
 
     public SimpleVariable() {
@@ -40,6 +44,7 @@ public class SimpleVariable {
 
     public void setName(String name) {
         this.name = name;
+        this.slot = VariableSlots.intern(name);
     }
 
     /**
@@ -51,7 +56,7 @@ public class SimpleVariable {
         JMeterVariables vars = getVariables();
 
         if (vars != null) {
-            ret = vars.get(name);
+            ret = slot == VariableSlots.NO_SLOT ? vars.get(name) : vars.get(slot);
         }
 
         if (ret == null) {
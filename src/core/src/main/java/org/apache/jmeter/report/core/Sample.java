@@ -259,6 +259,20 @@ public class Sample {
         }
     }
 
+    /**
+     * Gets the elapsed time counted from the intended start of the sample.
+     *
+     * @return the corrected elapsed time stored in the sample or the elapsed
+     *         time if column is not in results
+     */
+    public long getCorrectedElapsedTime() {
+        if(metadata.indexOf(CSVSaveService.CSV_CORRECTED_TIME) >= 0) {
+            return getData(long.class, CSVSaveService.CSV_CORRECTED_TIME).longValue();
+        } else {
+            return getElapsedTime();
+        }
+    }
+
     /**
      * Gets the success status stored in the sample.
      *
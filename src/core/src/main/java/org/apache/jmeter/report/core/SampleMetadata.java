@@ -135,6 +135,12 @@ public class SampleMetadata {
         if (saveConfig.saveConnectTime()) {
             configuredColumns.add(CSVSaveService.CSV_CONNECT_TIME);
         }
+        if (saveConfig.saveCorrectedTime()) {
+            configuredColumns.add(CSVSaveService.CSV_CORRECTED_TIME);
+        }
+        if (saveConfig.saveDnsTime()) {
+            configuredColumns.add(CSVSaveService.CSV_DNS_TIME);
+        }
         initialize(saveConfig.getDelimiter().charAt(0), configuredColumns);
     }
 
@@ -19,6 +19,7 @@
 package org.apache.jmeter.report.processor;
 
 import org.apache.jmeter.report.core.Sample;
+import org.apache.jmeter.samplers.SampleSaveConfiguration;
 import org.apache.jmeter.util.JMeterUtils;
 
 /**
@@ -36,6 +37,8 @@ import org.apache.jmeter.util.JMeterUtils;
  *      <li>sent bytes per second</li>
  *      <li>min</li>
  *      <li>max</li>
+ *      <li>percentiles 1 to 3 of the corrected elapsed times,
+ *      when the corrected elapsed time is saved</li>
  * </ul>
  *
  * @since 3.0
@@ -50,6 +53,8 @@ public class StatisticsSummaryConsumer extends
     private static final int PERCENTILE_INDEX3 = JMeterUtils.getPropDefault(
         "aggregate_rpt_pct3", 99);
 
+    private static final boolean CORRECTED_TIME = SampleSaveConfiguration.staticConfig().saveCorrectedTime();
+
     /**
      * Instantiates a new statistics summary consumer.
      */
@@ -83,6 +88,13 @@ public class StatisticsSummaryConsumer extends
         data.setMin(elapsedTime);
         data.setMax(elapsedTime);
 
+        if (CORRECTED_TIME) {
+            long correctedTime = sample.getCorrectedElapsedTime();
+            data.getCorrectedPercentile1().addValue(correctedTime);
+            data.getCorrectedPercentile2().addValue(correctedTime);
+            data.getCorrectedPercentile3().addValue(correctedTime);
+        }
+
         data.setFirstTime(sample.getStartTime());
 
         data.setEndTime(sample.getEndTime());
@@ -146,6 +158,11 @@ public class StatisticsSummaryConsumer extends
         result.addResult(new ValueResultData(Double.valueOf(data.getThroughput())));
         result.addResult(new ValueResultData(Double.valueOf(data.getKBytesPerSecond())));
         result.addResult(new ValueResultData(Double.valueOf(data.getSentKBytesPerSecond())));
+        if (CORRECTED_TIME) {
+            result.addResult(new ValueResultData(Double.valueOf(data.getCorrectedPercentile1().getResult())));
+            result.addResult(new ValueResultData(Double.valueOf(data.getCorrectedPercentile2().getResult())));
+            result.addResult(new ValueResultData(Double.valueOf(data.getCorrectedPercentile3().getResult())));
+        }
         return result;
     }
 
@@ -198,6 +215,14 @@ public class StatisticsSummaryConsumer extends
         titles.addResult(new ValueResultData(JMeterUtils.getResString("reportgenerator_summary_statistics_throughput")));
         titles.addResult(new ValueResultData(JMeterUtils.getResString("reportgenerator_summary_statistics_kbytes")));
         titles.addResult(new ValueResultData(JMeterUtils.getResString("reportgenerator_summary_statistics_sent_kbytes")));
+        if (CORRECTED_TIME) {
+            for (int percentile : new int[] { PERCENTILE_INDEX1, PERCENTILE_INDEX2, PERCENTILE_INDEX3 }) {
+                titles.addResult(new ValueResultData(
+                    String.format(
+                        JMeterUtils.getResString("reportgenerator_summary_statistics_corrected_percentile_fmt"),
+                        Integer.valueOf(percentile))));
+            }
+        }
 
         return titles;
     }
@@ -37,6 +37,9 @@ public class StatisticsSummaryData {
     private final PercentileAggregator percentile1;
     private final PercentileAggregator percentile2;
     private final PercentileAggregator percentile3;
+    private final PercentileAggregator correctedPercentile1;
+    private final PercentileAggregator correctedPercentile2;
+    private final PercentileAggregator correctedPercentile3;
     private long min = Long.MAX_VALUE;
     private long max = Long.MIN_VALUE;
 
@@ -186,6 +189,33 @@ public class StatisticsSummaryData {
         return percentile3;
     }
 
+    /**
+     * Gets the percentile1 of the corrected elapsed times.
+     *
+     * @return the corrected percentile1
+     */
+    public final PercentileAggregator getCorrectedPercentile1() {
+        return correctedPercentile1;
+    }
+
+    /**
+     * Gets the percentile2 of the corrected elapsed times.
+     *
+     * @return the corrected percentile2
+     */
+    public final PercentileAggregator getCorrectedPercentile2() {
+        return correctedPercentile2;
+    }
+
+    /**
+     * Gets the percentile3 of the corrected elapsed times.
+     *
+     * @return the corrected percentile3
+     */
+    public final PercentileAggregator getCorrectedPercentile3() {
+        return correctedPercentile3;
+    }
+
     /**
      * Instantiates a new statistics info.
      * @param percentileIndex1 value of first percentile
@@ -197,6 +227,9 @@ public class StatisticsSummaryData {
         percentile1 = new PercentileAggregator(percentileIndex1);
         percentile2 = new PercentileAggregator(percentileIndex2);
         percentile3 = new PercentileAggregator(percentileIndex3);
+        correctedPercentile1 = new PercentileAggregator(percentileIndex1);
+        correctedPercentile2 = new PercentileAggregator(percentileIndex2);
+        correctedPercentile3 = new PercentileAggregator(percentileIndex3);
         mean = new MeanAggregator();
     }
 
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.samplers;
+
+import java.io.IOException;
+
+/**
+ * Decodes the raw bytes stored in a {@link SampleResult} the first time
+ * the response data is read.
+ * Used by samplers that store compressed responses as received on the wire
+ * and defer decompression until an element actually needs the body.
+ *
+ * @see SampleResult#setResponseData(byte[], ResponseDataDecoder)
+ * @since 5.2
+ */
+@FunctionalInterface
+public interface ResponseDataDecoder {
+
+    /**
+     * @param rawData the bytes as they were stored by the sampler (not null)
+     * @return the decoded bytes (not null)
+     * @throws IOException when the raw data cannot be decoded
+     */
+    byte[] decode(byte[] rawData) throws IOException;
+}
@@ -18,6 +18,8 @@
 
 package org.apache.jmeter.samplers;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
@@ -25,7 +27,9 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -139,6 +143,12 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
     private static final long NANOTHREAD_SLEEP =
             JMeterUtils.getPropDefault("sampleresult.nanoThreadSleep", 5000);  // $NON-NLS-1$
 
+    /**
+     * Share the parsed responses between the extractors and assertions of a sample
+     */
+    private static final boolean CACHE_PARSED_RESPONSES =
+            JMeterUtils.getPropDefault("sampleresult.parsed_response_cache", true);  // $NON-NLS-1$
+
     private static final String NULL_FILENAME = "NULL";
 
     static {
@@ -196,6 +206,9 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
 
     private long idleTime = 0;// Allow for non-sample time
 
+    /** time at which the sample should have started according to the timers, 0 if unknown */
+    private long intendedStartTime = 0;
+
     /** Start of pause (if any) */
     private long pauseTime = 0;
 
@@ -236,6 +249,18 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
     /** time to end connecting */
     private long connectTime = 0;
 
+    /** time spent resolving host names */
+    private long dnsResolutionTime = 0;
+
+    /** time spent in TLS handshakes */
+    private long tlsHandshakeTime = 0;
+
+    /** number of TLS handshakes that negotiated a new session */
+    private int tlsFullHandshakeCount = 0;
+
+    /** number of TLS handshakes that resumed a cached session */
+    private int tlsResumedHandshakeCount = 0;
+
     /** Way to signal what to do on Test */
     private TestLogicalAction testLogicalAction = TestLogicalAction.CONTINUE;
 
@@ -282,6 +307,17 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     private transient volatile String responseDataAsString;
 
+    /**
+     * Decoder to apply to responseData on first access, null once decoded
+     */
+    private transient volatile ResponseDataDecoder responseDataDecoder;
+
+    /**
+     * Parsed representations of the response, by kind of representation.
+     * Discarded when the sample package finishes, see {@link #cleanAfterSample()}
+     */
+    private transient Map<String, Object> parsedResponses;
+
     public SampleResult() {
         this(USE_NANO_TIME, NANOTHREAD_SLEEP);
     }
@@ -318,15 +354,21 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         // files is created automatically, and applies per instance
         groupThreads = res.groupThreads;//OK
         idleTime = res.idleTime;
+        intendedStartTime = res.intendedStartTime;
         label = res.label;//OK
         latency = res.latency;
         connectTime = res.connectTime;
+        dnsResolutionTime = res.dnsResolutionTime;
+        tlsHandshakeTime = res.tlsHandshakeTime;
+        tlsFullHandshakeCount = res.tlsFullHandshakeCount;
+        tlsResumedHandshakeCount = res.tlsResumedHandshakeCount;
         location = res.location;//OK
         parent = res.parent;
         pauseTime = res.pauseTime;
         requestHeaders = res.requestHeaders;//OK
         responseCode = res.responseCode;//OK
         responseData = res.responseData;//OK
+        responseDataDecoder = res.responseDataDecoder;
         responseDataAsString = null;
         responseHeaders = res.responseHeaders;//OK
         responseMessage = res.responseMessage;//OK
@@ -657,6 +699,11 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         setSentBytes(getSentBytes() + subResult.getSentBytes());
         setHeadersSize(getHeadersSize() + subResult.getHeadersSize());
         setBodySize(getBodySizeAsLong() + subResult.getBodySizeAsLong());
+        // Include the DNS resolutions and TLS handshakes of the added sample
+        dnsResolutionTime += subResult.dnsResolutionTime;
+        tlsHandshakeTime += subResult.tlsHandshakeTime;
+        tlsFullHandshakeCount += subResult.tlsFullHandshakeCount;
+        tlsResumedHandshakeCount += subResult.tlsResumedHandshakeCount;
         addRawSubResult(subResult, renameSubResults);
     }
 
@@ -740,9 +787,63 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void setResponseData(byte[] response) {
         responseDataAsString = null;
+        responseDataDecoder = null;
+        parsedResponses = null;
         responseData = response == null ? EMPTY_BA : response;
     }
 
+    /**
+     * Sets the raw responseData of the SampleResult object, which will be decoded
+     * using <code>decoder</code> the first time the response data is read
+     * through {@link #getResponseData()} or {@link #getResponseDataAsString()}.
+     * <p>
+     * If decoding fails, a warning is logged and the raw data is kept.
+     * </p>
+     *
+     * @param rawResponse
+     *            the raw responseData value, as received by the sampler
+     * @param decoder
+     *            the decoder to apply lazily, if null the data is stored as is
+     * @since 5.2
+     */
+    public void setResponseData(byte[] rawResponse, ResponseDataDecoder decoder) {
+        setResponseData(rawResponse);
+        if (responseData.length > 0) {
+            responseDataDecoder = decoder;
+        }
+    }
+
+    /**
+     * @return true if response data is stored in its raw form and has not been decoded yet
+     * @since 5.2
+     */
+    public boolean isResponseDataDecodingPending() {
+        return responseDataDecoder != null;
+    }
+
+    /**
+     * Applies the pending {@link ResponseDataDecoder} if any
+     */
+    private void decodeResponseData() {
+        if (responseDataDecoder == null) {
+            return;
+        }
+        synchronized (this) {
+            ResponseDataDecoder decoder = responseDataDecoder;
+            if (decoder == null) {
+                return;
+            }
+            try {
+                responseData = decoder.decode(responseData);
+            } catch (IOException e) {
+                log.warn("Could not decode response data of '{}', keeping raw data: {}", getSampleLabel(), e.toString());
+            }
+            responseDataAsString = null;
+            responseDataDecoder = null;
+            parsedResponses = null;
+        }
+    }
+
     /**
      * Sets the responseData attribute of the SampleResult object.
      * Should only be called after setting the dataEncoding (if necessary)
@@ -755,6 +856,8 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
     @Deprecated
     public void setResponseData(String response) {
         responseDataAsString = null;
+        responseDataDecoder = null;
+        parsedResponses = null;
         try {
             responseData = response.getBytes(getDataEncodingWithDefault());
         } catch (UnsupportedEncodingException e) {
@@ -772,6 +875,8 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void setResponseData(final String response, final String encoding) {
         responseDataAsString = null;
+        responseDataDecoder = null;
+        parsedResponses = null;
         String encodeUsing = encoding != null? encoding : DEFAULT_CHARSET;
         try {
             responseData = response.getBytes(encodeUsing);
@@ -795,6 +900,7 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      * @return the responseData value (cannot be null)
      */
     public byte[] getResponseData() {
+        decodeResponseData();
         return responseData;
     }
 
@@ -804,6 +910,7 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      * @return the responseData value as a String, converted according to the encoding
      */
     public String getResponseDataAsString() {
+        decodeResponseData();
         try {
             if(responseDataAsString == null) {
                 responseDataAsString= new String(responseData,getDataEncodingWithDefault());
@@ -1084,6 +1191,51 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         return startTime;
     }
 
+    /**
+     * @return the time at which the sample should have started, or 0 if unknown
+     */
+    public long getIntendedStartTime() {
+        return intendedStartTime;
+    }
+
+    /**
+     * Set the time at which the sample should have started, usually the time
+     * computed by the timers before the sample was delayed by the previous ones.
+     *
+     * @param intendedStartTime time in milliseconds, 0 if unknown
+     */
+    public void setIntendedStartTime(long intendedStartTime) {
+        this.intendedStartTime = intendedStartTime;
+    }
+
+    /**
+     * Get the elapsed time counted from the intended start of the sample.
+     * <p>
+     * When a thread is late because of the previous samples, the waiting time is
+     * not part of {@link #getTime()}, which hides it from the response time
+     * statistics (coordinated omission). The corrected time adds it back.
+     *
+     * @return elapsed time plus the delay of the start behind the intended
+     *         start, or the elapsed time if the intended start is unknown
+     */
+    public long getCorrectedTime() {
+        if (intendedStartTime > 0 && intendedStartTime < startTime) {
+            return elapsedTime + startTime - intendedStartTime;
+        }
+        return elapsedTime;
+    }
+
+    /**
+     * Set the corrected time by computing back the intended start time.
+     * For use by SampleResultConverter/CSVSaveService.
+     *
+     * @param correctedTime corrected elapsed time in milliseconds
+     * @see #getCorrectedTime()
+     */
+    public void setCorrectedTime(long correctedTime) {
+        intendedStartTime = correctedTime > elapsedTime ? startTime - (correctedTime - elapsedTime) : 0;
+    }
+
     /*
      * Helper methods N.B. setStartTime must be called before setEndTime
      *
@@ -1356,6 +1508,76 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
         this.connectTime = time;
     }
 
+    /**
+     * Adds the time spent resolving a host name while connecting
+     *
+     * @param time resolution time in milliseconds
+     * @since 5.2
+     */
+    public void addDnsResolutionTime(long time) {
+        dnsResolutionTime += time;
+    }
+
+    /**
+     * @return the time spent resolving host names in milliseconds, included in the connect time
+     * @since 5.2
+     */
+    public long getDnsResolutionTime() {
+        return dnsResolutionTime;
+    }
+
+    /**
+     * This is only intended for use by SampleResultConverter!
+     *
+     * @param time The DNS resolution time to set.
+     * @since 5.2
+     */
+    public void setDnsResolutionTime(long time) {
+        this.dnsResolutionTime = time;
+    }
+
+    /**
+     * Records a TLS handshake done while sampling.
+     *
+     * @param time duration of the handshake in milliseconds
+     * @param resumed <code>true</code> if a cached session was resumed,
+     *                <code>false</code> if a new session was negotiated
+     * @since 5.2
+     */
+    public void addTlsHandshake(long time, boolean resumed) {
+        tlsHandshakeTime += time;
+        if (resumed) {
+            tlsResumedHandshakeCount++;
+        } else {
+            tlsFullHandshakeCount++;
+        }
+    }
+
+    /**
+     * @return the time spent in TLS handshakes in milliseconds, included in the connect time
+     * @since 5.2
+     */
+    public long getTlsHandshakeTime() {
+        return tlsHandshakeTime;
+    }
+
+    /**
+     * @return the number of TLS handshakes that negotiated a new session
+     * @since 5.2
+     */
+    public int getTlsFullHandshakeCount() {
+        return tlsFullHandshakeCount;
+    }
+
+    /**
+     * @return the number of TLS handshakes that resumed a cached session.
+     * It is approximate with TLS 1.3, which resumes sessions with tickets.
+     * @since 5.2
+     */
+    public int getTlsResumedHandshakeCount() {
+        return tlsResumedHandshakeCount;
+    }
+
     /**
      * This is only intended for use by SampleResultConverter!
      *
@@ -1546,6 +1768,62 @@ public class SampleResult implements Serializable, Cloneable, Searchable {
      */
     public void cleanAfterSample() {
         this.responseDataAsString = null;
+        clearParsedResponses();
+    }
+
+    /**
+     * Gets a parsed representation of the response (JSON tree, DOM...), stored by
+     * {@link #setParsedResponse(String, Object)}, so that the extractors and
+     * assertions of the sample parse the response once.
+     *
+     * @param kind identifies the parser and its options
+     * @return the parsed representation of the response, or {@code null} if none was stored
+     * @since 5.2
+     */
+    public Object getParsedResponse(String kind) {
+        Map<String, Object> parsed = parsedResponses;
+        return parsed == null ? null : parsed.get(kind);
+    }
+
+    /**
+     * Stores a parsed representation of the response, to be shared with the other
+     * extractors and assertions of the sample. It must not be modified by its users.
+     * <p>
+     * The representation is discarded when the response data changes and when the
+     * sample package finishes. Nothing is stored if {@code sampleresult.parsed_response_cache}
+     * is {@code false}.
+     *
+     * @param kind   identifies the parser and its options, representations of different parsers must use different kinds
+     * @param parsed the parsed representation of the response
+     * @since 5.2
+     */
+    public void setParsedResponse(String kind, Object parsed) {
+        if (!CACHE_PARSED_RESPONSES) {
+            return;
+        }
+        if (parsedResponses == null) {
+            parsedResponses = new HashMap<>(4);
+        }
+        parsedResponses.put(kind, parsed);
+    }
+
+    /**
+     * Discard the parsed representations of the response of this sample and its sub-samples
+     * @since 5.2
+     */
+    public void clearParsedResponses() {
+        parsedResponses = null;
+        if (subResults != null) {
+            for (SampleResult subResult : subResults) {
+                subResult.clearParsedResponses();
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Remote listeners must receive the decoded data
+        decodeResponseData();
+        out.defaultWriteObject();
     }
 
     @Override
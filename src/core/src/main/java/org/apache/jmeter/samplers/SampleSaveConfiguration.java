@@ -203,6 +203,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
     private static final String ASSERTIONS_PROP      = "jmeter.save.saveservice.assertions"; // $NON_NLS-1$
     private static final String LATENCY_PROP         = "jmeter.save.saveservice.latency"; // $NON_NLS-1$
     private static final String CONNECT_TIME_PROP    = "jmeter.save.saveservice.connect_time"; // $NON_NLS-1$
+    private static final String CORRECTED_TIME_PROP  = "jmeter.save.saveservice.corrected_time"; // $NON_NLS-1$
+    private static final String DNS_TIME_PROP        = "jmeter.save.saveservice.dns_time"; // $NON_NLS-1$
     private static final String SAMPLERDATA_PROP     = "jmeter.save.saveservice.samplerData"; // $NON_NLS-1$
     private static final String RESPONSEHEADERS_PROP = "jmeter.save.saveservice.responseHeaders"; // $NON_NLS-1$
     private static final String REQUESTHEADERS_PROP  = "jmeter.save.saveservice.requestHeaders"; // $NON_NLS-1$
@@ -234,6 +236,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
     private static final boolean ASSERTIONS;
     private static final boolean LATENCY;
     private static final boolean CONNECT_TIME;
+    private static final boolean CORRECTED_TIME;
+    private static final boolean DNS_TIME;
     private static final boolean SUB_RESULTS;
     private static final boolean SAMPLER_DATA;
     private static final boolean FIELD_NAMES;
@@ -289,6 +293,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         ASSERTIONS      = TRUE.equalsIgnoreCase(props.getProperty(ASSERTIONS_PROP, TRUE));
         LATENCY         = TRUE.equalsIgnoreCase(props.getProperty(LATENCY_PROP, TRUE));
         CONNECT_TIME     = TRUE.equalsIgnoreCase(props.getProperty(CONNECT_TIME_PROP, TRUE));
+        CORRECTED_TIME   = TRUE.equalsIgnoreCase(props.getProperty(CORRECTED_TIME_PROP, FALSE));
+        DNS_TIME         = TRUE.equalsIgnoreCase(props.getProperty(DNS_TIME_PROP, FALSE));
         SAMPLER_DATA     = TRUE.equalsIgnoreCase(props.getProperty(SAMPLERDATA_PROP, FALSE));
         RESPONSE_HEADERS = TRUE.equalsIgnoreCase(props.getProperty(RESPONSEHEADERS_PROP, FALSE));
         REQUEST_HEADERS  = TRUE.equalsIgnoreCase(props.getProperty(REQUESTHEADERS_PROP, FALSE));
@@ -424,6 +430,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         "ResponseData", // XML
         "Subresults", // XML
         "Assertions", // XML
+        "CorrectedTime", // elapsed time counted from the intended start
+        "DnsTime", // time spent resolving host names
     }));
     // N.B. Remember to update the equals and hashCode methods when adding new variables.
 
@@ -431,6 +439,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
     private boolean time = TIME;
     private boolean latency = LATENCY;
     private boolean connectTime=CONNECT_TIME;
+    private boolean correctedTime = CORRECTED_TIME;
+    private boolean dnsTime = DNS_TIME;
     private boolean timestamp = TIMESTAMP;
     private boolean success = SUCCESS;
     private boolean label = LABEL;
@@ -499,6 +509,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         bytes = value;
         code = value;
         connectTime = value;
+        correctedTime = value;
+        dnsTime = value;
         dataType = value;
         encoding = value;
         fieldNames = value;
@@ -626,6 +638,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         boolean primitiveValues = s.time == time &&
             s.latency == latency &&
             s.connectTime == connectTime &&
+            s.correctedTime == correctedTime &&
+            s.dnsTime == dnsTime &&
             s.timestamp == timestamp &&
             s.success == success &&
             s.label == label &&
@@ -673,6 +687,8 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         hash = 31 * hash + (time ? 1 : 0);
         hash = 31 * hash + (latency ? 1 : 0);
         hash = 31 * hash + (connectTime ? 1 : 0);
+        hash = 31 * hash + (correctedTime ? 1 : 0);
+        hash = 31 * hash + (dnsTime ? 1 : 0);
         hash = 31 * hash + (timestamp ? 1 : 0);
         hash = 31 * hash + (success ? 1 : 0);
         hash = 31 * hash + (label ? 1 : 0);
@@ -781,6 +797,22 @@ public class SampleSaveConfiguration implements Cloneable, Serializable {
         this.connectTime = connectTime;
     }
 
+    public boolean saveCorrectedTime() {
+        return correctedTime;
+    }
+
+    public void setCorrectedTime(boolean correctedTime) {
+        this.correctedTime = correctedTime;
+    }
+
+    public boolean saveDnsTime() {
+        return dnsTime;
+    }
+
+    public void setDnsTime(boolean dnsTime) {
+        this.dnsTime = dnsTime;
+    }
+
     public boolean saveMessage() {
         return message;
     }
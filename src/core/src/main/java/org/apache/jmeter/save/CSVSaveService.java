@@ -48,6 +48,7 @@ import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.SampleSaveConfiguration;
 import org.apache.jmeter.samplers.StatisticalSampleResult;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.jmeter.visualizers.Visualizer;
 import org.apache.jorphan.reflect.Functor;
 import org.apache.jorphan.util.JMeterError;
@@ -96,6 +97,8 @@ public final class CSVSaveService {
     public static final String CSV_ENCODING = "Encoding"; // $NON-NLS-1$
     public static final String CSV_HOSTNAME = "Hostname"; // $NON-NLS-1$
     public static final String CSV_IDLETIME = "IdleTime"; // $NON-NLS-1$
+    public static final String CSV_CORRECTED_TIME = "CorrectedElapsed"; // $NON-NLS-1$
+    public static final String CSV_DNS_TIME = "DnsTime"; // $NON-NLS-1$
 
     // Used to enclose variable name labels, to distinguish from any of the
     // above labels
@@ -363,6 +366,16 @@ public final class CSVSaveService {
                 text = parts[i++];
                 result.setConnectTime(Long.parseLong(text));
             }
+            if (saveConfig.saveCorrectedTime()) {
+                field = CSV_CORRECTED_TIME;
+                text = parts[i++];
+                result.setCorrectedTime(Long.parseLong(text));
+            }
+            if (saveConfig.saveDnsTime()) {
+                field = CSV_DNS_TIME;
+                text = parts[i++];
+                result.setDnsResolutionTime(Long.parseLong(text));
+            }
 
             if (i + saveConfig.getVarCount() < parts.length) {
                 log.warn("Line: {}. Found {} fields, expected {}. Extra fields have been ignored.", lineNumber,
@@ -422,6 +435,8 @@ public final class CSVSaveService {
         appendFields(saveConfig.saveHostname(), text, delim, CSV_HOSTNAME);
         appendFields(saveConfig.saveIdleTime(), text, delim, CSV_IDLETIME);
         appendFields(saveConfig.saveConnectTime(), text, delim, CSV_CONNECT_TIME);
+        appendFields(saveConfig.saveCorrectedTime(), text, delim, CSV_CORRECTED_TIME);
+        appendFields(saveConfig.saveDnsTime(), text, delim, CSV_DNS_TIME);
 
         for (int i = 0; i < SampleEvent.getVarCount(); i++) {
             text.append(VARIABLE_NAME_QUOTE_CHAR);
@@ -487,6 +502,8 @@ public final class CSVSaveService {
         headerLabelMethods.put(CSV_HOSTNAME, new Functor("setHostname"));
         headerLabelMethods.put(CSV_IDLETIME, new Functor("setIdleTime"));
         headerLabelMethods.put(CSV_CONNECT_TIME, new Functor("setConnectTime"));
+        headerLabelMethods.put(CSV_CORRECTED_TIME, new Functor("setCorrectedTime"));
+        headerLabelMethods.put(CSV_DNS_TIME, new Functor("setDnsTime"));
     }
 
     /**
@@ -510,7 +527,7 @@ public final class CSVSaveService {
         if (parts == null) {
             Perl5Matcher matcher = JMeterUtils.getMatcher();
             PatternMatcherInput input = new PatternMatcherInput(headerLine);
-            Pattern pattern = JMeterUtils.getPatternCache()
+            Pattern pattern = RegexService.getPatternCache()
             // This assumes the header names are all single words with no spaces
             // word followed by 0 or more repeats of (non-word char + word)
             // where the non-word char (\2) is the same
@@ -907,6 +924,14 @@ public final class CSVSaveService {
             text.append(sample.getConnectTime());
         }
 
+        if (saveConfig.saveCorrectedTime()) {
+            text.append(sample.getCorrectedTime());
+        }
+
+        if (saveConfig.saveDnsTime()) {
+            text.append(sample.getDnsResolutionTime());
+        }
+
         for (int i = 0; i < SampleEvent.getVarCount(); i++) {
             text.append(event.getVarValue(i));
         }
@@ -74,6 +74,8 @@ public class SampleResultConverter extends AbstractCollectionConverter {
     private static final String ATT_LABEL             = "lb"; //$NON-NLS-1$
     private static final String ATT_LATENCY           = "lt"; //$NON-NLS-1$
     private static final String ATT_CONNECT_TIME      = "ct"; //$NON-NLS-1$
+    private static final String ATT_CORRECTED_TIME    = "cet"; //$NON-NLS-1$
+    private static final String ATT_DNS_TIME          = "dns"; //$NON-NLS-1$
 
     private static final String ATT_ALL_THRDS         = "na"; //$NON-NLS-1$
     private static final String ATT_GRP_THRDS         = "ng"; //$NON-NLS-1$
@@ -293,6 +295,12 @@ public class SampleResultConverter extends AbstractCollectionConverter {
         if (save.saveConnectTime()) {
             writer.addAttribute(ATT_CONNECT_TIME, Long.toString(res.getConnectTime()));
         }
+        if (save.saveCorrectedTime()) {
+            writer.addAttribute(ATT_CORRECTED_TIME, Long.toString(res.getCorrectedTime()));
+        }
+        if (save.saveDnsTime()) {
+            writer.addAttribute(ATT_DNS_TIME, Long.toString(res.getDnsResolutionTime()));
+        }
         if (save.saveTimestamp()) {
             writer.addAttribute(ATT_TIME_STAMP, Long.toString(res.getTimeStamp()));
         }
@@ -447,6 +455,8 @@ public class SampleResultConverter extends AbstractCollectionConverter {
         res.setIdleTime(Converter.getLong(reader.getAttribute(ATT_IDLETIME)));
         res.setLatency(Converter.getLong(reader.getAttribute(ATT_LATENCY)));
         res.setConnectTime(Converter.getLong(reader.getAttribute(ATT_CONNECT_TIME)));
+        res.setCorrectedTime(Converter.getLong(reader.getAttribute(ATT_CORRECTED_TIME)));
+        res.setDnsResolutionTime(Converter.getLong(reader.getAttribute(ATT_DNS_TIME)));
         res.setBytes(Converter.getLong(reader.getAttribute(ATT_BYTES)));
         res.setSentBytes(Converter.getLong(reader.getAttribute(ATT_SENT_BYTES)));
         res.setSampleCount(Converter.getInt(reader.getAttribute(ATT_SAMPLE_COUNT),1)); // default is 1
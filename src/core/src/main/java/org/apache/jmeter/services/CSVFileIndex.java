@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jmeter.save.CSVSaveService;
+import org.apache.jorphan.util.JOrphanUtils;
+
+/**
+ * Memory-mapped file with an index of the offsets of its records, so that
+ * records can be read concurrently without locking.
+ * <p>
+ * Records are lines ended by {@code \n}, {@code \r} or {@code \r\n}, like
+ * {@link java.io.BufferedReader#readLine()}. When the data is quoted, line
+ * ends between quotes do not end a record, like
+ * {@link CSVSaveService#csvReadFile(java.io.BufferedReader, char)}.
+ * Records are only decoded when they are read.
+ * <p>
+ * Only files smaller than 2GB using an encoding in which line ends and quotes
+ * are single ASCII bytes can be indexed, see {@link #open(File, String, boolean)}.
+ * This class is immutable; {@link Cursor}s hold the position of the readers.
+ *
+ * @since 5.2
+ */
+public final class CSVFileIndex {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte QUOTE = CSVSaveService.QUOTING_CHAR;
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    /** Offset of the start of each record, followed by the size of the mapped data */
+    private final int[] starts;
+    private final int count;
+
+    private CSVFileIndex(File file, ByteBuffer buffer, Charset charset, int[] starts, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.charset = charset;
+        this.starts = starts;
+        this.count = count;
+    }
+
+    /**
+     * Map a file in memory and index its records
+     *
+     * @param file        file to index
+     * @param charsetName encoding of the file, or {@code null} to use the BOM
+     *                    of the file or the default encoding
+     * @param quoted      {@code true} if line ends between quotes do not end records
+     * @return the index of the file, or {@code null} if the size or the
+     *         encoding of the file do not allow to index it
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file does not exist
+     */
+    public static CSVFileIndex open(File file, String charsetName, boolean quoted) throws IOException {
+        if (!file.canRead() || !file.isFile()) {
+            throw new IllegalArgumentException("File "+ file.getName()+ " must exist and be readable");
+        }
+        if (file.length() > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); // $NON-NLS-1$
+                FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int offset = 0;
+        Charset charset;
+        if (startsWith(buffer, UTF8_BOM)) { // BOMInputStream removes it whatever the encoding
+            offset = UTF8_BOM.length;
+            charset = JOrphanUtils.isBlank(charsetName) ? StandardCharsets.UTF_8 : Charset.forName(charsetName);
+        } else if (!JOrphanUtils.isBlank(charsetName)) {
+            charset = Charset.forName(charsetName);
+        } else if (buffer.limit() >= 2 && (buffer.get(0) & 0xFE) == 0xFE && (buffer.get(1) & 0xFE) == 0xFE) {
+            return null; // UTF-16 BOM
+        } else {
+            charset = Charset.defaultCharset();
+        }
+        if (!isAsciiCompatible(charset)) {
+            return null;
+        }
+        int[] starts = index(buffer, offset, quoted);
+        return new CSVFileIndex(file, buffer, charset, starts, starts.length - 1);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, byte[] prefix) {
+        if (buffer.limit() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Line ends and quotes can be searched as bytes in UTF-8 and in single byte
+     * encodings which are supersets of ASCII, but not in other multi-byte encodings
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return true;
+        }
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() > 1) {
+            return false;
+        }
+        return Arrays.equals("\r\n\"".getBytes(charset), new byte[] { CR, LF, QUOTE }); // $NON-NLS-1$
+    }
+
+    private static int[] index(ByteBuffer buffer, int offset, boolean quoted) {
+        int size = buffer.limit();
+        int[] starts = new int[Math.max(16, size / 64)];
+        int count = 0;
+        boolean inQuotes = false;
+        int recordStart = offset;
+        for (int i = offset; i < size; i++) {
+            byte b = buffer.get(i);
+            if (quoted && b == QUOTE) {
+                inQuotes = !inQuotes;
+            } else if ((b == LF || b == CR) && !inQuotes) {
+                if (b == CR && i + 1 < size && buffer.get(i + 1) == LF) {
+                    i++;
+                }
+                starts = add(starts, count++, recordStart);
+                recordStart = i + 1;
+            }
+        }
+        if (recordStart < size) { // last record without line end
+            starts = add(starts, count++, recordStart);
+        }
+        starts = add(starts, count, size);
+        return Arrays.copyOf(starts, count + 1);
+    }
+
+    private static int[] add(int[] array, int index, int value) {
+        int[] result = index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+        result[index] = value;
+        return result;
+    }
+
+    /**
+     * @return the indexed file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of records
+     */
+    public int getRecordCount() {
+        return count;
+    }
+
+    /**
+     * Decode a record
+     *
+     * @param index index of the record, starting from 0
+     * @return the record without its line end
+     */
+    public String getRecord(int index) {
+        int start = starts[index];
+        int end = starts[index + 1];
+        if (end > start && buffer.get(end - 1) == LF) {
+            end--;
+            if (end > start && buffer.get(end - 1) == CR) {
+                end--;
+            }
+        } else if (end > start && buffer.get(end - 1) == CR) {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer record = buffer.duplicate(); // the position of the shared buffer must not move
+        record.position(start);
+        record.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Create a cursor reading the records of the file in turn
+     *
+     * @param skipFirstRecord {@code true} if the first record is a header which must not be read
+     * @return a new cursor at the first record to read
+     */
+    public Cursor newCursor(boolean skipFirstRecord) {
+        return new Cursor(this, skipFirstRecord ? 1 : 0);
+    }
+
+    /**
+     * Position in an indexed file, which can be shared by several threads
+     */
+    public static final class Cursor {
+        private final CSVFileIndex index;
+        private final int first;
+        private final AtomicLong next = new AtomicLong();
+
+        private Cursor(CSVFileIndex index, int first) {
+            this.index = index;
+            this.first = first;
+        }
+
+        /**
+         * @return the index read by this cursor
+         */
+        public CSVFileIndex getIndex() {
+            return index;
+        }
+
+        /**
+         * Read the next record without locking
+         *
+         * @param recycle {@code true} to restart from the first record at the end of the file
+         * @return the next record, or {@code null} at the end of the file
+         */
+        public String nextRecord(boolean recycle) {
+            long records = (long) index.count - first;
+            if (records <= 0) {
+                return null;
+            }
+            long position = next.getAndIncrement();
+            if (position >= records) {
+                if (!recycle) {
+                    return null;
+                }
+                position %= records;
+            }
+            return index.getRecord(first + (int) position);
+        }
+    }
+}
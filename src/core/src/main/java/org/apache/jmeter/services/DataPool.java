@@ -0,0 +1,492 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.services;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.jmeter.save.CSVSaveService;
+import org.apache.jorphan.util.JOrphanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable table of test data, loaded once and shared by all threads.
+ * <p>
+ * The data is stored by column: the distinct values of each column are kept
+ * once in a dictionary, and each row holds the code of its value in a direct
+ * buffer outside of the heap, using 1, 2 or 4 bytes depending on the size of
+ * the dictionary. Columns with few distinct values, such as a country or a
+ * role, take a byte per row whatever the length of their values.
+ * <p>
+ * Rows are read through {@link Row} views which do not copy the data.
+ * The order in which {@link #next(boolean)} hands out the rows depends on
+ * the {@link AccessMode} of the pool, and never takes a lock.
+ * <p>
+ * Pools can be registered by name, so that they can be looked up by the
+ * CSV Data Set, the {@code __CSVRead} function or scripts:
+ * <pre>{@code
+ * DataPool.Row user = DataPool.getPool("users").next(true);
+ * vars.put("login", user.get("login"));
+ * }</pre>
+ *
+ * @since 5.2
+ */
+public final class DataPool {
+
+    private static final Logger log = LoggerFactory.getLogger(DataPool.class);
+
+    /** Registered pools, by name */
+    private static final Map<String, DataPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Order in which {@link DataPool#next(boolean)} returns the rows
+     */
+    public enum AccessMode {
+        /** Rows in the order of the file */
+        SEQUENTIAL,
+        /** Rows drawn at random, a row can be returned several times */
+        RANDOM,
+        /** Rows in a random order, each row being returned once */
+        UNIQUE
+    }
+
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndexes;
+    /** Distinct values of each column */
+    private final String[][] dictionaries;
+    /** Codes of the values of each row in the dictionary of each column */
+    private final ByteBuffer[] codes;
+    /** Number of bytes of each code, for each column */
+    private final int[] widths;
+    private final int rowCount;
+    private final AccessMode accessMode;
+    /** Order of the rows in UNIQUE mode */
+    private final IntBuffer permutation;
+    private final AtomicLong next = new AtomicLong();
+
+    private DataPool(String[] columnNames, String[][] dictionaries, ByteBuffer[] codes, int[] widths,
+            int rowCount, AccessMode accessMode) {
+        this.columnNames = columnNames;
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexes.putIfAbsent(columnNames[i], i);
+        }
+        this.dictionaries = dictionaries;
+        this.codes = codes;
+        this.widths = widths;
+        this.rowCount = rowCount;
+        this.accessMode = accessMode;
+        this.permutation = accessMode == AccessMode.UNIQUE ? shuffle(rowCount) : null;
+    }
+
+    private static IntBuffer shuffle(int rowCount) {
+        IntBuffer permutation = ByteBuffer.allocateDirect(rowCount * Integer.BYTES).asIntBuffer();
+        for (int i = 0; i < rowCount; i++) {
+            permutation.put(i, i);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = rowCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation.get(i);
+            permutation.put(i, permutation.get(j));
+            permutation.put(j, swap);
+        }
+        return permutation;
+    }
+
+    /**
+     * Register a pool, replacing any pool registered with the same name
+     *
+     * @param name name of the pool
+     * @param pool pool to register
+     */
+    public static void register(String name, DataPool pool) {
+        POOLS.put(name, pool);
+    }
+
+    /**
+     * Remove a registered pool
+     *
+     * @param name name of the pool
+     */
+    public static void unregister(String name) {
+        POOLS.remove(name);
+    }
+
+    /**
+     * @param name name of the pool
+     * @return the pool registered with this name, or {@code null} if there is none
+     */
+    public static DataPool getPool(String name) {
+        return name == null ? null : POOLS.get(name);
+    }
+
+    /**
+     * Load a delimited file in a pool
+     *
+     * @param file        file to load
+     * @param charsetName encoding of the file, or {@code null} to use the BOM
+     *                    of the file or the default encoding
+     * @param delimiter   delimiter of the values
+     * @param quoted      {@code true} if values can be quoted
+     * @param header      {@code true} if the first line holds the names of the columns
+     * @param accessMode  order in which {@link #next(boolean)} returns the rows
+     * @return the pool
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file does not exist
+     */
+    public static DataPool load(File file, String charsetName, String delimiter, boolean quoted,
+            boolean header, AccessMode accessMode) throws IOException {
+        if (!file.canRead() || !file.isFile()) {
+            throw new IllegalArgumentException("File "+ file.getName()+ " must exist and be readable");
+        }
+        Builder builder = new Builder();
+        try (BufferedReader reader = createReader(file, charsetName)) {
+            String[] values;
+            while ((values = readRecord(reader, delimiter, quoted)) != null) {
+                if (header && builder.columnNames == null) {
+                    builder.setColumnNames(values);
+                } else {
+                    builder.addRow(values);
+                }
+            }
+        }
+        DataPool pool = builder.build(accessMode);
+        log.info("Loaded {}: {} rows, {} columns, {} bytes of codes", file, pool.getRowCount(),
+                pool.getColumnCount(), pool.getCodeSize());
+        return pool;
+    }
+
+    private static BufferedReader createReader(File file, String charsetName) throws IOException {
+        BOMInputStream fis = new BOMInputStream(new FileInputStream(file)); //NOSONAR closed with the reader
+        if (!JOrphanUtils.isBlank(charsetName)) {
+            return new BufferedReader(new InputStreamReader(fis, charsetName));
+        } else if (fis.hasBOM()) {
+            return new BufferedReader(new InputStreamReader(fis, fis.getBOM().getCharsetName()));
+        }
+        return new BufferedReader(new InputStreamReader(fis));
+    }
+
+    private static String[] readRecord(BufferedReader reader, String delimiter, boolean quoted) throws IOException {
+        if (quoted) {
+            String[] values = CSVSaveService.csvReadFile(reader, delimiter.charAt(0));
+            return values.length == 0 ? null : values;
+        }
+        String line = reader.readLine();
+        return line == null ? null : JOrphanUtils.split(line, delimiter, false);
+    }
+
+    /**
+     * @return the names of the columns, empty if the pool has no header
+     */
+    public String[] getColumnNames() {
+        return columnNames.clone();
+    }
+
+    /**
+     * @param name name of a column
+     * @return the index of the column, or -1 if there is no column with this name
+     */
+    public int getColumnIndex(String name) {
+        Integer index = columnIndexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return codes.length;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the access mode of the pool
+     */
+    public AccessMode getAccessMode() {
+        return accessMode;
+    }
+
+    /**
+     * @return the number of bytes used outside of the heap by the codes of the values
+     */
+    public long getCodeSize() {
+        long size = 0;
+        for (ByteBuffer column : codes) {
+            size += column.capacity();
+        }
+        return size;
+    }
+
+    /**
+     * Get a value
+     *
+     * @param row    index of the row, starting from 0
+     * @param column index of the column, starting from 0
+     * @return the value, empty if the row has less values than the pool has columns
+     * @throws IndexOutOfBoundsException if the row or the column does not exist
+     */
+    public String getValue(int row, int column) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", rows: " + rowCount);
+        }
+        if (column < 0 || column >= codes.length) {
+            throw new IndexOutOfBoundsException("Column: " + column + ", columns: " + codes.length);
+        }
+        ByteBuffer columnCodes = codes[column];
+        int code;
+        switch (widths[column]) {
+            case Byte.BYTES:
+                code = columnCodes.get(row) & 0xFF;
+                break;
+            case Short.BYTES:
+                code = columnCodes.getShort(row * Short.BYTES) & 0xFFFF;
+                break;
+            default:
+                code = columnCodes.getInt(row * Integer.BYTES);
+                break;
+        }
+        return dictionaries[column][code];
+    }
+
+    /**
+     * @param row index of the row, starting from 0
+     * @return a view of the row
+     * @throws IndexOutOfBoundsException if the row does not exist
+     */
+    public Row getRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", rows: " + rowCount);
+        }
+        return new Row(row);
+    }
+
+    /**
+     * Get the next row in the order of the access mode of the pool.
+     * This method can be called by several threads without locking.
+     *
+     * @param recycle {@code true} to start again once all the rows have been returned,
+     *                ignored in {@link AccessMode#RANDOM} mode
+     * @return the next row, or {@code null} if the pool is empty or all its rows have been returned
+     */
+    public Row next(boolean recycle) {
+        if (rowCount == 0) {
+            return null;
+        }
+        if (accessMode == AccessMode.RANDOM) {
+            return new Row(ThreadLocalRandom.current().nextInt(rowCount));
+        }
+        long position = next.getAndIncrement();
+        if (position >= rowCount) {
+            if (!recycle) {
+                return null;
+            }
+            position %= rowCount;
+        }
+        int row = (int) position;
+        return new Row(accessMode == AccessMode.UNIQUE ? permutation.get(row) : row);
+    }
+
+    /**
+     * View of a row of the pool, which does not copy its values
+     */
+    public final class Row {
+        private final int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        /**
+         * @return the index of the row in the pool
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the number of values of the row
+         */
+        public int size() {
+            return codes.length;
+        }
+
+        /**
+         * @param column index of the column, starting from 0
+         * @return the value of the column
+         * @throws IndexOutOfBoundsException if the column does not exist
+         */
+        public String get(int column) {
+            return getValue(index, column);
+        }
+
+        /**
+         * @param column name of the column
+         * @return the value of the column, or {@code null} if there is no column with this name
+         */
+        public String get(String column) {
+            int columnIndex = getColumnIndex(column);
+            return columnIndex < 0 ? null : getValue(index, columnIndex);
+        }
+
+        /**
+         * @return the values of the row
+         */
+        public String[] toArray() {
+            String[] values = new String[codes.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(index, i);
+            }
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+
+    /**
+     * Build a pool row by row. Only the codes of the values and the distinct
+     * values are kept while building.
+     */
+    public static final class Builder {
+        private String[] columnNames;
+        private final List<ColumnBuilder> columns = new ArrayList<>();
+        private int rowCount;
+
+        /**
+         * @param names names of the columns
+         * @return this builder
+         */
+        public Builder setColumnNames(String... names) {
+            columnNames = names.clone();
+            while (columns.size() < names.length) {
+                columns.add(new ColumnBuilder());
+            }
+            return this;
+        }
+
+        /**
+         * Add a row. Columns are added as needed, and missing values are empty.
+         *
+         * @param values values of the row
+         * @return this builder
+         */
+        public Builder addRow(String... values) {
+            while (columns.size() < values.length) {
+                columns.add(new ColumnBuilder());
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).add(rowCount, i < values.length ? values[i] : "");
+            }
+            rowCount++;
+            return this;
+        }
+
+        /**
+         * @param accessMode order in which {@link DataPool#next(boolean)} returns the rows
+         * @return the pool holding the added rows
+         * @throws IllegalArgumentException if there are too many rows to store their codes
+         */
+        public DataPool build(AccessMode accessMode) {
+            int count = columns.size();
+            String[][] dictionaries = new String[count][];
+            ByteBuffer[] codes = new ByteBuffer[count];
+            int[] widths = new int[count];
+            for (int i = 0; i < count; i++) {
+                ColumnBuilder column = columns.get(i);
+                dictionaries[i] = column.values.toArray(new String[0]);
+                widths[i] = column.values.size() <= 1 << Byte.SIZE ? Byte.BYTES
+                        : column.values.size() <= 1 << Short.SIZE ? Short.BYTES
+                        : Integer.BYTES;
+                codes[i] = column.encode(rowCount, widths[i]);
+            }
+            String[] names = columnNames == null ? new String[0] : columnNames;
+            return new DataPool(names, dictionaries, codes, widths, rowCount, accessMode);
+        }
+    }
+
+    private static final class ColumnBuilder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] rowCodes = new int[16];
+
+        private ColumnBuilder() {
+            code(""); // code 0, so that rows added before the column are empty
+        }
+
+        private int code(String value) {
+            return dictionary.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        private void add(int row, String value) {
+            if (row >= rowCodes.length) {
+                rowCodes = Arrays.copyOf(rowCodes, Math.max(row + 1, rowCodes.length * 2));
+            }
+            rowCodes[row] = code(value);
+        }
+
+        private ByteBuffer encode(int rowCount, int width) {
+            if ((long) rowCount * width > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many rows: " + rowCount);
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(rowCount * width);
+            for (int row = 0; row < rowCount; row++) {
+                int code = row < rowCodes.length ? rowCodes[row] : 0;
+                switch (width) {
+                    case Byte.BYTES:
+                        buffer.put(row, (byte) code);
+                        break;
+                    case Short.BYTES:
+                        buffer.putShort(row * Short.BYTES, (short) code);
+                        break;
+                    default:
+                        buffer.putInt(row * Integer.BYTES, code);
+                        break;
+                }
+            }
+            return buffer;
+        }
+    }
+}
@@ -76,6 +76,12 @@ public class FileServer {
 
     private final Map<String, FileEntry> files = new HashMap<>();
 
+    /** Indexes of files shared by all their aliases, by canonical path, encoding and quoting */
+    private final Map<String, CSVFileIndex> indexes = new HashMap<>();
+
+    /** Cursors over the indexed files, by alias */
+    private final Map<String, CSVFileIndex.Cursor> cursors = new HashMap<>();
+
     private static final FileServer server = new FileServer();
 
     // volatile needed to ensure safe publication
@@ -286,6 +292,59 @@ public class FileServer {
         return fileEntry.headerLine;
     }
 
+    /**
+     * Get a cursor over the records of a file, which can be shared by
+     * threads without locking. The file is mapped in memory and indexed once,
+     * whatever the number of aliases used to read it.
+     *
+     * @param filename - relative (to base) or absolute file name (must not be null or empty)
+     * @param charsetName - the character set encoding to use for the file (may be null)
+     * @param alias - the name of the cursor, shared by all callers using the same alias (must not be null)
+     * @param quoted - true if line ends between quotes do not end records
+     * @param skipFirstLine - true if the first line is a header which must not be returned by the cursor
+     * @return the cursor, or null if the file can not be indexed and must be read with {@link #reserveFile(String, String, String, boolean)}
+     * @throws IllegalArgumentException if the file does not exist, can not be read or filename is null or empty
+     * @see CSVFileIndex#open(File, String, boolean)
+     */
+    public synchronized CSVFileIndex.Cursor reserveIndexedFile(String filename, String charsetName, String alias,
+            boolean quoted, boolean skipFirstLine) {
+        if (filename == null || filename.isEmpty()){
+            throw new IllegalArgumentException("Filename must not be null or empty");
+        }
+        if (alias == null){
+            throw new IllegalArgumentException("Alias must not be null");
+        }
+        CSVFileIndex.Cursor cursor = cursors.get(alias);
+        if (cursor != null) {
+            return cursor;
+        }
+        File file = resolveFileFromPath(filename);
+        try {
+            String key = file.getCanonicalPath() + "|" + charsetName + "|" + quoted; // $NON-NLS-1$ $NON-NLS-2$
+            CSVFileIndex index = indexes.get(key);
+            if (index == null && !indexes.containsKey(key)) {
+                index = CSVFileIndex.open(file, charsetName, quoted);
+                indexes.put(key, index);
+                if (index == null) {
+                    log.info("Cannot index: {}, it will be read line by line", filename);
+                } else {
+                    log.info("Indexed: {} ({} records)", filename, index.getRecordCount());
+                }
+            }
+            if (index == null) {
+                return null;
+            }
+            cursor = index.newCursor(skipFirstLine);
+            cursors.put(alias, cursor);
+            if (!filename.equals(alias)) {
+                log.info("Stored: {} Alias: {}", filename, alias);
+            }
+            return cursor;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not index file " + filename, e);
+        }
+    }
+
     /**
      * Resolves file name into {@link File} instance.
      * When filename is not absolute and not found from current working dir,
@@ -472,6 +531,8 @@ public class FileServer {
             closeFile(me.getKey(),me.getValue() );
         }
         files.clear();
+        indexes.clear();
+        cursors.clear();
     }
 
     /**
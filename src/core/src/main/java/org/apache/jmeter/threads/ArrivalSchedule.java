@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times of the arrivals of an {@link ArrivalsThreadGroup}.
+ * <p>
+ * The rate of arrivals goes from a start rate to an end rate during the ramp-up,
+ * either linearly or by steps, then stays at the end rate during the hold time.
+ * Arrival <i>n</i> happens when the number of arrivals expected by the rate reaches <i>n</i>,
+ * so arrivals are evenly spaced when the rate is constant.
+ * </p>
+ * This class is immutable.
+ */
+final class ArrivalSchedule {
+
+    /** Rate of arrivals at the start of each segment, per second */
+    private final double[] startRates;
+    /** Rate of arrivals at the end of each segment, per second */
+    private final double[] endRates;
+    /** Duration of each segment in seconds */
+    private final double[] durations;
+    /** Start time of each segment in seconds */
+    private final double[] startTimes;
+    /** Number of arrivals expected before each segment */
+    private final double[] startCounts;
+    private final double duration;
+    private final double count;
+
+    /**
+     * @param startRate    arrivals per second at the start of the ramp-up
+     * @param endRate      arrivals per second at the end of the ramp-up and during the hold time
+     * @param rampUpTime   ramp-up time in seconds
+     * @param steps        number of steps of the ramp-up, 0 for a linear ramp-up
+     * @param holdTime     time in seconds during which the end rate is held
+     */
+    ArrivalSchedule(double startRate, double endRate, double rampUpTime, int steps, double holdTime) {
+        if (startRate < 0 || endRate < 0 || rampUpTime < 0 || steps < 0 || holdTime < 0) {
+            throw new IllegalArgumentException("Negative arrival rate, time or steps: start rate=" + startRate
+                    + ", end rate=" + endRate + ", ramp-up=" + rampUpTime + ", steps=" + steps + ", hold=" + holdTime);
+        }
+        List<double[]> segments = new ArrayList<>();
+        if (rampUpTime > 0) {
+            if (steps == 0) {
+                segments.add(new double[] { startRate, endRate, rampUpTime });
+            } else {
+                for (int i = 0; i < steps; i++) {
+                    double rate = startRate + (endRate - startRate) * i / steps;
+                    segments.add(new double[] { rate, rate, rampUpTime / steps });
+                }
+            }
+        }
+        if (holdTime > 0) {
+            segments.add(new double[] { endRate, endRate, holdTime });
+        }
+        int size = segments.size();
+        startRates = new double[size];
+        endRates = new double[size];
+        durations = new double[size];
+        startTimes = new double[size];
+        startCounts = new double[size];
+        double time = 0;
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            double[] segment = segments.get(i);
+            startRates[i] = segment[0];
+            endRates[i] = segment[1];
+            durations[i] = segment[2];
+            startTimes[i] = time;
+            startCounts[i] = total;
+            time += durations[i];
+            total += (startRates[i] + endRates[i]) / 2 * durations[i];
+        }
+        duration = time;
+        count = total;
+    }
+
+    /**
+     * @return the duration of the schedule in seconds
+     */
+    double getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the number of arrivals of the schedule
+     */
+    long getCount() {
+        return (long) Math.ceil(count);
+    }
+
+    /**
+     * Get the time of an arrival
+     *
+     * @param index index of the arrival, starting from 0
+     * @return time of the arrival in seconds from the start of the schedule,
+     *         or a negative value if the schedule ends before
+     */
+    double getArrivalTime(long index) {
+        if (index < 0 || index >= count) {
+            return -1;
+        }
+        int segment = startCounts.length - 1;
+        while (startCounts[segment] > index) {
+            segment--;
+        }
+        double remaining = index - startCounts[segment];
+        if (remaining <= 0) {
+            return startTimes[segment];
+        }
+        double startRate = startRates[segment];
+        double slope = (endRates[segment] - startRate) / durations[segment];
+        // Solve startRate * t + slope * t^2 / 2 = remaining, in a form which is
+        // also stable when the slope is null or negative
+        double time = 2 * remaining / (startRate + Math.sqrt(Math.max(0, startRate * startRate + 2 * slope * remaining)));
+        return startTimes[segment] + Math.min(time, durations[segment]);
+    }
+}
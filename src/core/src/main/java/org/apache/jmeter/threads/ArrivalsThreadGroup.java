@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.jmeter.control.LoopController;
+import org.apache.jmeter.engine.StandardJMeterEngine;
+import org.apache.jmeter.engine.TreeCloner;
+import org.apache.jmeter.engine.event.LoopIterationEvent;
+import org.apache.jmeter.engine.event.LoopIterationListener;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.property.DoubleProperty;
+import org.apache.jmeter.testelement.property.IntegerProperty;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.collections.ListedHashTree;
+import org.apache.jorphan.util.JMeterStopTestException;
+import org.apache.jorphan.util.JMeterStopThreadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread Group starting iterations at a given rate of arrivals (open workload model),
+ * whatever the response time of the samples.
+ * <p>
+ * Each arrival starts one iteration of the sampler controller on an idle thread.
+ * When no thread is idle, a new thread is started, up to the number of threads of the group.
+ * When all these threads are busy, arrivals wait for a thread and start late, and when as many
+ * arrivals as threads are already waiting, new arrivals are dropped.
+ * Late starts and dropped arrivals are counted. Once the schedule has ended and its last thread
+ * has finished, they are logged and reported to the listeners of the group by a sample, which
+ * fails if arrivals were dropped.
+ * </p>
+ * This class is intended to be ThreadSafe.
+ */
+public class ArrivalsThreadGroup extends AbstractThreadGroup {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log = LoggerFactory.getLogger(ArrivalsThreadGroup.class);
+
+    private static final long WAIT_TO_DIE = JMeterUtils.getPropDefault("jmeterengine.threadstop.wait", 5 * 1000); // 5 seconds
+
+    /** Delay after the intended start time from which an iteration is counted as a late start */
+    private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            JMeterUtils.getPropDefault("arrivals.late_threshold", 10)); // $NON-NLS-1$
+
+    /** How often idle threads and the scheduler check for shutdown */
+    private static final long POLL_MILLIS = 100;
+
+    //+ JMX entries - do not change the string values
+
+    /** Arrivals per second at the start of the ramp-up */
+    public static final String START_RATE = "ArrivalsThreadGroup.start_rate";
+
+    /** Arrivals per second at the end of the ramp-up and during the hold time */
+    public static final String END_RATE = "ArrivalsThreadGroup.end_rate";
+
+    /** Ramp-up time in seconds */
+    public static final String RAMP_TIME = "ArrivalsThreadGroup.ramp_time";
+
+    /** Number of steps of the ramp-up, 0 for a linear ramp-up */
+    public static final String STEPS = "ArrivalsThreadGroup.steps";
+
+    /** Hold time in seconds */
+    public static final String HOLD_TIME = "ArrivalsThreadGroup.hold_time";
+    //- JMX entries
+
+    private transient Thread scheduler;
+
+    // List of active threads
+    private final ConcurrentHashMap<JMeterThread, Thread> allThreads = new ConcurrentHashMap<>();
+
+    /** Intended start times in nanoseconds of the arrivals waiting for a thread */
+    private final BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger idleThreads = new AtomicInteger();
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    private final AtomicLong arrivalCount = new AtomicLong();
+
+    private final AtomicLong lateStarts = new AtomicLong();
+
+    private final AtomicLong droppedArrivals = new AtomicLong();
+
+    /** Is test (still) running? */
+    private volatile boolean running = false;
+
+    /** Have all arrivals of the schedule been dispatched? */
+    private volatile boolean scheduleEnded = false;
+
+    /** Have the statistics of the schedule been reported? */
+    private final AtomicBoolean statisticsReported = new AtomicBoolean();
+
+    /** Thread Group number */
+    private int groupNumber;
+
+    /** Thread safe class */
+    private ListenerNotifier notifier;
+
+    /** This property will be cloned */
+    private ListedHashTree threadGroupTree;
+
+    private transient StandardJMeterEngine engine;
+
+    private transient JMeterContext context;
+
+    /** Set on the clone used by each thread: listener waiting for an arrival before each iteration */
+    private transient ArrivalListener arrivalListener;
+
+    public ArrivalsThreadGroup() {
+        super();
+    }
+
+    public void setStartRate(double startRate) {
+        setProperty(new DoubleProperty(START_RATE, startRate));
+    }
+
+    /**
+     * @return arrivals per second at the start of the ramp-up
+     */
+    public double getStartRate() {
+        return getPropertyAsDouble(START_RATE);
+    }
+
+    public void setEndRate(double endRate) {
+        setProperty(new DoubleProperty(END_RATE, endRate));
+    }
+
+    /**
+     * @return arrivals per second at the end of the ramp-up and during the hold time
+     */
+    public double getEndRate() {
+        return getPropertyAsDouble(END_RATE);
+    }
+
+    public void setRampUp(int rampUp) {
+        setProperty(new IntegerProperty(RAMP_TIME, rampUp));
+    }
+
+    /**
+     * @return the ramp-up time in seconds
+     */
+    public int getRampUp() {
+        return getPropertyAsInt(RAMP_TIME);
+    }
+
+    public void setSteps(int steps) {
+        setProperty(new IntegerProperty(STEPS, steps));
+    }
+
+    /**
+     * @return the number of steps of the ramp-up, 0 for a linear ramp-up
+     */
+    public int getSteps() {
+        return getPropertyAsInt(STEPS);
+    }
+
+    public void setHoldTime(int holdTime) {
+        setProperty(new IntegerProperty(HOLD_TIME, holdTime));
+    }
+
+    /**
+     * @return the hold time in seconds
+     */
+    public int getHoldTime() {
+        return getPropertyAsInt(HOLD_TIME);
+    }
+
+    /**
+     * Each arrival runs one iteration of the sampler controller, which is repeated until the schedule ends
+     */
+    @Override
+    public void setSamplerController(LoopController c) {
+        super.setSamplerController(c);
+        c.setContinueForever(true);
+    }
+
+    /**
+     * @return the number of arrivals dispatched so far
+     */
+    public long getArrivalCount() {
+        return arrivalCount.get();
+    }
+
+    /**
+     * @return the number of iterations which started later than their arrival
+     */
+    public long getLateStarts() {
+        return lateStarts.get();
+    }
+
+    /**
+     * @return the number of arrivals dropped because all threads were busy
+     */
+    public long getDroppedArrivals() {
+        return droppedArrivals.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initialize() {
+        super.initialize();
+        // Called on the clone of each thread, which waits for the arrivals of the running group
+        AbstractThreadGroup group = JMeterContextService.getContext().getThreadGroup();
+        if (arrivalListener == null && group instanceof ArrivalsThreadGroup) {
+            arrivalListener = new ArrivalListener((ArrivalsThreadGroup) group);
+            addIterationListener(arrivalListener);
+        }
+    }
+
+    @Override
+    public void start(int groupNum, ListenerNotifier notifier, ListedHashTree threadGroupTree, StandardJMeterEngine engine) {
+        this.running = true;
+        this.scheduleEnded = false;
+        statisticsReported.set(false);
+        this.groupNumber = groupNum;
+        this.notifier = notifier;
+        this.threadGroupTree = threadGroupTree;
+        this.engine = engine;
+        this.context = JMeterContextService.getContext();
+        arrivals.clear();
+        arrivalCount.set(0);
+        lateStarts.set(0);
+        droppedArrivals.set(0);
+        ArrivalSchedule schedule;
+        try {
+            schedule = new ArrivalSchedule(getStartRate(), getEndRate(), getRampUp(), getSteps(), getHoldTime());
+        } catch (IllegalArgumentException e) {
+            throw new JMeterStopTestException("Invalid schedule set in Thread Group:" + getName() + ", " + e.getMessage());
+        }
+        if (getNumThreads() <= 0) {
+            throw new JMeterStopTestException("Invalid number of threads " + getNumThreads() + " set in Thread Group:" + getName());
+        }
+        log.info("Starting arrivals thread group... number={} max threads={} arrivals={} duration={}s",
+                groupNumber, getNumThreads(), schedule.getCount(), schedule.getDuration());
+        scheduler = new Thread(() -> schedule(schedule), getName() + "-ArrivalsScheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+        // N.B. we don't wait for the thread to complete, as that would prevent parallel TGs
+        log.info("Started thread group number {}", groupNumber);
+    }
+
+    /**
+     * Dispatch the arrivals of schedule at their times
+     * @param schedule {@link ArrivalSchedule}
+     */
+    private void schedule(ArrivalSchedule schedule) {
+        try {
+            // Copy in scheduler thread context from calling Thread
+            JMeterContextService.getContext().setVariables(context.getVariables());
+            long startNanos = System.nanoTime();
+            for (long index = 0; running; index++) {
+                double time = schedule.getArrivalTime(index);
+                if (time < 0) {
+                    break;
+                }
+                long intendedNanos = startNanos + (long) (time * 1_000_000_000L);
+                if (waitUntil(intendedNanos)) {
+                    dispatch(intendedNanos);
+                }
+            }
+        } catch (Exception ex) {
+            log.error("An error occurred scheduling arrivals for Thread Group: {}", getName(), ex);
+        } finally {
+            scheduleEnded = true;
+            if (allThreads.isEmpty()) {
+                reportStatistics();
+            }
+        }
+    }
+
+    /**
+     * Wait until nanos, checking for shutdown
+     * @param nanos value of {@link System#nanoTime()} to wait for
+     * @return true if the group is still running
+     */
+    private boolean waitUntil(long nanos) {
+        long pause = TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS);
+        long togo;
+        while (running && (togo = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(Math.min(togo, pause));
+            if (Thread.interrupted()) {
+                return false;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Hand an arrival to an idle thread, to a new thread or to the queue of waiting arrivals
+     * @param intendedNanos intended start time of the iteration
+     */
+    private void dispatch(long intendedNanos) {
+        arrivalCount.incrementAndGet();
+        int maxThreads = getNumThreads();
+        int waiting = arrivals.size();
+        if (idleThreads.get() > waiting) {
+            arrivals.offer(intendedNanos);
+        } else if (allThreads.size() < maxThreads) {
+            arrivals.offer(intendedNanos);
+            startNewThread(0);
+        } else if (waiting < maxThreads) {
+            arrivals.offer(intendedNanos); // will start late
+        } else {
+            droppedArrivals.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for the next arrival, called by each thread before starting an iteration
+     * @throws JMeterStopThreadException when the schedule has ended or the group is stopped
+     */
+    private void awaitArrival() {
+        idleThreads.incrementAndGet();
+        try {
+            Long intendedNanos = null;
+            while (intendedNanos == null) {
+                if (!running || (scheduleEnded && arrivals.isEmpty())) {
+                    throw new JMeterStopThreadException("No more arrivals in Thread Group:" + getName());
+                }
+                intendedNanos = arrivals.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            if (System.nanoTime() - intendedNanos > LATE_THRESHOLD_NANOS) {
+                lateStarts.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMeterStopThreadException("Interrupted while waiting for an arrival in Thread Group:" + getName());
+        } finally {
+            idleThreads.decrementAndGet();
+        }
+    }
+
+    /**
+     * Log and notify the statistics of the schedule, once its last thread has finished
+     */
+    private void reportStatistics() {
+        if (statisticsReported.compareAndSet(false, true)) {
+            logStatistics();
+            notifyStatistics();
+        }
+    }
+
+    private void logStatistics() {
+        if (log.isInfoEnabled()) {
+            log.info("Arrivals of thread group number {}: {} arrivals, {} late starts, {} dropped, {} threads",
+                    groupNumber, arrivalCount.get(), lateStarts.get(), droppedArrivals.get(), threadNumber.get());
+        }
+    }
+
+    /**
+     * Report late starts and dropped arrivals to the listeners of the group, if any
+     */
+    private void notifyStatistics() {
+        long late = lateStarts.get();
+        long dropped = droppedArrivals.get();
+        if (late == 0 && dropped == 0) {
+            return;
+        }
+        SampleResult result = new SampleResult(System.currentTimeMillis(), 0);
+        result.setSampleLabel(getName() + " arrivals"); // $NON-NLS-1$
+        result.setThreadName(Thread.currentThread().getName());
+        result.setSuccessful(dropped == 0);
+        if (dropped == 0) {
+            result.setResponseCodeOK();
+        }
+        result.setResponseMessage(arrivalCount.get() + " arrivals, " + late + " late starts, " // $NON-NLS-1$ $NON-NLS-2$
+                + dropped + " dropped"); // $NON-NLS-1$
+        result.setGroupThreads(allThreads.size());
+        result.setAllThreads(JMeterContextService.getNumberOfThreads());
+        notifier.notifyListeners(new SampleEvent(result, getName()), getGroupListeners());
+    }
+
+    /**
+     * @return the listeners placed directly under the group or at test plan level, which are
+     * shared by its threads. Listeners cloned for each thread are not notified.
+     */
+    private List<SampleListener> getGroupListeners() {
+        List<SampleListener> listeners = new ArrayList<>();
+        for (Object element : threadGroupTree.list(this)) {
+            if (element instanceof SampleListener && element instanceof NoThreadClone) {
+                listeners.add((SampleListener) element);
+            }
+        }
+        return listeners;
+    }
+
+    /**
+     * Start a new {@link JMeterThread} and registers it
+     * @param delay int delay in milliseconds
+     * @return {@link JMeterThread} newly created
+     */
+    private JMeterThread startNewThread(int delay) {
+        JMeterThread jmThread = makeThread(threadNumber.getAndIncrement());
+        jmThread.setInitialDelay(delay);
+        Thread newThread = new Thread(jmThread, jmThread.getThreadName());
+        newThread.setDaemon(false); // scheduler is daemon, but we don't want sampler threads to be so too
+        allThreads.put(jmThread, newThread);
+        newThread.start();
+        return jmThread;
+    }
+
+    /**
+     * Create {@link JMeterThread} cloning threadGroupTree
+     * @param threadNum int thread number
+     * @return {@link JMeterThread}
+     */
+    private JMeterThread makeThread(int threadNum) {
+        final JMeterThread jmeterThread = new JMeterThread(cloneTree(threadGroupTree), this, notifier, isSameUserOnNextIteration());
+        jmeterThread.setThreadNum(threadNum);
+        jmeterThread.setThreadGroup(this);
+        jmeterThread.setInitialContext(context);
+        String distributedPrefix =
+                JMeterUtils.getPropDefault(JMeterUtils.THREAD_GROUP_DISTRIBUTED_PREFIX_PROPERTY_NAME, "");
+        final String threadName = distributedPrefix + (distributedPrefix.isEmpty() ? "":"-") + getName() + " " + groupNumber + "-" + (threadNum + 1);
+        jmeterThread.setThreadName(threadName);
+        jmeterThread.setEngine(engine);
+        jmeterThread.setOnErrorStopTest(getOnErrorStopTest());
+        jmeterThread.setOnErrorStopTestNow(getOnErrorStopTestNow());
+        jmeterThread.setOnErrorStopThread(getOnErrorStopThread());
+        jmeterThread.setOnErrorStartNextLoop(getOnErrorStartNextLoop());
+        return jmeterThread;
+    }
+
+    /**
+     * @param tree {@link ListedHashTree}
+     * @return a clone of tree
+     */
+    private static ListedHashTree cloneTree(ListedHashTree tree) {
+        TreeCloner cloner = new TreeCloner(true);
+        tree.traverse(cloner);
+        return cloner.getClonedTree();
+    }
+
+    /**
+     * Add a thread waiting for arrivals, as if it had been started for an arrival
+     */
+    @Override
+    public JMeterThread addNewThread(int delay, StandardJMeterEngine engine) {
+        JMeterThread newJmThread = startNewThread(delay);
+        JMeterContextService.addTotalThreads(1);
+        log.info("Started new thread in group {}", groupNumber);
+        return newJmThread;
+    }
+
+    @Override
+    public boolean stopThread(String threadName, boolean now) {
+        for (Entry<JMeterThread, Thread> threadEntry : allThreads.entrySet()) {
+            JMeterThread jMeterThread = threadEntry.getKey();
+            if (jMeterThread.getThreadName().equals(threadName)) {
+                stopThread(jMeterThread, threadEntry.getValue(), now);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void stopThread(JMeterThread jmeterThread, Thread jvmThread, boolean interrupt) {
+        jmeterThread.stop();
+        jmeterThread.interrupt(); // interrupt sampler if possible
+        if (interrupt && jvmThread != null) {
+            jvmThread.interrupt(); // also interrupt JVM thread
+        }
+    }
+
+    /**
+     * Called by JMeterThread when it finishes
+     */
+    @Override
+    public void threadFinished(JMeterThread thread) {
+        if (log.isDebugEnabled()) {
+            log.debug("Ending thread {}", thread.getThreadName());
+        }
+        allThreads.remove(thread);
+        if (scheduleEnded && allThreads.isEmpty()) {
+            reportStatistics();
+        }
+    }
+
+    private void stopScheduler() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.interrupt();
+        }
+    }
+
+    @Override
+    public void tellThreadsToStop() {
+        stopScheduler();
+        allThreads.forEach((key, value) -> stopThread(key, value, true));
+    }
+
+    @Override
+    public void stop() {
+        stopScheduler();
+        allThreads.keySet().forEach(JMeterThread::stop);
+    }
+
+    @Override
+    public int numberOfActiveThreads() {
+        return allThreads.size();
+    }
+
+    @Override
+    public boolean verifyThreadsStopped() {
+        boolean stoppedAll = verifyThreadStopped(scheduler);
+        for (Thread t : allThreads.values()) {
+            stoppedAll = stoppedAll && verifyThreadStopped(t);
+        }
+        return stoppedAll;
+    }
+
+    private static boolean verifyThreadStopped(Thread thread) {
+        boolean stopped = true;
+        if (thread != null && thread.isAlive()) {
+            try {
+                thread.join(WAIT_TO_DIE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                stopped = false;
+                log.warn("Thread won't exit: {}", thread.getName());
+            }
+        }
+        return stopped;
+    }
+
+    @Override
+    public void waitThreadsStopped() {
+        waitThreadStopped(scheduler);
+        // Threads are started until the end of the schedule
+        while (!allThreads.isEmpty()) {
+            allThreads.values().forEach(ArrivalsThreadGroup::waitThreadStopped);
+        }
+    }
+
+    private static void waitThreadStopped(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        while (thread.isAlive()) {
+            try {
+                thread.join(WAIT_TO_DIE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for an arrival of the running group when an iteration starts
+     */
+    private static final class ArrivalListener implements LoopIterationListener {
+        private final ArrivalsThreadGroup group;
+
+        ArrivalListener(ArrivalsThreadGroup group) {
+            this.group = group;
+        }
+
+        @Override
+        public void iterationStart(LoopIterationEvent iterEvent) {
+            group.awaitArrival();
+        }
+    }
+}
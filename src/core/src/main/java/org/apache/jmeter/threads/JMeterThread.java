@@ -21,7 +21,6 @@ package org.apache.jmeter.threads;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
@@ -544,7 +543,7 @@ public class JMeterThread implements Runnable, Interruptible {
         // Hack: save the package for any transaction controllers
         threadVars.putObject(PACKAGE_OBJECT, pack);
 
-        delay(pack.getTimers());
+        long intendedStartTime = delay(pack.getTimers());
         SampleResult result = null;
         if (running) {
             Sampler sampler = pack.getSampler();
@@ -552,6 +551,7 @@ public class JMeterThread implements Runnable, Interruptible {
         }
         // If we got any results, then perform processing on the result
         if (result != null && !result.isIgnore()) {
+            result.setIntendedStartTime(intendedStartTime);
             int nbActiveThreadsInThreadGroup = threadGroup.getNumberOfThreads();
             int nbTotalActiveThreads = JMeterContextService.getNumberOfThreads();
             result.setGroupThreads(nbActiveThreadsInThreadGroup);
@@ -950,12 +950,20 @@ public class JMeterThread implements Runnable, Interruptible {
      * return immediately.
      *
      * @param timers to be used for calculating the delay
+     * @return the time at which the sample should start: the earliest time
+     *         intended by the timers, or the end of the delay when no timer
+     *         schedules samples
      */
-    private void delay(List<Timer> timers) {
+    private long delay(List<Timer> timers) {
         long totalDelay = 0;
+        long intendedStartTime = 0;
         for (Timer timer : timers) {
             TestBeanHelper.prepare((TestElement) timer);
             long delay = timer.delay();
+            long intended = timer.getIntendedStartTime();
+            if (intended > 0 && (intendedStartTime == 0 || intended < intendedStartTime)) {
+                intendedStartTime = intended;
+            }
             if (APPLY_TIMER_FACTOR && timer.isModifiable()) {
                 if (log.isDebugEnabled()) {
                     log.debug("Applying TIMER_FACTOR:{} on timer:{} for thread:{}", TIMER_FACTOR,
@@ -974,15 +982,16 @@ public class JMeterThread implements Runnable, Interruptible {
                     if (totalDelay < 0) {
                         log.debug("The delay would be longer than the scheduled period, so stop thread now.");
                         running = false;
-                        return;
+                        return 0;
                     }
                 }
-                TimeUnit.MILLISECONDS.sleep(totalDelay);
+                TIMER_SERVICE.sleep(totalDelay);
             } catch (InterruptedException e) {
                 log.warn("The delay timer was interrupted - probably did not wait as long as intended.");
                 Thread.currentThread().interrupt();
             }
         }
+        return intendedStartTime > 0 ? intendedStartTime : System.currentTimeMillis();
     }
 
     void notifyTestListeners() {
@@ -1034,7 +1043,7 @@ public class JMeterThread implements Runnable, Interruptible {
                     pause = togo;
                 }
                 try {
-                    TimeUnit.MILLISECONDS.sleep(pause); // delay between checks
+                    TIMER_SERVICE.sleep(pause); // delay between checks
                 } catch (InterruptedException e) {
                     if (running) { // NOSONAR running may have been changed from another thread
                         log.warn("{} delay for {} was interrupted. Waited {} milli-seconds out of {}", type, threadName,
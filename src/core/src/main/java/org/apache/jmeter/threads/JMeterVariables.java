@@ -18,11 +18,14 @@
 
 package org.apache.jmeter.threads;
 
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.apache.jmeter.util.JMeterUtils;
@@ -30,10 +33,31 @@ import org.apache.jmeter.util.JMeterUtils;
 /**
  * Class which defines JMeter variables.
  * These are similar to properties, but they are local to a single thread.
+ * <p>
+ * Variables whose name has a slot in {@link VariableSlots} are stored in an
+ * array indexed by their slot, and can be read by slot with {@link #get(int)}
+ * without hashing their name. Other variables are stored in a map.
  */
 public class JMeterVariables {
+    /** Value stored in a slot for a variable set to {@code null} */
+    private static final Object NULL_VALUE = new Object();
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    /** Initial length of {@link #values} */
+    private static final int MIN_VALUES = 16;
+
+    /** Values of the variables with a slot, {@code null} if the variable does not exist */
+    private Object[] values = NO_VALUES;
+
+    /** Number of variables stored in {@link #values} */
+    private int valueCount;
+
+    /** Variables without a slot, or set before their name got a slot and not set since */
     private final Map<String, Object> variables = new HashMap<>();
 
+    private final Map<String, Object> view = new VariablesView();
+
     private int iteration = 0;
 
     // Property names to preload into JMeter variables:
@@ -57,7 +81,7 @@ public class JMeterVariables {
         for (String property : PRE_LOAD) {
             String value = JMeterUtils.getProperty(property);
             if (value != null) {
-                variables.put(property, value);
+                doPut(property, value);
             }
         }
     }
@@ -91,7 +115,15 @@ public class JMeterVariables {
      * @return the variable value, or {@code null} if there was no such variable
      */
     public Object remove(String key) {
-        return variables.remove(key);
+        int slot = VariableSlots.indexOf(key);
+        if (slot == VariableSlots.NO_SLOT) {
+            return variables.remove(key);
+        }
+        Object previous = store(slot, null);
+        if (previous == null) {
+            return variables.isEmpty() ? null : variables.remove(key);
+        }
+        return unwrap(previous);
     }
 
     /**
@@ -101,7 +133,7 @@ public class JMeterVariables {
      * @param value the variable value
      */
     public void put(String key, String value) {
-        variables.put(key, value);
+        doPut(key, value);
     }
 
     /**
@@ -111,7 +143,7 @@ public class JMeterVariables {
      * @param value the variable value
      */
     public void putObject(String key, Object value) {
-        variables.put(key, value);
+        doPut(key, value);
     }
 
     /**
@@ -119,7 +151,9 @@ public class JMeterVariables {
      * @param vars map with the entries to be updated
      */
     public void putAll(Map<String, ?> vars) {
-        variables.putAll(vars);
+        for (Entry<String, ?> entry : vars.entrySet()) {
+            doPut(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -127,7 +161,9 @@ public class JMeterVariables {
      * @param vars {@link JMeterVariables} with the entries to be updated
      */
     public void putAll(JMeterVariables vars) {
-        putAll(vars.variables);
+        for (Entry<String, Object> entry : vars.entrySet()) {
+            doPut(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -137,7 +173,20 @@ public class JMeterVariables {
      * @return the value of the variable or a toString called on it if it's non String, or {@code null} if it does not exist
      */
     public String get(String key) {
-        Object o = variables.get(key);
+        return asString(getObject(key));
+    }
+
+    /**
+     * Gets the value of a variable by the slot of its name, converted to a String.
+     *
+     * @param slot the slot of the name of the variable, see {@link VariableSlots#intern(String)}
+     * @return the value of the variable or a toString called on it if it's non String, or {@code null} if it does not exist
+     */
+    public String get(int slot) {
+        return asString(getObject(slot));
+    }
+
+    private static String asString(Object o) {
         if(o instanceof String) {
             return (String) o;
         } else if (o != null) {
@@ -154,7 +203,77 @@ public class JMeterVariables {
      * @return the value of the variable, or {@code null} if it does not exist
      */
     public Object getObject(String key) {
-        return variables.get(key);
+        int slot = VariableSlots.indexOf(key);
+        if (slot == VariableSlots.NO_SLOT) {
+            return variables.get(key);
+        }
+        return getObject(slot, key);
+    }
+
+    /**
+     * Gets the value of a variable by the slot of its name (not converted to String).
+     *
+     * @param slot the slot of the name of the variable, see {@link VariableSlots#intern(String)}
+     * @return the value of the variable, or {@code null} if it does not exist
+     */
+    public Object getObject(int slot) {
+        Object value = slot < values.length ? values[slot] : null;
+        if (value == null && !variables.isEmpty()) {
+            return getObject(slot, VariableSlots.nameOf(slot));
+        }
+        return unwrap(value);
+    }
+
+    private Object getObject(int slot, String key) {
+        Object value = slot < values.length ? values[slot] : null;
+        if (value == null && !variables.isEmpty()) {
+            // set before its name got a slot: reads do not move it, so that they do not
+            // change the variables while they are iterated or shared by threads
+            return variables.get(key);
+        }
+        return unwrap(value);
+    }
+
+    private void doPut(String key, Object value) {
+        int slot = VariableSlots.indexOf(key);
+        if (slot == VariableSlots.NO_SLOT) {
+            variables.put(key, value);
+        } else if (store(slot, wrap(value)) == null && !variables.isEmpty()) {
+            variables.remove(key);
+        }
+    }
+
+    /**
+     * Store a value in a slot
+     * @param slot slot of the variable
+     * @param value wrapped value, or {@code null} to remove the variable
+     * @return the previous wrapped value
+     */
+    private Object store(int slot, Object value) {
+        if (slot >= values.length) {
+            if (value == null) {
+                return null;
+            }
+            // grow with the slots used by these variables, not with all the slots of the JVM
+            values = Arrays.copyOf(values,
+                    Math.max(slot + 1, Math.min(Math.max(MIN_VALUES, values.length * 2), VariableSlots.size())));
+        }
+        Object previous = values[slot];
+        values[slot] = value;
+        if (previous == null && value != null) {
+            valueCount++;
+        } else if (previous != null && value == null) {
+            valueCount--;
+        }
+        return previous;
+    }
+
+    private static Object wrap(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static Object unwrap(Object value) {
+        return value == NULL_VALUE ? null : value;
     }
 
     /**
@@ -163,7 +282,7 @@ public class JMeterVariables {
      * @return the iterator
      */
     public Iterator<Entry<String, Object>> getIterator(){
-        return Collections.unmodifiableMap(variables).entrySet().iterator() ;
+        return view.entrySet().iterator() ;
     }
 
     // Used by DebugSampler
@@ -171,13 +290,73 @@ public class JMeterVariables {
      * @return an unmodifiable view of the entries contained in {@link JMeterVariables}
      */
     public Set<Entry<String, Object>> entrySet(){
-        return Collections.unmodifiableMap(variables).entrySet();
+        return view.entrySet();
     }
 
     /**
      * @return boolean true if user is the same on next iteration of Thread loop, false otherwise
      */
     public boolean isSameUserOnNextIteration() {
-        return Boolean.TRUE.equals(variables.get(VAR_IS_SAME_USER_KEY));
+        return Boolean.TRUE.equals(getObject(VAR_IS_SAME_USER_KEY));
+    }
+
+    /**
+     * Read-only view of the variables with and without a slot
+     */
+    private final class VariablesView extends AbstractMap<String, Object> {
+        private final Set<Entry<String, Object>> entries = new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new VariablesIterator();
+            }
+
+            @Override
+            public int size() {
+                return valueCount + variables.size();
+            }
+        };
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? getObject((String) key) : null;
+        }
+    }
+
+    private final class VariablesIterator implements Iterator<Entry<String, Object>> {
+        private int slot = nextSlot(0);
+        private final Iterator<Entry<String, Object>> others = variables.entrySet().iterator();
+
+        private int nextSlot(int from) {
+            int i = from;
+            while (i < values.length && values[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < values.length || others.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (slot < values.length) {
+                Entry<String, Object> entry = new AbstractMap.SimpleImmutableEntry<>(
+                        VariableSlots.nameOf(slot), unwrap(values[slot]));
+                slot = nextSlot(slot + 1);
+                return entry;
+            }
+            if (!others.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Object> entry = others.next();
+            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        }
     }
 }
@@ -93,6 +93,11 @@ class UnmodifiableJMeterVariables extends JMeterVariables {
         return variables.get(key);
     }
 
+    @Override
+    public String get(int slot) {
+        return variables.get(slot);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -120,6 +125,11 @@ class UnmodifiableJMeterVariables extends JMeterVariables {
         return variables.getObject(key);
     }
 
+    @Override
+    public Object getObject(int slot) {
+        return variables.getObject(slot);
+    }
+
     @Override
     public Iterator<Entry<String, Object>> getIterator() {
         return variables.getIterator();
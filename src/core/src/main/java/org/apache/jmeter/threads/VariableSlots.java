@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.jmeter.util.JMeterUtils;
+
+/**
+ * Registry numbering the names of the variables referenced by the test plan,
+ * so that {@link JMeterVariables} can store their values in an array and
+ * look them up by their number.
+ * <p>
+ * Names are interned when the references to variables are compiled, and keep
+ * their number for the life of the JVM. Once {@code jmeter.variables.max_slots}
+ * names have been interned, other names are stored by name.
+ *
+ * @since 5.2
+ */
+public final class VariableSlots {
+
+    /** Number returned for names which have no slot */
+    public static final int NO_SLOT = -1;
+
+    private static final int MAX_SLOTS =
+            JMeterUtils.getPropDefault("jmeter.variables.max_slots", 1024); // $NON-NLS-1$
+
+    private static final ConcurrentMap<String, Integer> SLOTS = new ConcurrentHashMap<>();
+
+    private static final AtomicReferenceArray<String> NAMES = new AtomicReferenceArray<>(Math.max(0, MAX_SLOTS));
+
+    private VariableSlots() {
+    }
+
+    /**
+     * Get the slot of a name, numbering it if it has none yet
+     *
+     * @param name name of a variable
+     * @return the slot of the name, or {@link #NO_SLOT} if it is null or all the slots are taken
+     */
+    public static int intern(String name) {
+        if (name == null) {
+            return NO_SLOT;
+        }
+        Integer slot = SLOTS.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        if (SLOTS.size() >= MAX_SLOTS) {
+            return NO_SLOT;
+        }
+        synchronized (SLOTS) {
+            slot = SLOTS.get(name);
+            if (slot == null) {
+                if (SLOTS.size() >= MAX_SLOTS) {
+                    return NO_SLOT;
+                }
+                slot = SLOTS.size();
+                NAMES.set(slot, name); // before the slot can be found by its name
+                SLOTS.put(name, slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * Get the slot of a name, without numbering it
+     *
+     * @param name name of a variable
+     * @return the slot of the name, or {@link #NO_SLOT} if it has none
+     */
+    public static int indexOf(String name) {
+        Integer slot = name == null ? null : SLOTS.get(name);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    /**
+     * @param slot slot of a name
+     * @return the name using this slot
+     */
+    public static String nameOf(int slot) {
+        return NAMES.get(slot);
+    }
+
+    /**
+     * @return the number of slots in use
+     */
+    public static int size() {
+        return SLOTS.size();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads.gui;
+
+import java.awt.BorderLayout;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import org.apache.jmeter.control.LoopController;
+import org.apache.jmeter.gui.util.VerticalPanel;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.threads.AbstractThreadGroup;
+import org.apache.jmeter.threads.ArrivalsThreadGroup;
+import org.apache.jmeter.util.JMeterUtils;
+
+public class ArrivalsThreadGroupGui extends AbstractThreadGroupGui {
+    private static final long serialVersionUID = 1L;
+
+    private JTextField threadInput;
+
+    private JTextField startRateInput;
+
+    private JTextField endRateInput;
+
+    private JTextField rampInput;
+
+    private JTextField stepsInput;
+
+    private JTextField holdInput;
+
+    public ArrivalsThreadGroupGui() {
+        super();
+        init();
+        initGui();
+    }
+
+    @Override
+    public String getLabelResource() {
+        return "arrivals_thread_group_title"; // $NON-NLS-1$
+    }
+
+    @Override
+    public TestElement createTestElement() {
+        ArrivalsThreadGroup tg = new ArrivalsThreadGroup();
+        modifyTestElement(tg);
+        return tg;
+    }
+
+    /**
+     * Modifies a given TestElement to mirror the data in the gui components.
+     *
+     * @see org.apache.jmeter.gui.JMeterGUIComponent#modifyTestElement(TestElement)
+     */
+    @Override
+    public void modifyTestElement(TestElement tg) {
+        super.configureTestElement(tg);
+        if (tg instanceof AbstractThreadGroup) {
+            LoopController looper = new LoopController();
+            looper.setLoops(1);
+            ((AbstractThreadGroup) tg).setSamplerController(looper);
+        }
+        tg.setProperty(AbstractThreadGroup.NUM_THREADS, threadInput.getText());
+        tg.setProperty(ArrivalsThreadGroup.START_RATE, startRateInput.getText());
+        tg.setProperty(ArrivalsThreadGroup.END_RATE, endRateInput.getText());
+        tg.setProperty(ArrivalsThreadGroup.RAMP_TIME, rampInput.getText());
+        tg.setProperty(ArrivalsThreadGroup.STEPS, stepsInput.getText());
+        tg.setProperty(ArrivalsThreadGroup.HOLD_TIME, holdInput.getText());
+    }
+
+    @Override
+    public void configure(TestElement tg) {
+        super.configure(tg);
+        threadInput.setText(tg.getPropertyAsString(AbstractThreadGroup.NUM_THREADS));
+        startRateInput.setText(tg.getPropertyAsString(ArrivalsThreadGroup.START_RATE));
+        endRateInput.setText(tg.getPropertyAsString(ArrivalsThreadGroup.END_RATE));
+        rampInput.setText(tg.getPropertyAsString(ArrivalsThreadGroup.RAMP_TIME));
+        stepsInput.setText(tg.getPropertyAsString(ArrivalsThreadGroup.STEPS));
+        holdInput.setText(tg.getPropertyAsString(ArrivalsThreadGroup.HOLD_TIME));
+    }
+
+    @Override
+    public void clearGui(){
+        super.clearGui();
+        initGui();
+    }
+
+    // Initialise the gui field values
+    private void initGui(){
+        threadInput.setText("100"); // $NON-NLS-1$
+        startRateInput.setText("1"); // $NON-NLS-1$
+        endRateInput.setText("1"); // $NON-NLS-1$
+        rampInput.setText("0"); // $NON-NLS-1$
+        stepsInput.setText("0"); // $NON-NLS-1$
+        holdInput.setText("60"); // $NON-NLS-1$
+    }
+
+    private void init() { // WARNING: called from ctor so must not be overridden (i.e. must be private or final)
+        VerticalPanel threadPropsPanel = new VerticalPanel();
+        threadPropsPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(),
+                JMeterUtils.getResString("arrivals_schedule"))); // $NON-NLS-1$
+        threadInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_max_threads", threadInput)); // $NON-NLS-1$
+        startRateInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_start_rate", startRateInput)); // $NON-NLS-1$
+        endRateInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_end_rate", endRateInput)); // $NON-NLS-1$
+        rampInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_ramp_up", rampInput)); // $NON-NLS-1$
+        stepsInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_steps", stepsInput)); // $NON-NLS-1$
+        holdInput = new JTextField(5);
+        threadPropsPanel.add(createFieldPanel("arrivals_hold", holdInput)); // $NON-NLS-1$
+        add(threadPropsPanel, BorderLayout.CENTER);
+    }
+
+    private static JPanel createFieldPanel(String labelResource, JTextField field) {
+        JPanel panel = new JPanel(new BorderLayout(5, 0));
+        JLabel label = new JLabel(JMeterUtils.getResString(labelResource));
+        label.setLabelFor(field);
+        panel.add(label, BorderLayout.WEST);
+        panel.add(field, BorderLayout.CENTER);
+        return panel;
+    }
+}
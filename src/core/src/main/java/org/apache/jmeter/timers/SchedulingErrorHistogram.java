@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.timers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of the lateness of the threads woken by {@link TimerService}.
+ * <p>
+ * Values are kept in microseconds in buckets whose width grows with the value,
+ * so that percentiles are accurate to 1/8th of their value whatever their magnitude.
+ */
+final class SchedulingErrorHistogram {
+
+    /** Number of sub-buckets per power of two, giving a relative precision of 1/SUB_BUCKETS */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record the lateness of a wake up
+     * @param errorNanos time in nanoseconds between the deadline and the wake up,
+     *                   negative values (early wake ups) are counted as 0
+     */
+    void record(long errorNanos) {
+        long micros = Math.max(0, errorNanos) / 1000;
+        counts.incrementAndGet(indexOf(micros));
+        count.increment();
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the highest recorded value in microseconds
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get a percentile of the recorded values
+     * @param percent percentile to compute, between 0 and 100
+     * @return the upper bound in microseconds of the bucket holding the percentile
+     */
+    long getPercentile(double percent) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Forget all recorded values
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        max.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -39,4 +39,17 @@ public interface Timer extends Serializable {
     default boolean isModifiable() {
         return false;
     }
+
+    /**
+     * Timers which schedule samples at given times return here the time at
+     * which the sample following the last call to {@link #delay()} should
+     * start, even if it is already in the past because the thread is late.
+     * It is used to compute response times free from coordinated omission.
+     *
+     * @return intended start time in milliseconds since the epoch, or 0 if
+     *         this timer does not schedule samples
+     */
+    default long getIntendedStartTime() {
+        return 0;
+    }
 }
@@ -18,19 +18,80 @@
 
 package org.apache.jmeter.timers;
 
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterThread;
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Manages logic related to timers and pauses
+ * <p>
+ * Pauses are done according to the property {@code timer.service.mode}:
+ * <ul>
+ * <li>{@code sleep} (default): {@link Thread#sleep(long)}, subject to the granularity and slack of the OS timers</li>
+ * <li>{@code precise}: park until shortly before the deadline, then yield until it is reached.
+ * The spinning window adapts to the lateness observed when parking</li>
+ * <li>{@code wheel}: wait to be woken in batches by a central {@link TimingWheel},
+ * which trades precision for fewer OS timers with many threads</li>
+ * </ul>
  * @since 3.2
  */
 public class TimerService {
 
+    private static final Logger log = LoggerFactory.getLogger(TimerService.class);
+
+    /**
+     * How threads wait for their deadlines
+     */
+    enum SleepMode {
+        SLEEP, PRECISE, WHEEL
+    }
+
+    private static final SleepMode SLEEP_MODE = getSleepMode(
+            JMeterUtils.getPropDefault("timer.service.mode", "sleep")); // $NON-NLS-1$ $NON-NLS-2$
+
+    /** Minimum time to spin before a deadline, adapted up to {@link #MAX_SPIN_NANOS} */
+    private static final long MIN_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            JMeterUtils.getPropDefault("timer.service.spin_us", 100)); // $NON-NLS-1$
+
+    private static final long MAX_SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final long WHEEL_TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            JMeterUtils.getPropDefault("timer.service.wheel.tick_us", 1000)); // $NON-NLS-1$
+
+    private static final boolean STATS = JMeterUtils.getPropDefault("timer.service.stats", false); // $NON-NLS-1$
+
+    private final SchedulingErrorHistogram histogram = new SchedulingErrorHistogram();
+
+    /** Time spent spinning before deadlines, shared by all threads: races are harmless */
+    private volatile long spinNanos = MIN_SPIN_NANOS;
+
     private TimerService() {
         super();
     }
 
+    private static SleepMode getSleepMode(String mode) {
+        try {
+            return SleepMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown timer.service.mode '{}', using sleep", mode);
+            return SleepMode.SLEEP;
+        }
+    }
+
+    /**
+     * Initialization On Demand Holder pattern for the timing wheel,
+     * so that its thread is only started when used
+     */
+    private static class TimingWheelHolder {
+        public static final TimingWheel INSTANCE = TimingWheel.start(WHEEL_TICK_NANOS);
+    }
+
     /**
      * Initialization On Demand Holder pattern
      */
@@ -107,4 +168,96 @@ public class TimerService {
         return initialDelay;
     }
 
+    /**
+     * Pause the current thread according to {@code timer.service.mode}
+     *
+     * @param delay delay in milliseconds
+     * @throws InterruptedException if the thread is interrupted while pausing
+     */
+    public void sleep(long delay) throws InterruptedException {
+        if (SLEEP_MODE == SleepMode.SLEEP && !STATS) {
+            TimeUnit.MILLISECONDS.sleep(delay);
+            return;
+        }
+        if (delay > 0) {
+            sleepUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+        }
+    }
+
+    /**
+     * Pause the current thread until a deadline according to {@code timer.service.mode}
+     *
+     * @param deadline value of {@link System#nanoTime()} to wait for
+     * @throws InterruptedException if the thread is interrupted while pausing
+     */
+    public void sleepUntil(long deadline) throws InterruptedException {
+        switch (SLEEP_MODE) {
+        case SLEEP:
+            long togo = deadline - System.nanoTime();
+            if (togo > 0) {
+                TimeUnit.NANOSECONDS.sleep(togo);
+            }
+            break;
+        case WHEEL:
+            TimingWheelHolder.INSTANCE.await(deadline);
+            break;
+        case PRECISE:
+        default:
+            parkAndSpin(deadline);
+            break;
+        }
+        if (STATS) {
+            histogram.record(System.nanoTime() - deadline);
+        }
+    }
+
+    private void parkAndSpin(long deadline) throws InterruptedException {
+        long spin = spinNanos;
+        long now = System.nanoTime();
+        while (deadline - now > spin) {
+            long wakeUp = deadline - spin;
+            LockSupport.parkNanos(this, wakeUp - now);
+            checkInterrupted();
+            now = System.nanoTime();
+            if (now - wakeUp >= 0) {
+                adaptSpin(now - wakeUp);
+            }
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.yield();
+            checkInterrupted();
+        }
+    }
+
+    /**
+     * Move the spinning window towards twice the lateness of the OS when parking,
+     * so that it covers most wake ups without burning CPU for nothing
+     */
+    private void adaptSpin(long lateness) {
+        long target = Math.min(MAX_SPIN_NANOS, Math.max(MIN_SPIN_NANOS, 2 * lateness));
+        long spin = spinNanos;
+        spinNanos = spin + (target - spin) / 8;
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Log the percentiles of the lateness of the pauses since the last call,
+     * when {@code timer.service.stats} is enabled
+     */
+    public void logStatistics() {
+        if (!STATS || histogram.getCount() == 0) {
+            return;
+        }
+        log.info("Timer service ({} mode) lateness over {} pauses in microseconds: "
+                + "50th pct={}, 90th pct={}, 99th pct={}, 99.9th pct={}, max={}",
+                SLEEP_MODE, histogram.getCount(),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                histogram.getPercentile(99.9), histogram.getMax());
+        histogram.reset();
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.timers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wakes sleeping threads in batches from a single daemon thread, so that many
+ * threads waiting for short delays do not each arm an operating system timer.
+ * <p>
+ * Deadlines are rounded up to the next tick of the wheel, so a thread wakes up
+ * at most one tick late, plus the scheduling latency of the wheel thread.
+ * The wheel thread parks when nobody is waiting.
+ */
+final class TimingWheel implements Runnable {
+
+    /** Number of buckets, must be a power of 2. Package protected for tests */
+    static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private static final class Waiter {
+        private final Thread thread = Thread.currentThread();
+        private final long tick;
+        private volatile boolean done;
+
+        private Waiter(long tick) {
+            this.tick = tick;
+        }
+    }
+
+    private final long tickNanos;
+    private final long origin = System.nanoTime();
+    private final Queue<Waiter>[] buckets;
+    /** Number of waiters still in the buckets */
+    private final AtomicInteger pending = new AtomicInteger();
+    /** Last tick whose waiters have been woken */
+    private volatile long processedTick;
+    private final Thread wheelThread;
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel(long tickNanos) {
+        this.tickNanos = tickNanos;
+        buckets = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        wheelThread = new Thread(this, "TimerService-wheel"); // $NON-NLS-1$
+        wheelThread.setDaemon(true);
+    }
+
+    /**
+     * Create and start a timing wheel
+     * @param tickNanos duration of a tick in nanoseconds
+     * @return the started wheel
+     */
+    static TimingWheel start(long tickNanos) {
+        TimingWheel wheel = new TimingWheel(Math.max(1, tickNanos));
+        wheel.wheelThread.start();
+        return wheel;
+    }
+
+    /**
+     * Wait until the tick following the deadline
+     * @param deadline value of {@link System#nanoTime()} to wait for
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void await(long deadline) throws InterruptedException {
+        long tick = (deadline - origin + tickNanos - 1) / tickNanos;
+        if (tick <= processedTick) {
+            return;
+        }
+        long due = origin + tick * tickNanos;
+        Waiter waiter = new Waiter(tick);
+        buckets[(int) (tick & MASK)].add(waiter);
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(wheelThread);
+        }
+        try {
+            long late;
+            // The wheel may have processed the tick before the waiter was added
+            // or be late itself, so never wait more than a tick after the due time
+            while (!waiter.done && processedTick < tick && (late = System.nanoTime() - due) < tickNanos) {
+                LockSupport.parkNanos(this, tickNanos - late);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiter.done = true;
+        }
+    }
+
+    /**
+     * @return the number of waiters not yet removed from the buckets, package protected for tests
+     */
+    int getPendingCount() {
+        return pending.get();
+    }
+
+    @Override
+    public void run() {
+        while (true) { // NOSONAR daemon thread living as long as the JVM
+            if (pending.get() == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            long now = System.nanoTime();
+            long nowTick = (now - origin) / tickNanos;
+            long fromTick = Math.max(processedTick + 1, nowTick - MASK);
+            processedTick = nowTick;
+            for (long tick = fromTick; tick <= nowTick; tick++) {
+                wake(buckets[(int) (tick & MASK)], nowTick);
+            }
+            LockSupport.parkNanos(this, origin + (nowTick + 1) * tickNanos - System.nanoTime());
+        }
+    }
+
+    private void wake(Queue<Waiter> bucket, long nowTick) {
+        for (int n = bucket.size(); n > 0; n--) {
+            Waiter waiter = bucket.poll();
+            if (waiter == null) {
+                break;
+            }
+            if (waiter.done) {
+                pending.decrementAndGet();
+            } else if (waiter.tick <= nowTick) {
+                waiter.done = true;
+                pending.decrementAndGet();
+                LockSupport.unpark(waiter.thread);
+            } else {
+                bucket.add(waiter); // due in a later turn of the wheel
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import java.util.Objects;
+
+import org.apache.oro.text.MalformedCachePatternException;
+import org.apache.oro.text.PatternCache;
+import org.apache.oro.text.regex.MalformedPatternException;
+import org.apache.oro.text.regex.Pattern;
+import org.apache.oro.text.regex.Perl5Compiler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * {@link PatternCache} of ORO patterns which can be read by several threads
+ * at once, unlike {@link org.apache.oro.text.PatternCacheLRU} whose methods
+ * are synchronized.
+ * <p>
+ * Patterns are compiled with a new {@link Perl5Compiler}, which is not thread safe.
+ */
+final class ConcurrentPatternCache implements PatternCache {
+
+    private final int capacity;
+
+    private final Cache<Key, Pattern> cache;
+
+    /**
+     * Expression and options of a pattern
+     */
+    static final class Key {
+        final String expression;
+        final int options;
+
+        Key(String expression, int options) {
+            this.expression = expression;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return options == other.options && expression.equals(other.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return expression.hashCode() * 31 + options;
+        }
+    }
+
+    /**
+     * Thrown through the cache when an expression can not be compiled
+     */
+    private static final class CompileException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CompileException(MalformedPatternException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized MalformedPatternException getCause() {
+            return (MalformedPatternException) super.getCause();
+        }
+    }
+
+    ConcurrentPatternCache(int capacity) {
+        this.capacity = capacity;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Pattern addPattern(String expression, int options) throws MalformedPatternException {
+        Objects.requireNonNull(expression, "expression"); // $NON-NLS-1$
+        try {
+            return cache.get(new Key(expression, options), key -> compile(key.expression, key.options));
+        } catch (CompileException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Pattern addPattern(String expression) throws MalformedPatternException {
+        return addPattern(expression, Perl5Compiler.DEFAULT_MASK);
+    }
+
+    @Override
+    public Pattern getPattern(String expression, int options) throws MalformedCachePatternException {
+        try {
+            return addPattern(expression, options);
+        } catch (MalformedPatternException e) {
+            throw new MalformedCachePatternException("Invalid expression: " // $NON-NLS-1$
+                    + expression + "\n" + e.getMessage()); // $NON-NLS-1$
+        }
+    }
+
+    @Override
+    public Pattern getPattern(String expression) throws MalformedCachePatternException {
+        return getPattern(expression, Perl5Compiler.DEFAULT_MASK);
+    }
+
+    @Override
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static Pattern compile(String expression, int options) {
+        try {
+            return new Perl5Compiler().compile(expression, options);
+        } catch (MalformedPatternException e) {
+            throw new CompileException(e);
+        }
+    }
+}
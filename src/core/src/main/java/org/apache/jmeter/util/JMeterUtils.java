@@ -266,6 +266,14 @@ public class JMeterUtils implements UnitTestManager {
         return p;
     }
 
+    /**
+     * Kept for plugins compiled against older versions: JMeter itself uses
+     * {@link RegexService#getPatternCache()}, which does not serialize the threads.
+     *
+     * @return the synchronized LRU cache of ORO patterns
+     * @deprecated use {@link RegexService#getPatternCache()}
+     */
+    @Deprecated
     public static PatternCacheLRU getPatternCache() {
         return LazyPatternCacheHolder.INSTANCE;
     }
@@ -296,7 +304,7 @@ public class JMeterUtils implements UnitTestManager {
      *
      */
     public static Pattern getPattern(String expression, int options) throws MalformedCachePatternException {
-        return LazyPatternCacheHolder.INSTANCE.getPattern(expression, options);
+        return RegexService.getPatternCache().getPattern(expression, options);
     }
 
     @Override
@@ -22,10 +22,16 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Collections;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
@@ -33,10 +39,11 @@ import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleBindings;
 
 import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.collections.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.testelement.TestStateListener;
@@ -47,6 +54,9 @@ import org.apache.jorphan.util.JOrphanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * Base class for JSR223 Test elements
  */
@@ -59,10 +69,34 @@ public abstract class JSR223TestElement extends ScriptingTestElement
     /**
      * Cache of compiled scripts
      */
-    @SuppressWarnings("unchecked") // LRUMap does not support generics (yet)
-    private static final Map<String, CompiledScript> compiledScriptsCache =
-            Collections.synchronizedMap(
-                    new LRUMap(JMeterUtils.getPropDefault("jsr223.compiled_scripts_cache_size", 100)));
+    private static final Cache<String, CompiledScript> compiledScriptsCache = Caffeine.newBuilder()
+            .maximumSize(JMeterUtils.getPropDefault("jsr223.compiled_scripts_cache_size", 100)) // $NON-NLS-1$
+            .build();
+
+    /**
+     * Whether each thread reuses its script engines and the bindings of the elements it runs
+     */
+    private static final boolean REUSE_BINDINGS =
+            JMeterUtils.getPropDefault("jsr223.reuse_bindings", true); // $NON-NLS-1$
+
+    /**
+     * Script engines of the current thread, by language
+     */
+    private static final ThreadLocal<Map<String, ScriptEngine>> THREAD_ENGINES =
+            ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Names of the bindings set by {@link #populateBindings(Bindings)} which are kept between two runs,
+     * the others refer to the state of a run and are removed once it is over
+     */
+    private static final Set<String> KEPT_BINDINGS = new HashSet<>(Arrays.asList(
+            "log", "Label", "FileName", "Parameters", "props", "OUT")); // $NON-NLS-1$
+
+    /** Bindings of this element for the current thread */
+    private transient ThreadLocal<ReusableBindings> threadBindings = ThreadLocal.withInitial(ReusableBindings::new);
+
+    /** Logger of the element, with the name of the element it was created for */
+    private transient volatile Pair<String, Logger> elementLogger;
 
     /** If not empty then script in ScriptText will be compiled and cached */
     private String cacheKey = "";
@@ -87,24 +121,118 @@ public abstract class JSR223TestElement extends ScriptingTestElement
             return LazyHolder.INSTANCE;
     }
 
+    /**
+     * Bindings reused by the runs of an element in a thread
+     */
+    private static final class ReusableBindings {
+        private Bindings bindings;
+        /** Whether a script of the element is running with the bindings */
+        private boolean inUse;
+    }
+
+    /**
+     * Thrown by the compilation of a script in the cache, to rethrow its {@link ScriptException}
+     */
+    @SuppressWarnings("serial")
+    private static final class UncheckedScriptException extends RuntimeException {
+        UncheckedScriptException(ScriptException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ScriptException getCause() {
+            return (ScriptException) super.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ScriptCompiler {
+        CompiledScript compile(Compilable compilable) throws IOException, ScriptException;
+    }
+
     public JSR223TestElement() {
         super();
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        threadBindings = ThreadLocal.withInitial(ReusableBindings::new);
+    }
+
     /**
+     * The engines of the languages supporting compilation are kept by each thread
+     * when caching is not disabled, as scripts run with compiled scripts
+     * and fresh bindings then.
+     *
      * @return {@link ScriptEngine} for language defaulting to groovy if language is not set
      * @throws ScriptException when no {@link ScriptEngine} could be found
      */
     protected ScriptEngine getScriptEngine() throws ScriptException {
         String lang = getScriptLanguageWithDefault();
-        ScriptEngine scriptEngine = getInstance().getEngineByName(lang);
+        boolean reuse = REUSE_BINDINGS && !ScriptingBeanInfoSupport.FALSE_AS_STRING.equals(cacheKey);
+        ScriptEngine scriptEngine = reuse ? THREAD_ENGINES.get().get(lang) : null;
         if (scriptEngine == null) {
-            throw new ScriptException("Cannot find engine named: '"+lang+"', ensure you set language field in JSR223 Test Element: "+getName());
+            scriptEngine = getInstance().getEngineByName(lang);
+            if (scriptEngine == null) {
+                throw new ScriptException("Cannot find engine named: '"+lang+"', ensure you set language field in JSR223 Test Element: "+getName());
+            }
+            if (reuse && supportsCompilable(scriptEngine)) {
+                THREAD_ENGINES.get().put(lang, scriptEngine);
+            }
         }
-
         return scriptEngine;
     }
 
+    private static boolean supportsCompilable(ScriptEngine scriptEngine) {
+        // Hack: bsh-2.0b5.jar BshScriptEngine implements Compilable but throws
+        // "java.lang.Error: unimplemented"
+        return scriptEngine instanceof Compilable
+                && !("bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName())); // NOSONAR // $NON-NLS-1$
+    }
+
+    /**
+     * Get the bindings to pass to {@link #processFileOrScript(ScriptEngine, Bindings)}.
+     * <p>
+     * The bindings of the element are reused by the thread when the engine uses
+     * {@link SimpleBindings}: the entries set by the caller or by the script, and
+     * those referring to the state of the run (ctx, vars, sampler, prev...), are
+     * removed once the script has run.
+     *
+     * @param scriptEngine ScriptEngine the script will be run with
+     * @return {@link Bindings} to which the caller can add its own entries
+     */
+    protected Bindings getThreadBindings(ScriptEngine scriptEngine) {
+        if (!REUSE_BINDINGS) {
+            return scriptEngine.createBindings();
+        }
+        ReusableBindings reusable = threadBindings.get();
+        if (reusable.inUse) {
+            // the element is run by its own script
+            return scriptEngine.createBindings();
+        }
+        if (reusable.bindings == null) {
+            Bindings bindings = scriptEngine.createBindings();
+            if (!(bindings instanceof SimpleBindings)) {
+                // engine specific bindings may keep the state of the scripts
+                return bindings;
+            }
+            reusable.bindings = bindings;
+        }
+        reusable.inUse = true;
+        return reusable.bindings;
+    }
+
+    private void releaseThreadBindings(Bindings bindings) {
+        if (!REUSE_BINDINGS) {
+            return;
+        }
+        ReusableBindings reusable = threadBindings.get();
+        if (reusable.inUse && reusable.bindings == bindings) {
+            bindings.keySet().retainAll(KEPT_BINDINGS);
+            reusable.inUse = false;
+        }
+    }
+
     /**
      * @return script language or DEFAULT_SCRIPT_LANGUAGE if none is set
      */
@@ -124,29 +252,50 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         final String label = getName();
         final String fileName = getFilename();
         final String scriptParameters = getParameters();
-        // Use actual class name for log
-        final Logger elementLogger = LoggerFactory.getLogger(getClass().getName()+"."+getName());
-        bindings.put("log", elementLogger); // $NON-NLS-1$ (this name is fixed)
-        bindings.put("Label", label); // $NON-NLS-1$ (this name is fixed)
-        bindings.put("FileName", fileName); // $NON-NLS-1$ (this name is fixed)
-        bindings.put("Parameters", scriptParameters); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "log", getElementLogger(label)); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "Label", label); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "FileName", fileName); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "Parameters", scriptParameters); // $NON-NLS-1$ (this name is fixed)
         String[] args=JOrphanUtils.split(scriptParameters, " ");//$NON-NLS-1$
         bindings.put("args", args); // $NON-NLS-1$ (this name is fixed)
         // Add variables for access to context and variables
         JMeterContext jmctx = JMeterContextService.getContext();
-        bindings.put("ctx", jmctx); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "ctx", jmctx); // $NON-NLS-1$ (this name is fixed)
         JMeterVariables vars = jmctx.getVariables();
-        bindings.put("vars", vars); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "vars", vars); // $NON-NLS-1$ (this name is fixed)
         Properties props = JMeterUtils.getJMeterProperties();
-        bindings.put("props", props); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "props", props); // $NON-NLS-1$ (this name is fixed)
         // For use in debugging:
-        bindings.put("OUT", System.out); // NOSONAR $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "OUT", System.out); // NOSONAR $NON-NLS-1$ (this name is fixed)
 
         // Most subclasses will need these:
         Sampler sampler = jmctx.getCurrentSampler();
-        bindings.put("sampler", sampler); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "sampler", sampler); // $NON-NLS-1$ (this name is fixed)
         SampleResult prev = jmctx.getPreviousResult();
-        bindings.put("prev", prev); // $NON-NLS-1$ (this name is fixed)
+        putIfChanged(bindings, "prev", prev); // $NON-NLS-1$ (this name is fixed)
+    }
+
+    /**
+     * Put a value in reused bindings only if it is not already there
+     */
+    private static void putIfChanged(Bindings bindings, String name, Object value) {
+        if (bindings.get(name) != value || !bindings.containsKey(name)) {
+            bindings.put(name, value);
+        }
+    }
+
+    /**
+     * @param label name of the element
+     * @return logger named after the actual class and the name of the element
+     */
+    private Logger getElementLogger(String label) {
+        Pair<String, Logger> logger = elementLogger;
+        if (logger == null || !Objects.equals(logger.getLeft(), label)) {
+            // Use actual class name for log
+            logger = Pair.of(label, LoggerFactory.getLogger(getClass().getName()+"."+label));
+            elementLogger = logger;
+        }
+        return logger.getRight();
     }
 
 
@@ -164,14 +313,19 @@ public abstract class JSR223TestElement extends ScriptingTestElement
             throws IOException, ScriptException {
         Bindings bindings = pBindings;
         if (bindings == null) {
-            bindings = scriptEngine.createBindings();
+            bindings = getThreadBindings(scriptEngine);
         }
+        try {
+            return processFileOrScript(scriptEngine, bindings, supportsCompilable(scriptEngine));
+        } finally {
+            releaseThreadBindings(bindings);
+        }
+    }
+
+    private Object processFileOrScript(ScriptEngine scriptEngine, Bindings bindings, boolean supportsCompilable)
+            throws IOException, ScriptException {
         populateBindings(bindings);
         File scriptFile = new File(getFilename());
-        // Hack: bsh-2.0b5.jar BshScriptEngine implements Compilable but throws
-        // "java.lang.Error: unimplemented"
-        boolean supportsCompilable = scriptEngine instanceof Compilable
-                && !("bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName())); // NOSONAR // $NON-NLS-1$
         try {
             if (!StringUtils.isEmpty(getFilename())) {
                 if (scriptFile.exists() && scriptFile.canRead()) {
@@ -179,20 +333,13 @@ public abstract class JSR223TestElement extends ScriptingTestElement
                         String newCacheKey = getScriptLanguage() + "#" + // $NON-NLS-1$
                                 scriptFile.getAbsolutePath() + "#" + // $NON-NLS-1$
                                 scriptFile.lastModified();
-                        CompiledScript compiledScript = compiledScriptsCache.get(newCacheKey);
-                        if (compiledScript == null) {
-                            synchronized (compiledScriptsCache) {
-                                compiledScript = compiledScriptsCache.get(newCacheKey);
-                                if (compiledScript == null) {
-                                    // TODO Charset ?
-                                    try (BufferedReader fileReader = new BufferedReader(new FileReader(scriptFile),
-                                            (int) scriptFile.length())) {
-                                        compiledScript = ((Compilable) scriptEngine).compile(fileReader);
-                                        compiledScriptsCache.put(newCacheKey, compiledScript);
-                                    }
-                                }
+                        CompiledScript compiledScript = getCompiledScript(scriptEngine, newCacheKey, compilable -> {
+                            // TODO Charset ?
+                            try (BufferedReader fileReader = new BufferedReader(new FileReader(scriptFile),
+                                    (int) scriptFile.length())) {
+                                return compilable.compile(fileReader);
                             }
-                        }
+                        });
                         return compiledScript.eval(bindings);
                     } else {
                         // TODO Charset ?
@@ -209,16 +356,8 @@ public abstract class JSR223TestElement extends ScriptingTestElement
                 if (supportsCompilable &&
                         !ScriptingBeanInfoSupport.FALSE_AS_STRING.equals(cacheKey)) {
                     computeScriptMD5();
-                    CompiledScript compiledScript = compiledScriptsCache.get(this.scriptMd5);
-                    if (compiledScript == null) {
-                        synchronized (compiledScriptsCache) {
-                            compiledScript = compiledScriptsCache.get(this.scriptMd5);
-                            if (compiledScript == null) {
-                                compiledScript = ((Compilable) scriptEngine).compile(getScript());
-                                compiledScriptsCache.put(this.scriptMd5, compiledScript);
-                            }
-                        }
-                    }
+                    CompiledScript compiledScript = getCompiledScript(scriptEngine, this.scriptMd5,
+                            compilable -> compilable.compile(getScript()));
 
                     return compiledScript.eval(bindings);
                 } else {
@@ -237,6 +376,39 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         }
     }
 
+    /**
+     * Get a compiled script from the cache, compiling it on a miss. Threads
+     * only wait for the compilation of the script they need.
+     *
+     * @param scriptEngine ScriptEngine of the script
+     * @param key key of the script in the cache
+     * @param compiler compiles the script
+     * @return the compiled script
+     * @throws IOException when reading the script fails
+     * @throws ScriptException when compiling the script fails
+     */
+    private static CompiledScript getCompiledScript(ScriptEngine scriptEngine, String key, ScriptCompiler compiler)
+            throws IOException, ScriptException {
+        try {
+            return compiledScriptsCache.get(key, k -> {
+                // compile with an engine of its own, as the engine may be reused by the thread
+                // and keeps the state of the scripts it runs
+                Compilable compilable = (Compilable) scriptEngine.getFactory().getScriptEngine();
+                try {
+                    return compiler.compile(compilable);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ScriptException e) {
+                    throw new UncheckedScriptException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (UncheckedScriptException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * @return boolean true if element is not compilable or if compilation succeeds
      * @throws IOException if script is missing
@@ -246,9 +418,7 @@ public abstract class JSR223TestElement extends ScriptingTestElement
         throws ScriptException, IOException {
         String lang = getScriptLanguageWithDefault();
         ScriptEngine scriptEngine = getInstance().getEngineByName(lang);
-        boolean supportsCompilable = scriptEngine instanceof Compilable
-                && !("bsh.engine.BshScriptEngine".equals(scriptEngine.getClass().getName())); // NOSONAR // $NON-NLS-1$
-        if(!supportsCompilable) {
+        if(!supportsCompilable(scriptEngine)) {
             return true;
         }
         if (!StringUtils.isEmpty(getScript())) {
@@ -327,7 +497,7 @@ public abstract class JSR223TestElement extends ScriptingTestElement
      */
     @Override
     public void testEnded(String host) {
-        compiledScriptsCache.clear();
+        compiledScriptsCache.invalidateAll();
         this.scriptMd5 = null;
     }
 
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import org.apache.oro.text.regex.MatchResult;
+
+/**
+ * ORO view of a {@link java.util.regex.MatchResult}, so that the matches of both engines are handled alike
+ */
+final class JavaMatchResult implements MatchResult {
+    private final java.util.regex.MatchResult result;
+
+    JavaMatchResult(java.util.regex.MatchResult result) {
+        this.result = result;
+    }
+
+    /** Like ORO, groups which do not exist are not matched instead of failing */
+    private boolean hasGroup(int group) {
+        return group >= 0 && group <= result.groupCount();
+    }
+
+    @Override
+    public int length() {
+        return result.end() - result.start();
+    }
+
+    @Override
+    public int groups() {
+        return result.groupCount() + 1;
+    }
+
+    @Override
+    public String group(int group) {
+        return hasGroup(group) ? result.group(group) : null;
+    }
+
+    @Override
+    public int begin(int group) {
+        int start = beginOffset(group);
+        return start < 0 ? -1 : start - result.start();
+    }
+
+    @Override
+    public int end(int group) {
+        int end = endOffset(group);
+        return end < 0 ? -1 : end - result.start();
+    }
+
+    @Override
+    public int beginOffset(int group) {
+        return hasGroup(group) ? result.start(group) : -1;
+    }
+
+    @Override
+    public int endOffset(int group) {
+        return hasGroup(group) ? result.end(group) : -1;
+    }
+
+    @Override
+    public String toString() {
+        return result.group();
+    }
+}
@@ -26,17 +26,26 @@ import java.security.PrivateKey;
 import java.security.Provider;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509ExtendedKeyManager;
 import javax.net.ssl.X509KeyManager;
 import javax.net.ssl.X509TrustManager;
 
+import org.apache.jmeter.threads.AbstractThreadGroup;
+import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.util.keystore.JmeterKeyStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +72,23 @@ public class JsseSSLManager extends SSLManager {
     private static final boolean SHARED_SESSION_CONTEXT =
         JMeterUtils.getPropDefault("https.sessioncontext.shared",false); // $NON-NLS-1$
 
+    // Share the session context between the threads of a same Thread Group
+    private static final boolean THREAD_GROUP_SESSION_CONTEXT =
+        !SHARED_SESSION_CONTEXT
+        && JMeterUtils.getPropDefault("https.sessioncontext.per_thread_group", false); // $NON-NLS-1$
+
+    // Number of Thread Group iterations between 2 full handshakes of a thread, 0 means never
+    private static final int FULL_HANDSHAKE_ITERATIONS =
+        JMeterUtils.getPropDefault("https.sessioncontext.full_handshake_iterations", 1); // $NON-NLS-1$
+
+    // Size of the session cache of each context, 0 means JVM default
+    private static final int SESSION_CACHE_SIZE =
+        JMeterUtils.getPropDefault("https.sessioncontext.cache_size", 0); // $NON-NLS-1$
+
+    // Timeout in seconds of the cached sessions, 0 means JVM default
+    private static final int SESSION_CACHE_TIMEOUT =
+        JMeterUtils.getPropDefault("https.sessioncontext.cache_timeout", 0); // $NON-NLS-1$
+
     /**
      * Characters per second, used to slow down sockets
      */
@@ -71,7 +97,9 @@ public class JsseSSLManager extends SSLManager {
     static {
         if (log.isInfoEnabled()) {
             log.info("Using default SSL protocol: {}", DEFAULT_SSL_PROTOCOL);
-            log.info("SSL session context: {}", SHARED_SESSION_CONTEXT ? "shared" : "per-thread");
+            log.info("SSL session context: {}, full handshake every {} iteration(s)",
+                    SHARED_SESSION_CONTEXT ? "shared" : (THREAD_GROUP_SESSION_CONTEXT ? "per-thread-group" : "per-thread"),
+                    Integer.valueOf(FULL_HANDSHAKE_ITERATIONS));
 
             if (CPS > 0) {
                 log.info("Setting up HTTPS SlowProtocol, cps={}", CPS);
@@ -88,6 +116,19 @@ public class JsseSSLManager extends SSLManager {
 
     private SSLContext defaultContext; // If we are using a single session
     private ThreadLocal<SSLContext> threadlocal; // Otherwise
+    private Map<AbstractThreadGroup, SSLContext> threadGroupContexts; // If we are using a session per Thread Group
+
+    /**
+     * SSL state of the current thread: iterations since last reset,
+     * and sessions to invalidate on reset when contexts are shared by a Thread Group
+     */
+    private static final class ThreadSessionState {
+        private int iterations;
+        private final Set<SSLSession> sessions = new HashSet<>();
+    }
+
+    private final ThreadLocal<ThreadSessionState> threadSessionState =
+            ThreadLocal.withInitial(ThreadSessionState::new);
 
     /**
      * Create the SSLContext, and wrap all the X509KeyManagers with
@@ -108,6 +149,10 @@ public class JsseSSLManager extends SSLManager {
                 this.defaultContext = createContext();
             } else {
                 this.threadlocal = new ThreadLocal<>();
+                if (THREAD_GROUP_SESSION_CONTEXT) {
+                    // Thread Groups are cloned for each run, do not retain the old ones
+                    this.threadGroupContexts = Collections.synchronizedMap(new WeakHashMap<>());
+                }
             }
 
             HttpsURLConnection.setDefaultSSLSocketFactory(new HttpSSLProtocolSocketFactory(CPS));
@@ -154,6 +199,7 @@ public class JsseSSLManager extends SSLManager {
 
     /**
      * Returns the SSLContext we are using. This is either a context per thread,
+     * a context per Thread Group if <code>https.sessioncontext.per_thread_group</code> is true,
      * or, for backwards compatibility, a single shared context.
      *
      * @return The Context value
@@ -168,6 +214,13 @@ public class JsseSSLManager extends SSLManager {
             return this.defaultContext;
         }
 
+        if (THREAD_GROUP_SESSION_CONTEXT) {
+            AbstractThreadGroup threadGroup = JMeterContextService.getContext().getThreadGroup();
+            if (threadGroup != null) {
+                return getThreadGroupContext(threadGroup);
+            }
+        }
+
         SSLContext sslContext = this.threadlocal.get();
         if (sslContext == null) {
             if (log.isDebugEnabled()){
@@ -182,14 +235,67 @@ public class JsseSSLManager extends SSLManager {
         return sslContext;
     }
 
+    private SSLContext getThreadGroupContext(AbstractThreadGroup threadGroup) throws GeneralSecurityException {
+        synchronized (threadGroupContexts) {
+            SSLContext sslContext = threadGroupContexts.get(threadGroup);
+            if (sslContext == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Creating SSL context for Thread Group: {}", threadGroup.getName());
+                }
+                sslContext = createContext();
+                threadGroupContexts.put(threadGroup, sslContext);
+            }
+            return sslContext;
+        }
+    }
+
     /**
      * Resets the SSLContext if using per-thread contexts.
-     *
+     * If contexts are shared by a Thread Group, invalidates the sessions
+     * established by the current thread instead, so that its next connections
+     * do a full handshake without impacting the other threads.
      */
     public void resetContext() {
-        if (!SHARED_SESSION_CONTEXT) {
-            log.debug("Clearing session context for current thread");
-            this.threadlocal.set(null);
+        if (SHARED_SESSION_CONTEXT) {
+            return;
+        }
+        log.debug("Clearing session context for current thread");
+        this.threadlocal.set(null);
+        Set<SSLSession> sessions = threadSessionState.get().sessions;
+        for (SSLSession session : sessions) {
+            session.invalidate();
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Resets the SSL state of the current thread at the start of a Thread Group iteration,
+     * honouring <code>https.sessioncontext.full_handshake_iterations</code>:
+     * the state is only reset every N iterations, and never if N is 0.
+     * Between resets, new connections resume the cached sessions
+     * instead of doing a full handshake.
+     */
+    public void resetContextOnIteration() {
+        if (FULL_HANDSHAKE_ITERATIONS <= 0) {
+            return;
+        }
+        ThreadSessionState state = threadSessionState.get();
+        state.iterations++;
+        if (state.iterations >= FULL_HANDSHAKE_ITERATIONS) {
+            state.iterations = 0;
+            resetContext();
+        }
+    }
+
+    /**
+     * Records a session established by the current thread, so that {@link #resetContext()}
+     * can invalidate it when contexts are shared by a Thread Group.
+     *
+     * @param session {@link SSLSession} negotiated or resumed by the current thread
+     */
+    public void sessionEstablished(SSLSession session) {
+        if (THREAD_GROUP_SESSION_CONTEXT && FULL_HANDSHAKE_ITERATIONS > 0) {
+            threadSessionState.get().sessions.add(session);
         }
     }
 
@@ -244,6 +350,15 @@ public class JsseSSLManager extends SSLManager {
             }
         }
         context.init(newManagers, trustmanagers, this.rand);
+        SSLSessionContext sessionContext = context.getClientSessionContext();
+        if (sessionContext != null) {
+            if (SESSION_CACHE_SIZE > 0) {
+                sessionContext.setSessionCacheSize(SESSION_CACHE_SIZE);
+            }
+            if (SESSION_CACHE_TIMEOUT > 0) {
+                sessionContext.setSessionTimeout(SESSION_CACHE_TIMEOUT);
+            }
+        }
         if (log.isDebugEnabled()){
             String[] dCiphers = context.getSocketFactory().getDefaultCipherSuites();
             String[] sCiphers = context.getSocketFactory().getSupportedCipherSuites();
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.oro.text.PatternCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Compiled regular expressions shared by all threads, for the regular expression
+ * engine selected by the {@code jmeter.regex.engine} property.
+ * <ul>
+ * <li>{@link Engine#ORO}: Perl5 expressions of Jakarta ORO, the historical engine of JMeter</li>
+ * <li>{@link Engine#JAVA}: expressions of {@link java.util.regex.Pattern}</li>
+ * </ul>
+ * The number of matches done by each engine is counted, and logged with the
+ * statistics of the pattern caches by {@link #logStatistics()} at the end of the test.
+ *
+ * @since 5.2
+ */
+public final class RegexService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegexService.class);
+
+    /**
+     * Regular expression engines
+     */
+    public enum Engine {
+        /** Jakarta ORO */
+        ORO,
+        /** {@link java.util.regex} */
+        JAVA;
+
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder found = new LongAdder();
+
+        /**
+         * @return the number of matches done with this engine
+         */
+        public long getMatchCount() {
+            return matches.sum();
+        }
+
+        /**
+         * @return the number of matches done with this engine which found the expression
+         */
+        public long getFoundCount() {
+            return found.sum();
+        }
+    }
+
+    /** Number of matches when statistics were last logged */
+    private static final AtomicLong LOGGED_MATCHES = new AtomicLong();
+
+    // Note: cannot use static variables here, because they would be initialised
+    // before the JMeter properties have been defined (Bug 52783)
+    private static class EngineHolder { // IODH idiom
+        private static final Engine ENGINE = readEngine();
+    }
+
+    private static class OroCacheHolder { // IODH idiom
+        private static final ConcurrentPatternCache CACHE = new ConcurrentPatternCache(
+                JMeterUtils.getPropDefault("oro.patterncache.size", 1000)); // $NON-NLS-1$
+    }
+
+    private static class JavaCacheHolder { // IODH idiom
+        private static final Cache<ConcurrentPatternCache.Key, Pattern> CACHE = Caffeine.newBuilder()
+                .maximumSize(JMeterUtils.getPropDefault("jmeter.regex.patterncache.size", 1000)) // $NON-NLS-1$
+                .recordStats()
+                .build();
+    }
+
+    private RegexService() {
+    }
+
+    private static Engine readEngine() {
+        String name = JMeterUtils.getPropDefault("jmeter.regex.engine", "oro"); // $NON-NLS-1$ // $NON-NLS-2$
+        try {
+            return Engine.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown regular expression engine '{}' in jmeter.regex.engine, using oro", name);
+            return Engine.ORO;
+        }
+    }
+
+    /**
+     * @return the engine selected by the {@code jmeter.regex.engine} property, {@link Engine#ORO} by default
+     */
+    public static Engine getEngine() {
+        return EngineHolder.ENGINE;
+    }
+
+    /**
+     * @return the cache of ORO patterns, which can be used by several threads at once
+     */
+    public static PatternCache getPatternCache() {
+        return OroCacheHolder.CACHE;
+    }
+
+    /**
+     * Get a compiled {@link java.util.regex.Pattern} from the cache
+     *
+     * @param expression regular expression
+     * @return compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the expression is not valid
+     */
+    public static Pattern compile(String expression) {
+        return compile(expression, 0);
+    }
+
+    /**
+     * Get a compiled {@link java.util.regex.Pattern} from the cache
+     *
+     * @param expression regular expression
+     * @param flags      flags of {@link Pattern#compile(String, int)}
+     * @return compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the expression is not valid
+     */
+    public static Pattern compile(String expression, int flags) {
+        return JavaCacheHolder.CACHE.get(new ConcurrentPatternCache.Key(expression, flags),
+                key -> Pattern.compile(key.expression, key.options));
+    }
+
+    /**
+     * Wraps a match of {@link java.util.regex.Matcher}, so that it can be handled like a match of ORO
+     *
+     * @param result match found by a {@link java.util.regex.Matcher}
+     * @return ORO view of the match
+     */
+    public static org.apache.oro.text.regex.MatchResult toMatchResult(java.util.regex.MatchResult result) {
+        return new JavaMatchResult(result);
+    }
+
+    /**
+     * Count a match done by an engine
+     *
+     * @param engine engine which did the match
+     * @param found  {@code true} if the expression was found
+     */
+    public static void recordMatch(Engine engine, boolean found) {
+        engine.matches.increment();
+        if (found) {
+            engine.found.increment();
+        }
+    }
+
+    /**
+     * Logs the matches done by each engine and the hits and misses of the
+     * pattern caches, if matches were done since they were last logged
+     */
+    public static void logStatistics() {
+        long matches = 0;
+        for (Engine engine : Engine.values()) {
+            matches += engine.getMatchCount();
+        }
+        if (matches == LOGGED_MATCHES.getAndSet(matches) || !log.isInfoEnabled()) {
+            return;
+        }
+        for (Engine engine : Engine.values()) {
+            if (engine.getMatchCount() == 0) {
+                continue;
+            }
+            CacheStats stats = engine == Engine.ORO
+                    ? OroCacheHolder.CACHE.stats()
+                    : JavaCacheHolder.CACHE.stats();
+            log.info("Regular expressions ({}): {} matches, {} found, pattern cache: {} hits, {} misses, {} evictions",
+                    engine, Long.valueOf(engine.getMatchCount()), Long.valueOf(engine.getFoundCount()),
+                    Long.valueOf(stats.hitCount()), Long.valueOf(stats.missCount()),
+                    Long.valueOf(stats.evictionCount()));
+        }
+    }
+}
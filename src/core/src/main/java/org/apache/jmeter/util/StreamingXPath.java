@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * XPath location path made of child ({@code /}) and descendant ({@code //})
+ * element steps, optionally ending with an attribute ({@code @name}) or a
+ * {@code text()} step, evaluated on the StAX events of a document instead of
+ * on its DOM.
+ * <p>
+ * The values are the ones {@link XPathUtil#putValuesForXPathInList} returns
+ * for the DOM of the document. Documents with a DTD are rejected, so that
+ * they are evaluated on their DOM.
+ *
+ * @since 5.2
+ */
+public final class StreamingXPath {
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    /** The states of an element are the bits of a long */
+    private static final int MAX_STEPS = 63;
+
+    private static final String ANY_ELEMENT = "*"; // $NON-NLS-1$
+
+    private static final int ELEMENT = 0;
+    private static final int ATTRIBUTE = 1;
+    private static final int TEXT = 2;
+
+    /** Name tests of the element steps */
+    private final String[] names;
+
+    /** Whether each step, including the last attribute or text step, is preceded by {@code //} */
+    private final boolean[] descendants;
+
+    /** Whether the path selects elements, attributes or text nodes */
+    private final int target;
+
+    /** Name of the selected attributes */
+    private final String attributeName;
+
+    private StreamingXPath(List<String> names, boolean[] descendants, int target, String attributeName) {
+        this.names = names.toArray(new String[0]);
+        this.descendants = descendants;
+        this.target = target;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * @param xPathQuery XPath 1 expression
+     * @return the path, or null if the expression is not handled
+     */
+    public static StreamingXPath compile(String xPathQuery) {
+        if (xPathQuery == null || !xPathQuery.startsWith("/")) { // $NON-NLS-1$
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        boolean[] descendants = new boolean[MAX_STEPS];
+        int target = ELEMENT;
+        String attributeName = null;
+        int i = 0;
+        while (i < xPathQuery.length()) {
+            if (target != ELEMENT || names.size() == MAX_STEPS) {
+                // attribute and text steps must be the last ones
+                return null;
+            }
+            boolean descendant = xPathQuery.startsWith("//", i); // $NON-NLS-1$
+            i += descendant ? 2 : 1;
+            int end = xPathQuery.indexOf('/', i);
+            if (end < 0) {
+                end = xPathQuery.length();
+            }
+            String step = xPathQuery.substring(i, end);
+            descendants[names.size()] = descendant;
+            if ("text()".equals(step)) { // $NON-NLS-1$
+                target = TEXT;
+            } else if (step.startsWith("@") && isNCName(step.substring(1)) // $NON-NLS-1$
+                    && !step.startsWith("@xmlns")) { // $NON-NLS-1$
+                target = ATTRIBUTE;
+                attributeName = step.substring(1);
+            } else if (ANY_ELEMENT.equals(step) || isNCName(step)) {
+                names.add(step);
+            } else {
+                // predicate, axis, prefix, function...
+                return null;
+            }
+            i = end;
+        }
+        if (names.isEmpty() && target == ELEMENT) {
+            return null;
+        }
+        return new StreamingXPath(names, Arrays.copyOf(descendants, names.size() + 1), target, attributeName);
+    }
+
+    private static boolean isNCName(String name) {
+        if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the path selects elements
+     */
+    public boolean selectsElements() {
+        return target == ELEMENT;
+    }
+
+    /**
+     * Put in matchStrings the values selected by the path, as
+     * {@link XPathUtil#putValuesForXPathInList(org.w3c.dom.Document, String, List, boolean, int)}
+     * does without fragment
+     *
+     * @param xml          XML document
+     * @param namespace    whether names are matched as by a namespace aware parser
+     * @param matchStrings list of strings that will be filled
+     * @param matchNumber  match number, 0 for a random match, negative for all the matches
+     * @throws XMLStreamException when the document can not be parsed, or has a DTD
+     */
+    public void putValues(byte[] xml, boolean namespace, List<String> matchStrings, int matchNumber)
+            throws XMLStreamException {
+        Evaluation evaluation = new Evaluation(namespace);
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml));
+        try {
+            // the whole document is read, so that it is checked as the DOM parser would
+            evaluation.run(reader);
+        } finally {
+            reader.close();
+        }
+        List<String> values = evaluation.values;
+        if (matchNumber < 0) {
+            matchStrings.addAll(values);
+        } else {
+            int indexToMatch = matchNumber;
+            if (matchNumber == 0 && !values.isEmpty()) {
+                indexToMatch = JMeterUtils.getRandomInt(values.size()) + 1;
+            }
+            if (indexToMatch > 0 && indexToMatch <= values.size()) {
+                matchStrings.add(values.get(indexToMatch - 1));
+            }
+        }
+    }
+
+    /**
+     * State of one evaluation.
+     * <p>
+     * Each open element has a set of states, the state {@code i} meaning that
+     * the element is a context node of step {@code i}. Text values follow the
+     * DOM: adjacent characters make one text node, CDATA sections are separate
+     * nodes, and XPath returns the first DOM node of adjacent text nodes.
+     */
+    private final class Evaluation {
+        private final boolean namespace;
+
+        private final List<String> values = new ArrayList<>();
+
+        private long[] states = new long[16];
+
+        private int depth;
+
+        /** Characters of the text node being read */
+        private StringBuilder text;
+
+        /** Whether the text node being read is the first of adjacent text nodes */
+        private boolean firstText;
+
+        /** Whether a text node was read since the last other node */
+        private boolean afterText;
+
+        /** Whether the last started element is selected, its value being its first child */
+        private boolean pendingElement;
+
+        Evaluation(boolean namespace) {
+            this.namespace = namespace;
+            states[0] = 1L; // the document is the context node of the first step
+        }
+
+        void run(XMLStreamReader reader) throws XMLStreamException {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        characters(reader);
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        cdata(reader);
+                        break;
+                    case XMLStreamConstants.START_ELEMENT:
+                        otherNode(null);
+                        startElement(reader);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        otherNode(null);
+                        depth--;
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        otherNode(reader.getText());
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        otherNode(reader.getPIData());
+                        break;
+                    case XMLStreamConstants.DTD:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        throw new XMLStreamException("Documents with a DTD are not streamed", // $NON-NLS-1$
+                                reader.getLocation());
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void characters(XMLStreamReader reader) {
+            if (depth == 0) {
+                // white space around the root element is not a node of the document
+                return;
+            }
+            if (text == null) {
+                text = new StringBuilder();
+                firstText = !afterText;
+                afterText = true;
+            }
+            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        }
+
+        private void cdata(XMLStreamReader reader) {
+            endText();
+            boolean first = !afterText;
+            afterText = true;
+            textNode(reader.getText(), first);
+        }
+
+        private void startElement(XMLStreamReader reader) {
+            long parentStates = states[depth];
+            long elementStates = 0L;
+            for (int i = 0; i < names.length; i++) {
+                if ((parentStates & (1L << i)) != 0) {
+                    if (descendants[i]) {
+                        elementStates |= 1L << i;
+                    }
+                    if (matches(names[i], reader.getLocalName(), reader.getNamespaceURI())) {
+                        elementStates |= 1L << (i + 1);
+                    }
+                }
+            }
+            int last = names.length;
+            if (target != ELEMENT && descendants[last] && (parentStates & (1L << last)) != 0) {
+                elementStates |= 1L << last;
+            }
+            depth++;
+            if (depth == states.length) {
+                states = Arrays.copyOf(states, depth * 2);
+            }
+            states[depth] = elementStates;
+            if ((elementStates & (1L << last)) == 0) {
+                return;
+            }
+            if (target == ELEMENT) {
+                pendingElement = true;
+            } else if (target == ATTRIBUTE) {
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    if (matches(attributeName, reader.getAttributeLocalName(i), reader.getAttributeNamespace(i))) {
+                        values.add(reader.getAttributeValue(i));
+                    }
+                }
+            }
+        }
+
+        private boolean matches(String name, String localName, String namespaceURI) {
+            // without namespaces, XPath compares the names after their prefix
+            return (ANY_ELEMENT.equals(name) || name.equals(localName))
+                    && (!namespace || namespaceURI == null || namespaceURI.isEmpty());
+        }
+
+        private void endText() {
+            if (text != null) {
+                String value = text.toString();
+                text = null;
+                textNode(value, firstText);
+            }
+        }
+
+        private void textNode(String value, boolean first) {
+            if (pendingElement) {
+                values.add(value);
+                pendingElement = false;
+            }
+            if (first && target == TEXT && (states[depth] & (1L << names.length)) != 0) {
+                values.add(value);
+            }
+        }
+
+        /**
+         * @param value value of the node, the value of a selected parent element if it is its first child
+         */
+        private void otherNode(String value) {
+            endText();
+            afterText = false;
+            if (pendingElement) {
+                values.add(value);
+                pendingElement = false;
+            }
+        }
+    }
+}
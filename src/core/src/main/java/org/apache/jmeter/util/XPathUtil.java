@@ -50,6 +50,7 @@ import javax.xml.transform.stream.StreamResult;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.xml.utils.PrefixResolver;
 import org.apache.xpath.XPathAPI;
 import org.apache.xpath.objects.XObject;
@@ -96,6 +97,9 @@ public class XPathUtil {
      */
     private static final Processor PROCESSOR = new Processor(false);
 
+    /** Kind of the Saxon trees shared through {@link SampleResult#getParsedResponse(String)} */
+    private static final String XDM_NODE_KIND = "xpath2.xdm"; // $NON-NLS-1$
+
     private XPathUtil() {
         super();
     }
@@ -104,6 +108,20 @@ public class XPathUtil {
         return PROCESSOR;
     }
 
+    /** Whether each thread reuses its document builders and Tidy parsers */
+    private static final boolean REUSE_PARSERS =
+            JMeterUtils.getPropDefault("xpath.parser.reuse", true); // $NON-NLS-1$
+
+    /** Document builders of the thread, indexed by their options */
+    private static final ThreadLocal<DocumentBuilder[]> DOCUMENT_BUILDERS =
+            ThreadLocal.withInitial(() -> new DocumentBuilder[16]);
+
+    /** Tidy parsers of the thread, indexed by their options */
+    private static final ThreadLocal<Tidy[]> TIDY_PARSERS = ThreadLocal.withInitial(() -> new Tidy[8]);
+
+    private static final EntityResolver NO_DTD_RESOLVER =
+            (publicId, systemId) -> new InputSource(new ByteArrayInputStream(new byte[0]));
+
     private static DocumentBuilderFactory documentBuilderFactory;
 
     /**
@@ -144,12 +162,42 @@ public class XPathUtil {
     public static DocumentBuilder makeDocumentBuilder(boolean validate, boolean whitespace, boolean namespace, boolean downloadDTDs)
             throws ParserConfigurationException {
         DocumentBuilder builder = makeDocumentBuilderFactory(validate, whitespace, namespace).newDocumentBuilder();
+        configureDocumentBuilder(builder, validate, downloadDTDs);
+        return builder;
+    }
+
+    private static void configureDocumentBuilder(DocumentBuilder builder, boolean validate, boolean downloadDTDs) {
         builder.setErrorHandler(new MyErrorHandler(validate, false));
         if (!downloadDTDs) {
-            EntityResolver er = (publicId, systemId) -> new InputSource(new ByteArrayInputStream(new byte[0]));
-            builder.setEntityResolver(er);
+            builder.setEntityResolver(NO_DTD_RESOLVER);
+        }
+    }
+
+    /**
+     * Parse a document with the document builder of the current thread for these options,
+     * so that the factory lock and the builder creation only happen once per thread
+     */
+    private static Document parseDocument(InputStream stream, boolean validate, boolean whitespace, boolean namespace,
+            boolean downloadDTDs) throws ParserConfigurationException, SAXException, IOException {
+        if (!REUSE_PARSERS) {
+            return makeDocumentBuilder(validate, whitespace, namespace, downloadDTDs).parse(stream);
+        }
+        int options = (validate ? 1 : 0) | (whitespace ? 2 : 0) | (namespace ? 4 : 0) | (downloadDTDs ? 8 : 0);
+        DocumentBuilder[] builders = DOCUMENT_BUILDERS.get();
+        DocumentBuilder builder = builders[options];
+        if (builder == null) {
+            builder = makeDocumentBuilder(validate, whitespace, namespace, downloadDTDs);
+            builders[options] = builder;
+        } else {
+            // reset() does not keep the handlers
+            configureDocumentBuilder(builder, validate, downloadDTDs);
+        }
+        try {
+            return builder.parse(stream);
+        } finally {
+            // release the document and the state of a failed parse
+            builder.reset();
         }
-        return builder;
     }
 
     /**
@@ -206,7 +254,7 @@ public class XPathUtil {
         if (tolerant) {
             doc = tidyDoc(stream, quiet, showWarnings, report_errors, isXml, tidyOut);
         } else {
-            doc = makeDocumentBuilder(validate, whitespace, namespace, downloadDTDs).parse(stream);
+            doc = parseDocument(stream, validate, whitespace, namespace, downloadDTDs);
         }
         return doc;
     }
@@ -227,7 +275,7 @@ public class XPathUtil {
     private static Document tidyDoc(InputStream stream, boolean quiet, boolean showWarnings, boolean report_errors,
             boolean isXML, OutputStream out) throws TidyException {
         StringWriter sw = new StringWriter();
-        Tidy tidy = makeTidyParser(quiet, showWarnings, isXML, sw);
+        Tidy tidy = getTidyParser(quiet, showWarnings, isXML, sw);
         Document doc = tidy.parseDOM(stream, out);
         doc.normalize();
         if (tidy.getParseErrors() > 0) {
@@ -263,6 +311,25 @@ public class XPathUtil {
         return tidy;
     }
 
+    /**
+     * @return the Tidy parser of the current thread for these options, writing its errors to stringWriter
+     */
+    private static Tidy getTidyParser(boolean quiet, boolean showWarnings, boolean isXml, StringWriter stringWriter) {
+        if (!REUSE_PARSERS) {
+            return makeTidyParser(quiet, showWarnings, isXml, stringWriter);
+        }
+        int options = (quiet ? 1 : 0) | (showWarnings ? 2 : 0) | (isXml ? 4 : 0);
+        Tidy[] parsers = TIDY_PARSERS.get();
+        Tidy tidy = parsers[options];
+        if (tidy == null) {
+            tidy = makeTidyParser(quiet, showWarnings, isXml, stringWriter);
+            parsers[options] = tidy;
+        } else {
+            tidy.setErrout(new PrintWriter(stringWriter));
+        }
+        return tidy;
+    }
+
     static class MyErrorHandler implements ErrorHandler {
         private final boolean val;
         private final boolean tol;
@@ -413,11 +480,73 @@ public class XPathUtil {
         }
     }
 
+    /**
+     * Parses XML into a Saxon tree, for XPath 2 queries
+     *
+     * @param xmlFile XML data
+     * @return the document node
+     * @throws SaxonApiException when the XML can not be parsed
+     * @since 5.2
+     */
+    public static XdmNode buildXdmNode(String xmlFile) throws SaxonApiException {
+        try (StringReader reader = new StringReader(xmlFile)) {
+            // We could instantiate it once but might trigger issues in the future
+            // Sharing of a DocumentBuilder across multiple threads is not recommended.
+            // However, in the current implementation sharing a DocumentBuilder (once initialized)
+            // will only cause problems if a SchemaValidator is used.
+            net.sf.saxon.s9api.DocumentBuilder builder = PROCESSOR.newDocumentBuilder();
+            return builder.build(new SAXSource(new InputSource(reader)));
+        }
+    }
+
+    /**
+     * @param result sample whose response is XML
+     * @return the response parsed into a Saxon tree, shared with the other
+     * XPath 2 extractors and assertions of the sample
+     * @throws SaxonApiException when the XML can not be parsed
+     * @since 5.2
+     */
+    public static XdmNode getXdmNode(SampleResult result) throws SaxonApiException {
+        XdmNode xdmNode = (XdmNode) result.getParsedResponse(XDM_NODE_KIND);
+        if (xdmNode == null) {
+            xdmNode = buildXdmNode(result.getResponseDataAsString());
+            result.setParsedResponse(XDM_NODE_KIND, xdmNode);
+        }
+        return xdmNode;
+    }
+
     public static void putValuesForXPathInListUsingSaxon(
             String xmlFile, String xPathQuery,
             List<String> matchStrings, boolean fragment,
             int matchNumber, String namespaces)
             throws SaxonApiException, FactoryConfigurationError {
+        if (StringUtils.isEmpty(xPathQuery)) {
+            // no need to parse the document
+            log.warn("Error : {}", JMeterUtils.getResString("xpath2_extractor_empty_query"));
+            return;
+        }
+        putValuesForXPathInListUsingSaxon(buildXdmNode(xmlFile), xPathQuery,
+                matchStrings, fragment, matchNumber, namespaces);
+    }
+
+    /**
+     * Put in matchStrings results of evaluation of an XPath 2 query on a parsed document
+     *
+     * @param xdmNode document built by {@link #buildXdmNode(String)}
+     * @param xPathQuery XPath 2 query
+     * @param matchStrings list of matched strings
+     * @param fragment return fragment
+     * @param matchNumber match number
+     * @param namespaces Space separated set of prefix=namespace
+     * @throws SaxonApiException when the XPath query can not be evaluated
+     * @throws FactoryConfigurationError when the parser can not be instantiated
+     * @since 5.2
+     */
+    public static void putValuesForXPathInListUsingSaxon(
+            XdmNode xdmNode, String xPathQuery,
+            List<String> matchStrings, boolean fragment,
+            int matchNumber, String namespaces)
+            throws SaxonApiException, FactoryConfigurationError {
 
         // generating the cache key
         final ImmutablePair<String, String> key = ImmutablePair.of(xPathQuery, namespaces);
@@ -432,54 +561,45 @@ public class XPathUtil {
             return;
         }
 
-        try (StringReader reader = new StringReader(xmlFile)) {
-            // We could instantiate it once but might trigger issues in the future
-            // Sharing of a DocumentBuilder across multiple threads is not recommended.
-            // However, in the current implementation sharing a DocumentBuilder (once initialized)
-            // will only cause problems if a SchemaValidator is used.
-            net.sf.saxon.s9api.DocumentBuilder builder = PROCESSOR.newDocumentBuilder();
-            XdmNode xdmNode = builder.build(new SAXSource(new InputSource(reader)));
-
-            if(xPathExecutable!=null) {
-                XPathSelector selector = null;
-                try {
-                    selector = xPathExecutable.load();
-                    selector.setContextItem(xdmNode);
-                    XdmValue nodes = selector.evaluate();
-                    int length = nodes.size();
-                    int indexToMatch = matchNumber;
-                    // In case we need to extract everything
-                    if(matchNumber < 0) {
-                        for(XdmItem item : nodes) {
-                            if(fragment) {
-                                matchStrings.add(item.toString());
-                            }
-                            else {
-                                matchStrings.add(item.getStringValue());
-                            }
+        if(xPathExecutable!=null) {
+            XPathSelector selector = null;
+            try {
+                selector = xPathExecutable.load();
+                selector.setContextItem(xdmNode);
+                XdmValue nodes = selector.evaluate();
+                int length = nodes.size();
+                int indexToMatch = matchNumber;
+                // In case we need to extract everything
+                if(matchNumber < 0) {
+                    for(XdmItem item : nodes) {
+                        if(fragment) {
+                            matchStrings.add(item.toString());
                         }
-                    } else {
-                        if(indexToMatch <= length) {
-                            if(matchNumber == 0 && length>0) {
-                                indexToMatch = JMeterUtils.getRandomInt(length)+1;
-                            }
-                            XdmItem item = nodes.itemAt(indexToMatch-1);
-                            matchStrings.add(fragment ? item.toString() : item.getStringValue());
-                        } else {
-                            if(log.isWarnEnabled()) {
-                                log.warn("Error : {}{}", JMeterUtils.getResString("xpath2_extractor_match_number_failure"),indexToMatch);
-                            }
+                        else {
+                            matchStrings.add(item.getStringValue());
                         }
                     }
-                } finally {
-                    if(selector != null) {
-                        try {
-                            selector.getUnderlyingXPathContext().setContextItem(null);
-                        } catch (Exception e) { // NOSONAR Ignored on purpose
-                            // NOOP
+                } else {
+                    if(indexToMatch <= length) {
+                        if(matchNumber == 0 && length>0) {
+                            indexToMatch = JMeterUtils.getRandomInt(length)+1;
+                        }
+                        XdmItem item = nodes.itemAt(indexToMatch-1);
+                        matchStrings.add(fragment ? item.toString() : item.getStringValue());
+                    } else {
+                        if(log.isWarnEnabled()) {
+                            log.warn("Error : {}{}", JMeterUtils.getResString("xpath2_extractor_match_number_failure"),indexToMatch);
                         }
                     }
                 }
+            } finally {
+                if(selector != null) {
+                    try {
+                        selector.getUnderlyingXPathContext().setContextItem(null);
+                    } catch (Exception e) { // NOSONAR Ignored on purpose
+                        // NOOP
+                    }
+                }
             }
         }
     }
@@ -674,6 +794,22 @@ public class XPathUtil {
     */
    public static void computeAssertionResultUsingSaxon(AssertionResult result, String xmlFile, String xPathQuery,
            String namespaces, Boolean isNegated) throws SaxonApiException, FactoryConfigurationError {
+       computeAssertionResultUsingSaxon(result, buildXdmNode(xmlFile), xPathQuery, namespaces, isNegated);
+   }
+
+   /***
+    *
+    * @param result The result of xpath2 assertion
+    * @param xdmNode document built by {@link #buildXdmNode(String)}
+    * @param xPathQuery XPath Query
+    * @param namespaces Space separated set of prefix=namespace
+    * @param isNegated invert result
+    * @throws SaxonApiException when the xpath query can not be evaluated
+    * @throws FactoryConfigurationError when the parser can not be instantiated
+    * @since 5.2
+    */
+   public static void computeAssertionResultUsingSaxon(AssertionResult result, XdmNode xdmNode, String xPathQuery,
+           String namespaces, Boolean isNegated) throws SaxonApiException, FactoryConfigurationError {
        // generating the cache key
        final ImmutablePair<String, String> key = ImmutablePair.of(xPathQuery, namespaces);
        // check the cache
@@ -684,45 +820,36 @@ public class XPathUtil {
            log.warn("Error : {}", JMeterUtils.getResString("xpath2_extractor_empty_query"));
            return;
        }
-       try (StringReader reader = new StringReader(xmlFile)) {
-           // We could instantiate it once but might trigger issues in the future
-           // Sharing of a DocumentBuilder across multiple threads is not recommended.
-           // However, in the current implementation sharing a DocumentBuilder (once
-           // initialized)
-           // will only cause problems if a SchemaValidator is used.
-           net.sf.saxon.s9api.DocumentBuilder builder = PROCESSOR.newDocumentBuilder();
-           XdmNode xdmNode = builder.build(new SAXSource(new InputSource(reader)));
-           if (xPathExecutable != null) {
-               XPathSelector selector = null;
-               try {
-                   Document doc;
-                   doc = XPathUtil.makeDocumentBuilder(false, false, false, false).newDocument();
-                   XObject xObject = XPathAPI.eval(doc, xPathQuery, getPrefixResolverForXPath2(doc, namespaces));
-                   selector = xPathExecutable.load();
-                   selector.setContextItem(xdmNode);
-                   XdmValue nodes = selector.evaluate();
-                   boolean resultOfEval = true;
-                   int length = nodes.size();
-                   // In case we need to extract everything
-                   if (length == 0) {
-                       resultOfEval = false;
-                   } else if (xObject.getType() == XObject.CLASS_BOOLEAN) {
-                       resultOfEval = Boolean.valueOf(nodes.itemAt(0).getStringValue());
-                   }
-                   result.setFailure(isNegated ? resultOfEval : !resultOfEval);
-                   result.setFailureMessage(
-                           isNegated ? "Nodes Matched for " + xPathQuery : "No Nodes Matched for " + xPathQuery);
-               } catch (ParserConfigurationException | TransformerException e) { // NOSONAR Exception handled by return
-                   result.setError(true);
-                   result.setFailureMessage("Exception: " + e.getMessage() + " for:" + xPathQuery);
-               } finally {
-                   if (selector != null) {
-                       try {
-                           selector.getUnderlyingXPathContext().setContextItem(null);
-                       } catch (Exception e) { // NOSONAR Ignored on purpose
-                           result.setError(true);
-                           result.setFailureMessage("Exception: " + e.getMessage() + " for:" + xPathQuery);
-                       }
+       if (xPathExecutable != null) {
+           XPathSelector selector = null;
+           try {
+               Document doc;
+               doc = XPathUtil.makeDocumentBuilder(false, false, false, false).newDocument();
+               XObject xObject = XPathAPI.eval(doc, xPathQuery, getPrefixResolverForXPath2(doc, namespaces));
+               selector = xPathExecutable.load();
+               selector.setContextItem(xdmNode);
+               XdmValue nodes = selector.evaluate();
+               boolean resultOfEval = true;
+               int length = nodes.size();
+               // In case we need to extract everything
+               if (length == 0) {
+                   resultOfEval = false;
+               } else if (xObject.getType() == XObject.CLASS_BOOLEAN) {
+                   resultOfEval = Boolean.valueOf(nodes.itemAt(0).getStringValue());
+               }
+               result.setFailure(isNegated ? resultOfEval : !resultOfEval);
+               result.setFailureMessage(
+                       isNegated ? "Nodes Matched for " + xPathQuery : "No Nodes Matched for " + xPathQuery);
+           } catch (ParserConfigurationException | TransformerException e) { // NOSONAR Exception handled by return
+               result.setError(true);
+               result.setFailureMessage("Exception: " + e.getMessage() + " for:" + xPathQuery);
+           } finally {
+               if (selector != null) {
+                   try {
+                       selector.getUnderlyingXPathContext().setContextItem(null);
+                   } catch (Exception e) { // NOSONAR Ignored on purpose
+                       result.setError(true);
+                       result.setFailureMessage("Exception: " + e.getMessage() + " for:" + xPathQuery);
                    }
                }
            }
@@ -28,7 +28,7 @@ import java.util.Set;
 
 import org.apache.jmeter.junit.JMeterTestCase;
 import org.apache.jmeter.report.config.ReportGeneratorConfiguration;
-import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.regex.PatternMatcher;
 import org.junit.Test;
 
@@ -119,7 +119,7 @@ public class ApdexPerTransactionTest extends JMeterTestCase {
         for (String sampleName : sampleNames) {
             boolean hasMatched = false;
             for (Map.Entry<String, Long[]> entry : apdex.entrySet()) {
-                org.apache.oro.text.regex.Pattern regex = JMeterUtils.getPatternCache().getPattern(entry.getKey());
+                org.apache.oro.text.regex.Pattern regex = RegexService.getPatternCache().getPattern(entry.getKey());
                 PatternMatcher matcher = JMeterUtils.getMatcher();
                 if(matcher.matches(sampleName, regex)) {
                     hasMatched= true;
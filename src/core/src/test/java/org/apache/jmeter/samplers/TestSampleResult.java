@@ -25,6 +25,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+
 import org.apache.jmeter.junit.JMeterTestCase;
 import org.apache.jmeter.testelement.TestPlan;
 import org.apache.jmeter.util.Calculator;
@@ -380,4 +382,114 @@ public class TestSampleResult implements JMeterSerialTest {
         assertFalse("Expected false on first call of markFile with null", secondResult.markFile(null));
         assertTrue("Expected true on second call of markFile with null", secondResult.markFile(null));
     }
+
+    @Test
+    public void testLazyResponseDataDecoding() throws Exception {
+        SampleResult res = new SampleResult();
+        res.setDataEncoding("UTF-8");
+        int[] calls = new int[1];
+        res.setResponseData("raw".getBytes("UTF-8"), raw -> {
+            calls[0]++;
+            return "decoded".getBytes("UTF-8");
+        });
+        assertTrue(res.isResponseDataDecodingPending());
+        assertEquals(0, calls[0]);
+        assertEquals("decoded", res.getResponseDataAsString());
+        assertEquals("decoded", new String(res.getResponseData(), "UTF-8"));
+        assertFalse(res.isResponseDataDecodingPending());
+        assertEquals("Decoder must only be called once", 1, calls[0]);
+    }
+
+    @Test
+    public void testLazyResponseDataDecodingFailureKeepsRawData() throws Exception {
+        SampleResult res = new SampleResult();
+        res.setResponseData("raw".getBytes("UTF-8"), raw -> {
+            throw new IOException("Not in GZIP format");
+        });
+        assertEquals("raw", new String(res.getResponseData(), "UTF-8"));
+        assertFalse(res.isResponseDataDecodingPending());
+    }
+
+    @Test
+    public void testTlsHandshakesAddedToParent() {
+        SampleResult parent = new SampleResult();
+        parent.sampleStart();
+        SampleResult child = new SampleResult();
+        child.sampleStart();
+        child.addTlsHandshake(30, false);
+        child.addTlsHandshake(5, true);
+        child.sampleEnd();
+        assertEquals(35, child.getTlsHandshakeTime());
+        assertEquals(1, child.getTlsFullHandshakeCount());
+        assertEquals(1, child.getTlsResumedHandshakeCount());
+        parent.addTlsHandshake(10, true);
+        parent.addSubResult(child);
+        assertEquals(45, parent.getTlsHandshakeTime());
+        assertEquals(1, parent.getTlsFullHandshakeCount());
+        assertEquals(2, parent.getTlsResumedHandshakeCount());
+        SampleResult copy = new SampleResult(parent);
+        assertEquals(45, copy.getTlsHandshakeTime());
+    }
+
+    @Test
+    public void testDnsResolutionTimeAddedToParent() {
+        SampleResult parent = new SampleResult();
+        parent.sampleStart();
+        SampleResult child = new SampleResult();
+        child.sampleStart();
+        child.addDnsResolutionTime(12);
+        child.addDnsResolutionTime(3);
+        child.sampleEnd();
+        assertEquals(15, child.getDnsResolutionTime());
+        parent.addDnsResolutionTime(5);
+        parent.addSubResult(child);
+        assertEquals(20, parent.getDnsResolutionTime());
+        SampleResult copy = new SampleResult(parent);
+        assertEquals(20, copy.getDnsResolutionTime());
+        parent.addRawSubResult(new SampleResult(child));
+        assertEquals(20, parent.getDnsResolutionTime());
+    }
+
+    @Test
+    public void testCorrectedTime() {
+        SampleResult res = new SampleResult(10_000L, 200L);
+        assertEquals(200, res.getCorrectedTime());
+        // Sample intended to start 300 ms before it actually did
+        res.setIntendedStartTime(res.getStartTime() - 300);
+        assertEquals(500, res.getCorrectedTime());
+        assertEquals(500, new SampleResult(res).getCorrectedTime());
+        // Sample started earlier than intended: nothing to correct
+        res.setIntendedStartTime(res.getStartTime() + 5);
+        assertEquals(200, res.getCorrectedTime());
+
+        SampleResult loaded = new SampleResult(10_000L, 200L);
+        loaded.setCorrectedTime(500);
+        assertEquals(res.getStartTime() - 300, loaded.getIntendedStartTime());
+        assertEquals(500, loaded.getCorrectedTime());
+        loaded.setCorrectedTime(200);
+        assertEquals(0, loaded.getIntendedStartTime());
+    }
+
+    @Test
+    public void testParsedResponse() {
+        SampleResult parent = new SampleResult();
+        parent.setResponseData("{}", null);
+        SampleResult child = new SampleResult();
+        child.setResponseData("[]", null);
+        parent.addRawSubResult(child);
+        Object document = new Object();
+        assertNull(parent.getParsedResponse("json"));
+        parent.setParsedResponse("json", document);
+        child.setParsedResponse("json", document);
+        assertTrue(document == parent.getParsedResponse("json"));
+        assertNull(parent.getParsedResponse("dom"));
+
+        parent.cleanAfterSample();
+        assertNull(parent.getParsedResponse("json"));
+        assertNull(child.getParsedResponse("json"));
+
+        parent.setParsedResponse("json", document);
+        parent.setResponseData("[]", null);
+        assertNull(parent.getParsedResponse("json"));
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+public class TestCSVFileIndex {
+
+    private static File createFile(byte[] content) throws IOException {
+        File file = File.createTempFile("csvindex", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static File createFile(String content) throws IOException {
+        return createFile(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLineEnds() throws IOException {
+        CSVFileIndex index = CSVFileIndex.open(createFile("a,b\nc,d\r\ne,f\r\rg,h"), "UTF-8", false);
+        assertEquals(5, index.getRecordCount());
+        assertEquals("a,b", index.getRecord(0));
+        assertEquals("c,d", index.getRecord(1));
+        assertEquals("e,f", index.getRecord(2));
+        assertEquals("", index.getRecord(3));
+        assertEquals("g,h", index.getRecord(4));
+    }
+
+    @Test
+    public void testQuotedLineEnds() throws IOException {
+        String content = "a,\"multi\nline\"\r\n\"x\"\"\ny\",z\n";
+        CSVFileIndex quoted = CSVFileIndex.open(createFile(content), "UTF-8", true);
+        assertEquals(2, quoted.getRecordCount());
+        assertEquals("a,\"multi\nline\"", quoted.getRecord(0));
+        assertEquals("\"x\"\"\ny\",z", quoted.getRecord(1));
+        CSVFileIndex unquoted = CSVFileIndex.open(createFile(content), "UTF-8", false);
+        assertEquals(4, unquoted.getRecordCount());
+    }
+
+    @Test
+    public void testUtf8Bom() throws IOException {
+        byte[] data = "é,1\nà,2".getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[data.length + 3];
+        content[0] = (byte) 0xEF;
+        content[1] = (byte) 0xBB;
+        content[2] = (byte) 0xBF;
+        System.arraycopy(data, 0, content, 3, data.length);
+        CSVFileIndex index = CSVFileIndex.open(createFile(content), null, false);
+        assertEquals(2, index.getRecordCount());
+        assertEquals("é,1", index.getRecord(0));
+        assertEquals("à,2", index.getRecord(1));
+    }
+
+    @Test
+    public void testNotIndexable() throws IOException {
+        File file = createFile("a\nb\n".getBytes(StandardCharsets.UTF_16));
+        assertNull(CSVFileIndex.open(file, null, false));
+        assertNull(CSVFileIndex.open(file, "UTF-16", false));
+        assertTrue(CSVFileIndex.isAsciiCompatible(StandardCharsets.ISO_8859_1));
+        assertFalse(CSVFileIndex.isAsciiCompatible(StandardCharsets.UTF_16LE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingFile() throws IOException {
+        CSVFileIndex.open(new File("No.such.filename"), null, false);
+    }
+
+    @Test
+    public void testCursor() throws IOException {
+        CSVFileIndex index = CSVFileIndex.open(createFile("header\n1\n2\n"), "UTF-8", false);
+        CSVFileIndex.Cursor cursor = index.newCursor(true);
+        assertEquals("1", cursor.nextRecord(false));
+        assertEquals("2", cursor.nextRecord(false));
+        assertNull(cursor.nextRecord(false));
+        CSVFileIndex.Cursor recycled = index.newCursor(true);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("1", recycled.nextRecord(true));
+            assertEquals("2", recycled.nextRecord(true));
+        }
+        CSVFileIndex.Cursor all = index.newCursor(false);
+        assertEquals("header", all.nextRecord(true));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        CSVFileIndex index = CSVFileIndex.open(createFile(""), "UTF-8", false);
+        assertEquals(0, index.getRecordCount());
+        assertNull(index.newCursor(false).nextRecord(true));
+        assertNull(CSVFileIndex.open(createFile("header\n"), "UTF-8", false).newCursor(true).nextRecord(true));
+    }
+
+    @Test
+    public void testConcurrentCursor() throws Exception {
+        int lines = 10000;
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            content.append(i).append('\n');
+        }
+        CSVFileIndex.Cursor cursor = CSVFileIndex.open(createFile(content.toString()), "UTF-8", false).newCursor(false);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                String record;
+                while ((record = cursor.nextRecord(false)) != null) {
+                    assertTrue(seen.add(record));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(lines, seen.size());
+    }
+}
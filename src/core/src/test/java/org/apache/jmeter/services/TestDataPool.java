@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestDataPool {
+
+    private static DataPool createPool(int rows, DataPool.AccessMode mode) {
+        DataPool.Builder builder = new DataPool.Builder().setColumnNames("id", "country");
+        for (int i = 0; i < rows; i++) {
+            builder.addRow(Integer.toString(i), i % 2 == 0 ? "FR" : "US");
+        }
+        return builder.build(mode);
+    }
+
+    @Test
+    public void testValues() {
+        DataPool pool = new DataPool.Builder()
+                .addRow("a1", "b1")
+                .addRow("a2")
+                .addRow("a3", "b3", "c3")
+                .build(DataPool.AccessMode.SEQUENTIAL);
+        assertEquals(3, pool.getRowCount());
+        assertEquals(3, pool.getColumnCount());
+        assertEquals(0, pool.getColumnNames().length);
+        assertArrayEquals(new String[] { "a1", "b1", "" }, pool.getRow(0).toArray());
+        assertArrayEquals(new String[] { "a2", "", "" }, pool.getRow(1).toArray());
+        assertEquals("c3", pool.getValue(2, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testColumnOutOfBounds() {
+        createPool(1, DataPool.AccessMode.SEQUENTIAL).getValue(0, 2);
+    }
+
+    @Test
+    public void testCodeWidths() {
+        // 1000 distinct ids need 2 bytes per row, 2 countries need 1 byte per row
+        DataPool pool = createPool(1000, DataPool.AccessMode.SEQUENTIAL);
+        assertEquals(3000, pool.getCodeSize());
+        assertEquals("999", pool.getRow(999).get("id"));
+        assertEquals("US", pool.getRow(999).get("country"));
+        assertNull(pool.getRow(0).get("unknown"));
+        DataPool wide = new DataPool.Builder().setColumnNames("id").build(DataPool.AccessMode.SEQUENTIAL);
+        assertEquals(0, wide.getRowCount());
+        assertNull(wide.next(true));
+    }
+
+    @Test
+    public void testSequential() {
+        DataPool pool = createPool(3, DataPool.AccessMode.SEQUENTIAL);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i % 3, pool.next(true).getIndex());
+        }
+        DataPool once = createPool(2, DataPool.AccessMode.SEQUENTIAL);
+        assertEquals("0", once.next(false).get(0));
+        assertEquals("1", once.next(false).get(0));
+        assertNull(once.next(false));
+    }
+
+    @Test
+    public void testUnique() {
+        DataPool pool = createPool(100, DataPool.AccessMode.UNIQUE);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ids.add(pool.next(false).get("id")));
+        }
+        assertNull(pool.next(false));
+    }
+
+    @Test
+    public void testRandom() {
+        DataPool pool = createPool(10, DataPool.AccessMode.RANDOM);
+        for (int i = 0; i < 100; i++) {
+            int row = pool.next(false).getIndex();
+            assertTrue(row >= 0 && row < 10);
+        }
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        File file = File.createTempFile("datapool", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "login;comment\nu1;\"a;b\"\nu2;\"multi\nline\"\n".getBytes(StandardCharsets.UTF_8));
+        DataPool pool = DataPool.load(file, "UTF-8", ";", true, true, DataPool.AccessMode.SEQUENTIAL);
+        assertArrayEquals(new String[] { "login", "comment" }, pool.getColumnNames());
+        assertEquals(2, pool.getRowCount());
+        assertEquals("a;b", pool.getRow(0).get("comment"));
+        assertEquals("multi\nline", pool.getRow(1).get("comment"));
+    }
+
+    @Test
+    public void testRegistry() {
+        DataPool pool = createPool(1, DataPool.AccessMode.SEQUENTIAL);
+        DataPool.register("test", pool);
+        assertTrue(pool == DataPool.getPool("test"));
+        DataPool.unregister("test");
+        assertNull(DataPool.getPool("test"));
+    }
+}
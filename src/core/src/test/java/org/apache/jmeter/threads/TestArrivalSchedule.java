@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestArrivalSchedule {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testConstantRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(10, 10, 0, 0, 2);
+        assertEquals(20, schedule.getCount());
+        assertEquals(2, schedule.getDuration(), DELTA);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i * 0.1, schedule.getArrivalTime(i), DELTA);
+        }
+        assertTrue(schedule.getArrivalTime(20) < 0);
+    }
+
+    @Test
+    public void testLinearRampUp() {
+        // 0 to 10 arrivals per second in 10 seconds: 50 arrivals, n arrivals after sqrt(2 * n) seconds
+        ArrivalSchedule schedule = new ArrivalSchedule(0, 10, 10, 0, 0);
+        assertEquals(50, schedule.getCount());
+        assertEquals(0, schedule.getArrivalTime(0), DELTA);
+        assertEquals(Math.sqrt(2 * 8.0), schedule.getArrivalTime(8), DELTA);
+        assertEquals(Math.sqrt(2 * 49.0), schedule.getArrivalTime(49), DELTA);
+        for (int i = 1; i < 50; i++) {
+            assertTrue(schedule.getArrivalTime(i) > schedule.getArrivalTime(i - 1));
+        }
+    }
+
+    @Test
+    public void testDecreasingRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(10, 0, 10, 0, 0);
+        assertEquals(50, schedule.getCount());
+        for (int i = 1; i < 50; i++) {
+            assertTrue(schedule.getArrivalTime(i) > schedule.getArrivalTime(i - 1));
+        }
+        assertTrue(schedule.getArrivalTime(49) <= 10);
+    }
+
+    @Test
+    public void testStepsThenHold() {
+        // 2 steps of 5 seconds at 0 and 1 arrival per second, then 5 seconds at 2 arrivals per second
+        ArrivalSchedule schedule = new ArrivalSchedule(0, 2, 10, 2, 5);
+        assertEquals(15, schedule.getCount());
+        assertEquals(15, schedule.getDuration(), DELTA);
+        assertEquals(5, schedule.getArrivalTime(0), DELTA);
+        assertEquals(9, schedule.getArrivalTime(4), DELTA);
+        assertEquals(10, schedule.getArrivalTime(5), DELTA);
+        assertEquals(10.5, schedule.getArrivalTime(6), DELTA);
+        assertEquals(14.5, schedule.getArrivalTime(14), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRate() {
+        new ArrivalSchedule(-1, 1, 0, 0, 10);
+    }
+}
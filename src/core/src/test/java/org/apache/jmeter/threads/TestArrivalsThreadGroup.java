@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.jmeter.control.LoopController;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.samplers.AbstractSampler;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jorphan.collections.ListedHashTree;
+import org.junit.Test;
+
+public class TestArrivalsThreadGroup extends JMeterTestCase {
+
+    /** Keeps the samplers busy until the test releases them */
+    private static CountDownLatch busy;
+
+    public static final class BusySampler extends AbstractSampler {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public SampleResult sample(Entry e) {
+            SampleResult result = new SampleResult();
+            result.setSampleLabel(getName());
+            result.sampleStart();
+            try {
+                busy.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            result.sampleEnd();
+            result.setSuccessful(true);
+            return result;
+        }
+    }
+
+    public static final class CollectingListener extends AbstractTestElement implements SampleListener, NoThreadClone {
+        private static final long serialVersionUID = 1L;
+
+        private final List<SampleResult> results = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void sampleOccurred(SampleEvent e) {
+            results.add(e.getResult());
+        }
+
+        @Override
+        public void sampleStarted(SampleEvent e) {
+        }
+
+        @Override
+        public void sampleStopped(SampleEvent e) {
+        }
+    }
+
+    @Test
+    public void testArrivalsDroppedWhenAllThreadsAreBusy() throws Exception {
+        busy = new CountDownLatch(1);
+        ArrivalsThreadGroup group = new ArrivalsThreadGroup();
+        group.setName("Arrivals");
+        group.setNumThreads(2);
+        group.setStartRate(50);
+        group.setEndRate(50);
+        group.setHoldTime(1);
+        LoopController controller = new LoopController();
+        controller.setLoops(1);
+        group.setSamplerController(controller);
+        BusySampler sampler = new BusySampler();
+        sampler.setName("Busy");
+        CollectingListener listener = new CollectingListener();
+        ListedHashTree tree = new ListedHashTree(group);
+        tree.add(group, sampler);
+        tree.add(group, listener);
+        JMeterContextService.getContext().setVariables(new JMeterVariables());
+
+        group.start(1, new ListenerNotifier(), tree, null);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (group.getArrivalCount() < 50 || group.getDroppedArrivals() < 46) {
+            assertTrue("Arrivals not dispatched in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+        // threads are created on demand, up to the maximum: 2 arrivals run, 2 wait, the others are dropped
+        assertEquals(2, group.numberOfActiveThreads());
+        assertEquals(46, group.getDroppedArrivals());
+
+        busy.countDown();
+        group.waitThreadsStopped();
+        assertEquals(0, group.numberOfActiveThreads());
+        assertTrue("Waiting arrivals start late", group.getLateStarts() >= 2);
+
+        int samples = 0;
+        SampleResult summary = null;
+        synchronized (listener.results) {
+            for (SampleResult result : listener.results) {
+                if ("Busy".equals(result.getSampleLabel())) {
+                    samples++;
+                } else {
+                    summary = result;
+                }
+            }
+        }
+        assertEquals(4, samples);
+        assertEquals("Arrivals arrivals", summary.getSampleLabel());
+        assertFalse(summary.isSuccessful());
+        assertTrue(summary.getResponseMessage(), summary.getResponseMessage().endsWith("46 dropped"));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+public class TestJMeterVariables {
+
+    private static Map<String, Object> toMap(JMeterVariables vars) {
+        Map<String, Object> map = new HashMap<>();
+        for (Entry<String, Object> entry : vars.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Test
+    public void testSlotAndName() {
+        int slot = VariableSlots.intern("TestJMeterVariables.slot");
+        assertTrue(slot != VariableSlots.NO_SLOT);
+        assertEquals(slot, VariableSlots.intern("TestJMeterVariables.slot"));
+        assertEquals("TestJMeterVariables.slot", VariableSlots.nameOf(slot));
+        assertEquals(VariableSlots.NO_SLOT, VariableSlots.indexOf("TestJMeterVariables.unknown"));
+        assertEquals(VariableSlots.NO_SLOT, VariableSlots.intern(null));
+        assertEquals(VariableSlots.NO_SLOT, VariableSlots.indexOf(null));
+
+        JMeterVariables vars = new JMeterVariables();
+        assertNull(vars.get(slot));
+        vars.put("TestJMeterVariables.slot", "value");
+        vars.put("TestJMeterVariables.name", "other");
+        assertEquals("value", vars.get(slot));
+        assertEquals("value", vars.get("TestJMeterVariables.slot"));
+        assertEquals("other", vars.get("TestJMeterVariables.name"));
+        vars.putObject("TestJMeterVariables.slot", 1);
+        assertEquals("1", vars.get(slot));
+        assertEquals(1, vars.getObject(slot));
+
+        assertEquals(1, vars.remove("TestJMeterVariables.slot"));
+        assertEquals("other", vars.remove("TestJMeterVariables.name"));
+        assertNull(vars.get(slot));
+        assertNull(vars.remove("TestJMeterVariables.slot"));
+        assertNull(vars.get("TestJMeterVariables.name"));
+    }
+
+    @Test
+    public void testNullValue() {
+        VariableSlots.intern("TestJMeterVariables.null");
+        JMeterVariables vars = new JMeterVariables();
+        vars.putObject("TestJMeterVariables.null", null);
+        assertNull(vars.getObject("TestJMeterVariables.null"));
+        assertTrue(toMap(vars).containsKey("TestJMeterVariables.null"));
+        vars.remove("TestJMeterVariables.null");
+        assertFalse(toMap(vars).containsKey("TestJMeterVariables.null"));
+    }
+
+    @Test
+    public void testNameInternedAfterPut() {
+        JMeterVariables vars = new JMeterVariables();
+        vars.put("TestJMeterVariables.late", "value");
+        int slot = VariableSlots.intern("TestJMeterVariables.late");
+        assertEquals("value", vars.get(slot));
+        assertEquals("value", vars.get("TestJMeterVariables.late"));
+        vars.put("TestJMeterVariables.late", "updated");
+        assertEquals("updated", vars.get(slot));
+        assertEquals(1, toMap(vars).entrySet().stream()
+                .filter(e -> e.getKey().equals("TestJMeterVariables.late")).count());
+    }
+
+    @Test
+    public void testReadWhileIterating() {
+        JMeterVariables vars = new JMeterVariables();
+        vars.put("TestJMeterVariables.iterated", "value");
+        vars.put("TestJMeterVariables.other", "other");
+        VariableSlots.intern("TestJMeterVariables.iterated");
+        int count = 0;
+        for (Entry<String, Object> entry : vars.entrySet()) {
+            assertEquals(entry.getValue(), vars.getObject(entry.getKey()));
+            count++;
+        }
+        assertEquals(vars.entrySet().size(), count);
+    }
+
+    @Test
+    public void testEntrySet() {
+        VariableSlots.intern("TestJMeterVariables.a");
+        JMeterVariables vars = new JMeterVariables();
+        int initialSize = vars.entrySet().size();
+        vars.put("TestJMeterVariables.a", "1");
+        vars.put("TestJMeterVariables.b", "2");
+        assertEquals(initialSize + 2, vars.entrySet().size());
+        Map<String, Object> map = toMap(vars);
+        assertEquals("1", map.get("TestJMeterVariables.a"));
+        assertEquals("2", map.get("TestJMeterVariables.b"));
+
+        JMeterVariables copy = new JMeterVariables();
+        copy.putAll(vars);
+        assertEquals(map, toMap(copy));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetIsUnmodifiable() {
+        VariableSlots.intern("TestJMeterVariables.a");
+        JMeterVariables vars = new JMeterVariables();
+        vars.put("TestJMeterVariables.a", "1");
+        Iterator<Entry<String, Object>> it = vars.getIterator();
+        it.next();
+        it.remove();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.timers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestSchedulingErrorHistogram {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789L, Long.MAX_VALUE }) {
+            int index = SchedulingErrorHistogram.indexOf(value);
+            assertTrue("Upper bound of bucket must include " + value,
+                    SchedulingErrorHistogram.upperBoundOf(index) >= value);
+            if (index > 0) {
+                assertTrue("Previous bucket must not include " + value,
+                        SchedulingErrorHistogram.upperBoundOf(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        SchedulingErrorHistogram histogram = new SchedulingErrorHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        histogram.record(-5000); // early wake up counted as no error
+        assertEquals(101, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        long median = histogram.getPercentile(50);
+        assertTrue("Median should be about 50us, got " + median, median >= 49 && median <= 56);
+        long p99 = histogram.getPercentile(99);
+        assertTrue("99th percentile should be about 99us, got " + p99, p99 >= 98 && p99 <= 100);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
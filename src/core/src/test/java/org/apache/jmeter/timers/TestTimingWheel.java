@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.timers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class TestTimingWheel {
+
+    private static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    /** Duration of a turn of the wheel */
+    private static final long TURN_NANOS = TimingWheel.WHEEL_SIZE * TICK_NANOS;
+
+    private static void awaitNoPending(TimingWheel wheel) throws InterruptedException {
+        long deadline = System.nanoTime() + 4 * TURN_NANOS;
+        while (wheel.getPendingCount() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals("Waiters left in the buckets", 0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void testPastDeadlineDoesNotWait() throws Exception {
+        TimingWheel wheel = TimingWheel.start(TICK_NANOS);
+        Thread.sleep(5); // let some ticks pass since the origin of the wheel
+        long start = System.nanoTime();
+        wheel.await(start - TURN_NANOS);
+        assertTrue(System.nanoTime() - start < TURN_NANOS);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void testWaiterDueInLaterTurnIsNotWokenEarly() throws Exception {
+        TimingWheel wheel = TimingWheel.start(TICK_NANOS);
+        long start = System.nanoTime();
+        // same bucket as a tick the wheel processes during its current turn
+        long deadline = start + TURN_NANOS + 20 * TICK_NANOS;
+        wheel.await(deadline);
+        long end = System.nanoTime();
+        assertTrue("Woken " + (deadline - end) + "ns before the deadline", end >= deadline);
+        awaitNoPending(wheel);
+    }
+
+    @Test
+    public void testWaitersRegisteredWhileTheirTickIsProcessed() throws Exception {
+        TimingWheel wheel = TimingWheel.start(TICK_NANOS);
+        AtomicLong maxLate = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        // deadlines in the tick being processed by the wheel, or in the next ones
+                        long deadline = System.nanoTime() + (i % 3) * TICK_NANOS / 2;
+                        wheel.await(deadline);
+                        long late = System.nanoTime() - deadline;
+                        maxLate.accumulateAndGet(late, Math::max);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // a waiter added after its tick was processed must not wait for the next turn of the wheel
+        assertTrue("Woken " + maxLate.get() + "ns late", maxLate.get() < TURN_NANOS / 2);
+        awaitNoPending(wheel);
+    }
+}
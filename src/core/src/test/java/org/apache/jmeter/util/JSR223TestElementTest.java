@@ -18,7 +18,14 @@
 
 package org.apache.jmeter.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
@@ -43,4 +50,25 @@ public class JSR223TestElementTest {
                 CoreMatchers.is("Groovy"));
     }
 
+    @Test
+    public void testThreadBindingsAreReset() throws Exception {
+        element.setScriptLanguage("groovy");
+        element.setScript("assert !binding.hasVariable('previous'); previous = extra");
+        ScriptEngine scriptEngine = element.getScriptEngine();
+        Bindings bindings = element.getThreadBindings(scriptEngine);
+        bindings.put("extra", "first");
+        assertEquals("first", element.processFileOrScript(scriptEngine, bindings));
+        assertFalse(bindings.containsKey("extra"));
+        assertFalse(bindings.containsKey("previous"));
+        assertFalse(bindings.containsKey("ctx"));
+        assertFalse(bindings.containsKey("sampler"));
+        assertFalse(bindings.containsKey("prev"));
+        assertTrue(bindings.containsKey("log"));
+
+        Bindings reused = element.getThreadBindings(scriptEngine);
+        assertSame(bindings, reused);
+        reused.put("extra", "second");
+        assertEquals("second", element.processFileOrScript(scriptEngine, reused));
+    }
+
 }
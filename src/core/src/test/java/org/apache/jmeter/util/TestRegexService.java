@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.oro.text.MalformedCachePatternException;
+import org.apache.oro.text.PatternCache;
+import org.apache.oro.text.regex.MalformedPatternException;
+import org.apache.oro.text.regex.MatchResult;
+import org.apache.oro.text.regex.Pattern;
+import org.apache.oro.text.regex.Perl5Compiler;
+import org.apache.oro.text.regex.Perl5Matcher;
+import org.junit.Test;
+
+public class TestRegexService {
+
+    @Test
+    public void testOroCache() {
+        PatternCache cache = RegexService.getPatternCache();
+        Pattern pattern = cache.getPattern("a(b+)c", Perl5Compiler.READ_ONLY_MASK);
+        assertSame(pattern, JMeterUtils.getPattern("a(b+)c"));
+        assertNotSame(pattern, cache.getPattern("a(b+)c", Perl5Compiler.READ_ONLY_MASK | Perl5Compiler.CASE_INSENSITIVE_MASK));
+        Perl5Matcher matcher = JMeterUtils.getMatcher();
+        assertTrue(matcher.contains("xabbbcx", pattern));
+        assertEquals("bbb", matcher.getMatch().group(1));
+    }
+
+    @Test(expected = MalformedCachePatternException.class)
+    public void testOroCacheInvalidExpression() {
+        RegexService.getPatternCache().getPattern("a(b");
+    }
+
+    @Test(expected = MalformedPatternException.class)
+    public void testOroCacheAddInvalidExpression() throws MalformedPatternException {
+        RegexService.getPatternCache().addPattern("a(b");
+    }
+
+    @Test
+    public void testJavaCache() {
+        java.util.regex.Pattern pattern = RegexService.compile("a(b+)c");
+        assertSame(pattern, RegexService.compile("a(b+)c"));
+        assertNotSame(pattern, RegexService.compile("a(b+)c", java.util.regex.Pattern.CASE_INSENSITIVE));
+        java.util.regex.Matcher matcher = pattern.matcher("xabbbcx");
+        assertTrue(matcher.find());
+        assertEquals("bbb", matcher.group(1));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testJavaCacheInvalidExpression() {
+        RegexService.compile("a(b");
+    }
+
+    @Test
+    public void testJavaMatchResult() {
+        java.util.regex.Matcher matcher = RegexService.compile("a(b+)c(d)?").matcher("xabbbcx");
+        assertTrue(matcher.find());
+        MatchResult result = RegexService.toMatchResult(matcher.toMatchResult());
+        assertEquals(3, result.groups());
+        assertEquals("abbbc", result.group(0));
+        assertEquals("bbb", result.group(1));
+        assertNull(result.group(2));
+        assertNull(result.group(3));
+        assertEquals(1, result.beginOffset(0));
+        assertEquals(1, result.begin(1));
+        assertEquals(-1, result.begin(2));
+    }
+
+    @Test
+    public void testRecordMatch() {
+        long matches = RegexService.Engine.JAVA.getMatchCount();
+        long found = RegexService.Engine.JAVA.getFoundCount();
+        RegexService.recordMatch(RegexService.Engine.JAVA, true);
+        RegexService.recordMatch(RegexService.Engine.JAVA, false);
+        assertEquals(matches + 2, RegexService.Engine.JAVA.getMatchCount());
+        assertEquals(found + 1, RegexService.Engine.JAVA.getFoundCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String expression = "value" + (i % 10) + "=(\\d+)";
+                String input = "value" + (i % 10) + "=" + i;
+                tasks.add(() -> JMeterUtils.getMatcher().contains(input, JMeterUtils.getPattern(expression)));
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+public class TestStreamingXPath {
+
+    private static final String SOAP = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<soap:Body><GetQuoteResponse>"
+            + "<quote symbol=\"ACME\" currency=\"USD\">12.5</quote>"
+            + "<quote symbol=\"JMTR\"><![CDATA[<none>]]></quote>"
+            + "<note>first &amp; only<!-- comment -->second</note>"
+            + "<empty/><nested><quote symbol=\"DEEP\">1</quote></nested>"
+            + "</GetQuoteResponse></soap:Body></soap:Envelope>";
+
+    private static List<String> values(String query, String xml, boolean namespace, int matchNumber)
+            throws XMLStreamException {
+        List<String> values = new ArrayList<>();
+        StreamingXPath.compile(query).putValues(xml.getBytes(StandardCharsets.UTF_8), namespace, values, matchNumber);
+        return values;
+    }
+
+    @Test
+    public void testCompile() {
+        assertNotNull(StreamingXPath.compile("/a/b/@c"));
+        assertNotNull(StreamingXPath.compile("//tag/text()"));
+        assertNotNull(StreamingXPath.compile("/a//*"));
+        assertTrue(StreamingXPath.compile("//a").selectsElements());
+        assertFalse(StreamingXPath.compile("//a/@b").selectsElements());
+        for (String unsupported : Arrays.asList("a/b", "/", "//", "/a/", "/a[1]", "/a/@b/c", "/a/text()/b",
+                "//soap:Body", "/a/..", "count(//a)", "/child::a", "//a/@xmlns", "//a | //b", "//a/node()")) {
+            assertNull(unsupported, StreamingXPath.compile(unsupported));
+        }
+    }
+
+    @Test
+    public void testAttributes() throws XMLStreamException {
+        assertEquals(Arrays.asList("ACME", "JMTR", "DEEP"), values("//quote/@symbol", SOAP, false, -1));
+        assertEquals(Arrays.asList("USD"), values("//@currency", SOAP, false, -1));
+        assertEquals(Arrays.asList("JMTR"), values("//GetQuoteResponse/quote/@symbol", SOAP, false, 2));
+        assertEquals(Arrays.asList(), values("//quote/@symbol", SOAP, false, 4));
+    }
+
+    @Test
+    public void testElements() throws XMLStreamException {
+        // the value of an element is the value of its first child
+        assertEquals(Arrays.asList("12.5", "<none>", "1"), values("//quote", SOAP, false, -1));
+        assertEquals(Arrays.asList("first & only"), values("//note", SOAP, false, -1));
+        assertEquals(Arrays.asList((String) null), values("//empty", SOAP, false, -1));
+        assertEquals(Arrays.asList("1"), values("/Envelope//nested/quote", SOAP, false, -1));
+    }
+
+    @Test
+    public void testText() throws XMLStreamException {
+        assertEquals(Arrays.asList("first & only", "second"), values("//note/text()", SOAP, false, -1));
+        assertEquals(Arrays.asList("\n ", "\n"), values("/a/text()", "<a>\n <b>x</b>\n</a>", false, -1));
+        assertEquals(Arrays.asList("x", "y"), values("//text()", "<a>x<b>y</b></a>", false, -1));
+    }
+
+    @Test
+    public void testNamespaces() throws XMLStreamException {
+        // without namespaces, names are compared after their prefix
+        assertEquals(Arrays.asList("ACME", "JMTR", "DEEP"),
+                values("/Envelope/Body/GetQuoteResponse//quote/@symbol", SOAP, false, -1));
+        assertEquals(Arrays.asList(), values("/Envelope/Body//quote/@symbol", SOAP, true, -1));
+        String xml = "<a xmlns=\"urn:x\"><b>1</b></a>";
+        assertEquals(Arrays.asList("1"), values("/a/b", xml, false, -1));
+        assertEquals(Arrays.asList(), values("/a/b", xml, true, -1));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testDtd() throws XMLStreamException {
+        values("/a", "<!DOCTYPE a [<!ENTITY e \"v\">]><a>&e;</a>", false, -1);
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testNotWellFormed() throws XMLStreamException {
+        values("/a/b", "<a><b>1</b>", false, -1);
+    }
+}
@@ -136,4 +136,34 @@ class PackageSpec extends Specification {
             '\\$a \\, \\\\ ${ z'                            | "FunctionProperty" | '$a , \\  z'
     }
 
+    @Unroll
+    def "Deterministic functions with constant parameters are folded: '#propertyValue' == '#stringValue'"() {
+        given:
+            StringProperty prop = new StringProperty("a", propertyValue)
+        when:
+            JMeterProperty newProp = transformer.transformValue(prop)
+            newProp.setRunningVersion(true)
+        then:
+            newProp.getClass().getName() == 'org.apache.jmeter.testelement.property.FunctionProperty'
+            newProp.getStringValue() == stringValue
+        where:
+            propertyValue                          | stringValue
+            '${__char(65)}'                        | "A"
+            'x${__char(65)}y${__urlencode(a b)}z'  | "xAya+bz"
+            '${__char(65)}-${server}'              | "A-jakarta.apache.org"
+            '${__urlencode(${server}/)}'           | "jakarta.apache.org%2F"
+    }
+
+    def "Folded function calls make a constant CompoundVariable"() {
+        when:
+            def constant = new CompoundVariable('${__char(65)}${__char(66)}')
+            def dynamic = new CompoundVariable('${__char(65)}${server}')
+        then:
+            constant.hasFunction()
+            !constant.isDynamic()
+            constant.execute() == "AB"
+            dynamic.isDynamic()
+            dynamic.execute() == "Ajakarta.apache.org"
+    }
+
 }
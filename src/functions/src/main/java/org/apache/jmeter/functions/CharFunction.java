@@ -33,7 +33,7 @@ import org.slf4j.LoggerFactory;
  * Function to generate chars from a list of decimal or hex values
  * @since 2.3.3
  */
-public class CharFunction extends AbstractFunction {
+public class CharFunction extends AbstractFunction implements DeterministicFunction {
 
     private static final Logger log = LoggerFactory.getLogger(CharFunction.class);
 
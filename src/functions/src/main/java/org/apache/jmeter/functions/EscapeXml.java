@@ -44,7 +44,7 @@ import org.apache.jmeter.util.JMeterUtils;
  * @see StringEscapeUtils#escapeXml10(String) (Commons Lang)
  * @since 3.2
  */
-public class EscapeXml extends AbstractFunction {
+public class EscapeXml extends AbstractFunction implements DeterministicFunction {
 
     private static final List<String> desc = new LinkedList<>();
 
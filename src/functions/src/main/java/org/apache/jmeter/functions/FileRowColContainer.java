@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
+import org.apache.jmeter.services.DataPool;
 import org.apache.jmeter.services.FileServer;
 import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
@@ -35,13 +36,15 @@ import org.slf4j.LoggerFactory;
 /**
  * File data container for CSV (and similar delimited) files Data is accessible
  * via row and column number
+ * <p>
+ * The data is held in a {@link DataPool}, which stores each distinct value of a column once.
  *
  */
 public class FileRowColContainer {
 
     private static final Logger log = LoggerFactory.getLogger(FileRowColContainer.class);
 
-    private final List<List<String>> fileData; // Lines in the file, split into columns
+    private final DataPool fileData; // Lines in the file, split into columns
 
     private final String fileName; // name of the file
 
@@ -60,8 +63,7 @@ public class FileRowColContainer {
         fileName = file;
         delimiter = delim;
         nextRow = 0;
-        fileData = new ArrayList<>();
-        load();
+        fileData = load();
     }
 
     public FileRowColContainer(String file) throws IOException, FileNotFoundException {
@@ -69,11 +71,11 @@ public class FileRowColContainer {
         fileName = file;
         delimiter = DELIMITER;
         nextRow = 0;
-        fileData = new ArrayList<>();
-        load();
+        fileData = load();
     }
 
-    private void load() throws IOException, FileNotFoundException {
+    private DataPool load() throws IOException, FileNotFoundException {
+        DataPool.Builder builder = new DataPool.Builder();
         try (BufferedReader myBread =
                 Files.newBufferedReader(FileServer.getFileServer().getResolvedFile(fileName).toPath(),
                         Charset.defaultCharset())) {
@@ -83,14 +85,14 @@ public class FileRowColContainer {
              * for trailing comments in the file
              */
             while (line != null && line.length() > 0) {
-                fileData.add(splitLine(line, delimiter));
+                builder.addRow(splitLine(line, delimiter));
                 line = myBread.readLine();
             }
         } catch (IOException e) {
-            fileData.clear();
             log.warn(e.toString());
             throw e;
         }
+        return builder.build(DataPool.AccessMode.SEQUENTIAL);
     }
 
     /**
@@ -106,7 +108,7 @@ public class FileRowColContainer {
      */
     public String getColumn(int row, int col) throws IndexOutOfBoundsException {
         String colData;
-        colData = fileData.get(row).get(col);
+        colData = fileData.getValue(row, col);
         log.debug("{}({},{}):{}", fileName, row, col, colData);
         return colData;
     }
@@ -121,7 +123,7 @@ public class FileRowColContainer {
     public int nextRow() {
         int row = nextRow;
         nextRow++;
-        if (nextRow >= fileData.size()) {// 0-based
+        if (nextRow >= fileData.getRowCount()) {// 0-based
             nextRow = 0;
         }
         log.debug("Row: {}", row);
@@ -131,10 +133,10 @@ public class FileRowColContainer {
     /**
      * Splits the line according to the specified delimiter
      *
-     * @return a List of Strings containing one element for each value in
+     * @return an array of Strings containing one element for each value in
      *         the line
      */
-    private static List<String> splitLine(String theLine, String delim) {
+    private static String[] splitLine(String theLine, String delim) {
         List<String> result = new ArrayList<>();
         StringTokenizer tokener = new StringTokenizer(theLine, delim, true);
         /*
@@ -159,7 +161,7 @@ public class FileRowColContainer {
         {
             result.add(""); // $NON-NLS-1$
         }
-        return result;
+        return result.toArray(new String[0]);
     }
 
     /**
@@ -178,6 +180,6 @@ public class FileRowColContainer {
 
     // Added to support external testing
     public int getSize(){
-        return fileData.size();
+        return fileData.getRowCount();
     }
 }
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.apache.jmeter.services.DataPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +34,9 @@ import org.slf4j.LoggerFactory;
  * It does this by maintaining a list of open files, keyed by file name (or
  * alias, if used). A list of open files is also maintained for each thread,
  * together with the current line number.
+ * <p>
+ * If a {@link DataPool} is registered with the name of the file, its rows are
+ * read instead of the file, in the order of its access mode.
  *
  */
 public final class FileWrapper {
@@ -56,6 +60,8 @@ public final class FileWrapper {
 
     private final FileRowColContainer container;
 
+    private final DataPool pool;
+
     private int currentRow;
 
     /*
@@ -64,6 +70,14 @@ public final class FileWrapper {
     private FileWrapper(FileRowColContainer fdc) {
         super();
         container = fdc;
+        pool = null;
+        currentRow = -1;
+    }
+
+    private FileWrapper(DataPool pool) {
+        super();
+        container = null;
+        this.pool = pool;
         currentRow = -1;
     }
 
@@ -90,7 +104,11 @@ public final class FileWrapper {
             return;
         }
         Map<String, FileWrapper> m = filePacks.get();
-        if (m.get(alias) == null) {
+        DataPool pool = DataPool.getPool(file);
+        if (m.get(alias) == null && pool != null) {
+            log.info("Using data pool {} as {}", file, alias);
+            m.put(alias, new FileWrapper(pool));
+        } else if (m.get(alias) == null) {
             FileRowColContainer frcc;
             try {
                 frcc = getFile(file, alias);
@@ -160,6 +178,13 @@ public final class FileWrapper {
     }
 
     private String getColumn(int col) {
+        if (pool != null) {
+            if (currentRow == NO_LINE) {
+                DataPool.Row row = pool.next(true);
+                currentRow = row == null ? NO_LINE : row.getIndex();
+            }
+            return pool.getValue(currentRow, col);
+        }
         if (currentRow == NO_LINE) {
             currentRow = container.nextRow();
 
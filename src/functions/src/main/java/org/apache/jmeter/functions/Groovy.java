@@ -22,13 +22,19 @@ import java.io.File;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
+import javax.script.ScriptException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.engine.util.CompoundVariable;
@@ -42,6 +48,9 @@ import org.apache.jmeter.util.JSR223TestElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * __groovy function
  * Provides a Groovy interpreter
@@ -58,6 +67,13 @@ public class Groovy extends AbstractFunction {
 
     public static final String INIT_FILE = "groovy.utilities"; //$NON-NLS-1$
 
+    /** Number of scripts kept compiled by each function */
+    private static final int SCRIPT_CACHE_SIZE = 20;
+
+    /** Names of the bindings set by the function, which are kept between two calls in a thread */
+    private static final Set<String> FUNCTION_BINDINGS = new HashSet<>(Arrays.asList(
+            "sampler", "prev", "log", "threadName", "ctx", "vars", "props", "OUT")); //$NON-NLS-1$
+
     static {
         DESCRIPTION.add(JMeterUtils.getResString("groovy_function_expression"));// $NON-NLS1$
         DESCRIPTION.add(JMeterUtils.getResString("function_name_paropt"));// $NON-NLS1$
@@ -66,6 +82,13 @@ public class Groovy extends AbstractFunction {
     private Object[] values;
     private ScriptEngine scriptEngine;
 
+    /** Bindings reused by the calls of the function in a thread */
+    private final ThreadLocal<Bindings> threadBindings = ThreadLocal.withInitial(() -> scriptEngine.createBindings());
+
+    /** Scripts run by the function, by their text */
+    private final Cache<String, CompiledScript> compiledScripts = Caffeine.newBuilder()
+            .maximumSize(SCRIPT_CACHE_SIZE)
+            .build();
 
     public Groovy() {
         super();
@@ -81,9 +104,9 @@ public class Groovy extends AbstractFunction {
 
     /** {@inheritDoc} */
     @Override
-    public synchronized String execute(SampleResult previousResult, Sampler currentSampler)
+    public String execute(SampleResult previousResult, Sampler currentSampler)
             throws InvalidVariableException {
-        Bindings bindings = scriptEngine.createBindings();
+        Bindings bindings = threadBindings.get();
         populateBindings(bindings);
 
 
@@ -97,28 +120,23 @@ public class Groovy extends AbstractFunction {
         try {
 
             // Pass in some variables
-            if (currentSampler != null) {
-                bindings.put("sampler", currentSampler); // $NON-NLS-1$
-            }
-
-            if (previousResult != null) {
-                bindings.put("prev", previousResult); //$NON-NLS-1$
-            }
-            bindings.put("log", log); // $NON-NLS-1$ (this name is fixed)
+            putIfChanged(bindings, "sampler", currentSampler); // $NON-NLS-1$
+            putIfChanged(bindings, "prev", previousResult); //$NON-NLS-1$
+            putIfChanged(bindings, "log", log); // $NON-NLS-1$ (this name is fixed)
             // Add variables for access to context and variables
-            bindings.put("threadName", Thread.currentThread().getName());
+            putIfChanged(bindings, "threadName", Thread.currentThread().getName());
             JMeterContext jmctx = JMeterContextService.getContext();
-            bindings.put("ctx", jmctx); // $NON-NLS-1$ (this name is fixed)
+            putIfChanged(bindings, "ctx", jmctx); // $NON-NLS-1$ (this name is fixed)
             JMeterVariables vars = jmctx.getVariables();
-            bindings.put("vars", vars); // $NON-NLS-1$ (this name is fixed)
+            putIfChanged(bindings, "vars", vars); // $NON-NLS-1$ (this name is fixed)
             Properties props = JMeterUtils.getJMeterProperties();
-            bindings.put("props", props); // $NON-NLS-1$ (this name is fixed)
+            putIfChanged(bindings, "props", props); // $NON-NLS-1$ (this name is fixed)
             // For use in debugging:
-            bindings.put("OUT", System.out); // $NON-NLS-1$ (this name is fixed)
+            putIfChanged(bindings, "OUT", System.out); // $NON-NLS-1$ (this name is fixed)
 
 
             // Execute the script
-            Object out = scriptEngine.eval(script, bindings);
+            Object out = getCompiledScript(script).eval(bindings);
             if (out != null) {
                 resultStr = out.toString();
             }
@@ -129,17 +147,46 @@ public class Groovy extends AbstractFunction {
         } catch (Exception ex) // Mainly for bsh.EvalError
         {
             log.warn("Error running groovy script", ex);
+        } finally {
+            // variables set by the script do not outlive it
+            bindings.keySet().retainAll(FUNCTION_BINDINGS);
         }
         log.debug("__groovy({},{})={}",script, varName, resultStr);
         return resultStr;
     }
 
+    /**
+     * Put a value in reused bindings only if it is not already there, null values being removed
+     */
+    private static void putIfChanged(Bindings bindings, String name, Object value) {
+        if (value == null) {
+            bindings.remove(name);
+        } else if (bindings.get(name) != value) {
+            bindings.put(name, value);
+        }
+    }
+
+    /**
+     * Compile the script, unless it was recently run by the function.
+     * Scripts are compiled by the engine of the function, so that they can call
+     * the methods defined by {@link #INIT_FILE}, and the engine keeps their classes.
+     */
+    private CompiledScript getCompiledScript(String script) throws ScriptException {
+        CompiledScript compiled = compiledScripts.getIfPresent(script);
+        if (compiled == null) {
+            compiled = ((Compilable) scriptEngine).compile(script);
+            compiledScripts.put(script, compiled);
+        }
+        return compiled;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void setParameters(Collection<CompoundVariable> parameters) throws InvalidVariableException {
         checkParameterCount(parameters, 1, 2);
         values = parameters.toArray();
         scriptEngine = JSR223TestElement.getInstance().getEngineByName(GROOVY_ENGINE_NAME); //$NON-NLS-N$
+        compiledScripts.invalidateAll();
 
         String fileName = JMeterUtils.getProperty(INIT_FILE);
         if(!StringUtils.isEmpty(fileName)) {
@@ -23,9 +23,12 @@ import java.util.LinkedList;
 import java.util.List;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
 import javax.script.SimpleScriptContext;
 
 import org.apache.jmeter.engine.util.CompoundVariable;
@@ -36,11 +39,16 @@ import org.apache.jmeter.threads.JMeterContextService;
 import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.jmeter.util.JMeterUtils;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * javaScript function implementation that executes a piece of JavaScript (not Java!) code and returns its value
  * @since 1.9
@@ -61,6 +69,25 @@ public class JavaScript extends AbstractFunction {
             JMeterUtils.getPropDefault(USE_RHINO_ENGINE_PROPERTY, false) ||
             (getInstance().getEngineByName(JavaScript.NASHORN_ENGINE_NAME) == null);
 
+    /** Number of scripts kept compiled by each function */
+    private static final int SCRIPT_CACHE_SIZE = 20;
+
+    /** Rhino context of the current thread, entered again by each call */
+    private static final ThreadLocal<Context> threadLocalRhinoContext = new ThreadLocal<>();
+
+    /** Nashorn engine of the current thread, as engines are not thread safe */
+    private static final ThreadLocal<ScriptEngine> threadLocalNashorn = ThreadLocal
+            .withInitial(() -> getInstance().getEngineByName(JavaScript.NASHORN_ENGINE_NAME));
+
+    /** Scripts run by the function with Rhino, by their text */
+    private final Cache<String, Script> rhinoScripts = Caffeine.newBuilder()
+            .maximumSize(SCRIPT_CACHE_SIZE)
+            .build();
+
+    /** Scripts run by the function with the Nashorn engine of the thread, by their text */
+    private final ThreadLocal<Cache<String, CompiledScript>> nashornScripts = ThreadLocal
+            .withInitial(() -> Caffeine.newBuilder().maximumSize(SCRIPT_CACHE_SIZE).build());
+
     /**
      * @return ScriptEngineManager singleton
      */
@@ -126,7 +153,8 @@ public class JavaScript extends AbstractFunction {
         String resultStr = null;
         try {
             ScriptContext newContext = new SimpleScriptContext();
-            ScriptEngine engine = getInstance().getEngineByName(JavaScript.NASHORN_ENGINE_NAME);
+            ScriptEngine engine = threadLocalNashorn.get();
+            // the bindings are the global object of the script, which can not be reset
             Bindings bindings = engine.createBindings();
 
             // Set up some objects for the script to play with
@@ -139,7 +167,7 @@ public class JavaScript extends AbstractFunction {
             bindings.put("sampler", currentSampler); //$NON-NLS-1$
             bindings.put("sampleResult", previousResult); //$NON-NLS-1$
             newContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
-            Object result = engine.eval(script, newContext);
+            Object result = getNashornScript(engine, script).eval(newContext);
             resultStr = result.toString();
             if (varName != null && vars != null) {// vars can be null if run from TestPlan
                 vars.put(varName, resultStr);
@@ -165,7 +193,7 @@ public class JavaScript extends AbstractFunction {
             Sampler currentSampler, JMeterContext jmctx, JMeterVariables vars,
             String script, String varName)
             throws InvalidVariableException {
-        Context cx = Context.enter();
+        Context cx = enterRhinoContext();
         String resultStr = null;
         try {
 
@@ -181,7 +209,7 @@ public class JavaScript extends AbstractFunction {
             scope.put("sampler", scope, currentSampler); //$NON-NLS-1$
             scope.put("sampleResult", scope, previousResult); //$NON-NLS-1$
 
-            Object result = cx.evaluateString(scope, script, "<cmd>", 1, null); //$NON-NLS-1$
+            Object result = getRhinoScript(cx, script).exec(cx, scope);
 
             resultStr = Context.toString(result);
             if (varName != null && vars != null) {// vars can be null if run from TestPlan
@@ -196,6 +224,44 @@ public class JavaScript extends AbstractFunction {
         return resultStr;
     }
 
+    /**
+     * Enter the Rhino context of the thread, creating it on the first call
+     *
+     * @return the entered context, to exit once the script has run
+     */
+    private static Context enterRhinoContext() {
+        Context cx = threadLocalRhinoContext.get();
+        if (cx != null) {
+            return ContextFactory.getGlobal().enterContext(cx);
+        }
+        boolean outerContext = Context.getCurrentContext() != null;
+        cx = Context.enter();
+        if (!outerContext) {
+            threadLocalRhinoContext.set(cx);
+        }
+        return cx;
+    }
+
+    /**
+     * Compile the script, unless it was recently run by the function
+     */
+    private Script getRhinoScript(Context cx, String script) {
+        return rhinoScripts.get(script, k -> cx.compileString(k, "<cmd>", 1, null)); //$NON-NLS-1$
+    }
+
+    /**
+     * Compile the script, unless it was recently run by the function in this thread
+     */
+    private CompiledScript getNashornScript(ScriptEngine engine, String script) throws ScriptException {
+        Cache<String, CompiledScript> scripts = nashornScripts.get();
+        CompiledScript compiled = scripts.getIfPresent(script);
+        if (compiled == null) {
+            compiled = ((Compilable) engine).compile(script);
+            scripts.put(script, compiled);
+        }
+        return compiled;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void setParameters(Collection<CompoundVariable> parameters) throws InvalidVariableException {
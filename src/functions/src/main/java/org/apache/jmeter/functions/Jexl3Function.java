@@ -18,12 +18,16 @@
 
 package org.apache.jmeter.functions;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.jexl3.JexlBuilder;
-import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.MapContext;
@@ -38,6 +42,9 @@ import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * A function which understands Commons JEXL3
  * @since 3.0
@@ -54,6 +61,16 @@ public class Jexl3Function extends AbstractFunction implements ThreadListener {
     private static final ThreadLocal<JexlEngine> threadLocalJexl = ThreadLocal
             .withInitial(Jexl3Function::createJexlEngine);
 
+    private static final ThreadLocal<ReusableContext> threadLocalContext = ThreadLocal
+            .withInitial(ReusableContext::new);
+
+    /** Number of scripts kept by each function */
+    private static final int SCRIPT_CACHE_SIZE = 20;
+
+    /** Names of the variables set by the function, which are kept between two calls in a thread */
+    private static final Set<String> CONTEXT_VARIABLES = new HashSet<>(Arrays.asList(
+            "log", "ctx", "vars", "props", "threadName", "sampler", "sampleResult", "OUT")); //$NON-NLS-1$
+
     static
     {
         desc.add(JMeterUtils.getResString("jexl_expression")); //$NON-NLS-1$
@@ -62,6 +79,43 @@ public class Jexl3Function extends AbstractFunction implements ThreadListener {
 
     private Object[] values;
 
+    /** Scripts run by the function, by their text */
+    private final Cache<String, JexlScript> scripts = Caffeine.newBuilder()
+            .maximumSize(SCRIPT_CACHE_SIZE)
+            .build();
+
+    /**
+     * Context reused by the calls of the function in a thread
+     */
+    private static final class ReusableContext extends MapContext {
+        private final Map<String, Object> variables;
+
+        ReusableContext() {
+            this(new HashMap<>());
+        }
+
+        private ReusableContext(Map<String, Object> variables) {
+            super(variables);
+            this.variables = variables;
+        }
+
+        /**
+         * Set a variable only if it does not already have this value
+         */
+        void setIfChanged(String name, Object value) {
+            if (variables.get(name) != value || !variables.containsKey(name)) {
+                variables.put(name, value);
+            }
+        }
+
+        /**
+         * Remove the variables set by the script
+         */
+        void reset() {
+            variables.keySet().retainAll(CONTEXT_VARIABLES);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String execute(SampleResult previousResult, Sampler currentSampler)
@@ -80,21 +134,21 @@ public class Jexl3Function extends AbstractFunction implements ThreadListener {
         JMeterContext jmctx = JMeterContextService.getContext();
         JMeterVariables vars = jmctx.getVariables();
 
+        ReusableContext jc = threadLocalContext.get();
         try
         {
-            JexlContext jc = new MapContext();
-            jc.set("log", log); //$NON-NLS-1$
-            jc.set("ctx", jmctx); //$NON-NLS-1$
-            jc.set("vars", vars); //$NON-NLS-1$
-            jc.set("props", JMeterUtils.getJMeterProperties()); //$NON-NLS-1$
+            jc.setIfChanged("log", log); //$NON-NLS-1$
+            jc.setIfChanged("ctx", jmctx); //$NON-NLS-1$
+            jc.setIfChanged("vars", vars); //$NON-NLS-1$
+            jc.setIfChanged("props", JMeterUtils.getJMeterProperties()); //$NON-NLS-1$
             // Previously mis-spelt as theadName
-            jc.set("threadName", Thread.currentThread().getName()); //$NON-NLS-1$
-            jc.set("sampler", currentSampler); //$NON-NLS-1$ (may be null)
-            jc.set("sampleResult", previousResult); //$NON-NLS-1$ (may be null)
-            jc.set("OUT", System.out);//$NON-NLS-1$
+            jc.setIfChanged("threadName", Thread.currentThread().getName()); //$NON-NLS-1$
+            jc.setIfChanged("sampler", currentSampler); //$NON-NLS-1$ (may be null)
+            jc.setIfChanged("sampleResult", previousResult); //$NON-NLS-1$ (may be null)
+            jc.setIfChanged("OUT", System.out);//$NON-NLS-1$
 
             // Now evaluate the script, getting the result
-            JexlScript e = threadLocalJexl.get().createScript(exp);
+            JexlScript e = getScript(exp);
             Object o = e.execute(jc);
             if (o != null)
             {
@@ -105,10 +159,19 @@ public class Jexl3Function extends AbstractFunction implements ThreadListener {
             }
         } catch (Exception e) {
             log.error("An error occurred while evaluating the expression \"{}\"\n", exp, e);
+        } finally {
+            jc.reset();
         }
         return str;
     }
 
+    /**
+     * Create the script, unless it was recently run by the function
+     */
+    private JexlScript getScript(String exp) {
+        return scripts.get(exp, k -> threadLocalJexl.get().createScript(k));
+    }
+
     private static JexlEngine createJexlEngine() {
         return new JexlBuilder()
                 .cache(512)
@@ -156,6 +219,7 @@ public class Jexl3Function extends AbstractFunction implements ThreadListener {
             engine.clearCache();
             threadLocalJexl.remove();
         }
+        threadLocalContext.remove();
     }
 
 }
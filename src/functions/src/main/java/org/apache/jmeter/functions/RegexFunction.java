@@ -24,12 +24,15 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.jmeter.engine.util.CompoundVariable;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.samplers.Sampler;
 import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.MatchResult;
 import org.apache.oro.text.regex.Pattern;
@@ -78,7 +81,8 @@ public class RegexFunction extends AbstractFunction {
     }
 
     public RegexFunction() {
-        templatePattern = JMeterUtils.getPatternCache().getPattern(TEMPLATE_PATTERN,
+        // The template syntax is JMeter's own, so it is always parsed with ORO
+        templatePattern = RegexService.getPatternCache().getPattern(TEMPLATE_PATTERN,
                 Perl5Compiler.READ_ONLY_MASK);
     }
 
@@ -91,11 +95,18 @@ public class RegexFunction extends AbstractFunction {
         String between = ""; //$NON-NLS-1$
         String name = ""; //$NON-NLS-1$
         String inputVariable = ""; //$NON-NLS-1$
-        Pattern searchPattern;
+        RegexService.Engine engine = RegexService.getEngine();
+        Pattern searchPattern = null;
+        java.util.regex.Pattern javaSearchPattern = null;
         Object[] tmplt;
         try {
-            searchPattern = JMeterUtils.getPatternCache().getPattern(((CompoundVariable) values[0]).execute(),
-                    Perl5Compiler.READ_ONLY_MASK);
+            String expression = ((CompoundVariable) values[0]).execute();
+            if (engine == RegexService.Engine.JAVA) {
+                javaSearchPattern = RegexService.compile(expression);
+            } else {
+                searchPattern = RegexService.getPatternCache().getPattern(expression,
+                        Perl5Compiler.READ_ONLY_MASK);
+            }
             tmplt = generateTemplate(((CompoundVariable) values[1]).execute());
 
             if (values.length > 2) {
@@ -123,7 +134,7 @@ public class RegexFunction extends AbstractFunction {
             if (values.length > 6) {
                 inputVariable = ((CompoundVariable) values[6]).execute();
             }
-        } catch (MalformedCachePatternException e) {
+        } catch (MalformedCachePatternException | PatternSyntaxException e) {
             log.error("Malformed cache pattern:{}", values[0], e);
             throw new InvalidVariableException("Malformed cache pattern:"+values[0], e);
         }
@@ -153,14 +164,22 @@ public class RegexFunction extends AbstractFunction {
 
         List<MatchResult> collectAllMatches = new ArrayList<>();
         try {
-            PatternMatcher matcher = JMeterUtils.getMatcher();
-            PatternMatcherInput input = new PatternMatcherInput(textToMatch);
-            while (matcher.contains(input, searchPattern)) {
-                MatchResult match = matcher.getMatch();
-                if(match != null) {
-                    collectAllMatches.add(match);
+            if (javaSearchPattern != null) {
+                Matcher matcher = javaSearchPattern.matcher(textToMatch);
+                while (matcher.find()) {
+                    collectAllMatches.add(RegexService.toMatchResult(matcher.toMatchResult()));
+                }
+            } else {
+                PatternMatcher matcher = JMeterUtils.getMatcher();
+                PatternMatcherInput input = new PatternMatcherInput(textToMatch);
+                while (matcher.contains(input, searchPattern)) {
+                    MatchResult match = matcher.getMatch();
+                    if(match != null) {
+                        collectAllMatches.add(match);
+                    }
                 }
             }
+            RegexService.recordMatch(engine, !collectAllMatches.isEmpty());
         } finally {
             if (name.length() > 0){
                 vars.put(name + "_matchNr", Integer.toString(collectAllMatches.size())); //$NON-NLS-1$
@@ -279,7 +298,7 @@ public class RegexFunction extends AbstractFunction {
     }
 
     private boolean isFirstElementGroup(String rawData) {
-        Pattern pattern = JMeterUtils.getPatternCache().getPattern("^\\$\\d+\\$",  //$NON-NLS-1$
+        Pattern pattern = RegexService.getPatternCache().getPattern("^\\$\\d+\\$",  //$NON-NLS-1$
                 Perl5Compiler.READ_ONLY_MASK);
         return JMeterUtils.getMatcher().contains(rawData, pattern);
     }
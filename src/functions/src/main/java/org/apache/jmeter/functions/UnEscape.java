@@ -37,7 +37,7 @@ import org.apache.jmeter.util.JMeterUtils;
  * @see StringEscapeUtils#unescapeJava(String)
  * @since 2.3.3
  */
-public class UnEscape extends AbstractFunction {
+public class UnEscape extends AbstractFunction implements DeterministicFunction {
 
     private static final List<String> desc = new LinkedList<>();
 
@@ -36,7 +36,7 @@ import org.apache.jmeter.util.JMeterUtils;
  *
  * @since 2.10
  */
-public class UrlDecode extends AbstractFunction {
+public class UrlDecode extends AbstractFunction implements DeterministicFunction {
 
     private static final String CHARSET_ENCODING = StandardCharsets.UTF_8.name();
 
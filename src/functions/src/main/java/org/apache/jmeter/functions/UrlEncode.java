@@ -36,7 +36,7 @@ import org.apache.jmeter.util.JMeterUtils;
  *
  * @since 2.10
  */
-public class UrlEncode extends AbstractFunction {
+public class UrlEncode extends AbstractFunction implements DeterministicFunction {
 
     private static final String CHARSET_ENCODING = StandardCharsets.UTF_8.name();
 
@@ -121,4 +121,12 @@ public class TestGroovyFunction extends JMeterTestCase implements JMeterSerialTe
         String ret = function.execute(result, null);
         assertEquals("3628800", ret);
     }
+
+    @Test
+    public void testScriptVariablesAreNotKept() throws Exception {
+        params.add(new CompoundVariable("total = (binding.hasVariable('total') ? total : 0) + 1"));
+        function.setParameters(params);
+        assertEquals("1", function.execute(result, null));
+        assertEquals("1", function.execute(result, null));
+    }
 }
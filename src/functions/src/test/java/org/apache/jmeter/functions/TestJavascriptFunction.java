@@ -102,4 +102,12 @@ public class TestJavascriptFunction extends JMeterTestCase {
         assertEquals("/query.cgi?s1=1&s2=2&s3=3", ret);
         assertEquals(ret,vars.getObject("URL"));
     }
+
+    @Test
+    public void testScriptVariablesAreNotKept() throws Exception {
+        params.add(new CompoundVariable("var total = (typeof total == 'undefined' ? 0 : total) + 1; total"));
+        function.setParameters(params);
+        assertEquals("1", function.execute(result, null));
+        assertEquals("1", function.execute(result, null));
+    }
 }
@@ -18,7 +18,16 @@
 
 package org.apache.jmeter.functions;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import org.apache.jmeter.engine.util.CompoundVariable;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
 import org.junit.Before;
+import org.junit.Test;
 
 public class TestJexl3Function extends TestJexl2Function {
 
@@ -28,4 +37,24 @@ public class TestJexl3Function extends TestJexl2Function {
         super.setUp();
         function = new Jexl3Function();
     }
+
+    @Test
+    public void testContextIsUpdated() throws Exception {
+        function.setParameters(Collections.singletonList(new CompoundVariable("sampleResult.getSampleLabel()")));
+        for (String label : new String[] { "first", "second" }) {
+            SampleResult previous = new SampleResult();
+            previous.setSampleLabel(label);
+            assertEquals(label, function.execute(previous, null));
+        }
+    }
+
+    @Test
+    public void testScriptTextChanges() throws Exception {
+        function.setParameters(Collections.singletonList(new CompoundVariable("${n} * 2")));
+        JMeterVariables vars = JMeterContextService.getContext().getVariables();
+        for (String n : new String[] { "1", "2", "1" }) {
+            vars.put("n", n);
+            assertEquals(String.valueOf(Integer.parseInt(n) * 2), function.execute(null, null));
+        }
+    }
 }
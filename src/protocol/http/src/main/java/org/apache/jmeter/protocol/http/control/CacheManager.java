@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.collections.map.LRUMap;
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +56,10 @@ import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 /**
  * Handles HTTP Caching.
  */
@@ -70,9 +75,47 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
     private static final String[] CACHEABLE_METHODS = JMeterUtils.getPropDefault("cacheable_methods", "GET").split("[ ,]");
     private static final String CONTROLLED_BY_THREAD = "CacheManager.controlledByThread";// $NON-NLS-1$
 
+    /**
+     * If true, entries of all threads are stored in one cache bounded in bytes
+     * instead of one cache per thread bounded by {@link #MAX_SIZE}
+     */
+    private static final boolean SHARED_CACHE_ENABLED = JMeterUtils.getPropDefault("cache_manager.shared", false);
+
+    private static final long SHARED_CACHE_MAX_BYTES =
+            JMeterUtils.getPropDefault("cache_manager.shared.max_bytes", 64L * 1024 * 1024);
+
+    /** Rough size of a {@link CacheEntry} and of the shared cache node holding it, without the strings */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final AtomicLong SHARED_CACHE_USER_IDS = new AtomicLong();
+
     static {
         if (log.isInfoEnabled()) {
             log.info("Will only cache the following methods: {}", Arrays.toString(CACHEABLE_METHODS));
+            if (SHARED_CACHE_ENABLED) {
+                log.info("Using cache shared by all threads, bounded to {} bytes", Long.valueOf(SHARED_CACHE_MAX_BYTES));
+            }
+        }
+    }
+
+    private static class SharedCacheHolder { // IODH idiom
+        private static final Cache<String, CacheEntry> SHARED_CACHE = Caffeine.newBuilder()
+                .maximumWeight(SHARED_CACHE_MAX_BYTES)
+                .weigher(CacheManager::estimateSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Holds the key space of one user (thread) in the shared cache.
+     * Clearing the cache of a user gives it a new key space: the entries of the old one
+     * are not read anymore, so they are the first ones evicted by the size bound
+     */
+    private static final class SharedCacheUser {
+        private final String keyPrefix = SHARED_CACHE_USER_IDS.incrementAndGet() + " "; // $NON-NLS-1$
+
+        String keyFor(String url) {
+            return keyPrefix + url;
         }
     }
     //+ JMX attributes, do not change values
@@ -83,6 +126,11 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
 
     private transient InheritableThreadLocal<Map<String, CacheEntry>> threadCache;
 
+    /**
+     * true if entries are stored in the cache shared by all threads
+     */
+    private final transient boolean sharedCache;
+
     private transient boolean useExpires; // Cached value
 
     /**
@@ -91,7 +139,24 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
      * @since 3.0 */
     private transient Map<String, CacheEntry> localCache;
 
+    /**
+     * Key space in the shared cache, only used if cache_manager.shared=true
+     */
+    private transient InheritableThreadLocal<SharedCacheUser> threadSharedCacheUser;
+
+    /**
+     * used to share the user key space of the shared cache between 2 cache managers
+     * @see CacheManager#createCacheManagerProxy()
+     */
+    private transient SharedCacheUser localSharedCacheUser;
+
     public CacheManager() {
+        this(SHARED_CACHE_ENABLED);
+    }
+
+    // package-protected to allow access by unit-test cases
+    CacheManager(boolean sharedCache) {
+        this.sharedCache = sharedCache;
         setProperty(new BooleanProperty(CLEAR, false));
         setProperty(new BooleanProperty(USE_EXPIRES, false));
         clearCache();
@@ -99,9 +164,16 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
     }
 
     CacheManager(Map<String, CacheEntry> localCache, boolean useExpires) {
+        this.sharedCache = false;
         this.localCache = localCache;
         this.useExpires = useExpires;
     }
+
+    private CacheManager(SharedCacheUser sharedCacheUser, boolean useExpires) {
+        this.sharedCache = true;
+        this.localSharedCacheUser = sharedCacheUser;
+        this.useExpires = useExpires;
+    }
     public boolean getControlledByThread() {
         return getPropertyAsBoolean(CONTROLLED_BY_THREAD);
     }
@@ -266,16 +338,16 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
                         varyHeader,
                         varyUrl(url, varyHeader.getLeft(), varyHeader.getRight()));
             }
-            getCache().put(url, new CacheEntry(lastModified, expiresDate, etag, varyHeader.getLeft()));
-            getCache().put(varyUrl(url, varyHeader.getLeft(), varyHeader.getRight()), new CacheEntry(lastModified, expiresDate, etag, null));
+            putEntry(url, new CacheEntry(lastModified, expiresDate, etag, varyHeader.getLeft()));
+            putEntry(varyUrl(url, varyHeader.getLeft(), varyHeader.getRight()), new CacheEntry(lastModified, expiresDate, etag, null));
         } else {
-            if (getCache().get(url) != null) {
+            if (lookupEntry(url) != null) {
                 log.debug("Entry for {} already in cache.", url);
                 return;
             }
             CacheEntry cacheEntry = new CacheEntry(lastModified, expiresDate, etag, null);
             log.debug("Set entry {} into cache for url {}", url, cacheEntry);
-            getCache().put(url, cacheEntry);
+            putEntry(url, cacheEntry);
         }
     }
 
@@ -520,7 +592,7 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
     }
 
     private CacheEntry getEntry(String url, Header[] headers) {
-        CacheEntry entry = getCache().get(url);
+        CacheEntry entry = lookupEntry(url);
         log.debug("getEntry url:{} entry:{} header:{}", url, entry, headers);
         if (entry == null) {
             log.debug("No entry found for url {}", url);
@@ -554,6 +626,77 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
         return localCache != null ? localCache : threadCache.get();
     }
 
+    private SharedCacheUser getSharedCacheUser() {
+        return localSharedCacheUser != null ? localSharedCacheUser : threadSharedCacheUser.get();
+    }
+
+    /**
+     * @param url URL (or vary URL) of the entry
+     * @return the entry of the current user, or null
+     */
+    private CacheEntry lookupEntry(String url) {
+        if (sharedCache) {
+            // getIfPresent, unlike asMap().get, is counted in the statistics
+            return SharedCacheHolder.SHARED_CACHE.getIfPresent(getSharedCacheUser().keyFor(url));
+        }
+        return getCache().get(url);
+    }
+
+    private void putEntry(String url, CacheEntry entry) {
+        if (sharedCache) {
+            SharedCacheHolder.SHARED_CACHE.put(getSharedCacheUser().keyFor(url), entry);
+        } else {
+            getCache().put(url, entry);
+        }
+    }
+
+    /**
+     * Estimates the heap used by an entry of the shared cache
+     * @param key key of the entry
+     * @param entry {@link CacheEntry}
+     * @return estimated size in bytes
+     */
+    private static int estimateSize(String key, CacheEntry entry) {
+        long chars = (long) key.length()
+                + StringUtils.length(entry.getLastModified())
+                + StringUtils.length(entry.getEtag())
+                + StringUtils.length(entry.getVaryHeader());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + 2 * chars);
+    }
+
+    /**
+     * @return statistics of the cache shared by all threads, all 0 if cache_manager.shared is not enabled
+     */
+    private static CacheStats getSharedCacheStats() {
+        return SharedCacheHolder.SHARED_CACHE.stats();
+    }
+
+    /**
+     * Can be used from listeners (for example JSR223 Listener) to report cache efficiency.
+     * Counts are cumulated since JMeter startup.
+     * @return number of lookups of the shared cache that found an entry
+     * @since 5.2
+     */
+    public static long getSharedCacheHitCount() {
+        return getSharedCacheStats().hitCount();
+    }
+
+    /**
+     * @return number of lookups of the shared cache that did not find an entry
+     * @since 5.2
+     */
+    public static long getSharedCacheMissCount() {
+        return getSharedCacheStats().missCount();
+    }
+
+    /**
+     * @return number of entries evicted from the shared cache because of its size bound
+     * @since 5.2
+     */
+    public static long getSharedCacheEvictionCount() {
+        return getSharedCacheStats().evictionCount();
+    }
+
     public boolean getClearEachIteration() {
         return getPropertyAsBoolean(CLEAR);
     }
@@ -593,6 +736,16 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
 
     private void clearCache() {
         log.debug("Clear cache");
+        if (sharedCache) {
+            // new key spaces, the entries of other cache managers are kept
+            threadSharedCacheUser = new InheritableThreadLocal<SharedCacheUser>() {
+                @Override
+                protected SharedCacheUser initialValue() {
+                    return new SharedCacheUser();
+                }
+            };
+            return;
+        }
         threadCache = new InheritableThreadLocal<Map<String, CacheEntry>>(){
             @Override
             protected Map<String, CacheEntry> initialValue(){
@@ -611,15 +764,25 @@ public class CacheManager extends ConfigTestElement implements TestStateListener
      * @since 3.0
      */
     public CacheManager createCacheManagerProxy() {
+        if (sharedCache) {
+            return new CacheManager(getSharedCacheUser(), this.useExpires);
+        }
         return new CacheManager(getCache(), this.useExpires);
     }
 
     @Override
     public void testStarted() {
+        if (sharedCache) {
+            SharedCacheHolder.SHARED_CACHE.invalidateAll();
+        }
     }
 
     @Override
     public void testEnded() {
+        if (sharedCache) {
+            log.info("Shared cache statistics: {}", getSharedCacheStats());
+            SharedCacheHolder.SHARED_CACHE.invalidateAll();
+        }
     }
 
     @Override
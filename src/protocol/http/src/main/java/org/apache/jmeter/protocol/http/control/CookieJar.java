@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.jmeter.testelement.property.CollectionProperty;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+
+/**
+ * Cookies of a {@link CookieManager} indexed by domain, with a cache of the
+ * Cookie headers already computed.
+ * <p>
+ * Lookups only return candidates: cookies whose domain is a suffix of the host and
+ * whose path is a prefix of the request path. Cookies whose name, domain or path hold
+ * variables are not indexed, as they are only known once replaced: they are candidates
+ * for any request when variable cookies are allowed. The {@link CookieHandler} remains
+ * responsible for the policy specific matching.
+ * </p>
+ * Not thread safe, each {@link CookieManager} clone has its own instance.
+ */
+final class CookieJar {
+
+    private static final int MAX_CACHED_HEADERS = 1000;
+
+    private static final String LOCAL_DOMAIN = ".local"; // $NON-NLS-1$
+
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(e -> e.sequence);
+
+    private static final String NO_HEADER = new String(); // NOSONAR Marker for cached null headers, compared by identity
+
+    private static final class Entry {
+        private final Cookie cookie;
+        /** Keeps the insertion order, used for export and header ordering */
+        private final long sequence;
+        /** Cookie path without trailing slash, any matching request path starts with it */
+        private final String pathPrefix;
+
+        Entry(Cookie cookie, long sequence) {
+            this.cookie = cookie;
+            this.sequence = sequence;
+            String path = cookie.getPath();
+            this.pathPrefix = path.endsWith("/") ? path.substring(0, path.length() - 1) : path; // $NON-NLS-1$
+        }
+    }
+
+    /** Cookies by normalized domain (lower case, no leading dot) */
+    private final Map<String, List<Entry>> cookiesByDomain = new HashMap<>();
+
+    /** Cookies whose name, domain or path hold variables, in insertion order */
+    private final List<Entry> variableCookies = new ArrayList<>();
+
+    /** Cookie header by request origin and path */
+    private final Map<String, String> headerCache = new HashMap<>();
+
+    private long nextSequence;
+
+    private int size;
+
+    private boolean modified;
+
+    /**
+     * @param cookies {@link CollectionProperty} of {@link Cookie} to index
+     */
+    CookieJar(CollectionProperty cookies) {
+        for (JMeterProperty jMeterProperty : cookies) {
+            Cookie cookie = (Cookie) jMeterProperty.getObjectValue();
+            if (cookie != null) {
+                addEntry(cookie);
+            }
+        }
+        modified = false;
+    }
+
+    private static String normalizeDomain(String domain) {
+        String normalized = domain.toLowerCase(Locale.ROOT);
+        return normalized.startsWith(".") ? normalized.substring(1) : normalized; // $NON-NLS-1$
+    }
+
+    private static boolean matches(Cookie a, Cookie b) {
+        return a.getName().equals(b.getName())
+                && a.getPath().equals(b.getPath())
+                && a.getDomain().equals(b.getDomain());
+    }
+
+    /**
+     * @param cookie {@link Cookie}
+     * @return true if cookie may contain variables or functions, so that its header must not be cached
+     */
+    private static boolean isDynamic(Cookie cookie) {
+        return cookie.getValue().contains("${") // $NON-NLS-1$
+                || hasVariableKey(cookie);
+    }
+
+    /**
+     * @param cookie {@link Cookie}
+     * @return true if the name, domain or path of cookie may contain variables or functions,
+     * so that it can not be indexed by its domain
+     */
+    private static boolean hasVariableKey(Cookie cookie) {
+        return cookie.getName().contains("${") // $NON-NLS-1$
+                || cookie.getDomain().contains("${") // $NON-NLS-1$
+                || cookie.getPath().contains("${"); // $NON-NLS-1$
+    }
+
+    /**
+     * @param cookie {@link Cookie}
+     * @return the entries holding the cookies which may match cookie, null if there is none
+     */
+    private List<Entry> getEntries(Cookie cookie) {
+        return hasVariableKey(cookie) ? variableCookies : cookiesByDomain.get(normalizeDomain(cookie.getDomain()));
+    }
+
+    private void addEntry(Cookie cookie) {
+        Entry entry = new Entry(cookie, nextSequence++);
+        if (hasVariableKey(cookie)) {
+            variableCookies.add(entry);
+        } else {
+            cookiesByDomain
+                    .computeIfAbsent(normalizeDomain(cookie.getDomain()), k -> new ArrayList<>(2))
+                    .add(entry);
+        }
+        size++;
+        changed();
+    }
+
+    private void changed() {
+        modified = true;
+        headerCache.clear();
+    }
+
+    /**
+     * Add a cookie, after cookies matching it have been removed
+     * @param cookie {@link Cookie}
+     */
+    void add(Cookie cookie) {
+        addEntry(cookie);
+    }
+
+    /**
+     * Remove cookies with the same name, path and domain
+     * @param cookie {@link Cookie} to match
+     * @return the removed cookies
+     */
+    List<Cookie> removeMatching(Cookie cookie) {
+        List<Entry> entries = getEntries(cookie);
+        if (entries == null) {
+            return new ArrayList<>(0);
+        }
+        List<Cookie> removed = new ArrayList<>(1);
+        Iterator<Entry> iter = entries.iterator();
+        while (iter.hasNext()) {
+            Cookie existing = iter.next().cookie;
+            if (matches(existing, cookie)) {
+                removed.add(existing);
+                iter.remove();
+                size--;
+            }
+        }
+        if (!removed.isEmpty()) {
+            changed();
+        }
+        return removed;
+    }
+
+    /**
+     * @return number of cookies
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if cookies were added or removed since this jar was created
+     */
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * @return all cookies, in insertion order
+     */
+    List<Cookie> getCookies() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (List<Entry> domainEntries : cookiesByDomain.values()) {
+            entries.addAll(domainEntries);
+        }
+        entries.addAll(variableCookies);
+        entries.sort(BY_SEQUENCE);
+        List<Cookie> cookies = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            cookies.add(entry.cookie);
+        }
+        return cookies;
+    }
+
+    /**
+     * Compute the Cookie header for url, reusing the header computed for the same origin and path
+     * if no cookie changed since then
+     * @param handler {@link CookieHandler} doing the policy specific matching and formatting
+     * @param url URL of the request
+     * @param allowVariableCookie flag whether cookies may contain jmeter variables
+     * @return the value string for the cookie header or null if no cookie matches
+     */
+    String getCookieHeaderForURL(CookieHandler handler, URL url, boolean allowVariableCookie) {
+        String key = url.getProtocol() + "://" + url.getHost() + ":" + url.getPort() + url.getPath(); // $NON-NLS-1$ $NON-NLS-2$
+        String header = headerCache.get(key);
+        if (header != null) {
+            return header == NO_HEADER ? null : header; // NOSONAR identity is intended
+        }
+        boolean dynamic = false;
+        List<Cookie> candidates = findCandidates(url, allowVariableCookie);
+        if (allowVariableCookie) {
+            for (Cookie cookie : candidates) {
+                if (isDynamic(cookie)) {
+                    dynamic = true;
+                    break;
+                }
+            }
+        }
+        header = candidates.isEmpty() ? null
+                : handler.getCookieHeaderForURL(new CollectionProperty(CookieManager.COOKIES, candidates),
+                        url, allowVariableCookie);
+        if (!dynamic) {
+            if (headerCache.size() >= MAX_CACHED_HEADERS) {
+                headerCache.clear();
+            }
+            headerCache.put(key, header == null ? NO_HEADER : header);
+        }
+        return header;
+    }
+
+    /**
+     * @param url URL of the request
+     * @param allowVariableCookie flag whether cookies may contain jmeter variables
+     * @return cookies that may match url, in insertion order
+     */
+    private List<Cookie> findCandidates(URL url, boolean allowVariableCookie) {
+        String host = url.getHost().toLowerCase(Locale.ROOT);
+        // RFC 2965 uses host.local as effective host name for hosts without dot
+        String effectiveHost = host.indexOf('.') < 0 ? host + LOCAL_DOMAIN : host;
+        String path = url.getPath();
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, List<Entry>> domainEntries : cookiesByDomain.entrySet()) {
+            String domain = domainEntries.getKey();
+            if (host.endsWith(domain) || effectiveHost.endsWith(domain)) {
+                for (Entry entry : domainEntries.getValue()) {
+                    if (path.startsWith(entry.pathPrefix)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        if (allowVariableCookie) {
+            // matched by the handler once their variables are replaced
+            entries.addAll(variableCookies);
+        }
+        entries.sort(BY_SEQUENCE);
+        List<Cookie> candidates = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            candidates.add(entry.cookie);
+        }
+        return candidates;
+    }
+}
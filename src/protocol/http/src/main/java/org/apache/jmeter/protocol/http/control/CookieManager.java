@@ -58,7 +58,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
 
     //++ JMX tag values
     private static final String CLEAR = "CookieManager.clearEachIteration";// $NON-NLS-1$
-    private static final String COOKIES = "CookieManager.cookies";// $NON-NLS-1$
+    static final String COOKIES = "CookieManager.cookies";// $NON-NLS-1$
     private static final String POLICY = "CookieManager.policy"; //$NON-NLS-1$
     private static final String IMPLEMENTATION = "CookieManager.implementation"; //$NON-NLS-1$
     private static final String CONTROLLED_BY_THREADGROUP = "CookieManager.controlledByThreadGroup";// $NON-NLS-1$
@@ -93,6 +93,13 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
     private transient CookieHandler cookieHandler;
     private transient CollectionProperty initialCookies;
 
+    /**
+     * Indexed cookies, when not null it holds the current cookies
+     * and the {@link #COOKIES} property may be outdated
+     * @see #exportCookieJar()
+     */
+    private transient CookieJar cookieJar;
+
     /**
      * Defines the policy that is assumed when the JMX file does not contain an entry for it
      * MUST NOT BE CHANGED otherwise JMX files will not be correctly interpreted
@@ -121,6 +128,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
     /** {@inheritDoc} */
     @Override
     public Object clone(){
+        exportCookieJar();
         CookieManager clone = (CookieManager) super.clone();
         clone.initialCookies = initialCookies;
         clone.cookieHandler = cookieHandler;
@@ -135,12 +143,56 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
         setProperty(POLICY, policy, DEFAULT_POLICY);
     }
 
+    /**
+     * @return {@link CollectionProperty} of {@link Cookie}, callers may modify it
+     */
     public CollectionProperty getCookies() {
         return (CollectionProperty) getProperty(COOKIES);
     }
 
     public int getCookieCount() {// Used by GUI
-        return getCookies().size();
+        return cookieJar != null ? cookieJar.size() : getCookies().size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JMeterProperty getProperty(String key) {
+        if (cookieJar != null && COOKIES.equals(key)) {
+            exportCookieJar();
+        }
+        return super.getProperty(key);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PropertyIterator propertyIterator() {
+        exportCookieJar();
+        return super.propertyIterator();
+    }
+
+    /**
+     * @return {@link CookieJar} holding the current cookies, created from {@link #COOKIES} property if needed
+     */
+    private CookieJar getCookieJar() {
+        if (cookieJar == null) {
+            cookieJar = new CookieJar((CollectionProperty) super.getProperty(COOKIES));
+        }
+        return cookieJar;
+    }
+
+    /**
+     * Store the cookies of the {@link CookieJar} in the {@link #COOKIES} property
+     * and drop the jar, as the property may then be modified by the caller
+     */
+    private void exportCookieJar() {
+        CookieJar jar = cookieJar;
+        if (jar == null) {
+            return;
+        }
+        cookieJar = null;
+        if (jar.isModified()) {
+            setProperty(new CollectionProperty(COOKIES, jar.getCookies()));
+        }
     }
 
     public boolean getClearEachIteration() {
@@ -308,7 +360,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
             if (log.isDebugEnabled()) {
                 log.debug("Add cookie to store {}", c.toString());
             }
-            getCookies().addItem(c);
+            getCookieJar().add(c);
             if (SAVE_COOKIES)  {
                 JMeterContext context = getThreadContext();
                 if (context.isSamplingStarted()) {
@@ -330,6 +382,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
      */
     private void clearCookies() {
         log.debug("Clear all cookies from store");
+        cookieJar = null;
         setProperty(new CollectionProperty(COOKIES, new ArrayList<>()));
     }
 
@@ -361,7 +414,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
      * @return the value string for the cookie header (goes after "Cookie: ").
      */
     public String getCookieHeaderForURL(URL url) {
-        return cookieHandler.getCookieHeaderForURL(getCookies(), url, ALLOW_VARIABLE_COOKIES);
+        return getCookieJar().getCookieHeaderForURL(cookieHandler, url, ALLOW_VARIABLE_COOKIES);
     }
 
 
@@ -369,36 +422,17 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
         cookieHandler.addCookieFromHeader(this, CHECK_COOKIES, cookieHeader, url);
     }
     /**
-     * Check if cookies match, i.e. name, path and domain are equal.
+     * Remove cookies that match newCookie, i.e. name, path and domain are equal.
      * <br/>
      * TODO - should we compare secure too?
-     * @param a
-     * @param b
-     * @return true if cookies match
+     * @param newCookie {@link Cookie}
      */
-    private boolean match(Cookie a, Cookie b){
-        return
-        a.getName().equals(b.getName())
-        &&
-        a.getPath().equals(b.getPath())
-        &&
-        a.getDomain().equals(b.getDomain());
-    }
-
     void removeMatchingCookies(Cookie newCookie){
-        // Scan for any matching cookies
-        PropertyIterator iter = getCookies().iterator();
-        while (iter.hasNext()) {
-            Cookie cookie = (Cookie) iter.next().getObjectValue();
-            if (cookie == null) {// TODO is this possible?
-                continue;
-            }
-            if (match(cookie,newCookie)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("New Cookie = {} removing matching Cookie {}",
-                            newCookie.toString(), cookie.toString());
-                }
-                iter.remove();
+        // Only cookies of the same domain are scanned
+        for (Cookie cookie : getCookieJar().removeMatching(newCookie)) {
+            if (log.isDebugEnabled()) {
+                log.debug("New Cookie = {} removing matching Cookie {}",
+                        newCookie.toString(), cookie.toString());
             }
         }
     }
@@ -441,6 +475,7 @@ public class CookieManager extends ConfigTestElement implements TestStateListene
                 || (!getControlledByThread() && getClearEachIteration())) {
             log.debug("Initialise cookies from pre-defined list");
             // No need to call clear
+            cookieJar = null;
             setProperty(initialCookies.clone());
         }
     }
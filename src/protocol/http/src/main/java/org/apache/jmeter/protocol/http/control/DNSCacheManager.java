@@ -28,10 +28,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.util.InetAddressUtils;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
 import org.apache.jmeter.config.ConfigTestElement;
 import org.apache.jmeter.engine.event.LoopIterationEvent;
 import org.apache.jmeter.testelement.TestIterationListener;
+import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.testelement.property.BooleanProperty;
 import org.apache.jmeter.testelement.property.CollectionProperty;
 import org.apache.jmeter.testelement.property.JMeterProperty;
@@ -39,6 +41,7 @@ import org.apache.jmeter.testelement.property.NullProperty;
 import org.apache.jmeter.testelement.property.PropertyIterator;
 import org.apache.jmeter.testelement.property.TestElementProperty;
 import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.util.JMeterUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xbill.DNS.ARecord;
@@ -57,10 +60,17 @@ import org.xbill.DNS.Type;
  * custom resolver can be used. Custom resolver uses dnsjava library, and gives
  * ability to bypass both OS and JVM cache. It allows to use paradigm
  * "1 virtual user - 1 DNS cache" in performance tests.
+ * <p>
+ * If <code>dns_cache_manager.shared</code> is true, resolved host names are instead kept
+ * in a cache shared by all threads, which honours the TTL of the records, refreshes used entries
+ * in background before they expire and is pre-warmed at test start with the static hosts
+ * and the hosts of the HTTP Requests of the test plan.
+ * </p>
  *
  * @since 2.12
  */
-public class DNSCacheManager extends ConfigTestElement implements TestIterationListener, Serializable, DnsResolver {
+public class DNSCacheManager extends ConfigTestElement
+        implements TestStateListener, TestIterationListener, Serializable, DnsResolver {
 
     private static final long serialVersionUID = 2122L;
 
@@ -80,6 +90,13 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
 
     private static final boolean DEFAULT_IS_CUSTOM_RESOLVER = false;
 
+    private static final boolean SHARED_CACHE_ENABLED =
+            JMeterUtils.getPropDefault("dns_cache_manager.shared", false); // $NON-NLS-1$
+
+    /** TTL in seconds of the addresses resolved by the system resolver, which does not expose record TTLs */
+    private static final int SYSTEM_RESOLVER_TTL =
+            JMeterUtils.getPropDefault("dns_cache_manager.shared.system_ttl", 30); // $NON-NLS-1$
+
     private final transient Cache lookupCache;
 
     private final transient SystemDefaultDnsResolver systemDefaultDnsResolver;
@@ -92,6 +109,9 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
 
     transient boolean initFailed;
 
+    /** Identifies the resolver configuration in the shared cache keys */
+    private transient String sharedCacheKeyPrefix;
+
     // ensure that the initial DNSServers are copied to the per-thread instances
 
     public DNSCacheManager() {
@@ -161,6 +181,9 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
             }
             cache.put(host, staticAddresses);
             return staticAddresses;
+        } else if (SHARED_CACHE_ENABLED) {
+            // The shared cache honours TTLs, do not keep its results in the per-thread cache
+            return sharedLookup(host);
         } else {
             InetAddress[] addresses = requestLookup(host);
             if (log.isDebugEnabled()) {
@@ -171,6 +194,55 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         }
     }
 
+    /**
+     * Resolves host using the cache shared by all threads
+     *
+     * @param host Host to lookup
+     * @return array of {@link InetAddress} or null if lookup did not return result
+     */
+    private InetAddress[] sharedLookup(String host) throws UnknownHostException {
+        if (sharedCacheKeyPrefix == null) {
+            sharedCacheKeyPrefix = (isCustomResolver() ? getServers().getStringValue() : "") + "|"; // $NON-NLS-1$ $NON-NLS-2$
+        }
+        return SharedDnsCache.getInstance().resolve(sharedCacheKeyPrefix + host, host, this::requestResolution);
+    }
+
+    /**
+     * Resolves host into the shared cache, used to pre-warm it
+     *
+     * @param host Host to lookup
+     */
+    private void prefetch(String host) {
+        try {
+            InetAddress[] addresses = sharedLookup(host);
+            if (log.isDebugEnabled()) {
+                log.debug("Prefetched {} => {}", host, Arrays.toString(addresses));
+            }
+        } catch (UnknownHostException e) {
+            log.debug("Failed to prefetch {}: {}", host, e.toString());
+        }
+    }
+
+    /**
+     * Registers a host of the test plan, to be resolved in background at test start
+     * when <code>dns_cache_manager.shared</code> is true
+     *
+     * @param host host name, ignored if empty, if it contains variables or if it is an IP address
+     * @since 5.2
+     */
+    public static void addPlanHost(String host) {
+        if (SHARED_CACHE_ENABLED && isHostName(host)) {
+            SharedDnsCache.getInstance().addPlanHost(host);
+        }
+    }
+
+    private static boolean isHostName(String host) {
+        return host != null && !host.isEmpty()
+                && !host.contains("${") // $NON-NLS-1$
+                && !InetAddressUtils.isIPv4Address(host)
+                && !InetAddressUtils.isIPv6Address(host);
+    }
+
     private void logCache(String hitOrMiss, String host, InetAddress[] addresses) {
         log.debug("Cache " + hitOrMiss + " thread#{}: {} => {}",
                 JMeterContextService.getContext().getThreadNum(),
@@ -219,7 +291,7 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
             List<InetAddress> addresses = new ArrayList<>();
             for (String address : entry.getAddress().split("\\s*,\\s*")) {
                 try {
-                    final InetAddress[] requestLookup = requestLookup(address);
+                    final InetAddress[] requestLookup = SHARED_CACHE_ENABLED ? sharedLookup(address) : requestLookup(address);
                     if (requestLookup == null) {
                         addAsLiteralAddress(addresses, address);
                     } else {
@@ -250,28 +322,37 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
      * @return array of {@link InetAddress} or null if lookup did not return result
      */
     private InetAddress[] requestLookup(String host) throws UnknownHostException {
-        InetAddress[] addresses = null;
+        return requestResolution(host).getAddresses();
+    }
 
+    /**
+     * Sends DNS request via system or custom DNS resolver
+     *
+     * @param host Host to lookup
+     * @return the addresses, null if lookup did not return result, and the TTL of the records
+     */
+    private SharedDnsCache.Resolution requestResolution(String host) throws UnknownHostException {
         if (isCustomResolver()) {
             ExtendedResolver extendedResolver = getOrCreateResolver();
             if (extendedResolver == null) {
                 throw new UnknownHostException("Could not resolve host:" + host
                         + ", failed to initialize resolver or no resolver found");
             } else if (extendedResolver.getResolvers().length > 0) {
-                addresses = customRequestLookup(host);
+                return customRequestLookup(host);
             }
+            return new SharedDnsCache.Resolution(null, 0);
         } else {
-            addresses = systemDefaultDnsResolver.resolve(host);
+            InetAddress[] addresses = systemDefaultDnsResolver.resolve(host);
             if (log.isDebugEnabled()) {
                 logCache("miss (resolved with system resolver)", host, addresses);
             }
+            return new SharedDnsCache.Resolution(addresses, SYSTEM_RESOLVER_TTL * 1000L);
         }
-
-        return addresses;
     }
 
-    private InetAddress[] customRequestLookup(String host) throws UnknownHostException {
+    private SharedDnsCache.Resolution customRequestLookup(String host) throws UnknownHostException {
         InetAddress[] addresses = null;
+        long ttl = 0;
         try {
             Lookup lookup = new Lookup(host, Type.A);
             lookup.setCache(lookupCache);
@@ -284,13 +365,15 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
                 throw new UnknownHostException("Failed to resolve host name: " + host);
             }
             addresses = new InetAddress[records.length];
+            ttl = Long.MAX_VALUE;
             for (int i = 0; i < records.length; i++) {
                 addresses[i] = ((ARecord) records[i]).getAddress();
+                ttl = Math.min(ttl, records[i].getTTL());
             }
         } catch (TextParseException tpe) { // NOSONAR Exception handled
             log.debug("Failed to create Lookup object for host:{}, error message:{}", host, tpe.toString());
         }
-        return addresses;
+        return new SharedDnsCache.Resolution(addresses, ttl * 1000L);
     }
 
     /**
@@ -315,6 +398,49 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         }
     }
 
+    /**
+     * {@inheritDoc} Pre-warm the shared cache with static hosts and hosts of the test plan
+     */
+    @Override
+    public void testStarted() {
+        if (!SHARED_CACHE_ENABLED) {
+            return;
+        }
+        SharedDnsCache sharedCache = SharedDnsCache.getInstance();
+        JMeterProperty p = getProperty(HOSTS);
+        if (p instanceof CollectionProperty) {
+            for (JMeterProperty jMeterProperty : (CollectionProperty) p) {
+                StaticHost entry = (StaticHost) jMeterProperty.getObjectValue();
+                for (String address : entry.getAddress().split("\\s*,\\s*")) {
+                    if (isHostName(address)) {
+                        sharedCache.submit(this::prefetch, address);
+                    }
+                }
+            }
+        }
+        sharedCache.addPrefetcher(this::prefetch);
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    /**
+     * {@inheritDoc} Stop the background resolutions of the shared cache
+     */
+    @Override
+    public void testEnded() {
+        if (SHARED_CACHE_ENABLED) {
+            SharedDnsCache.getInstance().clear();
+        }
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -326,6 +452,7 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
         this.cache.clear();
         this.initFailed = false;
         this.resolver = null;
+        this.sharedCacheKeyPrefix = null;
     }
 
     /**
@@ -343,6 +470,7 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
      */
     public void addServer(String dnsServer) {
         getServers().addItem(dnsServer);
+        sharedCacheKeyPrefix = null;
     }
 
     /**
@@ -403,6 +531,7 @@ public class DNSCacheManager extends ConfigTestElement implements TestIterationL
 
     public void setCustomResolver(boolean isCustomResolver) {
         this.setProperty(IS_CUSTOM_RESOLVER, isCustomResolver);
+        this.sharedCacheKeyPrefix = null;
     }
 
     /**
@@ -21,6 +21,7 @@ package org.apache.jmeter.protocol.http.control;
 import org.apache.jmeter.gui.GuiPackage;
 import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.property.IntegerProperty;
+import org.apache.jmeter.util.JMeterUtils;
 
 /**
  * Test element that implements the Workbench HTTP Mirror function
@@ -125,7 +126,14 @@ public class HttpMirrorControl extends AbstractTestElement {
     }
 
     public void startHttpMirror() {
-        server = new HttpMirrorServer(getPort(), getMaxPoolSize(), getMaxQueueSize());
+        if (JMeterUtils.getPropDefault("httpmirror.nio", false)) { // $NON-NLS-1$
+            server = new HttpMirrorNioServer(getPort(),
+                    JMeterUtils.getPropDefault("httpmirror.nio.threads", 0), // $NON-NLS-1$
+                    JMeterUtils.getPropDefault("httpmirror.response_size", -1), // $NON-NLS-1$
+                    JMeterUtils.getPropDefault("httpmirror.latency", 0)); // $NON-NLS-1$
+        } else {
+            server = new HttpMirrorServer(getPort(), getMaxPoolSize(), getMaxQueueSize());
+        }
         server.start();
         GuiPackage instance = GuiPackage.getInstance();
         if (instance != null) {
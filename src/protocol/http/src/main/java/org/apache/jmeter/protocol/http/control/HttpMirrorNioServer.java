@@ -0,0 +1,574 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jmeter.protocol.http.util.HTTPConstants;
+import org.apache.jorphan.util.JOrphanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking implementation of {@link HttpMirrorServer}, intended to be used as a local
+ * target able to sustain the request rate of a load generator.
+ * <p>
+ * Connections are spread over a set of selector threads. Connections are kept alive
+ * (HTTP/1.1 unless <code>Connection: close</code>, HTTP/1.0 with <code>Connection: keep-alive</code>),
+ * and pipelined requests are answered in order.
+ * </p>
+ * It responds to the same headers and query strings as {@link HttpMirrorThread}:
+ * <ul>
+ * <li>X-ResponseStatus - the response code/message; default "200 OK"</li>
+ * <li>X-SetHeaders - pipe-separated list of headers to return</li>
+ * <li>X-ResponseLength - truncates the response to the stated length</li>
+ * <li>X-SetCookie - set a cookie</li>
+ * <li>X-Sleep - delay the response, without blocking the selector thread</li>
+ * <li>status=nnn Message (overrides X-ResponseStatus)</li>
+ * <li>redirect=location - sends a temporary redirect</li>
+ * <li>v - verbose, i.e. print some details to stdout</li>
+ * </ul>
+ * By default, the body of the response is the request, as with {@link HttpMirrorThread}.
+ * A response size can be set to return a generated body of that size instead,
+ * and a latency to delay all the responses.
+ */
+public class HttpMirrorNioServer extends HttpMirrorServer {
+    private static final Logger log = LoggerFactory.getLogger(HttpMirrorNioServer.class);
+
+    /** Longest time a selector thread waits before checking if the server was stopped */
+    private static final int SELECT_TIMEOUT = 1000;
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /** Max size of a request, connections sending larger ones are closed */
+    private static final int MAX_REQUEST_SIZE = 16 * 1024 * 1024;
+
+    private static final byte[] CRLF = { 0x0d, 0x0a };
+
+    private static final String REDIRECT = "redirect"; //$NON-NLS-1$
+
+    private static final String STATUS = "status"; //$NON-NLS-1$
+
+    private static final String VERBOSE = "v"; // $NON-NLS-1$
+
+    private final int ioThreads;
+
+    private final long latencyNanos;
+
+    /** Body returned instead of the request when a response size is configured, null otherwise */
+    private final ByteBuffer generatedBody;
+
+    /**
+     * @param port         the port to listen on
+     * @param ioThreads    number of selector threads, 0 to use the number of processors
+     * @param responseSize size of the generated response bodies, -1 to mirror the requests
+     * @param latency      delay in milliseconds of all the responses
+     */
+    public HttpMirrorNioServer(int port, int ioThreads, int responseSize, int latency) {
+        super(port, 0, 0);
+        setName("HttpMirrorNioServer"); // $NON-NLS-1$
+        this.ioThreads = ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors();
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, latency));
+        if (responseSize >= 0) {
+            byte[] body = new byte[responseSize];
+            Arrays.fill(body, (byte) 'a');
+            this.generatedBody = ByteBuffer.wrap(body).asReadOnlyBuffer();
+        } else {
+            this.generatedBody = null;
+        }
+    }
+
+    /**
+     * Listen on the daemon port and handle incoming requests. This method will
+     * not exit until {@link #stopServer()} is called or an error occurs.
+     */
+    @Override
+    public void run() {
+        setRunning();
+        EventLoop[] loops = new EventLoop[ioThreads];
+        ServerSocketChannel serverChannel = null;
+        try {
+            log.info("Creating HttpMirror NIO ... on port {} with {} selector threads",
+                    Integer.valueOf(getDaemonPort()), Integer.valueOf(ioThreads));
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new EventLoop(Selector.open());
+            }
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(getDaemonPort()), 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT, loops);
+            for (int i = 1; i < loops.length; i++) {
+                Thread thread = new Thread(loops[i], getName() + "-" + i); // $NON-NLS-1$
+                thread.setDaemon(true);
+                thread.start();
+            }
+            log.info("HttpMirror NIO up and running!");
+            loops[0].run();
+            log.info("HttpMirror NIO Server stopped");
+        } catch (BindException e) {
+            setException(e);
+            log.warn("Could not bind HttpMirror to port {}. Maybe there is already a HttpMirror running?",
+                    Integer.valueOf(getDaemonPort()));
+        } catch (Exception e) {
+            setException(e);
+            log.warn("HttpMirror NIO Server stopped", e);
+        } finally {
+            stopServer();
+            JOrphanUtils.closeQuietly(serverChannel);
+            for (EventLoop loop : loops) {
+                if (loop != null) {
+                    loop.selector.wakeup();
+                }
+            }
+        }
+    }
+
+    /**
+     * Response waiting to be written
+     */
+    private static final class Response {
+        private final ByteBuffer[] buffers;
+        private final long readyAtNanos;
+        private final boolean close;
+
+        Response(ByteBuffer[] buffers, long readyAtNanos, boolean close) {
+            this.buffers = buffers;
+            this.readyAtNanos = readyAtNanos;
+            this.close = close;
+        }
+
+        boolean isWritten() {
+            for (ByteBuffer buffer : buffers) {
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * State of a client connection, only used by the selector thread of the connection
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final EventLoop loop;
+        private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final Queue<Response> responses = new ArrayDeque<>();
+        private boolean closing;
+
+        Connection(SocketChannel channel, SelectionKey key, EventLoop loop) {
+            this.channel = channel;
+            this.key = key;
+            this.loop = loop;
+        }
+
+        void read() throws IOException {
+            int read = channel.read(in);
+            if (read < 0) {
+                closing = true;
+            } else {
+                int consumed = 0;
+                int length;
+                while (!closing && (length = parseRequest(this, in.array(), consumed, in.position())) > 0) {
+                    consumed += length;
+                }
+                compact(consumed);
+            }
+            write();
+        }
+
+        private void compact(int consumed) throws IOException {
+            int remaining = in.position() - consumed;
+            if (consumed > 0) {
+                System.arraycopy(in.array(), consumed, in.array(), 0, remaining);
+                in.position(remaining);
+            }
+            if (!in.hasRemaining()) {
+                if (in.capacity() >= MAX_REQUEST_SIZE) {
+                    throw new IOException("Request larger than " + MAX_REQUEST_SIZE + " bytes");
+                }
+                in = ByteBuffer.wrap(Arrays.copyOf(in.array(), in.capacity() * 2), remaining, in.capacity() * 2 - remaining);
+            }
+        }
+
+        void write() throws IOException {
+            long now = System.nanoTime();
+            Response response;
+            while ((response = responses.peek()) != null && now - response.readyAtNanos >= 0) {
+                channel.write(response.buffers);
+                if (!response.isWritten()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                responses.poll();
+                if (response.close) {
+                    closing = true;
+                    responses.clear();
+                }
+            }
+            if (response != null) {
+                loop.delayed.add(this);
+            } else if (closing) {
+                close();
+                return;
+            }
+            key.interestOps(closing ? 0 : SelectionKey.OP_READ);
+        }
+
+        void close() {
+            key.cancel();
+            JOrphanUtils.closeQuietly(channel);
+            loop.delayed.remove(this);
+        }
+    }
+
+    /**
+     * Selector thread, handling the IO of a set of connections
+     */
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        /** Connections with a response waiting for its delay */
+        private final Set<Connection> delayed = new LinkedHashSet<>();
+        private int nextLoop;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (isRunning()) {
+                    selector.select(selectTimeout());
+                    registerNewChannels();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                    writeDelayed();
+                }
+            } catch (IOException e) {
+                log.warn("Selector thread stopped", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    JOrphanUtils.closeQuietly(key.channel());
+                }
+                JOrphanUtils.closeQuietly(selector);
+            }
+        }
+
+        private long selectTimeout() {
+            long timeout = SELECT_TIMEOUT;
+            long now = System.nanoTime();
+            for (Connection connection : delayed) {
+                Response response = connection.responses.peek();
+                if (response != null) {
+                    long delay = TimeUnit.NANOSECONDS.toMillis(response.readyAtNanos - now) + 1;
+                    timeout = Math.max(1, Math.min(timeout, delay));
+                }
+            }
+            return timeout;
+        }
+
+        private void registerNewChannels() throws IOException {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key, this));
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept((ServerSocketChannel) key.channel(), (EventLoop[]) key.attachment());
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isWritable()) {
+                    connection.write();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    connection.read();
+                }
+            } catch (IOException e) {
+                log.debug("Closing connection: {}", e.toString());
+                connection.close();
+            }
+        }
+
+        private void accept(ServerSocketChannel serverChannel, EventLoop[] loops) {
+            try {
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    EventLoop target = loops[nextLoop];
+                    nextLoop = (nextLoop + 1) % loops.length;
+                    target.newChannels.add(channel);
+                    if (target != this) {
+                        target.selector.wakeup();
+                    }
+                }
+                registerNewChannels();
+            } catch (IOException e) {
+                log.warn("Failed to accept connection", e);
+            }
+        }
+
+        private void writeDelayed() {
+            if (delayed.isEmpty()) {
+                return;
+            }
+            Connection[] connections = delayed.toArray(new Connection[0]);
+            delayed.clear();
+            for (Connection connection : connections) {
+                try {
+                    connection.write();
+                } catch (IOException e) {
+                    log.debug("Closing connection: {}", e.toString());
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the request starting at <code>from</code> and queues its response
+     *
+     * @return the length of the request, or 0 if it is not complete yet
+     * @throws IOException if the request is invalid
+     */
+    private int parseRequest(Connection connection, byte[] data, int from, int to) throws IOException {
+        int headersEnd = indexOf(data, from, to, CRLF, CRLF);
+        if (headersEnd < 0) {
+            return 0;
+        }
+        String headerString = new String(data, from, headersEnd - from, StandardCharsets.ISO_8859_1);
+        String[] lines = headerString.split("\r\n"); // $NON-NLS-1$
+        String[] requestParts = lines[0].split("\\s+"); // $NON-NLS-1$
+        if (requestParts.length < 2) {
+            throw new IOException("Invalid request line: " + lines[0]);
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.putIfAbsent(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                        lines[i].substring(colon + 1).trim());
+            }
+        }
+        int bodyStart = headersEnd + 4;
+        int requestEnd;
+        String transferEncoding = headers.get("transfer-encoding"); // $NON-NLS-1$
+        if ("chunked".equalsIgnoreCase(transferEncoding)) { // $NON-NLS-1$
+            requestEnd = chunkedEnd(data, bodyStart, to);
+        } else {
+            String contentLength = headers.get("content-length"); // $NON-NLS-1$
+            requestEnd = bodyStart + (contentLength == null ? 0 : parseInt(contentLength));
+        }
+        if (requestEnd < 0 || requestEnd > to) {
+            return 0;
+        }
+        String version = requestParts.length > 2 ? requestParts[2] : "HTTP/1.0"; // $NON-NLS-1$
+        String connectionHeader = headers.get("connection"); // $NON-NLS-1$
+        boolean keepAlive = "HTTP/1.1".equals(version) // $NON-NLS-1$
+                ? !"close".equalsIgnoreCase(connectionHeader) // $NON-NLS-1$
+                : "keep-alive".equalsIgnoreCase(connectionHeader); // $NON-NLS-1$
+        connection.responses.add(buildResponse(requestParts, headers, version, keepAlive,
+                Arrays.copyOfRange(data, from, requestEnd)));
+        return requestEnd - from;
+    }
+
+    private Response buildResponse(String[] requestParts, Map<String, String> headers, String version,
+            boolean keepAlive, byte[] request) throws IOException {
+        Map<String, String> parameters = getParameters(requestParts[0], requestParts[1]);
+        boolean verbose = parameters.containsKey(VERBOSE);
+        if (verbose) {
+            String firstLine = String.join(" ", requestParts); // $NON-NLS-1$
+            System.out.println(firstLine); // NOSONAR
+            log.info(firstLine);
+        }
+        String responseStatus = headers.getOrDefault("x-responsestatus", "200 OK"); // $NON-NLS-1$ $NON-NLS-2$
+        // Do this before the status check so can override the status, e.g. with a different redirect type
+        if (parameters.containsKey(REDIRECT)) {
+            responseStatus = "302 Temporary Redirect"; // $NON-NLS-1$
+        }
+        if (parameters.containsKey(STATUS)) {
+            responseStatus = parameters.get(STATUS);
+        }
+        ByteBuffer body;
+        if (generatedBody != null) {
+            body = generatedBody.duplicate();
+        } else {
+            body = ByteBuffer.wrap(request);
+        }
+        String responseLength = headers.get("x-responselength"); // $NON-NLS-1$
+        if (responseLength != null) {
+            body.limit(Math.min(body.limit(), parseInt(responseLength)));
+        }
+
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1".equals(version) ? "HTTP/1.1 " : "HTTP/1.0 ") // $NON-NLS-1$ $NON-NLS-2$ $NON-NLS-3$
+                .append(responseStatus).append("\r\n"); // $NON-NLS-1$
+        head.append("Content-Type: text/plain\r\n"); // $NON-NLS-1$
+        if (parameters.containsKey(REDIRECT)) {
+            String redirectLocation = HTTPConstants.HEADER_LOCATION + ": " + parameters.get(REDIRECT); // $NON-NLS-1$
+            if (verbose) {
+                System.out.println(redirectLocation); // NOSONAR
+                log.info(redirectLocation);
+            }
+            head.append(redirectLocation).append("\r\n"); // $NON-NLS-1$
+        }
+        String headersToSet = headers.get("x-setheaders"); // $NON-NLS-1$
+        if (headersToSet != null) {
+            for (String header : headersToSet.split("\\|")) { // $NON-NLS-1$
+                head.append(header).append("\r\n"); // $NON-NLS-1$
+            }
+        }
+        String cookie = headers.get("x-setcookie"); // $NON-NLS-1$
+        if (cookie != null) {
+            head.append("Set-Cookie: ").append(cookie).append("\r\n"); // $NON-NLS-1$ $NON-NLS-2$
+        }
+        head.append("Content-Length: ").append(body.remaining()).append("\r\n"); // $NON-NLS-1$ $NON-NLS-2$
+        head.append(keepAlive ? "Connection: keep-alive\r\n" : "Connection: close\r\n"); // $NON-NLS-1$ $NON-NLS-2$
+        head.append("\r\n"); // $NON-NLS-1$
+
+        long delayNanos = latencyNanos;
+        String sleep = headers.get("x-sleep"); // $NON-NLS-1$
+        if (sleep != null) {
+            delayNanos = TimeUnit.MILLISECONDS.toNanos(parseInt(sleep));
+        }
+        return new Response(
+                new ByteBuffer[] { ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1)), body },
+                System.nanoTime() + delayNanos, !keepAlive);
+    }
+
+    private static Map<String, String> getParameters(String method, String path) {
+        Map<String, String> parameters = new HashMap<>();
+        int querypos = path.indexOf('?');
+        if (!HTTPConstants.GET.equals(method) || querypos < 0) {
+            return parameters;
+        }
+        String query;
+        try {
+            query = new URI(path).getQuery(); // Use URI because it will decode the query
+        } catch (URISyntaxException e) {
+            log.warn(e.getMessage());
+            query = path.substring(querypos + 1);
+        }
+        if (query != null) {
+            for (String param : query.split("&")) { // $NON-NLS-1$
+                String[] parts = param.split("=", 2); // $NON-NLS-1$
+                parameters.put(parts[0], parts.length == 2 ? parts[1] : "");
+            }
+        }
+        return parameters;
+    }
+
+    private static int parseInt(String value) throws IOException {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + value, e);
+        }
+    }
+
+    /**
+     * @return the end of a chunked body starting at <code>from</code>, or -1 if it is not complete yet
+     */
+    private static int chunkedEnd(byte[] data, int from, int to) throws IOException {
+        int pos = from;
+        while (true) {
+            int lineEnd = indexOf(data, pos, to, CRLF, null);
+            if (lineEnd < 0) {
+                return -1;
+            }
+            String sizeLine = new String(data, pos, lineEnd - pos, StandardCharsets.ISO_8859_1);
+            int extension = sizeLine.indexOf(';');
+            int size;
+            try {
+                size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size: " + sizeLine, e);
+            }
+            pos = lineEnd + 2;
+            if (size == 0) {
+                // Skip trailers until the empty line
+                while (true) {
+                    int trailerEnd = indexOf(data, pos, to, CRLF, null);
+                    if (trailerEnd < 0) {
+                        return -1;
+                    }
+                    if (trailerEnd == pos) {
+                        return pos + 2;
+                    }
+                    pos = trailerEnd + 2;
+                }
+            }
+            pos += size + 2;
+            if (pos > to) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return index of <code>first</code> followed by <code>second</code> if not null, or -1
+     */
+    private static int indexOf(byte[] data, int from, int to, byte[] first, byte[] second) {
+        int length = first.length + (second == null ? 0 : second.length);
+        for (int i = from; i <= to - length; i++) {
+            if (data[i] == first[0] && data[i + 1] == first[1]
+                    && (second == null || data[i + 2] == second[0] && data[i + 3] == second[1])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
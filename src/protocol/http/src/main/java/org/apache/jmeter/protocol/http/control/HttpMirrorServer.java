@@ -49,6 +49,10 @@ public class HttpMirrorServer extends Thread implements Stoppable, NonTestElemen
     private static final int HELP_OPT_ID = '?';// $NON-NLS-1$
     private static final int PORT_OPT_ID = 'P';// $NON-NLS-1$
     private static final int LOGLEVEL_OPT_ID = 'L';// $NON-NLS-1$
+    private static final int NIO_OPT_ID = 'N';// $NON-NLS-1$
+    private static final int THREADS_OPT_ID = 'T';// $NON-NLS-1$
+    private static final int RESPONSE_SIZE_OPT_ID = 'S';// $NON-NLS-1$
+    private static final int LATENCY_OPT_ID = 'D';// $NON-NLS-1$
 
     /* Define the understood command line flags. */
     private static final CLOptionDescriptor HELP_OPT =
@@ -66,11 +70,35 @@ public class HttpMirrorServer extends Thread implements Stoppable, NonTestElemen
                     CLOptionDescriptor.DUPLICATES_ALLOWED | CLOptionDescriptor.ARGUMENTS_REQUIRED_2,
                     LOGLEVEL_OPT_ID,
                     "[category=]level e.g. INFO or DEBUG");
+    private static final CLOptionDescriptor NIO_OPT =
+            new CLOptionDescriptor("nio",
+                    CLOptionDescriptor.ARGUMENT_DISALLOWED,
+                    NIO_OPT_ID,
+                    "Use the non-blocking server, with keep-alive and pipelining");
+    private static final CLOptionDescriptor THREADS_OPT =
+            new CLOptionDescriptor("threads",
+                    CLOptionDescriptor.ARGUMENT_REQUIRED,
+                    THREADS_OPT_ID,
+                    "Number of selector threads of the non-blocking server, defaults to the number of processors");
+    private static final CLOptionDescriptor RESPONSE_SIZE_OPT =
+            new CLOptionDescriptor("responsesize",
+                    CLOptionDescriptor.ARGUMENT_REQUIRED,
+                    RESPONSE_SIZE_OPT_ID,
+                    "Size of the response bodies of the non-blocking server, defaults to mirroring the request");
+    private static final CLOptionDescriptor LATENCY_OPT =
+            new CLOptionDescriptor("latency",
+                    CLOptionDescriptor.ARGUMENT_REQUIRED,
+                    LATENCY_OPT_ID,
+                    "Delay in milliseconds of the responses of the non-blocking server");
 
     private static final CLOptionDescriptor[] options = new CLOptionDescriptor[]{
             HELP_OPT,
             PORT_OPT,
             LOGLEVEL_OPT,
+            NIO_OPT,
+            THREADS_OPT,
+            RESPONSE_SIZE_OPT,
+            LATENCY_OPT,
     };
 
     /**
@@ -192,6 +220,35 @@ public class HttpMirrorServer extends Thread implements Stoppable, NonTestElemen
         return except;
     }
 
+    /**
+     * @return true until {@link #stopServer()} is called
+     */
+    protected boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Marks the server as running, called when it starts listening
+     */
+    protected void setRunning() {
+        except = null;
+        isRunning = true;
+    }
+
+    /**
+     * @param e the error that stopped the server
+     */
+    protected void setException(Exception e) {
+        except = e;
+    }
+
+    /**
+     * @return the port to listen on
+     */
+    protected int getDaemonPort() {
+        return daemonPort;
+    }
+
     public static void main(String[] args) {
         CLArgsParser clArgsParser = new CLArgsParser(args, options);
         String error = clArgsParser.getErrorString();
@@ -217,7 +274,25 @@ public class HttpMirrorServer extends Thread implements Stoppable, NonTestElemen
 
         setLogLevel(clArgsParser);
 
-        new HttpMirrorServer(port).start();
+        if (clArgsParser.getArgumentById(NIO_OPT_ID) != null) {
+            new HttpMirrorNioServer(port,
+                    getIntOption(clArgsParser, THREADS_OPT_ID, 0),
+                    getIntOption(clArgsParser, RESPONSE_SIZE_OPT_ID, -1),
+                    getIntOption(clArgsParser, LATENCY_OPT_ID, 0)).start();
+        } else {
+            new HttpMirrorServer(port).start();
+        }
+    }
+
+    private static int getIntOption(CLArgsParser parser, int id, int defaultValue) {
+        CLOption option = parser.getArgumentById(id);
+        if (option != null) {
+            try {
+                return Integer.parseInt(option.getArgument(0));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return defaultValue;
     }
 
     private static int getHttpPort(String[] args, CLArgsParser parser) {
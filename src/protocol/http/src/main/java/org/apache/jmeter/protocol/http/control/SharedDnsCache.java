@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DNS cache shared by all the threads of a test, used by {@link DNSCacheManager}
+ * when <code>dns_cache_manager.shared</code> is true.
+ * <p>
+ * Entries expire after the TTL of their records. Entries used since they were resolved
+ * are resolved again in background before they expire, so that samplers do not wait
+ * for the resolution.
+ * </p>
+ */
+final class SharedDnsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedDnsCache.class);
+
+    /** Part of the TTL after which a used entry is refreshed */
+    private static final double REFRESH_RATIO = 0.8;
+
+    private static final int REFRESH_THREADS = 2;
+
+    private static final SharedDnsCache INSTANCE = new SharedDnsCache();
+
+    /**
+     * Resolves a host name
+     */
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * @param host host name to resolve
+         * @return the addresses and their TTL
+         * @throws UnknownHostException when host can not be resolved
+         */
+        Resolution load(String host) throws UnknownHostException;
+    }
+
+    /**
+     * Addresses of a host and how long they can be cached
+     */
+    static final class Resolution {
+        private final InetAddress[] addresses;
+        private final long ttlMillis;
+
+        /**
+         * @param addresses addresses of the host, may be null if none was found
+         * @param ttlMillis how long the addresses can be cached, 0 to not cache them
+         */
+        Resolution(InetAddress[] addresses, long ttlMillis) {
+            this.addresses = addresses;
+            this.ttlMillis = ttlMillis;
+        }
+
+        InetAddress[] getAddresses() {
+            return addresses;
+        }
+    }
+
+    private static final class Entry {
+        private final String host;
+        private final Loader loader;
+        private final InetAddress[] addresses;
+        private final long expiresAtNanos;
+        /** true if entry was read since it was stored, only used entries are refreshed */
+        private volatile boolean used;
+
+        Entry(String host, Loader loader, Resolution resolution) {
+            this.host = host;
+            this.loader = loader;
+            this.addresses = resolution.addresses;
+            this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(resolution.ttlMillis);
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Hosts of the test plan, prefetched at test start */
+    private final Set<String> planHosts = ConcurrentHashMap.newKeySet();
+
+    private final List<Consumer<String>> prefetchers = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService executor;
+
+    private SharedDnsCache() {
+    }
+
+    static SharedDnsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached addresses of host or resolves them in the calling thread
+     *
+     * @param key    cache key, identifying the resolver and the host
+     * @param host   host name to resolve
+     * @param loader {@link Loader} used to resolve host now and on refresh
+     * @return the addresses of host, may be null
+     * @throws UnknownHostException when host can not be resolved
+     */
+    InetAddress[] resolve(String key, String host, Loader loader) throws UnknownHostException {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            entry.used = true;
+            return entry.addresses;
+        }
+        Resolution resolution = loader.load(host);
+        store(key, new Entry(host, loader, resolution), resolution.ttlMillis);
+        return resolution.addresses;
+    }
+
+    private void store(String key, Entry entry, long ttlMillis) {
+        if (entry.addresses == null || ttlMillis <= 0) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, entry);
+        ScheduledExecutorService currentExecutor = getExecutor();
+        try {
+            currentExecutor.schedule(() -> refresh(key, entry),
+                    (long) (ttlMillis * REFRESH_RATIO), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) { // NOSONAR test is ending
+            log.debug("Not scheduling refresh of {}, cache is stopped", entry.host);
+        }
+    }
+
+    private void refresh(String key, Entry entry) {
+        if (entries.get(key) != entry) {
+            return; // replaced or removed since scheduled
+        }
+        if (!entry.used) {
+            log.debug("Not refreshing unused entry for {}", entry.host);
+            return;
+        }
+        try {
+            Resolution resolution = entry.loader.load(entry.host);
+            if (log.isDebugEnabled()) {
+                log.debug("Refreshed {} with TTL {} ms", entry.host, Long.valueOf(resolution.ttlMillis));
+            }
+            store(key, new Entry(entry.host, entry.loader, resolution), resolution.ttlMillis);
+        } catch (UnknownHostException e) {
+            // Keep the current entry until it expires
+            log.debug("Failed to refresh {}: {}", entry.host, e.toString());
+        }
+    }
+
+    /**
+     * Registers a host of the test plan, and prefetches it with the registered prefetchers
+     *
+     * @param host host name
+     */
+    void addPlanHost(String host) {
+        if (planHosts.add(host)) {
+            for (Consumer<String> prefetcher : prefetchers) {
+                submit(prefetcher, host);
+            }
+        }
+    }
+
+    /**
+     * Registers a prefetcher, called in background for each host of the test plan
+     *
+     * @param prefetcher resolves a host into the cache
+     */
+    void addPrefetcher(Consumer<String> prefetcher) {
+        prefetchers.add(prefetcher);
+        for (String host : planHosts) {
+            submit(prefetcher, host);
+        }
+    }
+
+    /**
+     * Resolves host in background
+     *
+     * @param prefetcher resolves a host into the cache
+     * @param host host name
+     */
+    void submit(Consumer<String> prefetcher, String host) {
+        try {
+            getExecutor().execute(() -> prefetcher.accept(host));
+        } catch (RejectedExecutionException e) { // NOSONAR test is ending
+            log.debug("Not prefetching {}, cache is stopped", host);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            ScheduledThreadPoolExecutor newExecutor = new ScheduledThreadPoolExecutor(REFRESH_THREADS,
+                    r -> {
+                        Thread t = new Thread(r);
+                        t.setName("DNSRefresh-" + t.getName()); //$NON-NLS-1$
+                        t.setDaemon(true);
+                        return t;
+                    });
+            newExecutor.setRemoveOnCancelPolicy(true);
+            executor = newExecutor;
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the background resolutions and clears the cache
+     */
+    synchronized void clear() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        entries.clear();
+        planHosts.clear();
+        prefetchers.clear();
+    }
+
+    /**
+     * @return number of cached entries, expired or not
+     */
+    int size() {
+        return entries.size();
+    }
+}
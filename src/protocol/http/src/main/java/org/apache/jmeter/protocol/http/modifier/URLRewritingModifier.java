@@ -29,6 +29,7 @@ import org.apache.jmeter.testelement.AbstractTestElement;
 import org.apache.jmeter.testelement.property.BooleanProperty;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.regex.MatchResult;
 import org.apache.oro.text.regex.Pattern;
 import org.apache.oro.text.regex.Perl5Compiler;
@@ -159,23 +160,23 @@ public class URLRewritingModifier extends AbstractTestElement implements Seriali
 
     private void initRegex(String argName) {
         String quotedArg = Perl5Compiler.quotemeta(argName);// Don't get tripped up by RE chars in the arg name
-        pathExtensionEqualsQuestionmarkRegexp = JMeterUtils.getPatternCache().getPattern(
+        pathExtensionEqualsQuestionmarkRegexp = RegexService.getPatternCache().getPattern(
                 SEMI_COLON + quotedArg + "=([^\"'<>&\\s;]*)", // $NON-NLS-1$
                 Perl5Compiler.MULTILINE_MASK | Perl5Compiler.READ_ONLY_MASK);
 
-        pathExtensionEqualsNoQuestionmarkRegexp = JMeterUtils.getPatternCache().getPattern(
+        pathExtensionEqualsNoQuestionmarkRegexp = RegexService.getPatternCache().getPattern(
                 SEMI_COLON + quotedArg + "=([^\"'<>&\\s;?]*)", // $NON-NLS-1$
                 Perl5Compiler.MULTILINE_MASK | Perl5Compiler.READ_ONLY_MASK);
 
-        pathExtensionNoEqualsQuestionmarkRegexp = JMeterUtils.getPatternCache().getPattern(
+        pathExtensionNoEqualsQuestionmarkRegexp = RegexService.getPatternCache().getPattern(
                 SEMI_COLON + quotedArg + "([^\"'<>&\\s;]*)", // $NON-NLS-1$
                 Perl5Compiler.MULTILINE_MASK | Perl5Compiler.READ_ONLY_MASK);
 
-        pathExtensionNoEqualsNoQuestionmarkRegexp = JMeterUtils.getPatternCache().getPattern(
+        pathExtensionNoEqualsNoQuestionmarkRegexp = RegexService.getPatternCache().getPattern(
                 SEMI_COLON + quotedArg + "([^\"'<>&\\s;?]*)", // $NON-NLS-1$
                 Perl5Compiler.MULTILINE_MASK | Perl5Compiler.READ_ONLY_MASK);
 
-        parameterRegexp = JMeterUtils.getPatternCache().getPattern(
+        parameterRegexp = RegexService.getPatternCache().getPattern(
                 // ;sessionid=value
                 "[;\\?&]" + quotedArg + "=([^\"'<>&\\s;\\\\]*)" +  // $NON-NLS-1$
 
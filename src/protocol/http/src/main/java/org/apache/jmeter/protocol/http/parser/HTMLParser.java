@@ -112,8 +112,11 @@ public abstract class HTMLParser extends BaseParser {
         // them roughly in order, which should be a better model of browser
         // behaviour.
 
-        Collection<URLString> col = new LinkedHashSet<>();
-        return getEmbeddedResourceURLs(userAgent, html, baseUrl, new URLCollection(col),encoding);
+        // Identical pages are only parsed once, see HtmlLinkCache
+        return HtmlLinkCache.getEmbeddedResourceURLs(this, userAgent, html, baseUrl, encoding, () -> {
+            Collection<URLString> col = new LinkedHashSet<>();
+            return getEmbeddedResourceURLs(userAgent, html, baseUrl, new URLCollection(col), encoding);
+        });
 
         // An additional note on using HashSets to store URLs: I just
         // discovered that obtaining the hashCode of a java.net.URL implies
@@ -129,6 +132,14 @@ public abstract class HTMLParser extends BaseParser {
 
     }
 
+    /**
+     * Logs the hits and misses of the cache of URLs found in HTML pages,
+     * if it was used since they were last logged
+     */
+    public static void logCacheStatistics() {
+        HtmlLinkCache.logStatistics();
+    }
+
     /**
      * Get the URLs for all the resources that a browser would automatically
      * download following the download of the HTML content, that is: images,
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.parser;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache of the URLs found in HTML pages by {@link HTMLParser}, shared by all threads.
+ * <p>
+ * Pages are identified by a 128 bits hash of their content, their length, base URL,
+ * encoding, user agent and the parser used, so that identical pages are parsed once.
+ * </p>
+ */
+final class HtmlLinkCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HtmlLinkCache.class);
+
+    private static final int CACHE_SIZE = JMeterUtils.getPropDefault("html.parser.cache.size", 400); // $NON-NLS-1$
+
+    /** Number of requests when statistics were last logged */
+    private static final AtomicLong LOGGED_REQUESTS = new AtomicLong();
+
+    /**
+     * Parses a page
+     */
+    @FunctionalInterface
+    interface Parser {
+        Iterator<URL> parse() throws HTMLParseException;
+    }
+
+    private static class CacheHolder { // IODH idiom
+        private static final Cache<Key, List<URL>> CACHE = Caffeine.newBuilder()
+                .maximumSize(CACHE_SIZE)
+                .recordStats()
+                .build();
+    }
+
+    private static final class Key {
+        private final String parser;
+        private final String userAgent;
+        private final String baseUrl;
+        private final String encoding;
+        private final int length;
+        private final long hash1;
+        private final long hash2;
+
+        Key(String parser, String userAgent, String baseUrl, String encoding, byte[] html) {
+            this.parser = parser;
+            this.userAgent = userAgent;
+            this.baseUrl = baseUrl;
+            this.encoding = encoding;
+            this.length = html.length;
+            long[] hash = MurmurHash3.hash128(html);
+            this.hash1 = hash[0];
+            this.hash2 = hash[1];
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash1 == other.hash1 && hash2 == other.hash2 && length == other.length
+                    && parser.equals(other.parser)
+                    && Objects.equals(baseUrl, other.baseUrl)
+                    && Objects.equals(userAgent, other.userAgent)
+                    && Objects.equals(encoding, other.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash1) * 31 + Objects.hashCode(baseUrl);
+        }
+    }
+
+    private HtmlLinkCache() {
+    }
+
+    /**
+     * Returns the URLs found in html, from the cache if the same page was already parsed
+     *
+     * @param htmlParser {@link HTMLParser} used to parse the page
+     * @param userAgent  User Agent
+     * @param html       HTML code
+     * @param baseUrl    Base URL from which the HTML code was obtained
+     * @param encoding   Charset
+     * @param parser     parses the page on cache miss
+     * @return an Iterator for the resource URLs
+     * @throws HTMLParseException when parsing the <code>html</code> fails
+     */
+    static Iterator<URL> getEmbeddedResourceURLs(HTMLParser htmlParser, String userAgent, byte[] html, URL baseUrl,
+            String encoding, Parser parser) throws HTMLParseException {
+        if (CACHE_SIZE <= 0) {
+            return parser.parse();
+        }
+        Key key = new Key(htmlParser.getClass().getName(), userAgent,
+                baseUrl == null ? null : baseUrl.toExternalForm(), encoding, html);
+        List<URL> urls = CacheHolder.CACHE.getIfPresent(key);
+        if (urls == null) {
+            List<URL> parsed = new ArrayList<>();
+            parser.parse().forEachRemaining(parsed::add);
+            urls = Collections.unmodifiableList(parsed);
+            CacheHolder.CACHE.put(key, urls);
+        }
+        return urls.iterator();
+    }
+
+    /**
+     * Logs the hits and misses of the cache, if it was used since they were last logged
+     */
+    static void logStatistics() {
+        if (CACHE_SIZE <= 0) {
+            return;
+        }
+        CacheStats stats = CacheHolder.CACHE.stats();
+        long requests = stats.requestCount();
+        if (requests != LOGGED_REQUESTS.getAndSet(requests) && log.isInfoEnabled()) {
+            log.info("HTML parser cache: {} hits, {} misses, hit rate {}%, {} evictions",
+                    Long.valueOf(stats.hitCount()), Long.valueOf(stats.missCount()),
+                    Long.valueOf(Math.round(stats.hitRate() * 100)), Long.valueOf(stats.evictionCount()));
+        }
+    }
+}
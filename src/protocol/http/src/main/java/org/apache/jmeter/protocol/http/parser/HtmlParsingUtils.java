@@ -34,6 +34,8 @@ import org.apache.jmeter.protocol.http.sampler.HTTPSamplerFactory;
 import org.apache.jmeter.protocol.http.util.ConversionUtils;
 import org.apache.jmeter.testelement.property.JMeterProperty;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
+import org.apache.oro.text.PatternCache;
 import org.apache.oro.text.PatternCacheLRU;
 import org.apache.oro.text.regex.MatchResult;
 import org.apache.oro.text.regex.Pattern;
@@ -83,7 +85,7 @@ public final class HtmlParsingUtils {
         final Arguments arguments = config.getArguments();
 
         final Perl5Matcher matcher = JMeterUtils.getMatcher();
-        final PatternCacheLRU patternCache = JMeterUtils.getPatternCache();
+        final PatternCache patternCache = RegexService.getPatternCache();
 
         if (!isEqualOrMatches(newLink.getProtocol(), config.getProtocol(), matcher, patternCache)){
             return false;
@@ -127,7 +129,7 @@ public final class HtmlParsingUtils {
      */
     public static boolean isArgumentMatched(Argument arg, Argument patternArg) {
         final Perl5Matcher matcher = JMeterUtils.getMatcher();
-        final PatternCacheLRU patternCache = JMeterUtils.getPatternCache();
+        final PatternCache patternCache = RegexService.getPatternCache();
         return
             isEqualOrMatches(arg.getName(), patternArg.getName(), matcher, patternCache)
         &&
@@ -145,6 +147,21 @@ public final class HtmlParsingUtils {
      * @return true if input matches the pattern
      */
     public static boolean isEqualOrMatches(String arg, String pat, Perl5Matcher matcher, PatternCacheLRU cache){
+        return isEqualOrMatches(arg, pat, matcher, (PatternCache) cache);
+    }
+
+    /**
+     * Match the input argument against the pattern using String.equals() or pattern matching if that fails.
+     *
+     * @param arg input string
+     * @param pat pattern string
+     * @param matcher Perl5Matcher
+     * @param cache PatternCache
+     *
+     * @return true if input matches the pattern
+     * @since 5.2
+     */
+    public static boolean isEqualOrMatches(String arg, String pat, Perl5Matcher matcher, PatternCache cache){
         return
             arg.equals(pat)
             ||
@@ -163,6 +180,22 @@ public final class HtmlParsingUtils {
      * @return true if input matches the pattern
      */
     public static boolean isEqualOrMatchesCaseBlind(String arg, String pat, Perl5Matcher matcher, PatternCacheLRU cache){
+        return isEqualOrMatchesCaseBlind(arg, pat, matcher, (PatternCache) cache);
+    }
+
+    /**
+     * Match the input argument against the pattern using String.equals() or pattern matching if that fails
+     * using case-insensitive matching.
+     *
+     * @param arg input string
+     * @param pat pattern string
+     * @param matcher Perl5Matcher
+     * @param cache PatternCache
+     *
+     * @return true if input matches the pattern
+     * @since 5.2
+     */
+    public static boolean isEqualOrMatchesCaseBlind(String arg, String pat, Perl5Matcher matcher, PatternCache cache){
         return
             arg.equalsIgnoreCase(pat)
             ||
@@ -179,7 +212,7 @@ public final class HtmlParsingUtils {
      * @return true if input matches the pattern
      */
     public static boolean isEqualOrMatches(String arg, String pat){
-        return isEqualOrMatches(arg, pat, JMeterUtils.getMatcher(), JMeterUtils.getPatternCache());
+        return isEqualOrMatches(arg, pat, JMeterUtils.getMatcher(), RegexService.getPatternCache());
     }
 
     /**
@@ -192,7 +225,7 @@ public final class HtmlParsingUtils {
      * @return true if input matches the pattern
      */
     public static boolean isEqualOrMatchesCaseBlind(String arg, String pat){
-        return isEqualOrMatchesCaseBlind(arg, pat, JMeterUtils.getMatcher(), JMeterUtils.getPatternCache());
+        return isEqualOrMatchesCaseBlind(arg, pat, JMeterUtils.getMatcher(), RegexService.getPatternCache());
     }
 
     /**
@@ -376,7 +409,7 @@ public final class HtmlParsingUtils {
 
     public static void extractStyleURLs(final URL baseUrl, final URLCollection urls, String styleTagStr) {
         Perl5Matcher matcher = JMeterUtils.getMatcher();
-        Pattern pattern = JMeterUtils.getPatternCache().getPattern(
+        Pattern pattern = RegexService.getPatternCache().getPattern(
                 "URL\\(\\s*('|\")(.*)('|\")\\s*\\)", // $NON-NLS-1$
                 Perl5Compiler.CASE_INSENSITIVE_MASK | Perl5Compiler.SINGLELINE_MASK | Perl5Compiler.READ_ONLY_MASK);
         PatternMatcherInput input = null;
@@ -25,6 +25,7 @@ import java.util.Iterator;
 
 import org.apache.jmeter.protocol.http.util.ConversionUtils;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.MatchResult;
 import org.apache.oro.text.regex.Pattern;
@@ -137,7 +138,7 @@ class RegexpHTMLParser extends HTMLParser {
             // probably a new PatternMatcherInput working on a byte[] would do
             // better.
             input.setInput(new String(html, encoding));
-            pattern=JMeterUtils.getPatternCache().getPattern(
+            pattern=RegexService.getPatternCache().getPattern(
                     REGEXP,
                     Perl5Compiler.CASE_INSENSITIVE_MASK
                     | Perl5Compiler.SINGLELINE_MASK
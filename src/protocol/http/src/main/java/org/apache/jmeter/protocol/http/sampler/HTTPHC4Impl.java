@@ -146,6 +146,7 @@ import org.apache.jmeter.protocol.http.control.DynamicSPNegoSchemeFactory;
 import org.apache.jmeter.protocol.http.control.HeaderManager;
 import org.apache.jmeter.protocol.http.sampler.hc.LaxDeflateInputStream;
 import org.apache.jmeter.protocol.http.sampler.hc.LaxGZIPInputStream;
+import org.apache.jmeter.protocol.http.sampler.hc.LazyContentDecoder;
 import org.apache.jmeter.protocol.http.sampler.hc.LazyLayeredConnectionSocketFactory;
 import org.apache.jmeter.protocol.http.util.EncoderCache;
 import org.apache.jmeter.protocol.http.util.HTTPArgument;
@@ -177,7 +178,11 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
     private static final String JMETER_VARIABLE_USER_TOKEN = "__jmeter.U_T__"; //$NON-NLS-1$
 
-    static final String CONTEXT_ATTRIBUTE_SAMPLER_RESULT = "__jmeter.S_R__"; //$NON-NLS-1$
+    /**
+     * {@link HttpContext} attribute holding the {@link SampleResult} being sampled,
+     * used by the connection layers to record connect and TLS handshake timings
+     */
+    public static final String CONTEXT_ATTRIBUTE_SAMPLER_RESULT = "__jmeter.S_R__"; //$NON-NLS-1$
 
     /**
      * Holds data used by HTTP request if Embedded resource download is enabled
@@ -190,12 +195,20 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
     private static final String CONTEXT_ATTRIBUTE_METRICS = "__jmeter.M__";
 
+    private static final String CONTEXT_ATTRIBUTE_LAZY_DECOMPRESSION = "__jmeter.L_D__";
+
     private static final boolean DISABLE_DEFAULT_UA = JMeterUtils.getPropDefault("httpclient4.default_user_agent_disabled", false);
 
     private static final boolean GZIP_RELAX_MODE = JMeterUtils.getPropDefault("httpclient4.gzip_relax_mode", false);
 
     private static final boolean DEFLATE_RELAX_MODE = JMeterUtils.getPropDefault("httpclient4.deflate_relax_mode", false);
 
+    /**
+     * If true, compressed responses are stored as received and only uncompressed
+     * when response data is first read from the {@link SampleResult}
+     */
+    private static final boolean LAZY_DECOMPRESSION = JMeterUtils.getPropDefault("httpclient4.lazy_decompression", false);
+
     private static final Logger log = LoggerFactory.getLogger(HTTPHC4Impl.class);
 
     private static final InputStreamFactory GZIP =
@@ -206,6 +219,8 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
     private static final InputStreamFactory BROTLI = BrotliInputStream::new;
 
+    private static final Lookup<InputStreamFactory> CONTENT_DECODERS = createLookupRegistry();
+
     private static final class PreemptiveAuthRequestInterceptor implements HttpRequestInterceptor {
         @Override
         public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
@@ -308,9 +323,30 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
     private static final class JMeterDefaultHttpClientConnectionOperator extends DefaultHttpClientConnectionOperator {
 
+        /** Result of the sample connecting in current thread, to which resolution time is added */
+        private static final ThreadLocal<HTTPSampleResult> CONNECTING_SAMPLE = new ThreadLocal<>();
+
         public JMeterDefaultHttpClientConnectionOperator(Lookup<ConnectionSocketFactory> socketFactoryRegistry, SchemePortResolver schemePortResolver,
                 DnsResolver dnsResolver) {
-            super(socketFactoryRegistry, schemePortResolver, dnsResolver);
+            super(socketFactoryRegistry, schemePortResolver, timed(dnsResolver));
+        }
+
+        /**
+         * @param dnsResolver {@link DnsResolver} to wrap
+         * @return {@link DnsResolver} recording the resolution time in the connecting sample
+         */
+        private static DnsResolver timed(DnsResolver dnsResolver) {
+            return host -> {
+                long start = System.nanoTime();
+                try {
+                    return dnsResolver.resolve(host);
+                } finally {
+                    HTTPSampleResult sample = CONNECTING_SAMPLE.get();
+                    if (sample != null) {
+                        sample.addDnsResolutionTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                }
+            };
         }
 
         /* (non-Javadoc)
@@ -322,11 +358,15 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
         @Override
         public void connect(ManagedHttpClientConnection conn, HttpHost host, InetSocketAddress localAddress,
                 int connectTimeout, SocketConfig socketConfig, HttpContext context) throws IOException {
+            SampleResult sample =
+                    (SampleResult)context.getAttribute(HTTPHC4Impl.CONTEXT_ATTRIBUTE_SAMPLER_RESULT);
+            if (sample instanceof HTTPSampleResult) {
+                CONNECTING_SAMPLE.set((HTTPSampleResult) sample);
+            }
             try {
                 super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
             } finally {
-                SampleResult sample =
-                        (SampleResult)context.getAttribute(HTTPHC4Impl.CONTEXT_ATTRIBUTE_SAMPLER_RESULT);
+                CONNECTING_SAMPLE.remove();
                 if (sample != null) {
                     sample.connectEnd();
                 }
@@ -399,10 +439,14 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
      * that HC core {@link ResponseContentEncoding} removes after uncompressing
      * See Bug 59401
      */
-    private static final HttpResponseInterceptor RESPONSE_CONTENT_ENCODING = new ResponseContentEncoding(createLookupRegistry()) {
+    private static final HttpResponseInterceptor RESPONSE_CONTENT_ENCODING = new ResponseContentEncoding(CONTENT_DECODERS) {
         @Override
         public void process(HttpResponse response, HttpContext context)
                 throws HttpException, IOException {
+            if (Boolean.TRUE.equals(context.getAttribute(CONTEXT_ATTRIBUTE_LAZY_DECOMPRESSION))) {
+                // body will be uncompressed by LazyContentDecoder if needed
+                return;
+            }
             ArrayList<Header[]> headersToSave = null;
 
             final HttpEntity entity = response.getEntity();
@@ -527,6 +571,9 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
         HttpContext localContext = new BasicHttpContext();
         HttpClientContext clientContext = HttpClientContext.adapt(localContext);
         clientContext.setAttribute(CONTEXT_ATTRIBUTE_AUTH_MANAGER, getAuthManager());
+        // MD5 must be computed on uncompressed data, so lazy mode does not apply
+        final boolean lazyDecompression = LAZY_DECOMPRESSION && !useMD5();
+        clientContext.setAttribute(CONTEXT_ATTRIBUTE_LAZY_DECOMPRESSION, Boolean.valueOf(lazyDecompression));
         HttpClientKey key = createHttpClientKey(url);
         MutableTriple<CloseableHttpClient, AuthState, PoolingHttpClientConnectionManager> triple;
         try {
@@ -585,7 +632,13 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
             }
             HttpEntity entity = httpResponse.getEntity();
             if (entity != null) {
-                res.setResponseData(readResponse(res, entity.getContent(), entity.getContentLength()));
+                byte[] responseData = readResponse(res, entity.getContent(), entity.getContentLength());
+                if (lazyDecompression) {
+                    res.setResponseData(responseData,
+                            LazyContentDecoder.forContentEncoding(entity.getContentEncoding(), CONTENT_DECODERS));
+                } else {
+                    res.setResponseData(responseData);
+                }
             }
 
             res.sampleEnd(); // Done with the sampling proper.
@@ -1120,7 +1173,8 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
      * Reset SSL State. <br/>
      * In order to do that we need to:
      * <ul>
-     *  <li>Call resetContext() on SSLManager</li>
+     *  <li>Call resetContextOnIteration() on SSLManager, which resets SSL sessions
+     *  according to https.sessioncontext.full_handshake_iterations</li>
      *  <li>Close current Idle or Expired connections that hold SSL State</li>
      *  <li>Remove HttpClientContext.USER_TOKEN from {@link HttpClientContext}</li>
      * </ul>
@@ -1141,7 +1195,7 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
                 triple.setMiddle(null);
             }
             jMeterVariables.remove(JMETER_VARIABLE_USER_TOKEN);
-            ((JsseSSLManager) SSLManager.getInstance()).resetContext();
+            ((JsseSSLManager) SSLManager.getInstance()).resetContextOnIteration();
             resetStateOnThreadGroupIteration.set(Boolean.FALSE);
         }
     }
@@ -1419,11 +1473,24 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
             if (hideFileData) {
                 out.write("<actual file content, not shown here>".getBytes());// encoding does not really matter here
             } else {
-                super.writeTo(out);
+                UploadFileCache.writeTo(getFile(), out);
             }
         }
     }
 
+    // File body of a request, read through the upload cache
+    private static class UploadFileEntity extends FileEntity {
+
+        public UploadFileEntity(File file, ContentType contentType) {
+            super(file, contentType);
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            UploadFileCache.writeTo(file, out);
+        }
+    }
+
     /**
      * @param entityEnclosingRequest {@link HttpEntityEnclosingRequestBase}
      * @return String body sent if computable
@@ -1507,7 +1574,7 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
                         entityEnclosingRequest.setHeader(HTTPConstants.HEADER_CONTENT_TYPE, HTTPConstants.APPLICATION_X_WWW_FORM_URLENCODED);
                     }
                 }
-                FileEntity fileRequestEntity = new FileEntity(FileServer.getFileServer().getResolvedFile(file.getPath()), (ContentType) null);
+                FileEntity fileRequestEntity = new UploadFileEntity(FileServer.getFileServer().getResolvedFile(file.getPath()), null);
                 entityEnclosingRequest.setEntity(fileRequestEntity);
 
                 // We just add placeholder text for file content
@@ -1636,7 +1703,7 @@ public class HTTPHC4Impl extends HTTPHCAbstractImpl {
 
             // If getSendFileAsPostBody returned true, it's sure that file is not null
             File reservedFile = FileServer.getFileServer().getResolvedFile(files[0].getPath());
-            FileEntity fileRequestEntity = new FileEntity(reservedFile); // no need for content-type here
+            FileEntity fileRequestEntity = new UploadFileEntity(reservedFile, null); // no need for content-type here
             entity.setEntity(fileRequestEntity);
         }
         // If none of the arguments have a name specified, we
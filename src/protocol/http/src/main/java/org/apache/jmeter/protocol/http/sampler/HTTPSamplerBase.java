@@ -57,6 +57,7 @@ import org.apache.jmeter.protocol.http.control.CookieManager;
 import org.apache.jmeter.protocol.http.control.DNSCacheManager;
 import org.apache.jmeter.protocol.http.control.HeaderManager;
 import org.apache.jmeter.protocol.http.parser.BaseParser;
+import org.apache.jmeter.protocol.http.parser.HTMLParser;
 import org.apache.jmeter.protocol.http.parser.LinkExtractorParseException;
 import org.apache.jmeter.protocol.http.parser.LinkExtractorParser;
 import org.apache.jmeter.protocol.http.sampler.ResourcesDownloader.AsynSamplerResultHolder;
@@ -317,6 +318,10 @@ public abstract class HTTPSamplerBase extends AbstractSampler
     private static final boolean SEPARATE_CONTAINER =
             JMeterUtils.getPropDefault("httpsampler.separate.container", true); // $NON-NLS-1$
 
+    /** Whether to reuse the encoded constant parts of the request from one sample to the next */
+    private static final boolean USE_REQUEST_TEMPLATE =
+            JMeterUtils.getPropDefault("httpsampler.request_template", true); // $NON-NLS-1$
+
     static {
         String[] parsers = JOrphanUtils.split(RESPONSE_PARSERS, " " , true);// returns empty array for null
         for (final String parser : parsers) {
@@ -339,6 +344,9 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         }
     }
 
+    /** Encoded parts of the request reused across samples, see {@link #USE_REQUEST_TEMPLATE} */
+    private transient RequestTemplate requestTemplate;
+
     ////////////////////// Code ///////////////////////////
 
     public HTTPSamplerBase() {
@@ -1066,7 +1074,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         // Hack to allow entire URL to be provided in host field
         if (path.startsWith(HTTP_PREFIX)
                 || path.startsWith(HTTPS_PREFIX)) {
-            return new URL(path);
+            return USE_REQUEST_TEMPLATE ? getRequestTemplate().getUrl(path) : new URL(path);
         }
         String domain = getDomain();
         String protocol = getProtocol();
@@ -1101,9 +1109,20 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         }
         // If default port for protocol is used, we do not include port in URL
         if (isProtocolDefaultPort()) {
-            return new URL(protocol, domain, pathAndQuery.toString());
+            return USE_REQUEST_TEMPLATE
+                    ? getRequestTemplate().getUrl(protocol, domain, -1, pathAndQuery.toString())
+                    : new URL(protocol, domain, pathAndQuery.toString());
+        }
+        return USE_REQUEST_TEMPLATE
+                ? getRequestTemplate().getUrl(protocol, domain, getPort(), pathAndQuery.toString())
+                : new URL(protocol, domain, getPort(), pathAndQuery.toString());
+    }
+
+    private RequestTemplate getRequestTemplate() {
+        if (requestTemplate == null) {
+            requestTemplate = new RequestTemplate();
         }
-        return new URL(protocol, domain, getPort(), pathAndQuery.toString());
+        return requestTemplate;
     }
 
     /**
@@ -1141,6 +1160,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         StringBuilder buf = new StringBuilder(arguments.size() * 15);
         PropertyIterator iter = arguments.iterator();
         boolean first = true;
+        int index = 0;
         while (iter.hasNext()) {
             HTTPArgument item = null;
             /*
@@ -1156,8 +1176,11 @@ public abstract class HTTPSamplerBase extends AbstractSampler
                 log.warn("Unexpected argument type: {} cannot be cast to HTTPArgument", objectValue.getClass().getName());
                 item = new HTTPArgument((Argument) objectValue);
             }
-            final String encodedName = item.getEncodedName();
-            if (encodedName.isEmpty()) {
+            // Encode the parameter value in the specified content encoding
+            final String fragment = USE_REQUEST_TEMPLATE
+                    ? getRequestTemplate().getQueryFragment(index++, item, lContentEncoding)
+                    : RequestTemplate.encode(item, lContentEncoding);
+            if (fragment.isEmpty()) {
                 continue; // Skip parameters with a blank name (allows use of optional variables in parameter lists)
             }
             if (!first) {
@@ -1165,19 +1188,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
             } else {
                 first = false;
             }
-            buf.append(encodedName);
-            if (item.getMetaData() == null) {
-                buf.append(ARG_VAL_SEP);
-            } else {
-                buf.append(item.getMetaData());
-            }
-
-            // Encode the parameter value in the specified content encoding
-            try {
-                buf.append(item.getEncodedValue(lContentEncoding));
-            } catch(UnsupportedEncodingException e) { // NOSONAR
-                log.warn("Unable to encode parameter in encoding {}, parameter value not included in query string", lContentEncoding );
-            }
+            buf.append(fragment);
         }
         return buf.toString();
     }
@@ -1565,6 +1576,9 @@ public abstract class HTTPSamplerBase extends AbstractSampler
         if (isConcurrentDwn()) {
             ResourcesDownloader.getInstance().shrink();
         }
+        if (isImageParser()) {
+            HTMLParser.logCacheStatistics();
+        }
     }
 
     /**
@@ -1580,6 +1594,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
      */
     @Override
     public void testStarted() {
+        DNSCacheManager.addPlanHost(getDomain());
     }
 
     /**
@@ -2091,7 +2106,7 @@ public abstract class HTTPSamplerBase extends AbstractSampler
      * Callable class to sample asynchronously resources embedded
      *
      */
-    private static class ASyncSample implements Callable<AsynSamplerResultHolder> {
+    private static class ASyncSample implements Callable<AsynSamplerResultHolder>, ResourcesDownloader.HostTask {
         private final URL url;
         private final String method;
         private final boolean areFollowingRedirect;
@@ -2120,6 +2135,13 @@ public abstract class HTTPSamplerBase extends AbstractSampler
             this.jmeterContextOfParentThread = JMeterContextService.getContext();
         }
 
+        @Override
+        public String getHost() {
+            // the same host is reached with an implicit or an explicit default port
+            int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+            return url.getHost() + ":" + port; // $NON-NLS-1$
+        }
+
         @Override
         public AsynSamplerResultHolder call() {
             JMeterContextService.replaceContext(jmeterContextOfParentThread);
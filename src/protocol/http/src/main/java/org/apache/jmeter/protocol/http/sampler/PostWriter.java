@@ -18,12 +18,9 @@
 
 package org.apache.jmeter.protocol.http.sampler;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLConnection;
@@ -34,7 +31,6 @@ import org.apache.jmeter.protocol.http.util.HTTPConstants;
 import org.apache.jmeter.protocol.http.util.HTTPFileArg;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.property.JMeterProperty;
-import org.apache.jorphan.util.JOrphanUtils;
 
 /**
  * Class for setting the necessary headers for a POST request, and sending the
@@ -407,28 +403,7 @@ public class PostWriter {
      * @throws IOException
      */
     private static void writeFileToStream(String filename, OutputStream out) throws IOException {
-        byte[] buf = new byte[1024];
-        // 1k - the previous 100k made no sense (there's tons of buffers
-        // elsewhere in the chain) and it caused OOM when many concurrent
-        // uploads were being done. Could be fixed by increasing the evacuation
-        // ratio in bin/jmeter[.bat], but this is better.
-        InputStream in = new BufferedInputStream(new FileInputStream(filename));
-        int read;
-        boolean noException = false;
-        try {
-            while ((read = in.read(buf)) > 0) {
-                out.write(buf, 0, read);
-            }
-            noException = true;
-        }
-        finally {
-            if(!noException) {
-                // Exception in progress
-                JOrphanUtils.closeQuietly(in);
-            } else {
-                in.close();
-            }
-        }
+        UploadFileCache.writeTo(new File(filename), out);
     }
 
     /**
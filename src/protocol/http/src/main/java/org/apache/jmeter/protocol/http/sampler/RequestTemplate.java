@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.jmeter.config.Argument;
+import org.apache.jmeter.protocol.http.util.HTTPArgument;
+import org.apache.jmeter.testelement.property.FunctionProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encoded parts of the request of a {@link HTTPSamplerBase}, reused from one sample to the next.
+ * <p>
+ * Arguments whose name and value are constant are encoded once, arguments containing
+ * functions or variables are encoded on each sample. As config elements and pre-processors
+ * may change the sampler, the raw values of constant parts are compared with the ones
+ * they were encoded from before being reused, which is cheap as they usually are the same instances.
+ * </p>
+ * Not thread safe, each {@link HTTPSamplerBase} clone has its own instance.
+ */
+final class RequestTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTemplate.class);
+
+    private static final String ARG_VAL_SEP = "="; // $NON-NLS-1$
+
+    /**
+     * Encoded query string fragment of a constant argument, with the values it was computed from
+     */
+    private static final class Segment {
+        private String name;
+        private String value;
+        private String metaData;
+        private boolean alwaysEncoded;
+        private String contentEncoding;
+        private String fragment;
+
+        boolean matches(String name, String value, String metaData, boolean alwaysEncoded, String contentEncoding) {
+            return fragment != null
+                    && this.alwaysEncoded == alwaysEncoded
+                    && Objects.equals(this.name, name)
+                    && Objects.equals(this.value, value)
+                    && Objects.equals(this.metaData, metaData)
+                    && Objects.equals(this.contentEncoding, contentEncoding);
+        }
+    }
+
+    private Segment[] segments = new Segment[0];
+
+    // URL built on last call and its parts, protocol is null if URL was built from a full URL
+    private String urlProtocol;
+    private String urlHost;
+    private int urlPort;
+    private String urlFile;
+    private URL url;
+
+    /**
+     * Returns the encoded <code>name=value</code> fragment of an argument of the query string
+     *
+     * @param index           index of the argument in the arguments of the sampler
+     * @param argument        {@link HTTPArgument} to encode
+     * @param contentEncoding encoding of the value
+     * @return the encoded fragment, empty if the encoded name is empty
+     */
+    String getQueryFragment(int index, HTTPArgument argument, String contentEncoding) {
+        if (isDynamic(argument)) {
+            return encode(argument, contentEncoding);
+        }
+        if (index >= segments.length) {
+            segments = Arrays.copyOf(segments, index + 1);
+        }
+        Segment segment = segments[index];
+        if (segment == null) {
+            segment = new Segment();
+            segments[index] = segment;
+        }
+        String name = argument.getName();
+        String value = argument.getValue();
+        String metaData = argument.getMetaData();
+        boolean alwaysEncoded = argument.isAlwaysEncoded();
+        if (!segment.matches(name, value, metaData, alwaysEncoded, contentEncoding)) {
+            segment.name = name;
+            segment.value = value;
+            segment.metaData = metaData;
+            segment.alwaysEncoded = alwaysEncoded;
+            segment.contentEncoding = contentEncoding;
+            segment.fragment = encode(argument, contentEncoding);
+        }
+        return segment.fragment;
+    }
+
+    /**
+     * @param argument {@link HTTPArgument}
+     * @return true if name, value or metadata of argument are computed on each read
+     */
+    private static boolean isDynamic(HTTPArgument argument) {
+        return argument.getProperty(Argument.ARG_NAME) instanceof FunctionProperty
+                || argument.getProperty(Argument.VALUE) instanceof FunctionProperty
+                || argument.getProperty(Argument.METADATA) instanceof FunctionProperty;
+    }
+
+    /**
+     * Encodes an argument, reading each of its parts only once
+     *
+     * @param argument        {@link HTTPArgument} to encode
+     * @param contentEncoding encoding of the value
+     * @return the encoded fragment, empty if the encoded name is empty
+     */
+    static String encode(HTTPArgument argument, String contentEncoding) {
+        final String encodedName = argument.getEncodedName();
+        if (encodedName.isEmpty()) {
+            return encodedName;
+        }
+        StringBuilder buf = new StringBuilder(encodedName.length() + 16);
+        buf.append(encodedName);
+        if (argument.getMetaData() == null) {
+            buf.append(ARG_VAL_SEP);
+        } else {
+            buf.append(argument.getMetaData());
+        }
+        // Encode the parameter value in the specified content encoding
+        try {
+            buf.append(argument.getEncodedValue(contentEncoding));
+        } catch (UnsupportedEncodingException e) { // NOSONAR
+            log.warn("Unable to encode parameter in encoding {}, parameter value not included in query string", contentEncoding);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns the URL built on last call if its parts did not change
+     *
+     * @param protocol protocol of the URL
+     * @param host     host of the URL, may be null
+     * @param port     port of the URL, -1 for the default port of protocol
+     * @param file     path and query string of the URL
+     * @return the {@link URL}
+     * @throws MalformedURLException if url is malformed
+     */
+    URL getUrl(String protocol, String host, int port, String file) throws MalformedURLException {
+        if (url == null || port != urlPort || !protocol.equals(urlProtocol)
+                || !Objects.equals(host, urlHost) || !file.equals(urlFile)) {
+            url = port == -1 ? new URL(protocol, host, file) : new URL(protocol, host, port, file);
+            urlProtocol = protocol;
+            urlHost = host;
+            urlPort = port;
+            urlFile = file;
+        }
+        return url;
+    }
+
+    /**
+     * Returns the URL built on last call if spec did not change
+     *
+     * @param spec full URL
+     * @return the {@link URL}
+     * @throws MalformedURLException if url is malformed
+     */
+    URL getUrl(String spec) throws MalformedURLException {
+        if (url == null || urlProtocol != null || !spec.equals(urlFile)) {
+            url = new URL(spec);
+            urlProtocol = null;
+            urlHost = null;
+            urlPort = -1;
+            urlFile = spec;
+        }
+        return url;
+    }
+}
@@ -19,11 +19,18 @@
 package org.apache.jmeter.protocol.http.sampler;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -57,6 +64,13 @@ import org.slf4j.LoggerFactory;
  * The status of those futures are either done or cancelled<br>
  * <br>
  *
+ * The pool is unbounded by default, <code>httpsampler.parallel_download.max_threads</code>
+ * bounds it, in which case downloads of all the samplers are queued, and the
+ * resources of frames downloaded by the pool are downloaded by the pool thread itself.
+ * <code>httpsampler.parallel_download.max_per_host</code> limits the parallel downloads
+ * of a sampler to the same host, as browsers do.<br>
+ * <br>
+ *
  *  Future enhancements :
  *  <ul>
  *  <li>this implementation should be replaced with a NIO async download
@@ -71,8 +85,24 @@ public class ResourcesDownloader {
     /** this is the maximum time that excess idle threads will wait for new tasks before terminating */
     private static final long THREAD_KEEP_ALIVE_TIME = JMeterUtils.getPropDefault("httpsampler.parallel_download_thread_keepalive_inseconds", 60L);
 
+    /** Max number of threads of the pool shared by all samplers, 0 for no limit */
+    private static final int MAX_THREADS = JMeterUtils.getPropDefault("httpsampler.parallel_download.max_threads", 0); // $NON-NLS-1$
+
+    /** Max parallel downloads of a sampler to the same host, 0 for no limit */
+    private static final int MAX_PER_HOST = JMeterUtils.getPropDefault("httpsampler.parallel_download.max_per_host", 0); // $NON-NLS-1$
+
     private static final int MIN_POOL_SIZE = 1;
-    private static final int MAX_POOL_SIZE = Integer.MAX_VALUE;
+    private static final int MAX_POOL_SIZE = MAX_THREADS > 0 ? MAX_THREADS : Integer.MAX_VALUE;
+
+    /**
+     * Task downloading from a host
+     */
+    interface HostTask {
+        /**
+         * @return host and port the task downloads from, null if unknown
+         */
+        String getHost();
+    }
 
     private static final ResourcesDownloader INSTANCE = new ResourcesDownloader();
 
@@ -90,17 +120,36 @@ public class ResourcesDownloader {
 
     private void init() {
         LOG.info("Creating ResourcesDownloader with keepalive_inseconds : {}", THREAD_KEEP_ALIVE_TIME);
-        concurrentExecutor = new ThreadPoolExecutor(
-                MIN_POOL_SIZE, MAX_POOL_SIZE, THREAD_KEEP_ALIVE_TIME, TimeUnit.SECONDS,
-                new SynchronousQueue<>(),
-                r -> {
-                    Thread t = new Thread(r);
-                    t.setName("ResDownload-" + t.getName()); //$NON-NLS-1$
-                    t.setDaemon(true);
-                    return t;
-                }) {
-
-        };
+        if (MAX_THREADS > 0) {
+            LOG.info("ResourcesDownloader is bounded to {} threads", MAX_THREADS);
+            // Tasks are queued once all the threads are busy, idle threads are released after keepalive
+            concurrentExecutor = new ThreadPoolExecutor(
+                    MAX_THREADS, MAX_THREADS, THREAD_KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    ResourcesDownloader::newThread);
+            concurrentExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            concurrentExecutor = new ThreadPoolExecutor(
+                    MIN_POOL_SIZE, MAX_POOL_SIZE, THREAD_KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    ResourcesDownloader::newThread);
+        }
+    }
+
+    /**
+     * Thread of the pool
+     */
+    private static final class DownloadThread extends Thread {
+        DownloadThread(Runnable r) {
+            super(r);
+        }
+    }
+
+    private static Thread newThread(Runnable r) {
+        Thread t = new DownloadThread(r);
+        t.setName("ResDownload-" + t.getName()); //$NON-NLS-1$
+        t.setDaemon(true);
+        return t;
     }
 
     /**
@@ -108,6 +157,10 @@ public class ResourcesDownloader {
      * it should be called at the end of a test
      */
     public void shrink() {
+        if (MAX_THREADS > 0) {
+            // threads of a bounded pool are released with the keepAliveTime
+            return;
+        }
         if(concurrentExecutor.getPoolSize() > MIN_POOL_SIZE) {
             // drain the queue
             concurrentExecutor.purge();
@@ -154,8 +207,16 @@ public class ResourcesDownloader {
             return submittedTasks;
         }
 
+        if (MAX_THREADS > 0 && Thread.currentThread() instanceof DownloadThread) {
+            // resources of a frame: queuing them in the bounded pool could block all its threads
+            // on tasks which wait for a free thread
+            return runInCallerThread(list);
+        }
+
         // restore MaximumPoolSize original value
-        concurrentExecutor.setMaximumPoolSize(MAX_POOL_SIZE);
+        if (MAX_THREADS <= 0) {
+            concurrentExecutor.setMaximumPoolSize(MAX_POOL_SIZE);
+        }
 
         if(LOG.isDebugEnabled()) {
             LOG.debug("PoolSize={} LargestPoolSize={}", concurrentExecutor.getPoolSize(), concurrentExecutor.getLargestPoolSize());
@@ -165,20 +226,25 @@ public class ResourcesDownloader {
         int remainingTasksToTake = list.size();
 
         try {
-            // push the task in the threadpool until <maxConcurrentDownloads> is reached
-            int i = 0;
-            for (i = 0; i < Math.min(maxConcurrentDownloads, list.size()); i++) {
-                Callable<AsynSamplerResultHolder> task = list.get(i);
-                submittedTasks.add(completionService.submit(task));
-            }
+            if (MAX_PER_HOST > 0) {
+                remainingTasksToTake = submitLimitedPerHost(maxConcurrentDownloads, MAX_PER_HOST, list,
+                        completionService, submittedTasks);
+            } else {
+                // push the task in the threadpool until <maxConcurrentDownloads> is reached
+                int i = 0;
+                for (i = 0; i < Math.min(maxConcurrentDownloads, list.size()); i++) {
+                    Callable<AsynSamplerResultHolder> task = list.get(i);
+                    submittedTasks.add(completionService.submit(task));
+                }
 
-            // push the remaining tasks but ensure we use at most <maxConcurrentDownloads> threads
-            // wait for a previous download to finish before submitting a new one
-            for (; i < list.size(); i++) {
-                Callable<AsynSamplerResultHolder> task = list.get(i);
-                completionService.take();
-                remainingTasksToTake--;
-                submittedTasks.add(completionService.submit(task));
+                // push the remaining tasks but ensure we use at most <maxConcurrentDownloads> threads
+                // wait for a previous download to finish before submitting a new one
+                for (; i < list.size(); i++) {
+                    Callable<AsynSamplerResultHolder> task = list.get(i);
+                    completionService.take();
+                    remainingTasksToTake--;
+                    submittedTasks.add(completionService.submit(task));
+                }
             }
 
             // all the resources downloads are in the thread pool queue
@@ -203,6 +269,71 @@ public class ResourcesDownloader {
         return submittedTasks;
     }
 
+    /**
+     * Runs the tasks one after the other in the current thread
+     *
+     * @param list list of resources to download
+     * @return list of the tasks that have been run
+     * @throws InterruptedException when interrupted before all the tasks have run
+     */
+    private static List<Future<AsynSamplerResultHolder>> runInCallerThread(
+            List<Callable<AsynSamplerResultHolder>> list) throws InterruptedException {
+        List<Future<AsynSamplerResultHolder>> tasks = new ArrayList<>(list.size());
+        for (Callable<AsynSamplerResultHolder> callable : list) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            FutureTask<AsynSamplerResultHolder> task = new FutureTask<>(callable);
+            task.run();
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Submits all the tasks, running at most <code>maxConcurrentDownloads</code> tasks
+     * and at most <code>maxPerHost</code> tasks per host at the same time.
+     * Tasks are submitted in order, except that tasks of a host at its limit are
+     * overtaken by tasks of other hosts.
+     *
+     * @return number of submitted tasks not taken from completionService yet
+     */
+    static int submitLimitedPerHost(int maxConcurrentDownloads, int maxPerHost, List<Callable<AsynSamplerResultHolder>> list,
+            CompletionService<AsynSamplerResultHolder> completionService,
+            List<Future<AsynSamplerResultHolder>> submittedTasks) throws InterruptedException {
+        List<Callable<AsynSamplerResultHolder>> pending = new LinkedList<>(list);
+        Map<String, Integer> runningPerHost = new HashMap<>();
+        Map<Future<AsynSamplerResultHolder>, String> hostOfTask = new IdentityHashMap<>();
+        int running = 0;
+        while (!pending.isEmpty()) {
+            Iterator<Callable<AsynSamplerResultHolder>> iter = pending.iterator();
+            while (running < maxConcurrentDownloads && iter.hasNext()) {
+                Callable<AsynSamplerResultHolder> task = iter.next();
+                String host = task instanceof HostTask ? ((HostTask) task).getHost() : null;
+                int runningOnHost = host == null ? 0 : runningPerHost.getOrDefault(host, 0);
+                if (runningOnHost < maxPerHost) {
+                    iter.remove();
+                    Future<AsynSamplerResultHolder> future = completionService.submit(task);
+                    submittedTasks.add(future);
+                    running++;
+                    if (host != null) {
+                        runningPerHost.put(host, runningOnHost + 1);
+                        hostOfTask.put(future, host);
+                    }
+                }
+            }
+            if (!pending.isEmpty()) {
+                // wait for a previous download to finish before submitting a new one
+                String host = hostOfTask.remove(completionService.take());
+                running--;
+                if (host != null) {
+                    runningPerHost.merge(host, -1, Integer::sum);
+                }
+            }
+        }
+        return running;
+    }
+
 
     /**
      * Holder of AsynSampler result
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Content of the files uploaded by HTTP samplers, shared by all threads
+ * when <code>httpsampler.upload_cache</code> is true.
+ * <p>
+ * Small files are kept in memory, larger ones are memory-mapped, so that uploading
+ * the same file again neither reopens nor reads it. Entries are reloaded when the
+ * length or the modification time of the file changes. Both kinds are weighed by their
+ * length, files larger than the bound of the cache are read on each upload.
+ * </p>
+ */
+final class UploadFileCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadFileCache.class);
+
+    private static final boolean ENABLED =
+            JMeterUtils.getPropDefault("httpsampler.upload_cache", false); // $NON-NLS-1$
+
+    /** Max total size of the files kept in memory or memory-mapped */
+    private static final long MAX_BYTES =
+            JMeterUtils.getPropDefault("httpsampler.upload_cache.max_bytes", 64L * 1024 * 1024); // $NON-NLS-1$
+
+    /** Files larger than this are memory-mapped instead of being kept in memory */
+    private static final int MAX_FILE_SIZE =
+            JMeterUtils.getPropDefault("httpsampler.upload_cache.max_file_size", 1024 * 1024); // $NON-NLS-1$
+
+    private static class CacheHolder { // IODH idiom
+        private static final Cache<String, CachedFile> CACHE = Caffeine.newBuilder()
+                .maximumWeight(MAX_BYTES)
+                .weigher((String key, CachedFile value) -> value.getWeight())
+                .build();
+    }
+
+    private static final class CachedFile {
+        private final long length;
+        private final long lastModified;
+        /** Content of small files, null if mapped */
+        private final byte[] content;
+        /** Content of large files, null if in memory */
+        private final ByteBuffer mapped;
+
+        CachedFile(long length, long lastModified, byte[] content, ByteBuffer mapped) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.content = content;
+            this.mapped = mapped;
+        }
+
+        int getWeight() {
+            return content != null ? content.length : mapped.capacity();
+        }
+
+        boolean isStale(File file) {
+            return file.length() != length || file.lastModified() != lastModified;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            if (content != null) {
+                out.write(content);
+                return;
+            }
+            // not closed, as it would close out
+            WritableByteChannel channel = Channels.newChannel(out);
+            ByteBuffer buffer = mapped.duplicate();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private UploadFileCache() {
+    }
+
+    /**
+     * Writes the content of file to out, from the cache if it is enabled
+     *
+     * @param file file to write
+     * @param out  {@link OutputStream} to write to
+     * @throws IOException if file can not be read or out can not be written
+     */
+    static void writeTo(File file, OutputStream out) throws IOException {
+        if (ENABLED) {
+            writeCachedTo(file, out);
+        } else {
+            copy(file, out);
+        }
+    }
+
+    /**
+     * Writes the content of file to out from the cache, loading it if needed
+     *
+     * @param file file to write
+     * @param out  {@link OutputStream} to write to
+     * @throws IOException if file can not be read or out can not be written
+     */
+    static void writeCachedTo(File file, OutputStream out) throws IOException {
+        CachedFile cachedFile = getCachedFile(file);
+        if (cachedFile != null) {
+            cachedFile.writeTo(out);
+        } else {
+            copy(file, out);
+        }
+    }
+
+    private static CachedFile getCachedFile(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        CachedFile cachedFile = CacheHolder.CACHE.getIfPresent(key);
+        if (cachedFile == null || cachedFile.isStale(file)) {
+            cachedFile = load(file);
+            if (cachedFile == null) {
+                CacheHolder.CACHE.invalidate(key);
+            } else {
+                CacheHolder.CACHE.put(key, cachedFile);
+            }
+        }
+        return cachedFile;
+    }
+
+    /**
+     * @return the loaded file, or null if it is too large to be cached
+     */
+    private static CachedFile load(File file) throws IOException {
+        long lastModified = file.lastModified();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length <= MAX_FILE_SIZE) {
+                ByteBuffer content = ByteBuffer.allocate((int) length);
+                while (content.hasRemaining() && channel.read(content) >= 0) {
+                    // read until full or end of file
+                }
+                return new CachedFile(length, lastModified, Arrays.copyOf(content.array(), content.position()), null);
+            }
+            if (length > MAX_BYTES || length > Integer.MAX_VALUE) {
+                log.debug("Not caching {}, it is larger than the cache", file);
+                return null;
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new CachedFile(length, lastModified, null, mapped);
+        }
+    }
+
+    private static void copy(File file, OutputStream out) throws IOException {
+        byte[] buf = new byte[1024];
+        // 1k - larger buffers caused OOM when many concurrent uploads were being done
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            int read;
+            while ((read = in.read(buf)) > 0) {
+                out.write(buf, 0, read);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler.hc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.client.entity.InputStreamFactory;
+import org.apache.http.config.Lookup;
+import org.apache.jmeter.samplers.ResponseDataDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ResponseDataDecoder} that uncompresses a response body stored as received
+ * on the wire, using the codecs named in its <code>Content-Encoding</code> header.
+ * @since 5.2
+ */
+public final class LazyContentDecoder implements ResponseDataDecoder {
+    private static final Logger log = LoggerFactory.getLogger(LazyContentDecoder.class);
+
+    private static final String IDENTITY = "identity"; // $NON-NLS-1$
+
+    /**
+     * Codecs in decoding order, that is the reverse order of the Content-Encoding header
+     */
+    private final List<InputStreamFactory> decoders;
+
+    private LazyContentDecoder(List<InputStreamFactory> decoders) {
+        this.decoders = decoders;
+    }
+
+    /**
+     * @param contentEncoding Content-Encoding header of the response, may be null
+     * @param registry codecs supported, by lower case name
+     * @return {@link LazyContentDecoder} or null if body does not need decoding
+     *         or uses an unsupported coding
+     */
+    public static LazyContentDecoder forContentEncoding(Header contentEncoding, Lookup<InputStreamFactory> registry) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        HeaderElement[] codecs = contentEncoding.getElements();
+        List<InputStreamFactory> decoders = new ArrayList<>(codecs.length);
+        for (HeaderElement codec : codecs) {
+            String codecName = codec.getName().toLowerCase(Locale.ROOT);
+            if (IDENTITY.equals(codecName)) {
+                continue;
+            }
+            InputStreamFactory decoder = registry.lookup(codecName);
+            if (decoder == null) {
+                log.debug("Unsupported Content-Encoding: {}, response data will be kept as is", codecName);
+                return null;
+            }
+            decoders.add(decoder);
+        }
+        if (decoders.isEmpty()) {
+            return null;
+        }
+        Collections.reverse(decoders);
+        return new LazyContentDecoder(decoders);
+    }
+
+    @Override
+    public byte[] decode(byte[] rawData) throws IOException {
+        InputStream in = new ByteArrayInputStream(rawData);
+        for (InputStreamFactory decoder : decoders) {
+            in = decoder.create(in);
+        }
+        try (InputStream decoded = in) {
+            return IOUtils.toByteArray(decoded);
+        }
+    }
+}
@@ -21,6 +21,10 @@ package org.apache.jmeter.protocol.http.sampler.hc;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
 
 import org.apache.http.HttpHost;
 import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
@@ -28,9 +32,12 @@ import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLInitializationException;
 import org.apache.http.protocol.HttpContext;
+import org.apache.jmeter.protocol.http.sampler.HTTPHC4Impl;
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.util.HttpSSLProtocolSocketFactory;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jmeter.util.JsseSSLManager;
+import org.apache.jmeter.util.SSLManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,15 +68,51 @@ public final class LazyLayeredConnectionSocketFactory implements LayeredConnecti
          */
         private static LayeredConnectionSocketFactory checkAndInit() throws SSLInitializationException {
             LOG.info("Setting up HTTPS TrustAll Socket Factory");
-            return new SSLConnectionSocketFactory(
-                    new HttpSSLProtocolSocketFactory(JsseSSLManager.CPS),
+            return new HandshakeRecordingSSLConnectionSocketFactory();
+        }
+
+        static LayeredConnectionSocketFactory getINSTANCE() {
+            return ADAPTEE;
+        }
+    }
+
+    /**
+     * {@link SSLConnectionSocketFactory} that records the TLS handshakes in the {@link SampleResult}
+     * being sampled, and reports the sessions to {@link JsseSSLManager}
+     */
+    private static final class HandshakeRecordingSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
+
+        HandshakeRecordingSSLConnectionSocketFactory() {
+            super(new HttpSSLProtocolSocketFactory(JsseSSLManager.CPS),
                     SUPPORTED_PROTOCOL_LIST,
                     SUPPORTED_CIPHER_LIST,
                     NoopHostnameVerifier.INSTANCE);
         }
 
-        static LayeredConnectionSocketFactory getINSTANCE() {
-            return ADAPTEE;
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            long startMillis = System.currentTimeMillis();
+            long start = System.nanoTime();
+            Socket layeredSocket = super.createLayeredSocket(socket, target, port, context);
+            long handshakeTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (layeredSocket instanceof SSLSocket) {
+                SSLSession session = ((SSLSocket) layeredSocket).getSession();
+                // A resumed session was created by an earlier handshake.
+                // Approximate with TLS 1.3, which resumes sessions with tickets
+                boolean resumed = session.getCreationTime() < startMillis;
+                ((JsseSSLManager) SSLManager.getInstance()).sessionEstablished(session);
+                SampleResult sample = context == null ? null
+                        : (SampleResult) context.getAttribute(HTTPHC4Impl.CONTEXT_ATTRIBUTE_SAMPLER_RESULT);
+                if (sample != null) {
+                    sample.addTlsHandshake(handshakeTime, resumed);
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("TLS handshake with {}:{} took {} ms, session resumed: {}",
+                            target, Integer.valueOf(port), Long.valueOf(handshakeTime), Boolean.valueOf(resumed));
+                }
+            }
+            return layeredSocket;
         }
     }
 
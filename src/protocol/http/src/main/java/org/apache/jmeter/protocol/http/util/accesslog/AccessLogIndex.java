@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.util.accesslog;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact index of the requests of an access log, shared by the threads replaying it.
+ * <p>
+ * The log is memory-mapped (or uncompressed in memory if it is gzipped) and split in chunks
+ * that are parsed in parallel. For each non empty line, the index only keeps its position,
+ * the timestamp of the request and a hash of the session key (the client address, first field
+ * of the line). The lines themselves are decoded by the replaying threads when they need them.
+ * </p>
+ * Timestamps are read from the <code>[dd/MMM/yyyy:HH:mm:ss Z]</code> field of the common and
+ * combined log formats; lines without it get the timestamp of the previous line.
+ */
+final class AccessLogIndex {
+    private static final Logger log = LoggerFactory.getLogger(AccessLogIndex.class);
+
+    /** Max size of a mapped segment, segments end on a line boundary */
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final byte[] MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec".getBytes(StandardCharsets.US_ASCII); // $NON-NLS-1$
+
+    /** Length of <code>dd/MMM/yyyy:HH:mm:ss +hhmm</code> */
+    private static final int TIMESTAMP_LENGTH = 26;
+
+    private final long lastModified;
+    private final long fileLength;
+
+    private final ByteBuffer[] segments;
+    private final long[] segmentStarts;
+
+    private final long[] timestamps;
+    private final long[] lineStarts;
+    private final int[] lineLengths;
+    private final int[] sessionHashes;
+
+    /** Time at which replay started, shared by the threads */
+    private final AtomicLong replayStartNanos = new AtomicLong();
+
+    private int partitionCount;
+    private int[][] partitions;
+
+    /**
+     * Requests parsed from one chunk of a segment
+     */
+    private static final class Chunk {
+        private long[] timestamps = new long[1024];
+        private long[] lineStarts = new long[1024];
+        private int[] lineLengths = new int[1024];
+        private int[] sessionHashes = new int[1024];
+        private int size;
+
+        void add(long timestamp, long lineStart, int lineLength, int sessionHash) {
+            if (size == timestamps.length) {
+                int newLength = size * 2;
+                timestamps = Arrays.copyOf(timestamps, newLength);
+                lineStarts = Arrays.copyOf(lineStarts, newLength);
+                lineLengths = Arrays.copyOf(lineLengths, newLength);
+                sessionHashes = Arrays.copyOf(sessionHashes, newLength);
+            }
+            timestamps[size] = timestamp;
+            lineStarts[size] = lineStart;
+            lineLengths[size] = lineLength;
+            sessionHashes[size] = sessionHash;
+            size++;
+        }
+    }
+
+    private AccessLogIndex(File file, List<ByteBuffer> segmentList, List<Long> segmentStartList, List<Chunk> chunks) {
+        this.lastModified = file.lastModified();
+        this.fileLength = file.length();
+        this.segments = segmentList.toArray(new ByteBuffer[0]);
+        this.segmentStarts = new long[segmentStartList.size()];
+        for (int i = 0; i < segmentStarts.length; i++) {
+            segmentStarts[i] = segmentStartList.get(i).longValue();
+        }
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.size;
+        }
+        timestamps = new long[total];
+        lineStarts = new long[total];
+        lineLengths = new int[total];
+        sessionHashes = new int[total];
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.timestamps, 0, timestamps, offset, chunk.size);
+            System.arraycopy(chunk.lineStarts, 0, lineStarts, offset, chunk.size);
+            System.arraycopy(chunk.lineLengths, 0, lineLengths, offset, chunk.size);
+            System.arraycopy(chunk.sessionHashes, 0, sessionHashes, offset, chunk.size);
+            offset += chunk.size;
+        }
+        fillMissingTimestamps();
+    }
+
+    /**
+     * Builds the index of file
+     *
+     * @param file access log, may be gzipped
+     * @return {@link AccessLogIndex}
+     * @throws IOException when file can not be read
+     */
+    static AccessLogIndex build(File file) throws IOException {
+        long start = System.currentTimeMillis();
+        List<ByteBuffer> segmentList = new ArrayList<>();
+        List<Long> segmentStartList = new ArrayList<>();
+        if (isGZIP(file)) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+                segmentList.add(ByteBuffer.wrap(IOUtils.toByteArray(in)));
+                segmentStartList.add(Long.valueOf(0));
+            }
+        } else {
+            mapSegments(file, segmentList, segmentStartList);
+        }
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < segmentList.size(); i++) {
+            chunks.addAll(parseSegment(segmentList.get(i), segmentStartList.get(i).longValue()));
+        }
+        AccessLogIndex index = new AccessLogIndex(file, segmentList, segmentStartList, chunks);
+        if (log.isInfoEnabled()) {
+            log.info("Indexed {} requests of {} in {} ms", Integer.valueOf(index.size()), file,
+                    Long.valueOf(System.currentTimeMillis() - start));
+        }
+        return index;
+    }
+
+    private static boolean isGZIP(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            return in.read() == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+                && in.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+        }
+    }
+
+    private static void mapSegments(File file, List<ByteBuffer> segmentList, List<Long> segmentStartList)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long regionSize = Math.min(SEGMENT_SIZE, size - position);
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                int segmentSize = (int) regionSize;
+                if (position + regionSize < size) {
+                    // end the segment after its last complete line
+                    segmentSize = lastIndexOf(region, (byte) '\n') + 1;
+                    if (segmentSize == 0) {
+                        throw new IOException("Line longer than " + SEGMENT_SIZE + " bytes in " + file);
+                    }
+                    region.limit(segmentSize);
+                    region = region.slice();
+                }
+                segmentList.add(region);
+                segmentStartList.add(Long.valueOf(position));
+                position += segmentSize;
+            }
+        }
+    }
+
+    private static int lastIndexOf(ByteBuffer buffer, byte b) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Chunk> parseSegment(ByteBuffer segment, long segmentStart) {
+        int limit = segment.limit();
+        int chunkCount = Math.max(1, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+        int[] bounds = new int[chunkCount + 1];
+        bounds[chunkCount] = limit;
+        for (int i = 1; i < chunkCount; i++) {
+            int from = Math.max(bounds[i - 1], (int) ((long) limit * i / chunkCount));
+            int newLine = indexOf(segment, (byte) '\n', from, limit);
+            bounds[i] = newLine < 0 ? limit : newLine + 1;
+        }
+        return IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(i -> parseChunk(segment, segmentStart, bounds[i], bounds[i + 1]))
+                .collect(Collectors.toList());
+    }
+
+    private static Chunk parseChunk(ByteBuffer segment, long segmentStart, int from, int to) {
+        Chunk chunk = new Chunk();
+        int lineStart = from;
+        while (lineStart < to) {
+            int newLine = indexOf(segment, (byte) '\n', lineStart, to);
+            int lineEnd = newLine < 0 ? to : newLine;
+            int contentEnd = lineEnd > lineStart && segment.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                chunk.add(parseTimestamp(segment, lineStart, contentEnd),
+                        segmentStart + lineStart, contentEnd - lineStart,
+                        sessionHash(segment, lineStart, contentEnd));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * @return hash of the first field of the line, the client address
+     */
+    private static int sessionHash(ByteBuffer segment, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            byte b = segment.get(i);
+            if (b == ' ') {
+                break;
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * Parses <code>[dd/MMM/yyyy:HH:mm:ss Z]</code>
+     *
+     * @return epoch millis of the request, or {@link #NO_TIMESTAMP}
+     */
+    static long parseTimestamp(ByteBuffer line, int from, int to) {
+        int p = indexOf(line, (byte) '[', from, to) + 1;
+        if (p == 0 || p + TIMESTAMP_LENGTH > to) {
+            return NO_TIMESTAMP;
+        }
+        int day = digits(line, p, 2);
+        int month = month(line, p + 3);
+        int year = digits(line, p + 7, 4);
+        int hour = digits(line, p + 12, 2);
+        int minute = digits(line, p + 15, 2);
+        int second = digits(line, p + 18, 2);
+        byte sign = line.get(p + 21);
+        int offsetHours = digits(line, p + 22, 2);
+        int offsetMinutes = digits(line, p + 24, 2);
+        if (day < 0 || month < 0 || year < 0 || hour < 0 || minute < 0 || second < 0
+                || offsetHours < 0 || offsetMinutes < 0 || (sign != '+' && sign != '-')) {
+            return NO_TIMESTAMP;
+        }
+        long offsetSeconds = (offsetHours * 60L + offsetMinutes) * 60L;
+        long seconds = ((epochDay(year, month, day) * 24 + hour) * 60 + minute) * 60 + second
+                - (sign == '-' ? -offsetSeconds : offsetSeconds);
+        return seconds * 1000L;
+    }
+
+    private static int digits(ByteBuffer line, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = line.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return month from 1 to 12, or -1
+     */
+    private static int month(ByteBuffer line, int from) {
+        byte b0 = line.get(from);
+        byte b1 = line.get(from + 1);
+        byte b2 = line.get(from + 2);
+        for (int i = 0; i < MONTHS.length; i += 3) {
+            if (MONTHS[i] == b0 && MONTHS[i + 1] == b1 && MONTHS[i + 2] == b2) {
+                return i / 3 + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return days since 1970-01-01 of a date of the proleptic Gregorian calendar
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+
+    private void fillMissingTimestamps() {
+        long previous = 0;
+        for (long timestamp : timestamps) {
+            if (timestamp != NO_TIMESTAMP) {
+                previous = timestamp;
+                break;
+            }
+        }
+        for (int i = 0; i < timestamps.length; i++) {
+            if (timestamps[i] == NO_TIMESTAMP) {
+                timestamps[i] = previous;
+            } else {
+                previous = timestamps[i];
+            }
+        }
+    }
+
+    /**
+     * @param file access log
+     * @return true if file changed since this index was built
+     */
+    boolean isStale(File file) {
+        return file.lastModified() != lastModified || file.length() != fileLength;
+    }
+
+    /**
+     * @return number of requests
+     */
+    int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * @param request index of the request
+     * @return number of milliseconds between the first request and request
+     */
+    long getOffsetMillis(int request) {
+        return timestamps[request] - timestamps[0];
+    }
+
+    /**
+     * @return number of milliseconds between the first and the last requests
+     */
+    long getDurationMillis() {
+        return timestamps.length == 0 ? 0 : timestamps[timestamps.length - 1] - timestamps[0];
+    }
+
+    /**
+     * @return time at which the first thread started the replay, in {@link System#nanoTime()} units
+     */
+    long getReplayStartNanos() {
+        long startNanos = replayStartNanos.get();
+        if (startNanos == 0) {
+            replayStartNanos.compareAndSet(0, System.nanoTime());
+            startNanos = replayStartNanos.get();
+        }
+        return startNanos;
+    }
+
+    /**
+     * @param request index of the request
+     * @return the line of the request
+     */
+    String getLine(int request) {
+        long lineStart = lineStarts[request];
+        int segment = Arrays.binarySearch(segmentStarts, lineStart);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        ByteBuffer buffer = segments[segment].duplicate();
+        buffer.position((int) (lineStart - segmentStarts[segment]));
+        byte[] bytes = new byte[lineLengths[request]];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits the requests by session key, so that all the requests of a session
+     * are replayed by the same thread, in log order
+     *
+     * @param count number of partitions
+     * @param part  index of the partition, from 0 to count - 1
+     * @return indexes of the requests of the partition
+     */
+    synchronized int[] getPartition(int count, int part) {
+        if (partitions == null || partitionCount != count) {
+            int[] sizes = new int[count];
+            for (int sessionHash : sessionHashes) {
+                sizes[Math.floorMod(sessionHash, count)]++;
+            }
+            int[][] newPartitions = new int[count][];
+            for (int i = 0; i < count; i++) {
+                newPartitions[i] = new int[sizes[i]];
+            }
+            int[] positions = new int[count];
+            for (int i = 0; i < sessionHashes.length; i++) {
+                int p = Math.floorMod(sessionHashes[i], count);
+                newPartitions[p][positions[p]++] = i;
+            }
+            partitions = newPartitions;
+            partitionCount = count;
+        }
+        return partitions[part];
+    }
+}
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 
 import org.apache.jmeter.testelement.TestElement;
 import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.util.RegexService;
 import org.apache.oro.text.MalformedCachePatternException;
 import org.apache.oro.text.regex.Pattern;
 import org.apache.oro.text.regex.Perl5Compiler;
@@ -413,7 +414,7 @@ public class LogFilter implements Filter, Serializable {
      */
     public Pattern createPattern(String pattern) {
         try {
-            return JMeterUtils.getPatternCache().getPattern(pattern,
+            return RegexService.getPatternCache().getPattern(pattern,
                     Perl5Compiler.READ_ONLY_MASK | Perl5Compiler.SINGLELINE_MASK);
         } catch (MalformedCachePatternException exception) {
             log.error("Problem with pattern: "+pattern,exception);
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.util.accesslog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.testelement.TestCloneable;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.threads.AbstractThreadGroup;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.util.JMeterUtils;
+
+/**
+ * Parser replaying an access log at the pace of its timestamps.
+ * <p>
+ * The log is indexed once for all the threads by {@link AccessLogIndex}: it is memory-mapped
+ * and parsed in parallel. Requests are spread across the threads of the Thread Group
+ * by client address, so that each session is replayed in order by one thread.
+ * Each request is issued when the time elapsed since the start of the replay,
+ * multiplied by <code>accesslog.replay.speed</code>, reaches its offset in the log.
+ * </p>
+ * Lines are then parsed as with {@link TCLogParser}, including the {@link Filter} if any.
+ * When the end of the log is reached, the next call replays it again, after its duration.
+ */
+public class ReplayLogParser extends TCLogParser implements TestCloneable {
+
+    /** Replay speed, 2 replays twice faster than the log, 0 disables pacing */
+    private static final float SPEED = JMeterUtils.getPropDefault("accesslog.replay.speed", 1.0f); // $NON-NLS-1$
+
+    /** Indexes by absolute file path */
+    private static final Map<String, AccessLogIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private AccessLogIndex index;
+
+    /** Requests replayed by this thread */
+    private int[] requests;
+
+    private int cursor;
+
+    /** Time shift of the current replay of the log, incremented on each new replay */
+    private long loopOffsetNanos;
+
+    public ReplayLogParser() {
+        super();
+    }
+
+    public ReplayLogParser(String source) {
+        super(source);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object clone() {
+        ReplayLogParser parser = new ReplayLogParser();
+        parser.FILENAME = FILENAME;
+        parser.FILTER = FILTER;
+        parser.decode = decode;
+        return parser;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int parse(TestElement el, int parseCount) {
+        try {
+            if (requests == null) {
+                index = getIndex(FILENAME);
+                requests = selectRequests(index);
+            }
+            int actualCount = 0;
+            while ((parseCount == -1 || actualCount < parseCount) && cursor < requests.length) {
+                int request = requests[cursor++];
+                waitForOffset(request);
+                actualCount += parseLine(index.getLine(request), el);
+            }
+            if (cursor >= requests.length) {
+                // next call replays the log again
+                cursor = 0;
+                if (SPEED > 0) {
+                    loopOffsetNanos += (long) (TimeUnit.MILLISECONDS.toNanos(index.getDurationMillis()) / SPEED);
+                }
+            }
+            return actualCount;
+        } catch (Exception exception) {
+            log.error("Problem creating samples", exception);
+        }
+        return -1;// indicate that an error occurred
+    }
+
+    private static AccessLogIndex getIndex(String filename) throws IOException {
+        File file = FileServer.getFileServer().getResolvedFile(filename);
+        String key = file.getAbsolutePath();
+        AccessLogIndex current = INDEXES.get(key);
+        if (current != null && current.isStale(file)) {
+            INDEXES.remove(key, current);
+        }
+        try {
+            return INDEXES.computeIfAbsent(key, k -> {
+                try {
+                    return AccessLogIndex.build(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return requests of the current thread, those of the sessions assigned to it
+     */
+    private static int[] selectRequests(AccessLogIndex index) {
+        JMeterContext context = JMeterContextService.getContext();
+        AbstractThreadGroup threadGroup = context.getThreadGroup();
+        int threadCount = threadGroup == null ? 1 : Math.max(1, threadGroup.getNumThreads());
+        return index.getPartition(threadCount, Math.floorMod(context.getThreadNum(), threadCount));
+    }
+
+    /**
+     * Waits until the offset of request in the log, scaled by the speed,
+     * has elapsed since the start of the replay
+     */
+    private void waitForOffset(int request) {
+        if (SPEED <= 0) {
+            return;
+        }
+        long target = index.getReplayStartNanos() + loopOffsetNanos
+                + (long) (TimeUnit.MILLISECONDS.toNanos(index.getOffsetMillis(request)) / SPEED);
+        long delay = target - System.nanoTime();
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (FILENAME != null) {
+            INDEXES.remove(FileServer.getFileServer().getResolvedFile(FILENAME).getAbsolutePath());
+        }
+        index = null;
+        requests = null;
+        cursor = 0;
+        loopOffsetNanos = 0;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.protocol.http.sampler.HTTPSampleResult;
+import org.apache.jmeter.protocol.http.util.HTTPConstants;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link CacheManager} with the cache shared by all threads (cache_manager.shared=true)
+ */
+public class TestCacheManagerSharedCache extends JMeterTestCase {
+
+    private static class URLConnectionStub extends HttpURLConnection {
+
+        URLConnectionStub(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void connect() throws IOException {
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            if (HTTPConstants.CACHE_CONTROL.equals(name)) {
+                return "max-age=3600";
+            } else if (HTTPConstants.ETAG.equals(name)) {
+                return "0xCAFEBABEDEADBEEF";
+            }
+            return null;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+
+    private static void cache(CacheManager cacheManager, URL url) {
+        HTTPSampleResult result = new HTTPSampleResult();
+        result.setHTTPMethod(HTTPConstants.GET);
+        result.setResponseCode("200");
+        result.setRequestHeaders("");
+        cacheManager.saveDetails(new URLConnectionStub(url), result);
+    }
+
+    private static CacheManager newCacheManager() {
+        CacheManager cacheManager = new CacheManager(true);
+        cacheManager.setUseExpires(true);
+        cacheManager.testIterationStart(null);
+        return cacheManager;
+    }
+
+    @Test
+    public void testLookupsAreCounted() throws Exception {
+        URL url = new URL("http://localhost/shared/counted");
+        CacheManager cacheManager = newCacheManager();
+        long hits = CacheManager.getSharedCacheHitCount();
+        long misses = CacheManager.getSharedCacheMissCount();
+        assertFalse(cacheManager.inCache(url, new Header[0]), "Should not find entry");
+        assertEquals(misses + 1, CacheManager.getSharedCacheMissCount());
+        cache(cacheManager, url);
+        assertTrue(cacheManager.inCache(url, new Header[0]), "Should find entry");
+        assertEquals(hits + 1, CacheManager.getSharedCacheHitCount());
+    }
+
+    @Test
+    public void testUsersDoNotShareEntries() throws Exception {
+        URL url = new URL("http://localhost/shared/users");
+        CacheManager cacheManager = newCacheManager();
+        cache(cacheManager, url);
+        assertTrue(cacheManager.inCache(url, new Header[0]), "Should find entry");
+        assertTrue(cacheManager.createCacheManagerProxy().inCache(url, new Header[0]),
+                "Proxy should find entry of the cache manager it was created from");
+        assertFalse(newCacheManager().inCache(url, new Header[0]), "Other cache manager should not find entry");
+    }
+
+    @Test
+    public void testClearDropsEntries() throws Exception {
+        URL url = new URL("http://localhost/shared/clear");
+        CacheManager cacheManager = newCacheManager();
+        cache(cacheManager, url);
+        assertTrue(cacheManager.inCache(url, new Header[0]), "Should find entry");
+        cacheManager.clear();
+        assertFalse(cacheManager.inCache(url, new Header[0]), "Should not find entry after clear");
+    }
+}
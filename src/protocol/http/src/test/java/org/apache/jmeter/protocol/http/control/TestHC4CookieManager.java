@@ -30,12 +30,14 @@ import java.util.List;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.cookie.ClientCookie;
 import org.apache.http.impl.cookie.BasicClientCookie;
+import org.apache.jmeter.engine.util.ValueReplacer;
 import org.apache.jmeter.junit.JMeterTestCase;
 import org.apache.jmeter.protocol.http.sampler.HTTPNullSampler;
 import org.apache.jmeter.protocol.http.sampler.HTTPSamplerBase;
 import org.apache.jmeter.protocol.http.util.HTTPConstants;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -622,4 +624,53 @@ public class TestHC4CookieManager extends JMeterTestCase {
         assertTrue(man.get(num).getSecure());
         assertEquals(0, man.get(num).getExpires()); // Show that maxlong now saved as 0
     }
+
+    @Test
+    public void testCookieHeaderUpdatedAfterChange() throws Exception {
+        URL url = new URL("http://sso.example.com/app/index.html");
+        man.addCookieFromHeader("SESSION=1;path=/app", url);
+        assertEquals("SESSION=1", man.getCookieHeaderForURL(url));
+        // served from the header cache
+        assertEquals("SESSION=1", man.getCookieHeaderForURL(url));
+        man.addCookieFromHeader("SESSION=2;path=/app", url);
+        assertEquals("SESSION=2", man.getCookieHeaderForURL(url));
+        man.addCookieFromHeader("TOKEN=abc;domain=example.com;path=/", url);
+        assertEquals("SESSION=2; TOKEN=abc", man.getCookieHeaderForURL(url));
+        assertEquals("TOKEN=abc", man.getCookieHeaderForURL(new URL("http://www.example.com/")));
+        assertNull(man.getCookieHeaderForURL(new URL("http://www.example.org/app/")));
+    }
+
+    @Test
+    public void testSendVariableDomainCookie() throws Exception {
+        assertTrue(CookieManager.ALLOW_VARIABLE_COOKIES);
+        JMeterVariables vars = new JMeterVariables();
+        jmctx.setVariables(vars);
+        vars.put("host", "jakarta.apache.org");
+        Cookie c = new Cookie("id", "value", "${host}", "/", false, 9999999999L);
+        new ValueReplacer().replaceValues(c);
+        man.add(c);
+        URL url = new URL("http://jakarta.apache.org/index.html");
+        assertEquals("id=value", man.getCookieHeaderForURL(url));
+        // the header is not cached, as the domain depends on the variable
+        vars.put("host", "jmeter.apache.org");
+        assertNull(man.getCookieHeaderForURL(url));
+        assertEquals("id=value", man.getCookieHeaderForURL(new URL("http://jmeter.apache.org/index.html")));
+        assertEquals("${host}", man.get(0).getDomain());
+    }
+
+    @Test
+    public void testCookiesExportedInInsertionOrder() throws Exception {
+        URL url = new URL("http://a.b.c/");
+        man.addCookieFromHeader("first=1", url);
+        man.addCookieFromHeader("second=2", new URL("http://x.y.z/"));
+        man.addCookieFromHeader("first=3", url);
+        assertEquals(2, man.getCookieCount());
+        assertEquals("second", man.getCookies().get(0).getName());
+        assertEquals("first", man.get(1).getName());
+        assertEquals("3", man.get(1).getValue());
+        // cookies modified through the property are taken into account
+        man.getCookies().clear();
+        assertEquals(0, man.getCookieCount());
+        assertNull(man.getCookieHeaderForURL(url));
+    }
 }
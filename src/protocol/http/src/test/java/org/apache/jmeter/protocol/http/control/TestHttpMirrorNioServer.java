@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestHttpMirrorNioServer {
+
+    private static final int HTTP_SERVER_PORT = 8182;
+
+    private static HttpMirrorServer server;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        server = new HttpMirrorNioServer(HTTP_SERVER_PORT, 2, -1, 0);
+        server.start();
+        for (int i = 0; i < 50; i++) { // Wait up to 5 seconds
+            try (Socket socket = new Socket("localhost", HTTP_SERVER_PORT)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        throw new Exception("Could not start mirror server on port: " + HTTP_SERVER_PORT + ". " + server.getException());
+    }
+
+    @AfterAll
+    public static void stopServer() throws InterruptedException {
+        server.stopServer();
+        server.join(5000);
+    }
+
+    /**
+     * Reads one response, relying on its Content-Length
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        while (!head.toString("ISO-8859-1").endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed, read: " + head);
+            }
+            head.write(b);
+        }
+        String headers = head.toString("ISO-8859-1");
+        int start = headers.indexOf("Content-Length: ") + "Content-Length: ".length();
+        int length = Integer.parseInt(headers.substring(start, headers.indexOf("\r\n", start)));
+        byte[] body = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(body, read, length - read);
+            if (n < 0) {
+                throw new IOException("Connection closed");
+            }
+            read += n;
+        }
+        return headers + new String(body, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        String first = "GET /first HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        String second = "POST /second HTTP/1.1\r\nHost: localhost\r\nContent-Length: 4\r\n\r\nbody";
+        String third = "POST /third HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n2\r\nab\r\n0\r\n\r\n";
+        try (Socket socket = new Socket("localhost", HTTP_SERVER_PORT)) {
+            OutputStream out = socket.getOutputStream();
+            out.write((first + second + third).getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String response = readResponse(in);
+            assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"), response);
+            assertTrue(response.contains("Connection: keep-alive\r\n"), response);
+            assertTrue(response.endsWith(first), response);
+            assertTrue(readResponse(in).endsWith(second));
+            assertTrue(readResponse(in).endsWith(third));
+        }
+    }
+
+    @Test
+    public void testMirrorHeaders() throws Exception {
+        String request = "GET /?status=404%20Not%20Found HTTP/1.1\r\nHost: localhost\r\n"
+                + "X-SetHeaders: a: b|c: d\r\nX-SetCookie: name=value\r\nX-ResponseLength: 10\r\n"
+                + "X-Sleep: 50\r\nConnection: close\r\n\r\n";
+        try (Socket socket = new Socket("localhost", HTTP_SERVER_PORT)) {
+            OutputStream out = socket.getOutputStream();
+            long start = System.nanoTime();
+            out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String response = readResponse(in);
+            assertTrue(System.nanoTime() - start >= 50_000_000L, "Response should be delayed by X-Sleep");
+            assertTrue(response.startsWith("HTTP/1.1 404 Not Found\r\n"), response);
+            assertTrue(response.contains("\r\na: b\r\nc: d\r\n"), response);
+            assertTrue(response.contains("\r\nSet-Cookie: name=value\r\n"), response);
+            assertTrue(response.contains("\r\nConnection: close\r\n"), response);
+            assertTrue(response.endsWith("\r\n\r\n" + request.substring(0, 10)), response);
+            assertEquals(-1, in.read(), "Connection should be closed");
+        }
+    }
+}
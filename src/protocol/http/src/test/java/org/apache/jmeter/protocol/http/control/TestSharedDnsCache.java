@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.control;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestSharedDnsCache {
+
+    private final SharedDnsCache cache = SharedDnsCache.getInstance();
+
+    @AfterEach
+    public void tearDown() {
+        cache.clear();
+    }
+
+    @Test
+    public void testResolvedOnceWithinTtl() throws Exception {
+        InetAddress[] addresses = { InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 1 }) };
+        AtomicInteger loads = new AtomicInteger();
+        SharedDnsCache.Loader loader = host -> {
+            loads.incrementAndGet();
+            return new SharedDnsCache.Resolution(addresses, 60_000);
+        };
+        assertArrayEquals(addresses, cache.resolve("|example.com", "example.com", loader));
+        assertArrayEquals(addresses, cache.resolve("|example.com", "example.com", loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testNotCachedWithoutTtl() throws Exception {
+        InetAddress[] addresses = { InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 1 }) };
+        AtomicInteger loads = new AtomicInteger();
+        SharedDnsCache.Loader loader = host -> {
+            loads.incrementAndGet();
+            return new SharedDnsCache.Resolution(addresses, 0);
+        };
+        cache.resolve("|example.com", "example.com", loader);
+        cache.resolve("|example.com", "example.com", loader);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredEntryResolvedAgain() throws Exception {
+        InetAddress[] addresses = { InetAddress.getByAddress("example.com", new byte[] { 10, 0, 0, 1 }) };
+        AtomicInteger loads = new AtomicInteger();
+        SharedDnsCache.Loader loader = host -> {
+            loads.incrementAndGet();
+            return new SharedDnsCache.Resolution(addresses, 1);
+        };
+        cache.resolve("|example.com", "example.com", loader);
+        Thread.sleep(10);
+        cache.resolve("|example.com", "example.com", loader);
+        assertEquals(2, loads.get());
+    }
+}
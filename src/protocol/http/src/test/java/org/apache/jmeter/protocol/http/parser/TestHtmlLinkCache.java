@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.collections.IteratorUtils;
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.junit.Test;
+
+public class TestHtmlLinkCache extends JMeterTestCase {
+
+    /**
+     * Parser counting the pages it parses
+     */
+    public static class CountingParser extends HTMLParser {
+        private int parsed;
+
+        @Override
+        public Iterator<URL> getEmbeddedResourceURLs(String userAgent, byte[] html, URL baseUrl,
+                URLCollection coll, String encoding) throws HTMLParseException {
+            parsed++;
+            coll.addURL(new String(html, StandardCharsets.UTF_8), baseUrl);
+            return coll.iterator();
+        }
+    }
+
+    @Test
+    public void testIdenticalPagesParsedOnce() throws Exception {
+        CountingParser parser = new CountingParser();
+        URL base = new URL("http://example.com/page");
+        byte[] page = "/image-for-cache-test.png".getBytes(StandardCharsets.UTF_8);
+
+        List<?> first = IteratorUtils.toList(parser.getEmbeddedResourceURLs("Mozilla", page, base, "UTF-8"));
+        List<?> second = IteratorUtils.toList(parser.getEmbeddedResourceURLs("Mozilla", page.clone(), base, "UTF-8"));
+        assertEquals(1, parser.parsed);
+        assertEquals(first, second);
+        assertEquals(new URL("http://example.com/image-for-cache-test.png"), first.get(0));
+
+        parser.getEmbeddedResourceURLs("Mozilla",
+                "/other-image-for-cache-test.png".getBytes(StandardCharsets.UTF_8), base, "UTF-8");
+        assertEquals(2, parser.parsed);
+
+        parser.getEmbeddedResourceURLs("Mozilla", page, new URL("http://example.com/other/page"), "UTF-8");
+        assertEquals(3, parser.parsed);
+    }
+}
@@ -20,6 +20,9 @@ package org.apache.jmeter.protocol.http.sampler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
 
 import org.apache.jmeter.config.Argument;
 import org.apache.jmeter.config.Arguments;
@@ -364,4 +367,27 @@ public class TestHTTPSamplers {
         assertEquals("mime2", file.getMimeType());
     }
 
+    @Test
+    public void testRequestTemplateFollowsChanges() throws Exception {
+        HTTPSamplerBase config = new HTTPNullSampler();
+        config.setProtocol("http");
+        config.setMethod(HTTPConstants.GET);
+        config.addArgument("param1", "value 1");
+        config.addArgument("param2", "value2");
+        config.setPath("/index.html");
+        config.setDomain("192.168.0.1");
+        URL url = config.getUrl();
+        assertEquals("http://192.168.0.1/index.html?param1=value+1&param2=value2", url.toString());
+        assertSame(url, config.getUrl());
+
+        config.getArguments().getArgument(1).setValue("value 2");
+        assertEquals("http://192.168.0.1/index.html?param1=value+1&param2=value+2", config.getUrl().toString());
+
+        config.getArguments().removeArgument(0);
+        assertEquals("http://192.168.0.1/index.html?param2=value+2", config.getUrl().toString());
+
+        config.setDomain("192.168.0.2");
+        config.setPort(8080);
+        assertEquals("http://192.168.0.2:8080/index.html?param2=value+2", config.getUrl().toString());
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jmeter.protocol.http.sampler.ResourcesDownloader.AsynSamplerResultHolder;
+import org.junit.jupiter.api.Test;
+
+public class TestResourcesDownloader {
+
+    private static final class Task implements Callable<AsynSamplerResultHolder>, ResourcesDownloader.HostTask {
+        private final String host;
+        private final Map<String, AtomicInteger> running;
+        private final Map<String, AtomicInteger> maxRunning;
+        private final AtomicInteger totalRunning;
+        private final AtomicInteger maxTotalRunning;
+
+        Task(String host, Map<String, AtomicInteger> running, Map<String, AtomicInteger> maxRunning,
+                AtomicInteger totalRunning, AtomicInteger maxTotalRunning) {
+            this.host = host;
+            this.running = running;
+            this.maxRunning = maxRunning;
+            this.totalRunning = totalRunning;
+            this.maxTotalRunning = maxTotalRunning;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public AsynSamplerResultHolder call() throws Exception {
+            int onHost = running.computeIfAbsent(host, k -> new AtomicInteger()).incrementAndGet();
+            maxRunning.computeIfAbsent(host, k -> new AtomicInteger()).accumulateAndGet(onHost, Math::max);
+            maxTotalRunning.accumulateAndGet(totalRunning.incrementAndGet(), Math::max);
+            TimeUnit.MILLISECONDS.sleep(20);
+            totalRunning.decrementAndGet();
+            running.get(host).decrementAndGet();
+            return null;
+        }
+    }
+
+    @Test
+    public void testLimitedPerHost() throws Exception {
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxRunning = new ConcurrentHashMap<>();
+        AtomicInteger totalRunning = new AtomicInteger();
+        AtomicInteger maxTotalRunning = new AtomicInteger();
+        List<Callable<AsynSamplerResultHolder>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(new Task("a:80", running, maxRunning, totalRunning, maxTotalRunning));
+        }
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new Task("b:80", running, maxRunning, totalRunning, maxTotalRunning));
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CompletionService<AsynSamplerResultHolder> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<AsynSamplerResultHolder>> submitted = new ArrayList<>();
+            int remaining = ResourcesDownloader.submitLimitedPerHost(4, 2, tasks, completionService, submitted);
+            for (; remaining > 0; remaining--) {
+                completionService.take();
+            }
+            assertEquals(tasks.size(), submitted.size());
+            for (Future<AsynSamplerResultHolder> future : submitted) {
+                assertTrue(future.isDone());
+            }
+            assertTrue(maxRunning.get("a:80").get() <= 2, "Per host limit exceeded: " + maxRunning);
+            assertTrue(maxRunning.get("b:80").get() <= 2, "Per host limit exceeded: " + maxRunning);
+            assertTrue(maxTotalRunning.get() <= 4, "Concurrency limit exceeded: " + maxTotalRunning);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
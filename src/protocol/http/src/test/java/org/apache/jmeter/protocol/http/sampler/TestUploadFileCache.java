@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestUploadFileCache {
+
+    private static byte[] write(File file) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UploadFileCache.writeCachedTo(file, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSmallFileReloadedWhenModified(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("small.txt").toFile();
+        byte[] content = "first content".getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), content);
+        assertArrayEquals(content, write(file));
+        assertArrayEquals(content, write(file));
+
+        byte[] newContent = "second, longer content".getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), newContent);
+        assertArrayEquals(newContent, write(file));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS) // Mapped files can not be deleted
+    public void testLargeFileMapped(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("large.bin").toFile();
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        Files.write(file.toPath(), content);
+        assertArrayEquals(content, write(file));
+        assertArrayEquals(content, write(file));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.sampler.hc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.client.entity.InputStreamFactory;
+import org.apache.http.config.Lookup;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.message.BasicHeader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestLazyContentDecoder {
+    private static final Lookup<InputStreamFactory> REGISTRY =
+            RegistryBuilder.<InputStreamFactory>create()
+                    .register("gzip", in -> new LaxGZIPInputStream(in, false))
+                    .build();
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void testNoDecoderWithoutContentEncoding() {
+        Assertions.assertNull(LazyContentDecoder.forContentEncoding(null, REGISTRY));
+        Assertions.assertNull(LazyContentDecoder.forContentEncoding(
+                new BasicHeader("Content-Encoding", "identity"), REGISTRY));
+    }
+
+    @Test
+    public void testNoDecoderForUnsupportedCoding() {
+        Assertions.assertNull(LazyContentDecoder.forContentEncoding(
+                new BasicHeader("Content-Encoding", "gzip, compress"), REGISTRY));
+    }
+
+    @Test
+    public void testDecodeGzip() throws IOException {
+        byte[] expected = "Hello, 丈, 😃, and नि".getBytes(StandardCharsets.UTF_8);
+        LazyContentDecoder decoder = LazyContentDecoder.forContentEncoding(
+                new BasicHeader("Content-Encoding", "GZIP"), REGISTRY);
+        Assertions.assertNotNull(decoder);
+        Assertions.assertArrayEquals(expected, decoder.decode(gzip(expected)));
+    }
+
+    @Test
+    public void testDecodeChainedCodingsInReverseOrder() throws IOException {
+        byte[] expected = "compressed twice".getBytes(StandardCharsets.UTF_8);
+        LazyContentDecoder decoder = LazyContentDecoder.forContentEncoding(
+                new BasicHeader("Content-Encoding", "gzip, identity, gzip"), REGISTRY);
+        Assertions.assertNotNull(decoder);
+        Assertions.assertArrayEquals(expected, decoder.decode(gzip(gzip(expected))));
+    }
+}
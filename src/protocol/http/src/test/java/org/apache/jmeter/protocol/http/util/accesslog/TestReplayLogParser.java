@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.jmeter.protocol.http.util.accesslog;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+
+import org.apache.jmeter.junit.JMeterTestCase;
+import org.apache.jmeter.protocol.http.sampler.HTTPNullSampler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestReplayLogParser extends JMeterTestCase {
+
+    private static final String LINES =
+            "127.0.0.1 - - [08/Jan/2003:07:03:54 -0500] \"GET /addrbook/ HTTP/1.1\" 200 1981\n"
+            + "127.0.0.2 - - [08/Jan/2003:07:03:54 -0500] \"POST /addrbook/add HTTP/1.1\" 200 1981\r\n"
+            + "\n"
+            + "127.0.0.1 - - [08/Jan/2003:07:03:54 -0500] \"HEAD /addrbook/list?x=y HTTP/1.1\" 200 1981\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testParseTimestamp() {
+        ByteBuffer line = ByteBuffer.wrap(LINES.getBytes(StandardCharsets.US_ASCII));
+        long expected = OffsetDateTime.parse("2003-01-08T07:03:54-05:00").toInstant().toEpochMilli();
+        assertEquals(expected, AccessLogIndex.parseTimestamp(line, 0, 77));
+    }
+
+    @Test
+    public void testIndexSkipsEmptyLines() throws Exception {
+        File log = folder.newFile("access.log");
+        Files.write(log.toPath(), LINES.getBytes(StandardCharsets.US_ASCII));
+        AccessLogIndex index = AccessLogIndex.build(log);
+        assertEquals(3, index.size());
+        assertEquals("127.0.0.2 - - [08/Jan/2003:07:03:54 -0500] \"POST /addrbook/add HTTP/1.1\" 200 1981",
+                index.getLine(1));
+        assertEquals(0, index.getDurationMillis());
+        // Requests of a same client are in the same partition, in log order
+        int[] first = index.getPartition(2, Math.floorMod("127.0.0.1".hashCode(), 2));
+        assertEquals(0, first[0]);
+        assertEquals(2, first[first.length - 1]);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        File log = folder.newFile("replay.log");
+        Files.write(log.toPath(), LINES.getBytes(StandardCharsets.US_ASCII));
+        ReplayLogParser parser = new ReplayLogParser(log.getAbsolutePath());
+        try {
+            HTTPNullSampler sampler = new HTTPNullSampler();
+            assertEquals(1, parser.parseAndConfigure(1, sampler));
+            assertEquals("/addrbook/", sampler.getPath());
+            assertEquals(1, parser.parseAndConfigure(1, sampler));
+            assertEquals("POST", sampler.getMethod());
+            assertEquals(1, parser.parseAndConfigure(1, sampler));
+            assertEquals("/addrbook/list", sampler.getPath());
+            // Replays the log again
+            assertEquals(1, parser.parseAndConfigure(1, sampler));
+            assertEquals("/addrbook/", sampler.getPath());
+        } finally {
+            parser.close();
+        }
+    }
+}
@@ -66,7 +66,7 @@ public class JSR223Sampler extends JSR223TestElement implements Cloneable, Sampl
         result.sampleStart();
         try {
             ScriptEngine scriptEngine = getScriptEngine();
-            Bindings bindings = scriptEngine.createBindings();
+            Bindings bindings = getThreadBindings(scriptEngine);
             bindings.put("SampleResult",result);
             Object ret = processFileOrScript(scriptEngine, bindings);
             if (ret != null && (result.getResponseData() == null || result.getResponseData().length==0)){